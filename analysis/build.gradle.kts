@@ -0,0 +1,49 @@
+plugins {
+    application
+}
+
+// Ferramenta de linha de comando (JVM) para analisar em lote as sessões gravadas pelo app.
+// Reaproveita o modelo e a matemática GNSS do app, que não dependem do Android:
+// os mesmos fontes são compilados de novo aqui, sem cópia.
+val sharedSources = listOf(
+    "GnssConstellation",
+    "SatelliteSnapshot",
+    "GnssFix",
+    "SessionFormat",
+    "QuantileSketch",
+    "LocationStats",
+    "SignalAggregator",
+    "DopCalculator",
+    "TtffTracker",
+    "TtffSession",
+    "InterferenceDetector",
+)
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            // O filtro vale para os dois diretórios: as classes próprias começam com "Analysis"
+            include(sharedSources.map { "com/example/locationaws/$it.java" })
+            include("com/example/locationaws/Analysis*.java")
+        }
+    }
+}
+
+application {
+    mainClass.set("com.example.locationaws.AnalysisTool")
+    applicationDefaultJvmArgs = listOf("-Xmx2g")
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,254 @@
+package com.example.locationaws;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 📊 Classe AnalysisReport
+ *
+ * Resultado de um lote de sessões: os AnalysisResult de cada arquivo, o agregado da frota
+ * (quantis juntados com QuantileSketch.merge / LocationStats.merge, sem reler nada) e a
+ * vazão da análise. Escreve o resumo em CSV (uma linha por arquivo) ou JSON (arquivos,
+ * frota e vazão). Números em Locale.US; NaN vira campo vazio no CSV e null no JSON.
+ */
+public final class AnalysisReport {
+
+    final List<AnalysisResult> results;
+    final int threads;
+    final long elapsedNanos;
+
+    // Agregado da frota (só arquivos sem erro)
+    int ok, failed;
+    long bytes, statusRecords, fixRecords;
+    double durationSeconds, coveredSeconds;
+    long gaps, jammingAlerts, spoofingAlerts, truncated;
+    final QuantileSketch ttffSeconds = new QuantileSketch(0.01, 3600);
+    final QuantileSketch pdop = AnalysisResult.newDopSketch();
+    final QuantileSketch hdop = AnalysisResult.newDopSketch();
+    final LocationStats location = new LocationStats();
+
+    public AnalysisReport(List<AnalysisResult> results, int threads, long elapsedNanos) {
+        this.results = results;
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        for (AnalysisResult r : results) {
+            bytes += r.bytes;
+            if (!r.isOk()) {
+                failed++;
+                continue;
+            }
+            ok++;
+            statusRecords += r.statusRecords;
+            fixRecords += r.fixRecords;
+            double duration = r.getDurationSeconds();
+            durationSeconds += duration;
+            if (!Double.isNaN(r.getAvailability())) coveredSeconds += r.getAvailability() * duration;
+            if (r.ttffMillis >= 0) ttffSeconds.add(Math.max(0.01, r.ttffMillis / 1000.0));
+            gaps += r.gaps;
+            jammingAlerts += r.jammingAlerts;
+            spoofingAlerts += r.spoofingAlerts;
+            if (r.truncated) truncated++;
+            pdop.merge(r.pdop);
+            hdop.merge(r.hdop);
+            location.merge(r.location);
+        }
+    }
+
+    // ---------- LEITURA ----------
+
+    public List<AnalysisResult> getResults() { return results; }
+    public int getOk() { return ok; }
+    public int getFailed() { return failed; }
+    public long getBytes() { return bytes; }
+
+    /** Disponibilidade da frota, ponderada pela duração de cada sessão */
+    public double getAvailability() {
+        return durationSeconds > 0 ? coveredSeconds / durationSeconds : Double.NaN;
+    }
+
+    public LocationStats.Quantiles getTtffSeconds() { return new LocationStats.Quantiles(ttffSeconds); }
+    public LocationStats.Quantiles getPdop() { return new LocationStats.Quantiles(pdop); }
+    public LocationStats.Quantiles getHdop() { return new LocationStats.Quantiles(hdop); }
+    public LocationStats.Quantiles getAccuracy() { return location.getSummary().accuracy; }
+
+    public long getAnomalies() {
+        return gaps + jammingAlerts + spoofingAlerts + truncated;
+    }
+
+    public double getSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    public double getFilesPerSecond() {
+        return elapsedNanos > 0 ? results.size() / getSeconds() : Double.NaN;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos > 0 ? bytes / 1e6 / getSeconds() : Double.NaN;
+    }
+
+    /**
+     * Resumo para o terminal
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%d arquivos (%d com erro), %.1f MB em %.2f s com %d threads: %.1f arquivos/s, %.1f MB/s%n",
+                results.size(), failed, bytes / 1e6, getSeconds(), threads, getFilesPerSecond(), getMegabytesPerSecond()));
+        sb.append(String.format(Locale.US, "%.1f h de sessão, %d status, %d fixes, disponibilidade %.1f%%%n",
+                durationSeconds / 3600, statusRecords, fixRecords, getAvailability() * 100));
+        sb.append("TTFF p50/p90/p99 (s): ").append(getTtffSeconds().format(1)).append('\n');
+        sb.append("PDOP p50/p90/p99:     ").append(getPdop().format(2)).append('\n');
+        sb.append("HDOP p50/p90/p99:     ").append(getHdop().format(2)).append('\n');
+        sb.append("Precisão p50/p90/p99 (m): ").append(getAccuracy().format(1)).append('\n');
+        sb.append(String.format(Locale.US, "Anomalias: %d (interferência %d, spoofing %d, lacunas %d, truncados %d)%n",
+                getAnomalies(), jammingAlerts, spoofingAlerts, gaps, truncated));
+        return sb.toString();
+    }
+
+    // ---------- CSV ----------
+
+    static final String[] COLUMNS = {
+            "file", "bytes", "error", "start_ms", "duration_s", "status_records", "fix_records",
+            "ttff_ms", "satellites_seen", "satellites_used", "availability",
+            "pdop_p50", "pdop_p90", "hdop_p50", "hdop_p90",
+            "accuracy_p50", "accuracy_p90", "accuracy_p99",
+            "jamming_alerts", "spoofing_alerts", "gaps", "truncated", "anomalies"
+    };
+
+    public void writeCsv(Writer out) throws IOException {
+        out.write(String.join(",", COLUMNS));
+        out.write('\n');
+        StringBuilder sb = new StringBuilder(256);
+        for (AnalysisResult r : results) {
+            sb.setLength(0);
+            sb.append(csvText(r.file)).append(',').append(r.bytes).append(',')
+                    .append(r.error == null ? "" : csvText(r.error)).append(',');
+            if (r.isOk()) {
+                LocationStats.Quantiles accuracy = r.getLocation().accuracy;
+                sb.append(r.startWallMillis).append(',');
+                csvNumber(sb, r.getDurationSeconds()).append(',');
+                sb.append(r.statusRecords).append(',').append(r.fixRecords).append(',')
+                        .append(r.ttffMillis).append(',')
+                        .append(r.satellitesSeen).append(',').append(r.satellitesUsed).append(',');
+                csvNumber(sb, r.getAvailability()).append(',');
+                csvNumber(sb, quantile(r.pdop, 0.50)).append(',');
+                csvNumber(sb, quantile(r.pdop, 0.90)).append(',');
+                csvNumber(sb, quantile(r.hdop, 0.50)).append(',');
+                csvNumber(sb, quantile(r.hdop, 0.90)).append(',');
+                csvNumber(sb, accuracy.count > 0 ? accuracy.p50 : Double.NaN).append(',');
+                csvNumber(sb, accuracy.count > 0 ? accuracy.p90 : Double.NaN).append(',');
+                csvNumber(sb, accuracy.count > 0 ? accuracy.p99 : Double.NaN).append(',');
+                sb.append(r.jammingAlerts).append(',').append(r.spoofingAlerts).append(',')
+                        .append(r.gaps).append(',').append(r.truncated).append(',').append(r.getAnomalies());
+            } else {
+                for (int i = 4; i < COLUMNS.length; i++) sb.append(',');
+            }
+            sb.append('\n');
+            out.append(sb);
+        }
+    }
+
+    // ---------- JSON ----------
+
+    public void writeJson(Writer out) throws IOException {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("{\"throughput\":{\"files\":").append(results.size())
+                .append(",\"threads\":").append(threads)
+                .append(",\"bytes\":").append(bytes)
+                .append(",\"seconds\":");
+        jsonNumber(sb, getSeconds()).append(",\"files_per_second\":");
+        jsonNumber(sb, getFilesPerSecond()).append(",\"mb_per_second\":");
+        jsonNumber(sb, getMegabytesPerSecond()).append("},\n");
+
+        sb.append("\"fleet\":{\"ok\":").append(ok).append(",\"failed\":").append(failed)
+                .append(",\"status_records\":").append(statusRecords)
+                .append(",\"fix_records\":").append(fixRecords)
+                .append(",\"duration_s\":");
+        jsonNumber(sb, durationSeconds).append(",\"availability\":");
+        jsonNumber(sb, getAvailability()).append(",\"ttff_s\":");
+        jsonQuantiles(sb, getTtffSeconds()).append(",\"pdop\":");
+        jsonQuantiles(sb, getPdop()).append(",\"hdop\":");
+        jsonQuantiles(sb, getHdop()).append(",\"accuracy_m\":");
+        jsonQuantiles(sb, getAccuracy()).append(",\"anomalies\":{\"jamming\":").append(jammingAlerts)
+                .append(",\"spoofing\":").append(spoofingAlerts)
+                .append(",\"gaps\":").append(gaps)
+                .append(",\"truncated\":").append(truncated).append("}},\n");
+        out.append(sb);
+
+        out.write("\"files\":[");
+        for (int k = 0; k < results.size(); k++) {
+            AnalysisResult r = results.get(k);
+            sb.setLength(0);
+            if (k > 0) sb.append(',');
+            sb.append("\n{\"file\":");
+            jsonText(sb, r.file).append(",\"bytes\":").append(r.bytes);
+            if (!r.isOk()) {
+                sb.append(",\"error\":");
+                jsonText(sb, r.error).append('}');
+                out.append(sb);
+                continue;
+            }
+            sb.append(",\"start_ms\":").append(r.startWallMillis).append(",\"duration_s\":");
+            jsonNumber(sb, r.getDurationSeconds()).append(",\"status_records\":").append(r.statusRecords)
+                    .append(",\"fix_records\":").append(r.fixRecords)
+                    .append(",\"ttff_ms\":").append(r.ttffMillis)
+                    .append(",\"satellites_seen\":").append(r.satellitesSeen)
+                    .append(",\"satellites_used\":").append(r.satellitesUsed)
+                    .append(",\"availability\":");
+            jsonNumber(sb, r.getAvailability()).append(",\"pdop\":");
+            jsonQuantiles(sb, new LocationStats.Quantiles(r.pdop)).append(",\"hdop\":");
+            jsonQuantiles(sb, new LocationStats.Quantiles(r.hdop)).append(",\"accuracy_m\":");
+            jsonQuantiles(sb, r.getLocation().accuracy).append(",\"anomalies\":{\"jamming\":").append(r.jammingAlerts)
+                    .append(",\"spoofing\":").append(r.spoofingAlerts)
+                    .append(",\"gaps\":").append(r.gaps)
+                    .append(",\"truncated\":").append(r.truncated).append("}}");
+            out.append(sb);
+        }
+        out.write("\n]}\n");
+    }
+
+    // ---------- AUXILIARES ----------
+
+    private static double quantile(QuantileSketch s, double q) {
+        return s.getCount() == 0 ? Double.NaN : s.quantile(q);
+    }
+
+    private static StringBuilder csvNumber(StringBuilder sb, double v) {
+        if (!Double.isNaN(v) && !Double.isInfinite(v)) sb.append(String.format(Locale.US, "%.4f", v));
+        return sb;
+    }
+
+    // Entre aspas só quando precisa (vírgula, aspas ou quebra de linha)
+    private static String csvText(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    // JSON não tem NaN/infinito: vira null
+    private static StringBuilder jsonNumber(StringBuilder sb, double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) return sb.append("null");
+        return sb.append(String.format(Locale.US, "%.4f", v));
+    }
+
+    private static StringBuilder jsonQuantiles(StringBuilder sb, LocationStats.Quantiles q) {
+        if (q.count == 0) return sb.append("null");
+        sb.append("{\"count\":").append(q.count).append(",\"p50\":");
+        jsonNumber(sb, q.p50).append(",\"p90\":");
+        jsonNumber(sb, q.p90).append(",\"p99\":");
+        jsonNumber(sb, q.p99).append(",\"max\":");
+        return jsonNumber(sb, q.max).append('}');
+    }
+
+    private static StringBuilder jsonText(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format(Locale.US, "\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.locationaws;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 🔬 Classe AnalysisResult
+ *
+ * Análise de um arquivo de sessão (SessionFormat), lido por memória mapeada em janelas
+ * de MAP_WINDOW bytes (sessões maiores que 2 GB também funcionam). Os registros são
+ * decodificados para dentro de um SatelliteSnapshot e de um GnssFix reutilizáveis e
+ * passam pelas mesmas classes do app:
+ *
+ *  → TTFF: TtffTracker, do primeiro registro ao primeiro fix com posição
+ *  → Disponibilidade: fração da sessão coberta por fixes (cada fix vale até FIX_VALID_NANOS)
+ *  → DOP: DopCalculator a cada status com solução (PDOP e HDOP em QuantileSketch)
+ *  → Precisão: LocationStats (p50/p90/p99 da precisão horizontal)
+ *  → Anomalias: alertas do InterferenceDetector, lacunas entre fixes maiores que GAP_NANOS
+ *    e último registro incompleto (app encerrado no meio da escrita)
+ *
+ * Só fixes GNSS (GnssFix.isGnssSource) entram no TTFF, na disponibilidade, nas lacunas,
+ * na precisão e na interferência; FUSED e navegação estimada só contam como registros.
+ * Um arquivo inválido não interrompe o lote: o erro fica em getError().
+ * Cada instância é preenchida por uma única thread e só lida depois de pronta.
+ */
+public final class AnalysisResult {
+
+    static final int MAP_WINDOW = 256 * 1024 * 1024;
+    static final long FIX_VALID_NANOS = 2_000_000_000L;
+    static final long GAP_NANOS = 5_000_000_000L;
+
+    final String file;
+    long bytes;
+    String error;
+
+    long startWallMillis;
+    long firstNanos = -1, lastNanos = -1;
+    int statusRecords, fixRecords;
+    boolean truncated;
+
+    int ttffMillis = -1;
+    int satellitesSeen, satellitesUsed;
+    long coveredNanos;
+    int gaps, jammingAlerts, spoofingAlerts;
+
+    final QuantileSketch pdop = newDopSketch();
+    final QuantileSketch hdop = newDopSketch();
+    final LocationStats location = new LocationStats();
+
+    // Estado da leitura (descartado em finish())
+    private SatelliteSnapshot snapshot = new SatelliteSnapshot(64);
+    private GnssFix fix = new GnssFix();
+    private DopCalculator dop = new DopCalculator();
+    private TtffTracker ttff = new TtffTracker("análise");
+    private InterferenceDetector interference = new InterferenceDetector();
+    private long lastFixNanos = -1;
+
+    AnalysisResult(String file) {
+        this.file = file;
+        interference.addListener((alert, active, detail) -> {
+            if (!active) return;
+            if (alert == InterferenceDetector.ALERT_JAMMING) jammingAlerts++;
+            else if (alert == InterferenceDetector.ALERT_SPOOFING) spoofingAlerts++;
+        });
+    }
+
+    /**
+     * Analisa um arquivo de sessão. Erros de leitura ou de formato ficam no resultado.
+     */
+    public static AnalysisResult analyze(Path path) {
+        return analyze(path, MAP_WINDOW);
+    }
+
+    static AnalysisResult analyze(Path path, int window) {
+        AnalysisResult r = new AnalysisResult(path.toString());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            r.bytes = size;
+            long offset = 0;
+            boolean header = true;
+            while (true) {
+                long length = Math.min(window, size - offset);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                if (header) {
+                    r.startWallMillis = SessionFormat.readHeader(buffer);
+                    header = false;
+                }
+                r.read(buffer);
+                if (offset + length == size) break;
+                // Janela cheia: o registro que ficou pela metade abre a próxima
+                if (buffer.position() == 0) throw new IOException("Registro maior que a janela na posição " + offset);
+                offset += buffer.position();
+            }
+        } catch (IOException | RuntimeException e) {
+            r.error = e.getMessage() != null ? e.getMessage() : e.toString();
+        }
+        r.finish();
+        return r;
+    }
+
+    // ---------- LEITURA ----------
+
+    /**
+     * Lê registros até o fim do buffer (ou até um registro incompleto, que fica por ler)
+     */
+    void read(ByteBuffer in) throws IOException {
+        int type;
+        while ((type = SessionFormat.readRecord(in, snapshot, fix)) != SessionFormat.END) {
+            if (type == SessionFormat.TYPE_STATUS) onStatus(snapshot);
+            else onFix(fix);
+        }
+        truncated = in.hasRemaining();
+    }
+
+    private void onRecord(long nanos) {
+        if (firstNanos < 0) {
+            firstNanos = nanos;
+            ttff.start(nanos, startWallMillis);
+        }
+        if (nanos > lastNanos) lastNanos = nanos;
+    }
+
+    private void onStatus(SatelliteSnapshot s) {
+        onRecord(s.elapsedRealtimeNanos);
+        statusRecords++;
+        ttff.onStatus(s);
+        interference.onStatus(s);
+        dop.compute(s);
+        if (dop.isSolvable(DopCalculator.ALL)) {
+            pdop.add(dop.getPdop());
+            hdop.add(dop.getHdop());
+        }
+    }
+
+    private void onFix(GnssFix f) {
+        onRecord(f.elapsedRealtimeNanos);
+        fixRecords++;
+        if (!f.hasPosition() || !GnssFix.isGnssSource(f.source)) return;
+        long t = f.elapsedRealtimeNanos;
+        ttff.onFirstFix(t, -1);
+        interference.onFix(f);
+        location.onFix(f, f.satellitesUsed);
+        if (lastFixNanos >= 0 && t > lastFixNanos) {
+            coveredNanos += Math.min(t - lastFixNanos, FIX_VALID_NANOS);
+            if (t - lastFixNanos > GAP_NANOS) gaps++;
+        }
+        if (t > lastFixNanos) lastFixNanos = t;
+    }
+
+    private void finish() {
+        if (firstNanos >= 0) {
+            TtffSession session = ttff.finish(lastNanos);
+            ttffMillis = session.getTtffMillis();
+            satellitesSeen = session.getSatellitesSeen();
+            satellitesUsed = session.getSatellitesUsed();
+        }
+        if (lastFixNanos >= 0) coveredNanos += Math.min(lastNanos - lastFixNanos, FIX_VALID_NANOS);
+        snapshot = null;
+        fix = null;
+        dop = null;
+        ttff = null;
+        interference = null;
+    }
+
+    static QuantileSketch newDopSketch() {
+        return new QuantileSketch(0.1, 100);
+    }
+
+    // ---------- RESULTADO ----------
+
+    public String getFile() { return file; }
+    public long getBytes() { return bytes; }
+    public boolean isOk() { return error == null; }
+    public String getError() { return error; }
+    public long getStartWallMillis() { return startWallMillis; }
+    public int getStatusRecords() { return statusRecords; }
+    public int getFixRecords() { return fixRecords; }
+    public boolean isTruncated() { return truncated; }
+    /** TTFF (ms desde o primeiro registro), ou -1 se a sessão não teve fix */
+    public int getTtffMillis() { return ttffMillis; }
+    public int getSatellitesSeen() { return satellitesSeen; }
+    public int getSatellitesUsed() { return satellitesUsed; }
+    public int getGaps() { return gaps; }
+    public int getJammingAlerts() { return jammingAlerts; }
+    public int getSpoofingAlerts() { return spoofingAlerts; }
+    public LocationStats.Summary getLocation() { return location.getSummary(); }
+
+    public double getDurationSeconds() {
+        return firstNanos < 0 ? 0 : (lastNanos - firstNanos) / 1e9;
+    }
+
+    /** Fração da sessão com fix (0..1), ou NaN se a sessão não tem duração */
+    public double getAvailability() {
+        long duration = lastNanos - firstNanos;
+        return firstNanos < 0 || duration <= 0 ? Double.NaN : Math.min(1, (double) coveredNanos / duration);
+    }
+
+    /** Total de anomalias: alertas de interferência, lacunas e arquivo truncado */
+    public int getAnomalies() {
+        return jammingAlerts + spoofingAlerts + gaps + (truncated ? 1 : 0);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.locationaws;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 🧮 Classe AnalysisTool
+ *
+ * Linha de comando para analisar em lote as sessões gravadas pelo app (SessionRecorder):
+ *
+ *   ./gradlew :analysis:run --args="[--threads N] [--csv saida.csv] [--json saida.json] sessões..."
+ *
+ * Cada argumento é um arquivo ou um diretório (percorrido atrás de *.gnss). Os arquivos são
+ * divididos ao meio recursivamente num ForkJoinPool até sobrar um por tarefa: o roubo de
+ * trabalho equilibra sessões de tamanhos muito diferentes e o lote usa todos os núcleos
+ * (--threads, padrão = processadores disponíveis). Cada arquivo é lido por memória mapeada
+ * e analisado por AnalysisResult numa única thread; o agregado sai no AnalysisReport.
+ *
+ * Imprime o resumo da frota e a vazão (arquivos/s, MB/s). Código de saída 1 se algum
+ * arquivo falhou, 2 para argumentos inválidos.
+ */
+public final class AnalysisTool {
+
+    static final String EXTENSION = ".gnss";
+
+    private AnalysisTool() {
+    }
+
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path csv = null, json = null;
+        List<Path> inputs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        if (threads < 1) throw new IllegalArgumentException("--threads precisa ser ≥ 1");
+                        break;
+                    case "--csv":
+                        csv = Paths.get(args[++i]);
+                        break;
+                    case "--json":
+                        json = Paths.get(args[++i]);
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                        inputs.add(Paths.get(args[i]));
+                }
+            }
+            if (inputs.isEmpty()) throw new IllegalArgumentException("Nenhuma sessão informada");
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Falta o valor de " + args[args.length - 1] : e.getMessage());
+            System.err.println("Uso: analysis [--threads N] [--csv saida.csv] [--json saida.json] arquivos-ou-diretórios...");
+            System.exit(2);
+            return;
+        }
+
+        try {
+            List<Path> files = findSessions(inputs);
+            AnalysisReport report = analyze(files, threads);
+            System.out.print(report.format());
+            if (csv != null) {
+                try (Writer out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                    report.writeCsv(out);
+                }
+            }
+            if (json != null) {
+                try (Writer out = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+                    report.writeJson(out);
+                }
+            }
+            if (report.getFailed() > 0) {
+                for (AnalysisResult r : report.getResults()) {
+                    if (!r.isOk()) System.err.println(r.getFile() + ": " + r.getError());
+                }
+                System.exit(1);
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    // ---------- ANÁLISE ----------
+
+    /**
+     * Analisa os arquivos em paralelo. O resultado segue a ordem de `files`.
+     */
+    public static AnalysisReport analyze(List<Path> files, int threads) {
+        AnalysisResult[] results = new AnalysisResult[files.size()];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            pool.invoke(new AnalyzeTask(files, results, 0, results.length));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new AnalysisReport(Arrays.asList(results), threads, elapsed);
+    }
+
+    // Metade dos arquivos para cada subtarefa, até um arquivo por tarefa
+    private static final class AnalyzeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+        private final AnalysisResult[] results;
+        private final int from, to;
+
+        AnalyzeTask(List<Path> files, AnalysisResult[] results, int from, int to) {
+            this.files = files;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) results[from] = AnalysisResult.analyze(files.get(from));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AnalyzeTask(files, results, from, mid), new AnalyzeTask(files, results, mid, to));
+        }
+    }
+
+    // ---------- ARQUIVOS ----------
+
+    /**
+     * Arquivos informados e, nos diretórios, todos os *.gnss (recursivo), em ordem de caminho
+     */
+    static List<Path> findSessions(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path p : inputs) {
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> walk = Files.walk(p)) {
+                    files.addAll(walk.filter(f -> Files.isRegularFile(f) && f.getFileName().toString().endsWith(EXTENSION))
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+            } else if (Files.isRegularFile(p)) {
+                files.add(p);
+            } else {
+                throw new IOException("Não encontrado: " + p);
+            }
+        }
+        return files;
+    }
+}
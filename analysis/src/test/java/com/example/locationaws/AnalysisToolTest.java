@@ -0,0 +1,202 @@
+package com.example.locationaws;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class AnalysisToolTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long START_WALL = 1_700_000_000_000L;
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("analysis");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /**
+     * Sessão de `seconds` s a 1 Hz: 8 satélites GPS espalhados no céu, primeiro fix em
+     * ttffSeconds (+100 ms), sem fixes em [gapFrom, gapFrom + gapSeconds) e C/N0 15 dB
+     * abaixo do normal em [jamFrom, jamFrom + 10) (jamFrom < 0 = sem interferência)
+     */
+    private Path session(String name, int seconds, int ttffSeconds, int gapFrom, int gapSeconds, int jamFrom)
+            throws IOException {
+        return session(name, seconds, ttffSeconds, gapFrom, gapSeconds, jamFrom, GnssFix.SOURCE_GPS);
+    }
+
+    private Path session(String name, int seconds, int ttffSeconds, int gapFrom, int gapSeconds, int jamFrom,
+                         int source) throws IOException {
+        Path file = dir.resolve(name);
+        SatelliteSnapshot s = new SatelliteSnapshot(8);
+        GnssFix f = new GnssFix();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            SessionFormat.writeHeader(out, START_WALL);
+            for (int k = 0; k < seconds; k++) {
+                boolean fix = k >= ttffSeconds && (k < gapFrom || k >= gapFrom + gapSeconds);
+                boolean jammed = jamFrom >= 0 && k >= jamFrom && k < jamFrom + 10;
+                s.clear();
+                for (int i = 0; i < 8; i++) {
+                    float cn0 = 38 + i - (jammed ? 15 : 0);
+                    s.add(GnssConstellation.GPS, i + 1, i * 45, 15 + i * 8, cn0, GnssConstellation.L1_HZ, k >= ttffSeconds);
+                }
+                s.elapsedRealtimeNanos = k * SECOND;
+                SessionFormat.writeStatus(out, s);
+                if (!fix) continue;
+                f.reset();
+                f.source = source;
+                f.elapsedRealtimeNanos = k * SECOND + SECOND / 10;
+                f.timeMillis = START_WALL + k * 1000L + 100;
+                f.latitude = -23.55;
+                f.longitude = -46.63;
+                f.accuracy = 3 + k % 5;
+                f.satellitesUsed = 8;
+                SessionFormat.writeFix(out, f);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void analyzesOneSession() throws IOException {
+        Path file = session("a.gnss", 300, 30, 100, 60, 200);
+        AnalysisResult r = AnalysisResult.analyze(file);
+
+        assertTrue(r.getError(), r.isOk());
+        assertEquals(START_WALL, r.getStartWallMillis());
+        assertEquals(300, r.getStatusRecords());
+        assertEquals(210, r.getFixRecords());
+        assertEquals(30_100, r.getTtffMillis());
+        assertEquals(8, r.getSatellitesUsed());
+        assertEquals(299.1, r.getDurationSeconds(), 1e-9);
+        // 69 s antes da lacuna, 2 s de validade do último fix antes dela, 139 s depois
+        assertEquals(210 / 299.1, r.getAvailability(), 1e-6);
+        assertEquals(1, r.getGaps());
+        assertEquals(1, r.getJammingAlerts());
+        assertEquals(0, r.getSpoofingAlerts());
+        assertFalse(r.isTruncated());
+        assertEquals(2, r.getAnomalies());
+
+        assertEquals(210, r.getLocation().accuracy.count);
+        assertEquals(5, r.getLocation().accuracy.p50, 0.1);
+        assertTrue(r.pdop.getCount() == 270 && r.pdop.quantile(0.5) > 1 && r.pdop.quantile(0.5) < 10);
+        assertTrue(r.hdop.quantile(0.5) <= r.pdop.quantile(0.5));
+    }
+
+    @Test
+    public void onlyGnssFixesCount() throws IOException {
+        Path file = session("fused.gnss", 300, 30, 100, 60, -1, GnssFix.SOURCE_FUSED);
+        AnalysisResult r = AnalysisResult.analyze(file);
+
+        assertTrue(r.getError(), r.isOk());
+        assertEquals(210, r.getFixRecords());
+        assertEquals(-1, r.getTtffMillis());
+        assertEquals(0, r.getAvailability(), 0);
+        assertEquals(0, r.getGaps());
+        assertEquals(0, r.getLocation().accuracy.count);
+    }
+
+    @Test
+    public void readsAcrossMappingWindows() throws IOException {
+        Path file = session("a.gnss", 300, 30, 100, 60, 200);
+        AnalysisResult whole = AnalysisResult.analyze(file);
+        // Janela de 1000 bytes: quase todo registro de status cruza uma fronteira
+        AnalysisResult windowed = AnalysisResult.analyze(file, 1000);
+
+        assertTrue(windowed.getError(), windowed.isOk());
+        assertEquals(whole.getStatusRecords(), windowed.getStatusRecords());
+        assertEquals(whole.getFixRecords(), windowed.getFixRecords());
+        assertEquals(whole.getAvailability(), windowed.getAvailability(), 0);
+        assertEquals(whole.getJammingAlerts(), windowed.getJammingAlerts());
+        assertFalse(windowed.isTruncated());
+    }
+
+    @Test
+    public void badFilesDoNotStopTheBatch() throws IOException {
+        Path good = session("1.gnss", 120, 10, 1000, 0, -1);
+        byte[] bytes = Files.readAllBytes(good);
+        Files.write(dir.resolve("2.gnss"), Arrays.copyOf(bytes, bytes.length - 7)); // fix cortado no meio
+        Files.write(dir.resolve("3.gnss"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15});
+        Files.write(dir.resolve("notas.txt"), new byte[]{'x'});
+
+        List<Path> files = AnalysisTool.findSessions(Collections.singletonList(dir));
+        assertEquals(3, files.size());
+        AnalysisReport report = AnalysisTool.analyze(files, 2);
+
+        assertEquals(2, report.getOk());
+        assertEquals(1, report.getFailed());
+        List<AnalysisResult> results = report.getResults();
+        assertTrue(results.get(0).isOk());
+        assertFalse(results.get(0).isTruncated());
+        assertTrue(results.get(1).isTruncated());
+        assertEquals(results.get(0).getFixRecords() - 1, results.get(1).getFixRecords());
+        assertEquals("Arquivo de sessão inválido", results.get(2).getError());
+        assertEquals(1, report.getAnomalies());
+
+        StringWriter csv = new StringWriter();
+        report.writeCsv(csv);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(4, lines.length);
+        for (String line : lines) assertEquals(AnalysisReport.COLUMNS.length, line.split(",", -1).length);
+        assertTrue(lines[3].contains("Arquivo de sessão inválido"));
+
+        StringWriter json = new StringWriter();
+        report.writeJson(json);
+        assertTrue(json.toString().contains("\"ok\":2,\"failed\":1"));
+        assertTrue(json.toString().contains("\"error\":\"Arquivo de sessão inválido\""));
+    }
+
+    /**
+     * Lote de sessões de 10 min com 1 thread e com todos os núcleos: mesmo resultado,
+     * vazão impressa em arquivos/s
+     */
+    @Test
+    public void parallelBatchMatchesSequential() throws IOException {
+        for (int i = 0; i < 64; i++) {
+            session(String.format("s%02d.gnss", i), 600, 20 + i % 30, 300, i % 4 * 5, i % 8 == 0 ? 400 : -1);
+        }
+        List<Path> files = AnalysisTool.findSessions(Collections.singletonList(dir));
+        AnalysisTool.analyze(files, 1); // aquecimento
+
+        AnalysisReport one = AnalysisTool.analyze(files, 1);
+        int cores = Runtime.getRuntime().availableProcessors();
+        AnalysisReport all = AnalysisTool.analyze(files, cores);
+        System.out.printf("[análise] 64 sessões: 1 thread %.0f arquivos/s, %d threads %.0f arquivos/s%n",
+                one.getFilesPerSecond(), cores, all.getFilesPerSecond());
+
+        assertEquals(64, all.getOk());
+        assertEquals(one.getAvailability(), all.getAvailability(), 1e-12);
+        assertEquals(one.getAnomalies(), all.getAnomalies());
+        assertEquals(8, all.jammingAlerts);
+        assertEquals(48, all.gaps); // lacunas de 5, 10 e 15 s (sem fix por 6 s ou mais), 16 de cada
+        assertEquals(one.getTtffSeconds().p50, all.getTtffSeconds().p50, 0);
+        assertEquals(one.getAccuracy().p90, all.getAccuracy().p90, 0);
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(one.getResults().get(i).getFile(), all.getResults().get(i).getFile());
+            assertEquals(one.getResults().get(i).getTtffMillis(), all.getResults().get(i).getTtffMillis());
+        }
+        assertTrue(all.getFilesPerSecond() > 0);
+    }
+}
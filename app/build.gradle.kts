@@ -29,6 +29,17 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        unitTests {
+            // Robolectric precisa dos recursos (drawables das bandeiras) nos testes JVM
+            isIncludeAndroidResources = true
+            all {
+                // ./gradlew test -Pgolden.record=true regrava as imagens de referência
+                it.systemProperty("golden.record", project.findProperty("golden.record") ?: "false")
+                it.maxHeapSize = "2g"
+            }
+        }
+    }
 }
 
 dependencies {
@@ -40,6 +51,7 @@ dependencies {
     implementation(libs.play.services.location)
     implementation(libs.firebase.inappmessaging)
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     implementation("com.google.android.gms:play-services-location:21.0.1")
@@ -0,0 +1,259 @@
+package com.example.locationaws;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 📖 Classe Almanac
+ *
+ * Almanaque de satélites (elementos keplerianos de baixa precisão) lido de arquivos
+ * YUMA ou SEM, no mesmo formato publicado para o GPS (e usado também por outras
+ * constelações com órbitas MEO/IGSO, como Galileo, BeiDou e QZSS).
+ *
+ * Guardado em arrays paralelos (um índice por satélite), como o SatelliteSnapshot.
+ * Ângulos em radianos, semana no formato do arquivo (normalmente módulo 1024:
+ * a semana completa é resolvida pelo VisibilityPlanner, perto da data planejada).
+ *
+ * Não depende do Android.
+ */
+public final class Almanac {
+
+    // Fator semicírculos → radianos (SEM usa semicírculos)
+    private static final double SEMICIRCLE = Math.PI;
+
+    // Inclinação de referência do SEM: i = 0,3 semicírculos + δi
+    private static final double SEM_REFERENCE_INCLINATION = 0.3 * SEMICIRCLE;
+
+    int count;
+
+    int[] constellation;    // GnssConstellation
+    int[] svid;             // PRN
+    int[] health;           // 0 = saudável
+    int[] week;             // Semana do almanaque (como está no arquivo)
+    double[] toa;           // Tempo de aplicabilidade (s da semana)
+    double[] eccentricity;
+    double[] inclination;   // rad
+    double[] omegaDot;      // Taxa de ascensão reta (rad/s)
+    double[] sqrtA;         // √semieixo maior (m^½)
+    double[] omega0;        // Ascensão reta na semana (rad)
+    double[] perigee;       // Argumento do perigeu (rad)
+    double[] meanAnomaly;   // Anomalia média em toa (rad)
+
+    public Almanac() {
+        this(32);
+    }
+
+    public Almanac(int capacity) {
+        int c = Math.max(1, capacity);
+        constellation = new int[c];
+        svid = new int[c];
+        health = new int[c];
+        week = new int[c];
+        toa = new double[c];
+        eccentricity = new double[c];
+        inclination = new double[c];
+        omegaDot = new double[c];
+        sqrtA = new double[c];
+        omega0 = new double[c];
+        perigee = new double[c];
+        meanAnomaly = new double[c];
+    }
+
+    // ---------- ACESSO ----------
+
+    public int size() { return count; }
+    public int getConstellation(int i) { return constellation[i]; }
+    public int getSvid(int i) { return svid[i]; }
+    public boolean isHealthy(int i) { return health[i] == 0; }
+    public int getWeek(int i) { return week[i]; }
+    public double getToa(int i) { return toa[i]; }
+
+    /**
+     * Acrescenta um satélite e retorna seu índice
+     */
+    public int add(int constellationType, int prn, int healthCode, int almanacWeek, double toaSeconds,
+                   double e, double i0, double rateOfRightAscension, double sqrtSemiMajorAxis,
+                   double rightAscension, double argumentOfPerigee, double m0) {
+        ensureCapacity(count + 1);
+        int i = count++;
+        constellation[i] = constellationType;
+        svid[i] = prn;
+        health[i] = healthCode;
+        week[i] = almanacWeek;
+        toa[i] = toaSeconds;
+        eccentricity[i] = e;
+        inclination[i] = i0;
+        omegaDot[i] = rateOfRightAscension;
+        sqrtA[i] = sqrtSemiMajorAxis;
+        omega0[i] = rightAscension;
+        perigee[i] = argumentOfPerigee;
+        meanAnomaly[i] = m0;
+        return i;
+    }
+
+    /**
+     * Junta os satélites de outro almanaque (ex.: um arquivo por constelação)
+     */
+    public void addAll(Almanac o) {
+        for (int i = 0; i < o.count; i++) {
+            add(o.constellation[i], o.svid[i], o.health[i], o.week[i], o.toa[i], o.eccentricity[i],
+                    o.inclination[i], o.omegaDot[i], o.sqrtA[i], o.omega0[i], o.perigee[i], o.meanAnomaly[i]);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= svid.length) return;
+        int c = Math.max(capacity, svid.length * 2);
+        constellation = Arrays.copyOf(constellation, c);
+        svid = Arrays.copyOf(svid, c);
+        health = Arrays.copyOf(health, c);
+        week = Arrays.copyOf(week, c);
+        toa = Arrays.copyOf(toa, c);
+        eccentricity = Arrays.copyOf(eccentricity, c);
+        inclination = Arrays.copyOf(inclination, c);
+        omegaDot = Arrays.copyOf(omegaDot, c);
+        sqrtA = Arrays.copyOf(sqrtA, c);
+        omega0 = Arrays.copyOf(omega0, c);
+        perigee = Arrays.copyOf(perigee, c);
+        meanAnomaly = Arrays.copyOf(meanAnomaly, c);
+    }
+
+    // ---------- LEITURA ----------
+
+    /**
+     * Lê um arquivo YUMA ou SEM (detectado pelo conteúdo). A constelação é deduzida
+     * do nome do arquivo (ex.: "galileo.alm", "bds_yuma.txt"); sem pista, GPS.
+     */
+    public static Almanac load(File file) throws IOException {
+        String text = readAll(new FileReader(file));
+        int c = guessConstellation(file.getName());
+        return text.contains("ID:") ? parseYuma(text, c) : parseSem(text, c);
+    }
+
+    /**
+     * Constelação a partir do nome do arquivo (GPS quando não há pista)
+     */
+    public static int guessConstellation(String fileName) {
+        String n = fileName.toLowerCase(Locale.ROOT);
+        if (n.contains("gal")) return GnssConstellation.GALILEO;
+        if (n.contains("bds") || n.contains("beidou") || n.contains("bdu")) return GnssConstellation.BEIDOU;
+        if (n.contains("qzs")) return GnssConstellation.QZSS;
+        return GnssConstellation.GPS;
+    }
+
+    public static Almanac parseYuma(Reader reader, int constellationType) throws IOException {
+        return parseYuma(readAll(reader), constellationType);
+    }
+
+    public static Almanac parseSem(Reader reader, int constellationType) throws IOException {
+        return parseSem(readAll(reader), constellationType);
+    }
+
+    /**
+     * YUMA: blocos de linhas "Campo: valor", um bloco por satélite, começando em "ID:"
+     */
+    static Almanac parseYuma(String text, int constellationType) throws IOException {
+        Almanac a = new Almanac();
+        double[] v = new double[13];
+        int filled = 0;
+        int lineNumber = 0;
+
+        for (String line : text.split("\r?\n")) {
+            lineNumber++;
+            int colon = line.indexOf(':');
+            if (colon < 0) continue;
+            String key = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+
+            int field = yumaField(key);
+            if (field < 0) continue;
+            if (field == 0 && filled != 0) {
+                throw new IOException("Bloco YUMA incompleto antes da linha " + lineNumber);
+            }
+            try {
+                v[field] = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IOException("Valor inválido na linha " + lineNumber + ": " + value);
+            }
+            filled |= 1 << field;
+
+            if (filled == (1 << 13) - 1) {
+                a.add(constellationType, (int) v[0], (int) v[1], (int) v[12], v[3], v[2], v[4], v[5],
+                        v[6], v[7], v[8], v[9]);
+                filled = 0;
+            }
+        }
+        if (filled != 0) throw new IOException("Bloco YUMA incompleto no fim do arquivo");
+        return a;
+    }
+
+    // Posição de cada campo YUMA no vetor de valores (ou -1 se ignorado)
+    private static int yumaField(String key) {
+        if (key.equals("id")) return 0;
+        if (key.startsWith("health")) return 1;
+        if (key.startsWith("eccentricity")) return 2;
+        if (key.startsWith("time of applicability")) return 3;
+        if (key.startsWith("orbital inclination")) return 4;
+        if (key.startsWith("rate of right ascen")) return 5;
+        if (key.startsWith("sqrt(a)")) return 6;
+        if (key.startsWith("right ascen at week")) return 7;
+        if (key.startsWith("argument of perigee")) return 8;
+        if (key.startsWith("mean anom")) return 9;
+        if (key.startsWith("af0")) return 10;
+        if (key.startsWith("af1")) return 11;
+        if (key.equals("week")) return 12;
+        return -1;
+    }
+
+    /**
+     * SEM: "quantidade nome", "semana toa" e, por satélite, 14 números
+     * (PRN, SVN, URA, e, δi, Ω̇, √A, Ω0, ω, M0, af0, af1, saúde, configuração),
+     * com ângulos em semicírculos
+     */
+    static Almanac parseSem(String text, int constellationType) throws IOException {
+        String[] lines = text.split("\r?\n");
+        if (lines.length < 2) throw new IOException("Arquivo SEM vazio");
+
+        List<String> tokens = new ArrayList<>();
+        for (int l = 1; l < lines.length; l++) {
+            for (String t : lines[l].trim().split("\\s+")) if (!t.isEmpty()) tokens.add(t);
+        }
+
+        try {
+            int n = Integer.parseInt(lines[0].trim().split("\\s+")[0]);
+            if (tokens.size() < 2 + 14 * n) throw new IOException("Arquivo SEM incompleto: esperados " + n + " satélites");
+            int week = Integer.parseInt(tokens.get(0));
+            double toa = Double.parseDouble(tokens.get(1));
+
+            Almanac a = new Almanac(n);
+            int p = 2;
+            for (int s = 0; s < n; s++, p += 14) {
+                double[] v = new double[14];
+                for (int k = 0; k < 14; k++) v[k] = Double.parseDouble(tokens.get(p + k));
+                a.add(constellationType, (int) v[0], (int) v[12], week, toa, v[3],
+                        SEM_REFERENCE_INCLINATION + v[4] * SEMICIRCLE, v[5] * SEMICIRCLE, v[6],
+                        v[7] * SEMICIRCLE, v[8] * SEMICIRCLE, v[9] * SEMICIRCLE);
+            }
+            return a;
+        } catch (NumberFormatException e) {
+            throw new IOException("Número inválido no arquivo SEM: " + e.getMessage());
+        }
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        try (BufferedReader in = new BufferedReader(reader)) {
+            char[] buf = new char[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) sb.append(buf, 0, n);
+        }
+        return sb.toString();
+    }
+}
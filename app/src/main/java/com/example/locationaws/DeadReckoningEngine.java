@@ -0,0 +1,165 @@
+package com.example.locationaws;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🧭 Classe DeadReckoningEngine
+ *
+ * Posição em alta taxa entre os fixes GNSS (1 Hz) a partir dos sensores inerciais.
+ *
+ *  → thread "dr-sensors": recebe acelerômetro, giroscópio e vetor de rotação (100 Hz)
+ *    e só copia cada amostra para um SensorRing (sem alocar)
+ *  → thread "dead-reckoning": a cada 20 ms esvazia o ring no DeadReckoningFilter e
+ *    publica a estimativa em estimateStream(); cada fix do GnssHub reinicia o filtro
+ *
+ * Os sensores e as threads só existem enquanto estimateStream() tiver inscritos,
+ * como as inscrições da plataforma no GnssHub. Cada período com inscritos é uma Session
+ * com ring e filtro próprios: stop() só sinaliza as threads e retorna, e a sessão seguinte
+ * começa do zero mesmo que a anterior ainda esteja terminando o último tick.
+ */
+public final class DeadReckoningEngine {
+
+    private static final int SENSOR_PERIOD_US = 10_000; // 100 Hz por sensor
+    private static final long OUTPUT_PERIOD_MS = 20;    // 50 Hz de estimativas
+    private static final int RING_CAPACITY = 1024;      // ~3 s das três fontes
+
+    private final SensorManager sensorManager;
+    private final GnssHub hub;
+
+    private final GnssStream<GnssFix> estimates = new GnssStream<>(this::updateRunning);
+
+    // Enquanto houver inscritos
+    private Session session;
+    private long droppedSamples; // De sessões encerradas
+
+    DeadReckoningEngine(Context appContext, GnssHub hub) {
+        this.sensorManager = (SensorManager) appContext.getSystemService(Context.SENSOR_SERVICE);
+        this.hub = hub;
+    }
+
+    /**
+     * Estimativas (GnssFix.SOURCE_DEAD_RECKONING) a 50 Hz, a partir do primeiro fix GNSS
+     */
+    public GnssStream<GnssFix> estimateStream() {
+        return estimates;
+    }
+
+    /** Amostras perdidas porque a thread de fusão ficou para trás */
+    public synchronized long getDroppedSamples() {
+        return droppedSamples + (session != null ? session.ring.getDropped() : 0);
+    }
+
+    public boolean isAvailable() {
+        return sensorManager != null
+                && sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER) != null
+                && sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR) != null;
+    }
+
+    // ---------- CICLO DE VIDA ----------
+
+    private synchronized void updateRunning() {
+        boolean want = estimates.getSubscriberCount() > 0 && isAvailable();
+        if (want && session == null) {
+            session = new Session();
+        } else if (!want && session != null) {
+            session.stop();
+            droppedSamples += session.ring.getDropped();
+            session = null;
+        }
+    }
+
+    /**
+     * Sensores, threads, ring e filtro de um período com inscritos. As duas threads só usam
+     * o estado da própria sessão, então stop() não precisa esperar por elas.
+     */
+    private final class Session implements SensorEventListener {
+
+        final SensorRing ring = new SensorRing(RING_CAPACITY);
+        // Só usado na thread de fusão desta sessão
+        private final DeadReckoningFilter filter = new DeadReckoningFilter();
+        private final HandlerThread sensorThread = new HandlerThread("dr-sensors");
+        private final ScheduledExecutorService fusion =
+                Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "dead-reckoning"));
+        private final GnssStream<GnssFix>.Subscription fixSubscription;
+
+        Session() {
+            fixSubscription = hub.fixStream().subscribe(this::onFix, GnssStream.Policy.buffered(8), fusion);
+            fusion.scheduleAtFixedRate(this::tick, OUTPUT_PERIOD_MS, OUTPUT_PERIOD_MS, TimeUnit.MILLISECONDS);
+
+            sensorThread.start();
+            Handler handler = new Handler(sensorThread.getLooper());
+            register(Sensor.TYPE_ACCELEROMETER, handler);
+            register(Sensor.TYPE_GYROSCOPE, handler);
+            register(Sensor.TYPE_ROTATION_VECTOR, handler);
+        }
+
+        /**
+         * Sinaliza as threads e retorna: o tick em andamento (se houver) termina sozinho
+         * e o ring e o filtro vão junto com a sessão
+         */
+        void stop() {
+            sensorManager.unregisterListener(this);
+            sensorThread.quitSafely();
+            fixSubscription.cancel();
+            fusion.shutdown();
+        }
+
+        private void register(int type, Handler handler) {
+            Sensor sensor = sensorManager.getDefaultSensor(type);
+            if (sensor != null) sensorManager.registerListener(this, sensor, SENSOR_PERIOD_US, handler);
+        }
+
+        // ---------- THREAD DOS SENSORES ----------
+
+        @Override
+        public void onSensorChanged(SensorEvent event) {
+            float[] v = event.values;
+            switch (event.sensor.getType()) {
+                case Sensor.TYPE_ACCELEROMETER:
+                    ring.offer(SensorRing.TYPE_ACCELEROMETER, event.timestamp, v[0], v[1], v[2], 0f);
+                    break;
+                case Sensor.TYPE_GYROSCOPE:
+                    ring.offer(SensorRing.TYPE_GYROSCOPE, event.timestamp, v[0], v[1], v[2], 0f);
+                    break;
+                case Sensor.TYPE_ROTATION_VECTOR:
+                    ring.offer(SensorRing.TYPE_ROTATION_VECTOR, event.timestamp, v[0], v[1], v[2],
+                            v.length > 3 ? v[3] : Float.NaN);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void onAccuracyChanged(Sensor sensor, int accuracy) {
+        }
+
+        // ---------- THREAD DE FUSÃO ----------
+
+        private void onFix(GnssFix fix) {
+            // Amostras anteriores ao fix entram primeiro; as posteriores são reaplicadas pelo filtro
+            ring.drain(filter);
+            filter.onFix(fix);
+        }
+
+        private void tick() {
+            ring.drain(filter);
+            if (!filter.hasFix()) return;
+            GnssFix estimate = new GnssFix();
+            filter.estimate(SystemClock.elapsedRealtimeNanos(), estimate);
+            estimate.timeMillis = System.currentTimeMillis();
+            estimates.publish(estimate);
+        }
+    }
+}
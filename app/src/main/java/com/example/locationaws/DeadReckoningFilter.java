@@ -0,0 +1,303 @@
+package com.example.locationaws;
+
+/**
+ * 🧭 Classe DeadReckoningFilter
+ *
+ * Navegação estimada entre fixes GNSS para veículos, a partir de acelerômetro,
+ * giroscópio e vetor de rotação. Modelo não-holonômico: o veículo anda para onde aponta.
+ *
+ *  → rumo do aparelho: integra o giroscópio (girado para o referencial do mundo) e
+ *    é puxado devagar para o azimute do vetor de rotação (filtro complementar)
+ *  → rumo do veículo = rumo do aparelho + desvio de montagem, aprendido nos fixes
+ *    em movimento (rumo GNSS − rumo do aparelho)
+ *  → velocidade: integra a aceleração horizontal projetada no rumo do veículo;
+ *    a centrípeta (perpendicular) não entra
+ *  → posição: integra velocidade × rumo, em metros leste/norte a partir do último fix
+ *
+ * A cada fix o estado volta para o instante do fix (posição e velocidade do GNSS) e
+ * as amostras posteriores, guardadas num histórico circular pré-alocado, são reaplicadas:
+ * o atraso de entrega do fix não vira erro de posição.
+ *
+ * Nenhuma alocação por amostra. Não é thread-safe: use sempre da thread de fusão.
+ * Não depende do Android.
+ */
+public final class DeadReckoningFilter implements SensorRing.SampleHandler {
+
+    private static final double METERS_PER_DEGREE = 111_195.08;
+
+    // Ganho do filtro complementar (por amostra do vetor de rotação) com e sem giroscópio
+    private static final double ROTATION_GAIN_WITH_GYRO = 0.02;
+    // Ganho do desvio de montagem a cada fix em movimento
+    private static final double MOUNT_GAIN = 0.3;
+    // Abaixo disso o rumo do GNSS é ruído
+    private static final float MIN_COURSE_SPEED = 3f;      // m/s
+    private static final double MAX_SPEED = 90;            // m/s
+    private static final long MAX_DT_NANOS = 100_000_000L; // lacunas maiores não são integradas
+    private static final long GYRO_TIMEOUT_NANOS = 500_000_000L;
+    // Crescimento da incerteza sem fix (m/s), somado à precisão do último fix
+    private static final double UNCERTAINTY_GROWTH = 1.0;
+
+    // ---------- HISTÓRICO (amostras já aplicadas, para reaplicar depois de um fix) ----------
+
+    private final int mask;
+    private final byte[] hType;
+    private final long[] hTime;
+    private final float[] hx, hy, hz, hw;
+    private final double[] hYaw; // rumo do aparelho logo depois de cada amostra
+    private long hCount;         // total de amostras gravadas (o índice é hCount & mask)
+
+    // ---------- ESTADO ----------
+
+    private boolean hasFix;
+    private double originLat, originLon, metersPerDegreeLon;
+    private float fixAccuracy;
+    private long fixTime;
+
+    private long stateTime;
+    private double east, north;  // m desde o último fix
+    private double speed;        // m/s
+    private double yawDevice;    // rad, horário a partir do norte
+    private boolean hasYaw;
+    private double mountOffset;  // rad, rumo do veículo − rumo do aparelho
+    private boolean hasMountOffset;
+
+    // Atitude (vetor de rotação) e última amostra de cada sensor
+    private float qx, qy, qz, qw = 1;
+    private boolean hasRotation;
+    private long lastGyroTime = Long.MIN_VALUE;
+    private long lastAccelTime = Long.MIN_VALUE;
+
+    public DeadReckoningFilter() {
+        this(4096);
+    }
+
+    /**
+     * @param historySize amostras guardadas para reaplicar (≥ atraso do fix × taxa total dos sensores)
+     */
+    public DeadReckoningFilter(int historySize) {
+        int n = Integer.highestOneBit(Math.max(2, historySize - 1)) << 1;
+        mask = n - 1;
+        hType = new byte[n];
+        hTime = new long[n];
+        hx = new float[n];
+        hy = new float[n];
+        hz = new float[n];
+        hw = new float[n];
+        hYaw = new double[n];
+    }
+
+    // ---------- ENTRADA ----------
+
+    @Override
+    public void onSample(int type, long t, float x, float y, float z, float w) {
+        int i = (int) hCount & mask;
+        hType[i] = (byte) type;
+        hTime[i] = t;
+        hx[i] = x;
+        hy[i] = y;
+        hz[i] = z;
+        hw[i] = w;
+        hCount++;
+        apply(i);
+    }
+
+    /**
+     * Novo fix: volta o estado para o instante do fix e reaplica as amostras posteriores
+     */
+    public void onFix(GnssFix fix) {
+        if (!fix.hasPosition()) return;
+        long t = fix.getElapsedRealtimeNanos();
+
+        // Primeira amostra do histórico posterior ao fix
+        long oldest = Math.max(0, hCount - mask - 1);
+        long first = hCount;
+        while (first > oldest && hTime[(int) (first - 1) & mask] > t) first--;
+
+        // Estado dos sensores no instante do fix (o que veio antes de first)
+        if (first > oldest) {
+            yawDevice = hYaw[(int) (first - 1) & mask];
+            restoreSensors(oldest, first);
+        }
+
+        originLat = fix.getLatitude();
+        originLon = fix.getLongitude();
+        metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(originLat));
+        fixAccuracy = Float.isNaN(fix.getAccuracy()) ? 10f : fix.getAccuracy();
+        fixTime = t;
+        east = north = 0;
+        if (!Float.isNaN(fix.getSpeed())) speed = fix.getSpeed();
+
+        // Em movimento, o rumo GNSS calibra o desvio de montagem
+        if (!Float.isNaN(fix.getBearing()) && !Float.isNaN(fix.getSpeed()) && fix.getSpeed() >= MIN_COURSE_SPEED) {
+            double bearing = Math.toRadians(fix.getBearing());
+            if (!hasYaw) {
+                yawDevice = bearing;
+                hasYaw = true;
+            }
+            double target = wrap(bearing - yawDevice);
+            mountOffset = hasMountOffset ? wrap(mountOffset + MOUNT_GAIN * wrap(target - mountOffset)) : target;
+            hasMountOffset = true;
+        }
+        hasFix = true;
+        stateTime = t;
+
+        // Reaplica o que chegou depois do fix
+        for (long k = first; k < hCount; k++) apply((int) k & mask);
+    }
+
+    // ---------- SAÍDA ----------
+
+    public boolean hasFix() {
+        return hasFix;
+    }
+
+    /**
+     * Posição estimada no instante t (sem alterar o estado): extrapola do último estado
+     */
+    public void estimate(long t, GnssFix out) {
+        double dt = Math.max(0, t - stateTime) / 1e9;
+        double heading = vehicleHeading();
+        double e = east + speed * Math.sin(heading) * dt;
+        double n = north + speed * Math.cos(heading) * dt;
+        out.reset();
+        out.source = GnssFix.SOURCE_DEAD_RECKONING;
+        out.elapsedRealtimeNanos = t;
+        out.latitude = originLat + n / METERS_PER_DEGREE;
+        out.longitude = originLon + e / metersPerDegreeLon;
+        out.speed = (float) speed;
+        out.bearing = (float) ((Math.toDegrees(heading) + 360) % 360);
+        out.accuracy = (float) (fixAccuracy + UNCERTAINTY_GROWTH * Math.max(0, t - fixTime) / 1e9);
+    }
+
+    public double getHeadingDegrees() {
+        return (Math.toDegrees(vehicleHeading()) + 360) % 360;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    // ---------- INTEGRAÇÃO ----------
+
+    private void apply(int i) {
+        long t = hTime[i];
+        float x = hx[i], y = hy[i], z = hz[i];
+        advance(t);
+        switch (hType[i]) {
+            case SensorRing.TYPE_ROTATION_VECTOR: {
+                setRotation(x, y, z, hw[i]);
+                double yaw = azimuth();
+                if (!hasYaw) {
+                    yawDevice = yaw;
+                    hasYaw = true;
+                } else {
+                    boolean gyroAlive = lastGyroTime != Long.MIN_VALUE && t - lastGyroTime < GYRO_TIMEOUT_NANOS;
+                    double gain = gyroAlive ? ROTATION_GAIN_WITH_GYRO : 1;
+                    yawDevice = wrap(yawDevice + gain * wrap(yaw - yawDevice));
+                }
+                break;
+            }
+            case SensorRing.TYPE_GYROSCOPE: {
+                if (lastGyroTime != Long.MIN_VALUE && hasRotation) {
+                    long dt = t - lastGyroTime;
+                    if (dt > 0 && dt < MAX_DT_NANOS) {
+                        // Componente "para cima" da rotação no mundo; rumo horário = rotação negativa
+                        double up = worldZ(x, y, z);
+                        yawDevice = wrap(yawDevice - up * dt / 1e9);
+                    }
+                }
+                lastGyroTime = t;
+                break;
+            }
+            case SensorRing.TYPE_ACCELEROMETER: {
+                if (lastAccelTime != Long.MIN_VALUE && hasRotation && hasMountOffset) {
+                    long dt = t - lastAccelTime;
+                    if (dt > 0 && dt < MAX_DT_NANOS) {
+                        double heading = vehicleHeading();
+                        double forward = worldX(x, y, z) * Math.sin(heading) + worldY(x, y, z) * Math.cos(heading);
+                        speed = Math.max(0, Math.min(MAX_SPEED, speed + forward * dt / 1e9));
+                    }
+                }
+                lastAccelTime = t;
+                break;
+            }
+            default:
+                break;
+        }
+        hYaw[i] = yawDevice;
+    }
+
+    // Integra a posição até t com a velocidade e o rumo atuais
+    private void advance(long t) {
+        if (!hasFix || t <= stateTime) return;
+        double dt = (t - stateTime) / 1e9;
+        double heading = vehicleHeading();
+        east += speed * Math.sin(heading) * dt;
+        north += speed * Math.cos(heading) * dt;
+        stateTime = t;
+    }
+
+    // Última atitude e últimos tempos de giroscópio/acelerômetro entre oldest e first
+    private void restoreSensors(long oldest, long first) {
+        lastGyroTime = lastAccelTime = Long.MIN_VALUE;
+        boolean rotation = false;
+        for (long k = first - 1; k >= oldest; k--) {
+            int i = (int) k & mask;
+            int type = hType[i];
+            if (type == SensorRing.TYPE_GYROSCOPE && lastGyroTime == Long.MIN_VALUE) {
+                lastGyroTime = hTime[i];
+            } else if (type == SensorRing.TYPE_ACCELEROMETER && lastAccelTime == Long.MIN_VALUE) {
+                lastAccelTime = hTime[i];
+            } else if (type == SensorRing.TYPE_ROTATION_VECTOR && !rotation) {
+                setRotation(hx[i], hy[i], hz[i], hw[i]);
+                rotation = true;
+            }
+            if (rotation && lastGyroTime != Long.MIN_VALUE && lastAccelTime != Long.MIN_VALUE) break;
+        }
+    }
+
+    private double vehicleHeading() {
+        return wrap(yawDevice + mountOffset);
+    }
+
+    // ---------- ATITUDE ----------
+
+    private void setRotation(float x, float y, float z, float w) {
+        if (Float.isNaN(w)) {
+            // Alguns aparelhos só entregam x, y, z (w implícito)
+            float s = 1 - x * x - y * y - z * z;
+            w = s > 0 ? (float) Math.sqrt(s) : 0;
+        }
+        qx = x;
+        qy = y;
+        qz = z;
+        qw = w;
+        hasRotation = true;
+    }
+
+    // Linhas da matriz de rotação aparelho → mundo (mesma de SensorManager.getRotationMatrixFromVector)
+    private double worldX(double x, double y, double z) {
+        return (1 - 2 * qy * qy - 2 * qz * qz) * x + (2 * qx * qy - 2 * qz * qw) * y + (2 * qx * qz + 2 * qy * qw) * z;
+    }
+
+    private double worldY(double x, double y, double z) {
+        return (2 * qx * qy + 2 * qz * qw) * x + (1 - 2 * qx * qx - 2 * qz * qz) * y + (2 * qy * qz - 2 * qx * qw) * z;
+    }
+
+    private double worldZ(double x, double y, double z) {
+        return (2 * qx * qz - 2 * qy * qw) * x + (2 * qy * qz + 2 * qx * qw) * y + (1 - 2 * qx * qx - 2 * qy * qy) * z;
+    }
+
+    // Azimute do eixo y do aparelho (igual a SensorManager.getOrientation)[0]
+    private double azimuth() {
+        double r01 = 2 * qx * qy - 2 * qz * qw;
+        double r11 = 1 - 2 * qx * qx - 2 * qz * qz;
+        return Math.atan2(r01, r11);
+    }
+
+    private static double wrap(double a) {
+        while (a > Math.PI) a -= 2 * Math.PI;
+        while (a < -Math.PI) a += 2 * Math.PI;
+        return a;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 📐 Classe DopCalculator
+ *
+ * Diluição de precisão (GDOP/PDOP/HDOP/VDOP/TDOP) calculada a partir da geometria
+ * do céu: azimute e elevação dos satélites usados no fix.
+ *
+ * Cada satélite contribui com uma linha da matriz de geometria
+ *   H_i = [ -cos(el)·sin(az), -cos(el)·cos(az), -sin(el), 1 ]   (Leste, Norte, Cima, relógio)
+ * mas a matriz H nunca é montada: a matriz normal HᵀH (4×4 simétrica, 10 termos)
+ * é acumulada linha a linha, numa única passada pelo snapshot, para o conjunto
+ * total e para cada constelação ao mesmo tempo. Depois cada HᵀH é invertida por
+ * Cholesky e só a diagonal da inversa é usada.
+ *
+ * Cada satélite entra uma vez só: em aparelhos de dupla frequência o snapshot traz o
+ * mesmo satélite uma vez por banda (L1 e L5...), e linhas repetidas deixariam os DOPs
+ * otimistas. compute(SatelliteSnapshot) agrupa por (constelação, svid) com um
+ * SignalAggregator antes; quem já agrupou chama compute(SignalAggregator).
+ *
+ * Todo o armazenamento é pré-alocado: compute() não aloca (o agrupador só cresce
+ * quando o céu passa da maior quantidade de sinais já vista).
+ * Com menos de 4 satélites (ou geometria degenerada) os valores ficam NaN.
+ *
+ * Não depende do Android. Não é thread-safe: cada thread usa a sua instância
+ * (ou sincroniza por fora).
+ */
+public final class DopCalculator {
+
+    // Índice do conjunto "todas as constelações" nos arrays de resultado
+    public static final int ALL = GnssConstellation.COUNT;
+
+    private static final int GROUPS = GnssConstellation.COUNT + 1;
+
+    // Termos de HᵀH por grupo: ee, en, eu, et, nn, nu, nt, uu, ut, tt
+    private static final int TERMS = 10;
+
+    private final double[] normal = new double[GROUPS * TERMS];
+    private final int[] used = new int[GROUPS];
+
+    // Fator de Cholesky e sua inversa (4×4, linha a linha)
+    private final double[] l = new double[16];
+    private final double[] m = new double[16];
+
+    // ---------- RESULTADOS (por grupo) ----------
+
+    private final float[] gdop = new float[GROUPS];
+    private final float[] pdop = new float[GROUPS];
+    private final float[] hdop = new float[GROUPS];
+    private final float[] vdop = new float[GROUPS];
+    private final float[] tdop = new float[GROUPS];
+
+    // Sinais agrupados por satélite (compute(SatelliteSnapshot))
+    private final SignalAggregator satellites = new SignalAggregator();
+
+    public DopCalculator() {
+        clearResults();
+    }
+
+    // ---------- CÁLCULO ----------
+
+    /**
+     * Recalcula os DOPs com os satélites usados no fix do snapshot (um por satélite,
+     * qualquer que seja o número de bandas)
+     */
+    public void compute(SatelliteSnapshot s) {
+        satellites.aggregate(s);
+        compute(satellites);
+    }
+
+    /**
+     * Recalcula os DOPs com os satélites já agrupados (usado = alguma banda usada no fix)
+     */
+    public void compute(SignalAggregator s) {
+        Arrays.fill(normal, 0d);
+        Arrays.fill(used, 0);
+
+        int n = s.count;
+        for (int i = 0; i < n; i++) {
+            if (!s.usedInFix[i]) continue;
+            int c = s.constellation[i];
+            if (c < 0 || c >= GnssConstellation.COUNT) c = GnssConstellation.UNKNOWN;
+
+            double el = Math.toRadians(s.elevation[i]);
+            double az = Math.toRadians(s.azimuth[i]);
+            double cosEl = Math.cos(el);
+            double e = -cosEl * Math.sin(az);
+            double no = -cosEl * Math.cos(az);
+            double u = -Math.sin(el);
+
+            accumulate(c * TERMS, e, no, u);
+            accumulate(ALL * TERMS, e, no, u);
+            used[c]++;
+            used[ALL]++;
+        }
+
+        for (int g = 0; g < GROUPS; g++) solve(g);
+    }
+
+    // Soma a contribuição de uma linha [e, n, u, 1] ao HᵀH do grupo
+    private void accumulate(int o, double e, double no, double u) {
+        double[] a = normal;
+        a[o]     += e * e;
+        a[o + 1] += e * no;
+        a[o + 2] += e * u;
+        a[o + 3] += e;
+        a[o + 4] += no * no;
+        a[o + 5] += no * u;
+        a[o + 6] += no;
+        a[o + 7] += u * u;
+        a[o + 8] += u;
+        a[o + 9] += 1d;
+    }
+
+    /**
+     * Inverte o HᵀH do grupo por Cholesky (A = L·Lᵀ, A⁻¹ = L⁻ᵀ·L⁻¹)
+     * e extrai a diagonal da inversa
+     */
+    private void solve(int g) {
+        if (used[g] < 4) {
+            setNaN(g);
+            return;
+        }
+
+        // Desempacota a parte inferior da matriz simétrica em l (a fatoração é feita no lugar)
+        int o = g * TERMS;
+        double[] a = normal;
+        l[0] = a[o];
+        l[4] = a[o + 1]; l[5] = a[o + 4];
+        l[8] = a[o + 2]; l[9] = a[o + 5]; l[10] = a[o + 7];
+        l[12] = a[o + 3]; l[13] = a[o + 6]; l[14] = a[o + 8]; l[15] = a[o + 9];
+
+        // Cholesky
+        for (int j = 0; j < 4; j++) {
+            double d = l[j * 5];
+            for (int k = 0; k < j; k++) d -= l[j * 4 + k] * l[j * 4 + k];
+            // Pivô ~0: satélites alinhados (ou repetidos), a geometria não resolve a posição
+            if (d <= 1e-12) {
+                setNaN(g);
+                return;
+            }
+            d = Math.sqrt(d);
+            l[j * 5] = d;
+            for (int i = j + 1; i < 4; i++) {
+                double v = l[i * 4 + j];
+                for (int k = 0; k < j; k++) v -= l[i * 4 + k] * l[j * 4 + k];
+                l[i * 4 + j] = v / d;
+            }
+        }
+
+        // M = L⁻¹ (triangular inferior)
+        for (int j = 0; j < 4; j++) {
+            m[j * 5] = 1d / l[j * 5];
+            for (int i = j + 1; i < 4; i++) {
+                double v = 0d;
+                for (int k = j; k < i; k++) v -= l[i * 4 + k] * m[k * 4 + j];
+                m[i * 4 + j] = v / l[i * 5];
+            }
+        }
+
+        // (A⁻¹)_jj = Σ_i M_ij²
+        double qe = 0d, qn = 0d, qu = 0d, qt = 0d;
+        for (int i = 0; i < 4; i++) {
+            double me = m[i * 4], mn = m[i * 4 + 1], mu = m[i * 4 + 2], mt = m[i * 4 + 3];
+            qe += me * me;
+            qn += mn * mn;
+            qu += mu * mu;
+            qt += mt * mt;
+        }
+
+        hdop[g] = (float) Math.sqrt(qe + qn);
+        vdop[g] = (float) Math.sqrt(qu);
+        pdop[g] = (float) Math.sqrt(qe + qn + qu);
+        tdop[g] = (float) Math.sqrt(qt);
+        gdop[g] = (float) Math.sqrt(qe + qn + qu + qt);
+    }
+
+    private void setNaN(int g) {
+        gdop[g] = pdop[g] = hdop[g] = vdop[g] = tdop[g] = Float.NaN;
+    }
+
+    private void clearResults() {
+        for (int g = 0; g < GROUPS; g++) setNaN(g);
+    }
+
+    // ---------- GETTERS (conjunto total) ----------
+
+    public float getGdop() { return gdop[ALL]; }
+    public float getPdop() { return pdop[ALL]; }
+    public float getHdop() { return hdop[ALL]; }
+    public float getVdop() { return vdop[ALL]; }
+    public float getTdop() { return tdop[ALL]; }
+    /** Satélites (não sinais) usados no cálculo */
+    public int getUsedCount() { return used[ALL]; }
+
+    // ---------- GETTERS (por constelação, ou ALL) ----------
+
+    public float getGdop(int constellation) { return gdop[constellation]; }
+    public float getPdop(int constellation) { return pdop[constellation]; }
+    public float getHdop(int constellation) { return hdop[constellation]; }
+    public float getVdop(int constellation) { return vdop[constellation]; }
+    public float getTdop(int constellation) { return tdop[constellation]; }
+    public int getUsedCount(int constellation) { return used[constellation]; }
+
+    /**
+     * A constelação tem satélites suficientes (e geometria) para uma solução própria?
+     */
+    public boolean isSolvable(int constellation) {
+        return !Float.isNaN(pdop[constellation]);
+    }
+}
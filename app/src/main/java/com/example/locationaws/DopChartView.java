@@ -0,0 +1,213 @@
+package com.example.locationaws;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * 📈 Classe DopChartView
+ *
+ * Gráfico de DOP ao longo do tempo de um VisibilityPlan:
+ *  → PDOP (ciano) e HDOP (verde), limitados a MAX_DOP
+ *  → barras ao fundo com a quantidade de satélites acima da máscara
+ *  → cursor no instante selecionado (arrastável); o céu desse instante
+ *    é mostrado pela GNSSView da PlannerActivity
+ *
+ * As curvas (Path) são montadas só quando o plano ou o tamanho mudam.
+ */
+public class DopChartView extends View {
+
+    /**
+     * Avisado quando o usuário arrasta o cursor
+     */
+    public interface OnSliceSelectedListener {
+        void onSliceSelected(int slice);
+    }
+
+    // Escala vertical: DOP acima disso é "ruim" e fica no topo
+    private static final float MAX_DOP = 8f;
+    private static final float PADDING = 36f;
+
+    private final Paint paintPdop = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintHdop = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintBars = new Paint();
+    private final Paint paintGrid = new Paint();
+    private final Paint paintText = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintCursor = new Paint();
+
+    private final Path pdopPath = new Path();
+    private final Path hdopPath = new Path();
+    private final SimpleDateFormat hourFormat = new SimpleDateFormat("HH'h'", Locale.getDefault());
+
+    private VisibilityPlan plan;
+    private int cursor;
+    private boolean pathsDirty = true;
+    private OnSliceSelectedListener listener;
+
+    public DopChartView(Context context) {
+        this(context, null);
+    }
+
+    public DopChartView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+
+        paintPdop.setStyle(Paint.Style.STROKE);
+        paintPdop.setStrokeWidth(4f);
+        paintPdop.setColor(Color.CYAN);
+
+        paintHdop.setStyle(Paint.Style.STROKE);
+        paintHdop.setStrokeWidth(3f);
+        paintHdop.setColor(Color.parseColor("#4CAF50"));
+
+        paintBars.setColor(Color.rgb(30, 50, 80));
+
+        paintGrid.setColor(Color.DKGRAY);
+        paintGrid.setStrokeWidth(1f);
+
+        paintText.setColor(Color.LTGRAY);
+        paintText.setTextSize(24f);
+
+        paintCursor.setColor(Color.YELLOW);
+        paintCursor.setStrokeWidth(3f);
+    }
+
+    // ---------- DADOS ----------
+
+    public void setPlan(@Nullable VisibilityPlan newPlan) {
+        plan = newPlan;
+        cursor = 0;
+        pathsDirty = true;
+        invalidate();
+    }
+
+    public void setCursor(int slice) {
+        cursor = slice;
+        invalidate();
+    }
+
+    public void setOnSliceSelectedListener(@Nullable OnSliceSelectedListener l) {
+        listener = l;
+    }
+
+    // ---------- DESENHO ----------
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        pathsDirty = true;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        canvas.drawColor(SkyPlotRenderer.BACKGROUND_COLOR);
+        if (plan == null || plan.getSliceCount() < 2) return;
+
+        float left = PADDING;
+        float right = getWidth() - PADDING / 2f;
+        float top = PADDING / 2f;
+        float bottom = getHeight() - PADDING;
+        int n = plan.getSliceCount();
+        float dx = (right - left) / (n - 1);
+
+        // Satélites acima da máscara (barras), escala própria até o máximo do período
+        int maxVisible = 1;
+        for (int k = 0; k < n; k++) maxVisible = Math.max(maxVisible, plan.getVisibleCount(k));
+        for (int k = 0; k < n; k++) {
+            float x = left + k * dx;
+            float barTop = bottom - (bottom - top) * plan.getVisibleCount(k) / maxVisible;
+            canvas.drawRect(x - dx / 2f, barTop, x + dx / 2f, bottom, paintBars);
+        }
+
+        // Grade: DOP 2, 4 e 6
+        for (int d = 2; d < MAX_DOP; d += 2) {
+            float y = yFor(d, top, bottom);
+            canvas.drawLine(left, y, right, y, paintGrid);
+            canvas.drawText(String.valueOf(d), 4f, y + 8f, paintText);
+        }
+
+        // Marcas a cada 3 horas (hora local)
+        long stepMillis = plan.getStepSeconds() * 1000L;
+        TimeZone zone = TimeZone.getDefault();
+        for (int k = 0; k < n; k++) {
+            long t = plan.getTimeMillis(k);
+            if ((t + zone.getOffset(t)) % (3 * 3_600_000L) >= stepMillis) continue;
+            float x = left + k * dx;
+            canvas.drawLine(x, top, x, bottom, paintGrid);
+            canvas.drawText(hourFormat.format(new Date(t)), x + 4f, getHeight() - 8f, paintText);
+        }
+
+        if (pathsDirty) {
+            buildPath(pdopPath, true, left, dx, top, bottom);
+            buildPath(hdopPath, false, left, dx, top, bottom);
+            pathsDirty = false;
+        }
+        canvas.drawPath(hdopPath, paintHdop);
+        canvas.drawPath(pdopPath, paintPdop);
+
+        // Cursor e valores do instante selecionado
+        float cx = left + cursor * dx;
+        canvas.drawLine(cx, top, cx, bottom, paintCursor);
+        String label = String.format(Locale.US, "PDOP %.1f  HDOP %.1f  Sats %d",
+                plan.getPdop(cursor), plan.getHdop(cursor), plan.getVisibleCount(cursor));
+        float labelX = Math.min(cx + 8f, right - paintText.measureText(label));
+        canvas.drawText(label, Math.max(left, labelX), top + 20f, paintText);
+    }
+
+    // Curva de PDOP ou HDOP; instantes sem solução (NaN) interrompem a linha
+    private void buildPath(Path path, boolean pdop, float left, float dx, float top, float bottom) {
+        path.reset();
+        boolean drawing = false;
+        for (int k = 0; k < plan.getSliceCount(); k++) {
+            float v = pdop ? plan.getPdop(k) : plan.getHdop(k);
+            if (Float.isNaN(v)) {
+                drawing = false;
+                continue;
+            }
+            float x = left + k * dx;
+            float y = yFor(v, top, bottom);
+            if (drawing) path.lineTo(x, y);
+            else path.moveTo(x, y);
+            drawing = true;
+        }
+    }
+
+    private static float yFor(float dop, float top, float bottom) {
+        return bottom - (bottom - top) * Math.min(dop, MAX_DOP) / MAX_DOP;
+    }
+
+    // ---------- INTERAÇÃO ----------
+
+    /**
+     * Tocar/arrastar escolhe o instante mostrado no radar
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (plan == null || plan.getSliceCount() < 2) return super.onTouchEvent(event);
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN || action == MotionEvent.ACTION_MOVE) {
+            float left = PADDING;
+            float right = getWidth() - PADDING / 2f;
+            float f = (event.getX() - left) / (right - left);
+            int slice = Math.round(Math.max(0f, Math.min(1f, f)) * (plan.getSliceCount() - 1));
+            if (slice != cursor) {
+                setCursor(slice);
+                if (listener != null) listener.onSliceSelected(slice);
+            }
+            return true;
+        }
+        return super.onTouchEvent(event);
+    }
+}
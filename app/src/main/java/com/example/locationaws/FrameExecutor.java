@@ -0,0 +1,35 @@
+package com.example.locationaws;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 🎞️ Classe FrameExecutor
+ *
+ * Executor que roda as tarefas na thread principal, no início do próximo frame
+ * (Choreographer / vsync).
+ *
+ * Combinado com GnssStream.Policy.latest(), a tela recebe no máximo um evento
+ * por frame, não importa a taxa de publicação.
+ */
+public final class FrameExecutor implements Executor {
+
+    public static final FrameExecutor MAIN = new FrameExecutor();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private FrameExecutor() {
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(frameTimeNanos -> task.run());
+        } else {
+            mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(frameTimeNanos -> task.run()));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.locationaws;
+
+/**
+ * ⏱️ Classe FrameStats
+ *
+ * Estatísticas simples de ritmo de frames, para comparar o radar desenhado
+ * na thread principal (GNSSView) com o radar da thread de renderização (GnssSurfaceView).
+ *
+ * Acumula uma janela de medições e, a cada período, fecha um resumo:
+ *  → frames por segundo
+ *  → tempo médio e máximo de trabalho por frame (o quanto a thread ficou ocupada)
+ *  → frames "atrasados" (intervalo maior que 1,5 × o período de vsync)
+ *
+ * Não depende do Android: pode ser usada em testes JVM.
+ */
+public class FrameStats {
+
+    // Período padrão de vsync (60 Hz)
+    public static final long DEFAULT_VSYNC_NANOS = 16_666_667L;
+
+    private final long windowNanos;
+    private long vsyncNanos = DEFAULT_VSYNC_NANOS;
+
+    // ---------- JANELA ATUAL ----------
+
+    private long windowStart = -1;
+    private long lastFrameStart = -1;
+    private int frames;
+    private int janky;
+    private long workSum;
+    private long workMax;
+    private long intervalMax;
+
+    // ---------- ÚLTIMO RESUMO (lido por outra thread) ----------
+
+    private volatile String summary = "";
+    private volatile float fps;
+    private volatile float jankPercent;
+
+    public FrameStats() {
+        this(1_000_000_000L);
+    }
+
+    public FrameStats(long windowNanos) {
+        this.windowNanos = windowNanos;
+    }
+
+    public void setVsyncNanos(long vsyncNanos) {
+        if (vsyncNanos > 0) this.vsyncNanos = vsyncNanos;
+    }
+
+    /**
+     * Registra um frame: instante em que começou e quanto tempo de trabalho consumiu.
+     * Deve ser chamado sempre da mesma thread (a que desenha).
+     */
+    public void onFrame(long frameStartNanos, long workNanos) {
+        if (windowStart < 0) windowStart = frameStartNanos;
+
+        if (lastFrameStart >= 0) {
+            long interval = frameStartNanos - lastFrameStart;
+            if (interval > intervalMax) intervalMax = interval;
+            if (interval * 2 > vsyncNanos * 3) janky++;
+        }
+        lastFrameStart = frameStartNanos;
+
+        frames++;
+        workSum += workNanos;
+        if (workNanos > workMax) workMax = workNanos;
+
+        long elapsed = frameStartNanos - windowStart;
+        if (elapsed >= windowNanos) closeWindow(elapsed);
+    }
+
+    /**
+     * Esquece o histórico (ex.: ao trocar de renderizador ou voltar de pausa)
+     */
+    public void reset() {
+        windowStart = -1;
+        lastFrameStart = -1;
+        resetWindow();
+    }
+
+    private void closeWindow(long elapsed) {
+        fps = frames * 1e9f / elapsed;
+        jankPercent = frames > 1 ? 100f * janky / (frames - 1) : 0f;
+        summary = String.format(java.util.Locale.US,
+                "%.0f fps | trabalho %.2f ms (máx %.2f) | maior intervalo %.1f ms | atrasados %.0f%%",
+                fps, workSum / 1e6 / frames, workMax / 1e6, intervalMax / 1e6, jankPercent);
+        windowStart = lastFrameStart;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        frames = 0;
+        janky = 0;
+        workSum = 0;
+        workMax = 0;
+        intervalMax = 0;
+    }
+
+    // ---------- GETTERS ----------
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public float getFps() {
+        return fps;
+    }
+
+    public float getJankPercent() {
+        return jankPercent;
+    }
+}
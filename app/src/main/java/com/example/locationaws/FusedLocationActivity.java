@@ -46,6 +46,16 @@ public class FusedLocationActivity extends AppCompatActivity {
     // Objeto responsável por converter coordenadas em endereços legíveis
     private Geocoder geocoder;
 
+    // Hub GNSS do app: os fixes do Fused são publicados para os mesmos inscritos do GPS
+    private GnssHub gnssHub;
+
+    // Indica se o usuário iniciou o rastreamento (para retomar ao voltar à tela)
+    private boolean tracking;
+
+    // Eventos das cercas locais (os fixes do Fused passam pelo hub na thread principal)
+    private final GeofenceEngine.Listener geofenceListener = (event, fenceId, fix) ->
+            Toast.makeText(this, "🚧 " + GeofenceEngine.eventName(event) + ": " + fenceId, Toast.LENGTH_SHORT).show();
+
     // Gerenciador de permissões (permite solicitar permissões em tempo de execução)
     private final ActivityResultLauncher<String[]> permissionLauncher =
             registerForActivityResult(new ActivityResultContracts.RequestMultiplePermissions(), result -> {
@@ -75,6 +85,7 @@ public class FusedLocationActivity extends AppCompatActivity {
         // Inicializa o cliente de localização e o Geocoder (para converter latitude/longitude em endereço)
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
         geocoder = new Geocoder(this, Locale.getDefault());
+        gnssHub = GnssHub.get(this);
 
         // Cria o pedido de localização (a partir do Android 12 - API 31)
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
@@ -96,6 +107,8 @@ public class FusedLocationActivity extends AppCompatActivity {
 
                 // Percorre todas as localizações disponíveis (geralmente 1 por atualização)
                 for (Location location : locationResult.getLocations()) {
+                    gnssHub.publishFix(GnssHub.toFix(location, GnssFix.SOURCE_FUSED));
+
                     // Converte latitude e longitude em endereço (cidade, rua, etc.)
                     String endereco = getEndereco(location.getLatitude(), location.getLongitude());
 
@@ -104,21 +117,23 @@ public class FusedLocationActivity extends AppCompatActivity {
                             "📍 Localização Atual\n\n" +
                                     "🧭 Latitude: %.6f\n" +
                                     "🧭 Longitude: %.6f\n" +
+                                    "🗺️ MGRS: %s\n" +
                                     "⛰️ Altitude: %.1f m\n" +
                                     "🚗 Velocidade: %.2f m/s\n" +
                                     "🎯 Precisão: ±%.2f m\n\n" +
                                     "🏠 Endereço:\n%s",
                             location.getLatitude(),
                             location.getLongitude(),
+                            formatMgrs(location.getLatitude(), location.getLongitude()),
                             location.getAltitude(),
                             location.getSpeed(),
                             location.getAccuracy(),
                             endereco
                     );
 
-                    // Atualiza o texto na tela com os dados da localização
+                    // Atualiza o texto na tela com os dados da localização e o acumulado da sessão
                     txtStatus.setText("✅ Localização Ativa");
-                    txtDados.setText(dados);
+                    txtDados.setText(dados + formatStats(gnssHub.getLocationStats(GnssFix.SOURCE_FUSED).getSummary()));
                 }
             }
         };
@@ -128,6 +143,21 @@ public class FusedLocationActivity extends AppCompatActivity {
         btnStop.setOnClickListener(v -> stopLocationUpdates());
     }
 
+    // Mesmo ciclo de vida das outras telas: para ao sair e retoma ao voltar
+    @Override
+    protected void onStart() {
+        super.onStart();
+        gnssHub.getGeofenceEngine().addListener(geofenceListener);
+        if (tracking && GnssHub.hasLocationPermission(this)) requestUpdates();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        gnssHub.getGeofenceEngine().removeListener(geofenceListener);
+        if (tracking) fusedLocationClient.removeLocationUpdates(locationCallback);
+    }
+
     // Método que verifica as permissões e inicia o rastreamento de localização
     private void checkPermissionAndStart() {
         if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION)
@@ -146,19 +176,44 @@ public class FusedLocationActivity extends AppCompatActivity {
     // Método responsável por começar a receber atualizações de localização
     @SuppressLint("MissingPermission") // suprime o aviso porque a permissão já foi verificada
     private void startLocationUpdates() {
-        fusedLocationClient.requestLocationUpdates(locationRequest, locationCallback, getMainLooper());
+        tracking = true;
+        requestUpdates();
         txtStatus.setText("🔄 Obtendo localização...");
         Toast.makeText(this, "Localização iniciada", Toast.LENGTH_SHORT).show();
     }
 
     // Método que interrompe o rastreamento de localização
     private void stopLocationUpdates() {
+        tracking = false;
         fusedLocationClient.removeLocationUpdates(locationCallback);
         txtStatus.setText("⛔ Localização parada");
         txtDados.setText("Aguardando nova solicitação...");
         Toast.makeText(this, "Localização parada", Toast.LENGTH_SHORT).show();
     }
 
+    @SuppressLint("MissingPermission") // chamado só depois da verificação de permissão
+    private void requestUpdates() {
+        fusedLocationClient.requestLocationUpdates(locationRequest, locationCallback, getMainLooper());
+    }
+
+    // Referência MGRS com 1 m de resolução (fora da faixa UTM: "-")
+    private static String formatMgrs(double lat, double lon) {
+        String mgrs = Geodesy.mgrs(lat, lon, 5);
+        return mgrs == null ? "-" : mgrs;
+    }
+
+    // Distribuições acumuladas desde o início do app (p50 / p90 / p99)
+    private String formatStats(LocationStats.Summary s) {
+        if (s.fixes == 0) return "";
+        long minutes = (long) (s.getDurationSeconds() / 60);
+        return "\n\n📊 Estatísticas (" + s.fixes + " fixes, " + (minutes / 60) + "h" + (minutes % 60) + "min)\n" +
+                "p50 / p90 / p99\n" +
+                "🎯 Precisão: " + s.accuracy.format(1) + " m\n" +
+                "⏱️ Intervalo: " + s.interval.format(1) + " s\n" +
+                "🚗 Velocidade: " + s.speed.format(2) + " m/s\n" +
+                "🛰️ Satélites: " + s.satellites.format(0);
+    }
+
     // Método que transforma latitude/longitude em um endereço legível (rua, cidade, país, etc.)
     private String getEndereco(double latitude, double longitude) {
         try {
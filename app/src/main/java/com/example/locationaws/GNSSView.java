@@ -2,18 +2,16 @@ package com.example.locationaws;
 
 import android.app.AlertDialog;
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.content.res.TypedArray;
-import android.graphics.*;
-import android.graphics.drawable.Drawable;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
 import android.location.GnssStatus;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
 import androidx.annotation.Nullable;
-import androidx.appcompat.content.res.AppCompatResources;
-
-import java.util.*;
 
 /**
  * 🌍 Classe GNSSView
@@ -24,22 +22,21 @@ import java.util.*;
  *
  * Cada satélite é mostrado como um ponto no radar, com sua bandeira e número (SVID).
  * Os satélites usados na posição (Fix) aparecem em verde, e os não usados em cinza.
+ *
+ * O desenho em si fica no SkyPlotRenderer e acontece aqui na thread principal.
+ * A GnssSurfaceView usa o mesmo renderizador numa thread própria, para comparação.
  */
 public class GNSSView extends View {
 
-    // Nome do arquivo onde preferências serão salvas
-    private static final String PREFS_NAME = "GNSSViewPrefs";
-
-    // Chaves para armazenar configurações específicas
-    private static final String KEY_SELECTED_CONSTELLATIONS = "selectedConstellations"; // constelações escolhidas
-    private static final String KEY_SHOW_UNUSED_SATS = "showUnusedSats"; // exibir satélites não usados
-
-    // Lista de constelações GNSS suportadas
+    // Constelações oferecidas no diálogo de configuração
     private static final int[] CONSTELLATIONS = {
-            GnssStatus.CONSTELLATION_GPS,     // EUA
-            GnssStatus.CONSTELLATION_GALILEO, // União Europeia
-            GnssStatus.CONSTELLATION_GLONASS, // Rússia
-            GnssStatus.CONSTELLATION_BEIDOU   // China
+            GnssConstellation.GPS,     // EUA
+            GnssConstellation.GALILEO, // União Europeia
+            GnssConstellation.GLONASS, // Rússia
+            GnssConstellation.BEIDOU,  // China
+            GnssConstellation.QZSS,    // Japão
+            GnssConstellation.IRNSS,   // Índia
+            GnssConstellation.SBAS     // Satélites de aumentação
     };
 
     // Nomes legíveis das constelações (para mostrar no diálogo de configuração)
@@ -47,42 +44,60 @@ public class GNSSView extends View {
             "GPS",
             "Galileo",
             "Glonass",
-            "Beidou"
+            "Beidou",
+            "QZSS",
+            "IRNSS (NavIC)",
+            "SBAS"
+    };
+
+    // Bandas oferecidas no diálogo
+    private static final int[] BANDS = {
+            GnssConstellation.BAND_L1, GnssConstellation.BAND_L2,
+            GnssConstellation.BAND_L5, GnssConstellation.BAND_E6
     };
 
+    // Opções do mapa do céu no diálogo (modo = índice - 1; -1 = desligado)
+    private static final String[] HEAT_MAP_NAMES = {"Sem mapa", "Sinal", "Multipercurso"};
+
     // Ângulo atual do radar (para animação de varredura)
     private float sweepAngle = 0f;
 
-    // Objetos Paint controlam cores, estilos e espessura de traços
-    private final Paint paintCircle = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint paintSatUsed = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint paintSatUnused = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint paintText = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint paintRadarSweep = new Paint(Paint.ANTI_ALIAS_FLAG);
+    // Filtro compartilhado por todas as telas (carregado em segundo plano)
+    private final SatelliteFilterStore filterStore;
+    private GnssStream<SatelliteFilter>.Subscription filterSubscription;
 
-    // Lista com todos os satélites atualmente visíveis
-    private final List<SatelliteInfo> satellites = new ArrayList<>();
+    // Cor dos satélites usados
+    private int colorUsedSatellites = Color.parseColor("#4CAF50");
 
-    // Bandeiras associadas a cada constelação
-    private final Bitmap flagUS;
-    private final Bitmap flagRU;
-    private final Bitmap flagEU;
-    private final Bitmap flagCN;
-    private final Bitmap flagUnknown;
+    // Desenho do radar (compartilhado com a GnssSurfaceView)
+    private final SkyPlotRenderer renderer;
 
-    // Armazenamento de preferências do usuário (para lembrar seleções)
-    private SharedPreferences prefs;
+    // Ritmo dos frames desenhados na thread principal
+    private final FrameStats frameStats = new FrameStats();
+    private boolean showFrameStats;
 
-    // Conjuntos de constelações escolhidas e opção de exibir satélites não usados
-    private Set<Integer> selectedConstellations = new HashSet<>();
-    private boolean showUnusedSats = true;
+    // Latência do callback até o frame (etapas entregue e filtrado; o renderer marca as outras)
+    private final LatencyTracer tracer;
 
-    // Cor dos satélites usados
-    private int colorUsedSatellites = Color.parseColor("#4CAF50");
+    // Mapa do céu acumulado no local pelo GnssHub (SkyHeatMapRaster.MODE_*, -1 = desligado)
+    private final SkyHeatMap skyHeatMap;
+    private int heatMapMode = SkyHeatMapRaster.MODE_SIGNAL;
 
-    // Para criar o efeito do rastro (a linha girando e sumindo aos poucos)
-    private Bitmap radarTrailBitmap;
-    private Canvas radarTrailCanvas;
+    // Mapa do céu e alerta de interferência são do céu ao vivo: desligados num céu previsto
+    private boolean liveOverlays = true;
+
+    // Texto do rodapé (ex.: horário de um céu previsto), ou null
+    private String caption;
+
+    // Alerta de interferência/spoofing do GnssHub (faixa vermelha no topo), ou null
+    private final InterferenceDetector interferenceDetector;
+    private String alertText;
+    private final Paint paintAlert = new Paint();
+    private final Paint paintAlertText = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final InterferenceDetector.Listener alertListener = (alert, active, detail) -> {
+        alertText = active ? "⚠️ " + InterferenceDetector.alertName(alert) + ": " + detail : null;
+        invalidate();
+    };
 
     // ---------- CONSTRUTORES ----------
 
@@ -93,9 +108,6 @@ public class GNSSView extends View {
     public GNSSView(Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
 
-        // Lê as preferências salvas (XML ou cache)
-        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-
         // Permite personalizar via XML o atributo "colorUsedSatellites"
         if (attrs != null) {
             TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.GNSSView);
@@ -103,95 +115,27 @@ public class GNSSView extends View {
             a.recycle();
         }
 
-        // Configuração dos pincéis
-        paintCircle.setStyle(Paint.Style.STROKE);
-        paintCircle.setColor(Color.LTGRAY);
-        paintCircle.setStrokeWidth(4f);
-
-        paintSatUsed.setStyle(Paint.Style.FILL);
-        paintSatUsed.setColor(colorUsedSatellites); // verde para satélites usados
-
-        paintSatUnused.setStyle(Paint.Style.FILL);
-        paintSatUnused.setColor(Color.GRAY); // cinza para não usados
+        renderer = new SkyPlotRenderer(context, colorUsedSatellites);
 
-        paintText.setColor(Color.WHITE);
-        paintText.setTextSize(30f);
+        // Filtro atual; se as preferências ainda não foram lidas, o fluxo entrega depois
+        filterStore = SatelliteFilterStore.get(context);
+        renderer.setFilter(filterStore.getFilter());
 
-        paintRadarSweep.setColor(Color.CYAN); // cor da linha de varredura
-        paintRadarSweep.setStrokeWidth(4f);
+        GnssHub hub = GnssHub.get(context);
+        tracer = hub.getLatencyTracer();
+        renderer.setLatencyTracer(tracer);
+        skyHeatMap = hub.getSkyHeatMap();
+        renderer.setHeatMap(skyHeatMap, heatMapMode);
 
-        // Carrega bandeiras de cada constelação
-        flagUS = drawableToBitmap(context, R.drawable.president_us);
-        flagRU = drawableToBitmap(context, R.drawable.president_ru);
-        flagEU = drawableToBitmap(context, R.drawable.president_eu);
-        flagCN = drawableToBitmap(context, R.drawable.president_cn);
-        flagUnknown = drawableToBitmap(context, R.drawable.president_unknown);
-
-        // Carrega preferências do usuário (constelações selecionadas e filtros)
-        loadPreferences();
+        interferenceDetector = hub.getInterferenceDetector();
+        paintAlert.setColor(Color.argb(200, 183, 28, 28));
+        paintAlertText.setColor(Color.WHITE);
+        paintAlertText.setTextSize(30f);
 
         // Inicia o radar (movimento circular contínuo)
         post(radarRunnable);
     }
 
-    // ---------- MÉTODOS DE PREFERÊNCIAS ----------
-
-
-     // Carrega preferências salvas (quais constelações estão marcadas, e se deve exibir satélites não usados)
-
-    private void loadPreferences() {
-        selectedConstellations.clear();
-        Set<String> savedSet = prefs.getStringSet(KEY_SELECTED_CONSTELLATIONS, null);
-
-        // Se for a primeira execução, marca todas as constelações
-        if (savedSet == null) {
-            for (int c : CONSTELLATIONS) selectedConstellations.add(c);
-        } else {
-            for (String s : savedSet) {
-                try {
-                    selectedConstellations.add(Integer.parseInt(s));
-                } catch (NumberFormatException ignored) {}
-            }
-        }
-        showUnusedSats = prefs.getBoolean(KEY_SHOW_UNUSED_SATS, true);
-    }
-
-
-     // Salva as preferências atuais (quando o usuário altera o filtro)
-
-    private void savePreferences() {
-        SharedPreferences.Editor editor = prefs.edit();
-        Set<String> setToSave = new HashSet<>();
-        for (Integer c : selectedConstellations) setToSave.add(String.valueOf(c));
-        editor.putStringSet(KEY_SELECTED_CONSTELLATIONS, setToSave);
-        editor.putBoolean(KEY_SHOW_UNUSED_SATS, showUnusedSats);
-        editor.apply();
-    }
-
-    // ---------- MÉTODOS DE CONVERSÃO ----------
-
-
-     //Converte um Drawable (imagem do recurso XML) em Bitmap (imagem manipulável)
-
-    private Bitmap drawableToBitmap(Context context, int resId) {
-        try {
-            Drawable d = AppCompatResources.getDrawable(context, resId);
-            if (d == null) return null;
-            Bitmap bmp = Bitmap.createBitmap(
-                    d.getIntrinsicWidth() > 0 ? d.getIntrinsicWidth() : 1,
-                    d.getIntrinsicHeight() > 0 ? d.getIntrinsicHeight() : 1,
-                    Bitmap.Config.ARGB_8888
-            );
-            Canvas c = new Canvas(bmp);
-            d.setBounds(0, 0, c.getWidth(), c.getHeight());
-            d.draw(c);
-            return bmp;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
     // ---------- MÉTODOS PRINCIPAIS ----------
 
 
@@ -199,160 +143,98 @@ public class GNSSView extends View {
      // (Esse método é chamado toda vez que o sistema recebe uma atualização do GNSS)
 
     public void updateSatellites(GnssStatus status) {
-        synchronized (satellites) {
-            satellites.clear(); // limpa lista anterior
-            for (int i = 0; i < status.getSatelliteCount(); i++) {
-                int constellation = status.getConstellationType(i);
-                if (!selectedConstellations.contains(constellation)) continue; // ignora constelações não selecionadas
-
-                float az = status.getAzimuthDegrees(i);  // Azimute (posição horizontal no céu)
-                float el = status.getElevationDegrees(i); // Elevação (altura acima do horizonte)
-                int svid = status.getSvid(i);             // ID do satélite
-                boolean usedInFix = status.usedInFix(i);  // Está sendo usado no cálculo da posição?
+        updateSatellites(GnssHub.toSnapshot(status, SystemClock.elapsedRealtimeNanos()));
+    }
 
-                if (!showUnusedSats && !usedInFix) continue; // se o filtro estiver ativo, ignora não usados
+     // Mesma atualização, a partir do snapshot compartilhado pelo GnssHub (ou outra fonte)
 
-                // Adiciona satélite à lista
-                satellites.add(new SatelliteInfo(az, el, svid, constellation, usedInFix));
-            }
-        }
+    public void updateSatellites(SatelliteSnapshot snapshot) {
+        long arrival = snapshot.getElapsedRealtimeNanos();
+        tracer.mark(LatencyTracer.STATUS_DELIVERED, arrival);
+        tracer.beginSection("gnss.filter");
+        renderer.setSatellites(snapshot);
+        tracer.mark(LatencyTracer.STATUS_FILTERED, arrival);
+        tracer.endSection();
         // Solicita redesenho da View (para exibir os novos satélites)
         postInvalidateOnAnimation();
     }
 
-    // ---------- DESENHO DO RADAR ----------
-
-    @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
-
-        int w = getWidth();
-        int h = getHeight();
-        int cx = w / 2; // centro X
-        int cy = h / 2; // centro Y
-        int R = (int) (0.9 * Math.min(cx, cy)); // raio máximo do radar
-
-        // Cria (ou recria) o bitmap que guarda o rastro do radar
-        if (radarTrailBitmap == null || radarTrailBitmap.getWidth() != w || radarTrailBitmap.getHeight() != h) {
-            radarTrailBitmap = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
-            radarTrailCanvas = new Canvas(radarTrailBitmap);
-        }
-
-        // Aplica uma camada transparente para criar o efeito de "desaparecimento gradual" do rastro
-        radarTrailCanvas.drawColor(Color.argb(40, 10, 25, 50));
-
-        // Calcula as coordenadas da linha de varredura com base no ângulo atual
-        float sweepX = (float) (cx + R * Math.sin(Math.toRadians(sweepAngle)));
-        float sweepY = (float) (cy - R * Math.cos(Math.toRadians(sweepAngle)));
-        radarTrailCanvas.drawLine(cx, cy, sweepX, sweepY, paintRadarSweep);
-
-        // Desenha o rastro animado no canvas principal
-        canvas.drawBitmap(radarTrailBitmap, 0, 0, null);
-
-        // Desenha os círculos do radar (para representar níveis de elevação)
-        paintCircle.setColor(Color.LTGRAY);
-        paintCircle.setStrokeWidth(4f);
-        canvas.drawCircle(cx, cy, R, paintCircle);
-        canvas.drawCircle(cx, cy, R * 2 / 3f, paintCircle);
-        canvas.drawCircle(cx, cy, R / 3f, paintCircle);
-
-        // Linhas cruzadas (N-S e L-O)
-        paintCircle.setColor(Color.DKGRAY);
-        paintCircle.setStrokeWidth(2f);
-        canvas.drawLine(cx, cy - R, cx, cy + R, paintCircle);
-        canvas.drawLine(cx - R, cy, cx + R, cy, paintCircle);
-
-        // Indicador de Norte
-        paintText.setColor(Color.DKGRAY);
-        paintText.setTextSize(36f);
-        canvas.drawText("N", cx - 12f, cy - R - 12f, paintText);
-
-        // Desenha os satélites
-        synchronized (satellites) {
-            for (SatelliteInfo s : satellites) {
-                drawSatellite(canvas, cx, cy, R, s);
-            }
-        }
-
-        // Mostra texto com contagem de satélites
-        int totalVisible = satellites.size();
-        int totalUsed = 0;
-        for (SatelliteInfo s : satellites) if (s.usedInFix) totalUsed++;
-
-        paintText.setColor(Color.WHITE);
-        paintText.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        paintText.setTextSize(36f);
-
-        float baseY = cy - R - 60f;
-        String visibleText = "Visíveis: " + totalVisible;
-        String usedText = "Usados no Fix: " + totalUsed;
-        float maxWidth = Math.max(paintText.measureText(visibleText), paintText.measureText(usedText));
-        float startX = cx - maxWidth / 2f;
-
-        canvas.drawText(visibleText, startX, baseY, paintText);
-        canvas.drawText(usedText, startX, baseY - 44f, paintText);
-        paintText.setTypeface(Typeface.DEFAULT);
+    /**
+     * Mostra (ou esconde) no rodapé as estatísticas de frame da thread principal
+     */
+    public void setShowFrameStats(boolean show) {
+        showFrameStats = show;
+        frameStats.reset();
     }
 
-    // ---------- DESENHO DE CADA SATÉLITE ----------
-
-
-     // Desenha um satélite individual (círculo + ID + bandeira)
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
 
-    private void drawSatellite(Canvas canvas, int cx, int cy, int R, SatelliteInfo s) {
-        // Converte a posição (azimute e elevação) em coordenadas x/y no radar
-        // Elevação alta = próximo do centro. Baixa = mais próximo da borda.
-        double rPrime = R * Math.cos(Math.toRadians(s.el));
-        double x = rPrime * Math.sin(Math.toRadians(s.az));
-        double y = rPrime * Math.cos(Math.toRadians(s.az));
+    /**
+     * Mapa do céu sob os satélites: SkyHeatMapRaster.MODE_SIGNAL, MODE_MULTIPATH ou -1 (desligado)
+     */
+    public void setHeatMapMode(int mode) {
+        heatMapMode = mode;
+        renderer.setHeatMap(mode < 0 ? null : skyHeatMap, Math.max(0, mode));
+        invalidate();
+    }
 
-        float drawX = (float) (cx + x);
-        float drawY = (float) (cy - y);
+    /**
+     * Desliga (false) o mapa do céu e o alerta de interferência quando a view mostra um
+     * céu previsto (ex.: PlannerActivity): os dados ao vivo do local não valem para ele
+     */
+    public void setLiveOverlays(boolean show) {
+        liveOverlays = show;
+        setHeatMapMode(show ? SkyHeatMapRaster.MODE_SIGNAL : -1);
+    }
 
-        // Cor depende se o satélite é usado ou não
-        Paint paintSat = s.usedInFix ? paintSatUsed : paintSatUnused;
-        canvas.drawCircle(drawX, drawY, 12f, paintSat);
+    /**
+     * Texto fixo no rodapé (substituído pelas estatísticas de frame, se estiverem ligadas)
+     */
+    public void setCaption(@Nullable String text) {
+        caption = text;
+        invalidate();
+    }
 
-        // Desenha o número do satélite (SVID)
-        paintText.setColor(Color.WHITE);
-        paintText.setTextSize(28f);
-        canvas.drawText(String.valueOf(s.svid), drawX + 22f, drawY + 10f, paintText);
+    // ---------- DESENHO DO RADAR ----------
 
-        // Bandeira da constelação
-        Bitmap flag = getFlagBitmapForConstellation(s.constellationType);
-        if (flag != null) {
-            int size = 55;
-            Bitmap scaled = Bitmap.createScaledBitmap(flag, size, size, true);
-            Bitmap circularFlag = getCircularBitmap(scaled); // recorta em formato circular
-            canvas.drawBitmap(circularFlag, drawX - size - 23f, drawY - size / 2f, null);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (getDisplay() != null) {
+            frameStats.setVsyncNanos((long) (1_000_000_000L / getDisplay().getRefreshRate()));
         }
+        // Acompanha o filtro compartilhado (carga inicial e mudanças feitas em outras telas)
+        filterSubscription = filterStore.stream().subscribe(filter -> {
+            renderer.setFilter(filter);
+            invalidate();
+        }, GnssStream.Policy.latest(), FrameExecutor.MAIN);
+        // Alertas de interferência (o detector chama na thread principal)
+        interferenceDetector.addListener(alertListener);
+        int alert = interferenceDetector.getAlert();
+        alertListener.onInterferenceAlert(alert, alert != InterferenceDetector.ALERT_NONE, interferenceDetector.getDetail());
     }
 
-    /**
-     * Cria um bitmap circular a partir de uma imagem quadrada (usado nas bandeiras)
-     */
-    private Bitmap getCircularBitmap(Bitmap bitmap) {
-        Bitmap output = Bitmap.createBitmap(bitmap.getWidth(), bitmap.getHeight(), Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(output);
-        final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        final float radius = bitmap.getWidth() / 2f;
-        BitmapShader shader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
-        paint.setShader(shader);
-        canvas.drawCircle(radius, radius, radius, paint);
-        return output;
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        filterSubscription.cancel();
+        interferenceDetector.removeListener(alertListener);
     }
 
-    /**
-     * Retorna a bandeira correspondente à constelação GNSS
-     */
-    private Bitmap getFlagBitmapForConstellation(int type) {
-        switch (type) {
-            case GnssStatus.CONSTELLATION_GPS: return flagUS;
-            case GnssStatus.CONSTELLATION_GLONASS: return flagRU;
-            case GnssStatus.CONSTELLATION_GALILEO: return flagEU;
-            case GnssStatus.CONSTELLATION_BEIDOU: return flagCN;
-            default: return flagUnknown;
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        long start = System.nanoTime();
+        renderer.draw(canvas, getWidth(), getHeight(), sweepAngle,
+                showFrameStats ? "UI thread: " + frameStats.getSummary() : caption);
+        if (alertText != null && liveOverlays) {
+            float h = paintAlertText.getTextSize() * 1.8f;
+            canvas.drawRect(0, 0, getWidth(), h, paintAlert);
+            canvas.drawText(alertText, 16f, h * 0.68f, paintAlertText);
         }
+        frameStats.onFrame(start, System.nanoTime() - start);
     }
 
     // ---------- INTERAÇÃO COM O USUÁRIO ----------
@@ -370,15 +252,15 @@ public class GNSSView extends View {
     }
 
     /**
-     * Mostra o diálogo de configuração (seleção de constelações e exibição de satélites)
+     * Mostra o diálogo de configuração (constelações, bandas, limiares e satélites não usados)
      */
     private void showConfigDialog() {
         Context context = getContext();
+        SatelliteFilter current = filterStore.getFilter();
         final boolean[] checkedConstellations = new boolean[CONSTELLATIONS.length];
         for (int i = 0; i < CONSTELLATIONS.length; i++) {
-            checkedConstellations[i] = selectedConstellations.contains(CONSTELLATIONS[i]);
+            checkedConstellations[i] = current.isConstellationEnabled(CONSTELLATIONS[i]);
         }
-        final boolean[] checkedShowUnused = {showUnusedSats};
 
         AlertDialog.Builder builder = new AlertDialog.Builder(context);
         builder.setTitle("Configurar Visualização");
@@ -387,54 +269,101 @@ public class GNSSView extends View {
         builder.setMultiChoiceItems(CONSTELLATION_NAMES, checkedConstellations,
                 (dialog, which, isChecked) -> checkedConstellations[which] = isChecked);
 
-        // Botão salvar configurações
+        // Demais critérios: não usados, elevação mínima, C/N0 mínimo e bandas
+        FilterOptionsView options = new FilterOptionsView(context, current);
+        builder.setView(options);
+
+        // Mapa do céu acumulado no local: desligado, C/N0 médio ou oscilação (multipercurso)
+        android.widget.RadioGroup heatMapChoice = new android.widget.RadioGroup(context);
+        heatMapChoice.setOrientation(android.widget.LinearLayout.HORIZONTAL);
+        for (int i = 0; i < HEAT_MAP_NAMES.length; i++) {
+            android.widget.RadioButton button = new android.widget.RadioButton(context);
+            button.setId(i + 1);
+            button.setText(HEAT_MAP_NAMES[i]);
+            heatMapChoice.addView(button);
+        }
+        heatMapChoice.check(heatMapMode + 2);
+        if (liveOverlays) options.addView(heatMapChoice);
+
+        // Botão salvar configurações (vale para todas as telas)
         builder.setPositiveButton("Salvar", (dialog, which) -> {
-            selectedConstellations.clear();
+            SatelliteFilter f = options.apply(current);
             for (int i = 0; i < CONSTELLATIONS.length; i++) {
-                if (checkedConstellations[i]) selectedConstellations.add(CONSTELLATIONS[i]);
+                f = f.withConstellation(CONSTELLATIONS[i], checkedConstellations[i]);
             }
-            showUnusedSats = checkedShowUnused[0];
-            savePreferences();
-            invalidate(); // redesenha radar
+            filterStore.save(f);
+            if (liveOverlays) setHeatMapMode(heatMapChoice.getCheckedRadioButtonId() - 2);
         });
 
         builder.setNeutralButton("Cancelar", null);
-
-        // Checkbox extra para mostrar satélites não usados
-        builder.setView(createShowUnusedCheckboxView(context, checkedShowUnused));
         builder.show();
     }
 
     /**
-     * Cria a checkbox "Mostrar satélites não usados"
+     * Parte inferior do diálogo: checkbox "não usados", barras de elevação/C/N0 e bandas
      */
-    private View createShowUnusedCheckboxView(Context context, boolean[] checkedShowUnused) {
-        android.widget.CheckBox checkBox = new android.widget.CheckBox(context);
-        checkBox.setText("Mostrar satélites não usados no Fix");
-        checkBox.setChecked(checkedShowUnused[0]);
-        checkBox.setPadding(50, 20, 0, 20);
-        checkBox.setOnCheckedChangeListener((buttonView, isChecked) -> checkedShowUnused[0] = isChecked);
-        return checkBox;
-    }
+    private static class FilterOptionsView extends android.widget.LinearLayout {
+
+        private final android.widget.CheckBox showUnused;
+        private final android.widget.SeekBar minElevation;
+        private final android.widget.SeekBar minCn0;
+        private final android.widget.CheckBox[] bands = new android.widget.CheckBox[BANDS.length];
+
+        FilterOptionsView(Context context, SatelliteFilter current) {
+            super(context);
+            setOrientation(VERTICAL);
+            setPadding(50, 20, 50, 20);
+
+            showUnused = new android.widget.CheckBox(context);
+            showUnused.setText("Mostrar satélites não usados no Fix");
+            showUnused.setChecked(!current.isUsedOnly());
+            addView(showUnused);
+
+            minElevation = addSeekBar(context, "Elevação mínima", "°", 60, (int) current.getMinElevation());
+            minCn0 = addSeekBar(context, "C/N0 mínimo", " dB-Hz", 45, (int) current.getMinCn0());
+
+            android.widget.LinearLayout row = new android.widget.LinearLayout(context);
+            for (int i = 0; i < BANDS.length; i++) {
+                bands[i] = new android.widget.CheckBox(context);
+                bands[i].setText(GnssConstellation.bandName(BANDS[i]));
+                bands[i].setChecked(current.isBandEnabled(BANDS[i]));
+                row.addView(bands[i]);
+            }
+            addView(row);
+        }
 
-    // ---------- CLASSE INTERNA ----------
+        private android.widget.SeekBar addSeekBar(Context context, String label, String unit, int max, int value) {
+            android.widget.TextView text = new android.widget.TextView(context);
+            android.widget.SeekBar bar = new android.widget.SeekBar(context);
+            bar.setMax(max);
+            bar.setProgress(value);
+            text.setText(label + ": " + value + unit);
+            bar.setOnSeekBarChangeListener(new android.widget.SeekBar.OnSeekBarChangeListener() {
+                @Override
+                public void onProgressChanged(android.widget.SeekBar seekBar, int progress, boolean fromUser) {
+                    text.setText(label + ": " + progress + unit);
+                }
+
+                @Override
+                public void onStartTrackingTouch(android.widget.SeekBar seekBar) {
+                }
+
+                @Override
+                public void onStopTrackingTouch(android.widget.SeekBar seekBar) {
+                }
+            });
+            addView(text);
+            addView(bar);
+            return bar;
+        }
 
-    /**
-     * Representa um satélite individual (dados GNSS simplificados)
-     */
-    private static class SatelliteInfo {
-        final float az; // Azimute (ângulo horizontal)
-        final float el; // Elevação (ângulo vertical)
-        final int svid; // Número de identificação
-        final int constellationType; // Tipo (GPS, GLONASS etc.)
-        final boolean usedInFix; // Se está sendo usado para calcular a posição
-
-        SatelliteInfo(float az, float el, int svid, int constellationType, boolean usedInFix) {
-            this.az = az;
-            this.el = el;
-            this.svid = svid;
-            this.constellationType = constellationType;
-            this.usedInFix = usedInFix;
+        // Aplica as escolhas desta parte do diálogo sobre o filtro atual
+        SatelliteFilter apply(SatelliteFilter f) {
+            f = f.withUsedOnly(!showUnused.isChecked())
+                    .withMinElevation(minElevation.getProgress())
+                    .withMinCn0(minCn0.getProgress());
+            for (int i = 0; i < BANDS.length; i++) f = f.withBand(BANDS[i], bands[i].isChecked());
+            return f;
         }
     }
 
@@ -464,5 +393,5 @@ public class GNSSView extends View {
 //Identificação visual	✅	Cor, texto e bandeira
 //Contagem de satélites	✅	Texto superior com visíveis e usados
 //Diálogo de configuração	✅	Interno ao componente
-//Persistência (SharedPreferences)	✅	Correta
+//Persistência (SharedPreferences)	✅	SatelliteFilterStore (leitura assíncrona)
 //Atributo configurável via XML	✅
\ No newline at end of file
@@ -0,0 +1,366 @@
+package com.example.locationaws;
+
+/**
+ * 🌍 Classe Geodesy
+ *
+ * Conversões de coordenadas no elipsoide WGS-84, em lote sobre arrays primitivos:
+ *  → geodésicas (lat/lon em graus, altitude elipsoidal em m) ⇄ ECEF
+ *  → ECEF → ENU (Leste, Norte, Cima) em relação a uma origem
+ *  → UTM (série de Krüger, ~1 mm dentro da zona) ⇄ geodésicas, e MGRS
+ *  → distância e rumo: haversine (esfera de raio médio) e Vincenty (elipsoide)
+ *
+ * Cada método recebe arrays de entrada e de saída já alocados e um número de pontos:
+ * nenhum objeto por ponto. Os laços são contados, sem desvios nem chamadas virtuais, e
+ * o que depende só da origem (rotação ENU, constantes da série) é calculado fora deles,
+ * para o JIT compilá-los bem e vetorizar o que for só multiplicação e soma (ENU).
+ * As funções trigonométricas continuam escalares na JVM e no ART.
+ * Vincenty é iterativo e não vetoriza; use haversine quando 0,5% de erro bastar.
+ *
+ * Não depende do Android. Sem estado: pode ser usada de qualquer thread.
+ */
+public final class Geodesy {
+
+    // Constantes WGS-84
+    public static final double WGS84_A = 6378137.0;
+    public static final double WGS84_F = 1 / 298.257223563;
+    public static final double WGS84_B = WGS84_A * (1 - WGS84_F);
+    public static final double WGS84_E2 = WGS84_F * (2 - WGS84_F);
+    private static final double WGS84_EP2 = WGS84_E2 / (1 - WGS84_E2);
+
+    /** Raio médio da Terra (m), usado pelo haversine */
+    public static final double MEAN_RADIUS = 6371008.8;
+
+    // UTM: fator de escala, falso leste/norte e coeficientes da série de Krüger (ordem n³)
+    private static final double UTM_K0 = 0.9996;
+    private static final double UTM_FALSE_EASTING = 500_000;
+    private static final double UTM_FALSE_NORTHING_SOUTH = 10_000_000;
+    private static final double N = WGS84_F / (2 - WGS84_F);
+    private static final double RECTIFYING_RADIUS = WGS84_A / (1 + N) * (1 + N * N / 4 + N * N * N * N / 64);
+    private static final double ALPHA1 = N / 2 - 2 * N * N / 3 + 5 * N * N * N / 16;
+    private static final double ALPHA2 = 13 * N * N / 48 - 3 * N * N * N / 5;
+    private static final double ALPHA3 = 61 * N * N * N / 240;
+    private static final double BETA1 = N / 2 - 2 * N * N / 3 + 37 * N * N * N / 96;
+    private static final double BETA2 = N * N / 48 + N * N * N / 15;
+    private static final double BETA3 = 17 * N * N * N / 480;
+    private static final double DELTA1 = 2 * N - 2 * N * N / 3 - 2 * N * N * N;
+    private static final double DELTA2 = 7 * N * N / 3 - 8 * N * N * N / 5;
+    private static final double DELTA3 = 56 * N * N * N / 15;
+    private static final double CONFORMAL = 2 * Math.sqrt(N) / (1 + N);
+
+    // MGRS: faixas de latitude (8°, de 80°S a 84°N) e letras dos quadrados de 100 km
+    private static final String BANDS = "CDEFGHJKLMNPQRSTUVWX";
+    private static final String[] COLUMN_SETS = {"ABCDEFGH", "JKLMNPQR", "STUVWXYZ"};
+    private static final String ROWS = "ABCDEFGHJKLMNPQRSTUV";
+
+    private static final int VINCENTY_MAX_ITERATIONS = 200;
+
+    private Geodesy() {
+    }
+
+    // ---------- ECEF ----------
+
+    /**
+     * Geodésicas (graus, m) → ECEF (m)
+     */
+    public static void geodeticToEcef(double[] lat, double[] lon, double[] alt,
+                                      double[] x, double[] y, double[] z, int count) {
+        for (int i = 0; i < count; i++) {
+            double phi = Math.toRadians(lat[i]), lambda = Math.toRadians(lon[i]);
+            double sinPhi = Math.sin(phi), cosPhi = Math.cos(phi);
+            double n = WGS84_A / Math.sqrt(1 - WGS84_E2 * sinPhi * sinPhi);
+            double r = (n + alt[i]) * cosPhi;
+            x[i] = r * Math.cos(lambda);
+            y[i] = r * Math.sin(lambda);
+            z[i] = (n * (1 - WGS84_E2) + alt[i]) * sinPhi;
+        }
+    }
+
+    /**
+     * ECEF (m) → geodésicas (graus, m), pelo método de Bowring (sub-milimétrico na superfície)
+     */
+    public static void ecefToGeodetic(double[] x, double[] y, double[] z,
+                                      double[] lat, double[] lon, double[] alt, int count) {
+        for (int i = 0; i < count; i++) {
+            double p = Math.sqrt(x[i] * x[i] + y[i] * y[i]);
+            double theta = Math.atan2(z[i] * WGS84_A, p * WGS84_B);
+            double sinT = Math.sin(theta), cosT = Math.cos(theta);
+            double phi = Math.atan2(z[i] + WGS84_EP2 * WGS84_B * sinT * sinT * sinT,
+                    p - WGS84_E2 * WGS84_A * cosT * cosT * cosT);
+            double sinPhi = Math.sin(phi), cosPhi = Math.cos(phi);
+            double n = WGS84_A / Math.sqrt(1 - WGS84_E2 * sinPhi * sinPhi);
+            lat[i] = Math.toDegrees(phi);
+            lon[i] = Math.toDegrees(Math.atan2(y[i], x[i]));
+            // Válida também perto dos polos (p / cos φ não seria)
+            alt[i] = p * cosPhi + z[i] * sinPhi - WGS84_A * WGS84_A / n;
+        }
+    }
+
+    /**
+     * ECEF (m) → ENU (m) em relação à origem geodésica (graus, m)
+     */
+    public static void ecefToEnu(double originLat, double originLon, double originAlt,
+                                 double[] x, double[] y, double[] z,
+                                 double[] east, double[] north, double[] up, int count) {
+        double phi = Math.toRadians(originLat), lambda = Math.toRadians(originLon);
+        double sinPhi = Math.sin(phi), cosPhi = Math.cos(phi);
+        double sinLambda = Math.sin(lambda), cosLambda = Math.cos(lambda);
+        double n = WGS84_A / Math.sqrt(1 - WGS84_E2 * sinPhi * sinPhi);
+        double x0 = (n + originAlt) * cosPhi * cosLambda;
+        double y0 = (n + originAlt) * cosPhi * sinLambda;
+        double z0 = (n * (1 - WGS84_E2) + originAlt) * sinPhi;
+
+        // Linhas da rotação ECEF → ENU
+        double eX = -sinLambda, eY = cosLambda;
+        double nX = -sinPhi * cosLambda, nY = -sinPhi * sinLambda, nZ = cosPhi;
+        double uX = cosPhi * cosLambda, uY = cosPhi * sinLambda, uZ = sinPhi;
+        for (int i = 0; i < count; i++) {
+            double dx = x[i] - x0, dy = y[i] - y0, dz = z[i] - z0;
+            east[i] = eX * dx + eY * dy;
+            north[i] = nX * dx + nY * dy + nZ * dz;
+            up[i] = uX * dx + uY * dy + uZ * dz;
+        }
+    }
+
+    // ---------- UTM / MGRS ----------
+
+    /**
+     * Zona UTM de um ponto (1–60), com as exceções da Noruega e de Svalbard
+     */
+    public static int utmZone(double lat, double lon) {
+        double l = lon - 360 * Math.floor((lon + 180) / 360); // −180..180
+        int zone = Math.min(60, (int) Math.floor((l + 180) / 6) + 1);
+        if (lat >= 56 && lat < 64 && l >= 3 && l < 12) return 32;
+        if (lat >= 72 && lat < 84 && l >= 0 && l < 42) {
+            if (l < 9) return 31;
+            if (l < 21) return 33;
+            if (l < 33) return 35;
+            return 37;
+        }
+        return zone;
+    }
+
+    /**
+     * Geodésicas (graus) → UTM: zona, leste e norte (m; falso norte de 10 000 km no hemisfério sul).
+     * Cada ponto usa a própria zona; com zone[i] já preenchido (> 0) e forceZone, usa a informada
+     * (trajetos que cruzam a borda de uma zona ficam contínuos).
+     */
+    public static void toUtm(double[] lat, double[] lon, int[] zone, double[] easting, double[] northing,
+                             int count, boolean forceZone) {
+        for (int i = 0; i < count; i++) {
+            int z = forceZone && zone[i] > 0 ? zone[i] : utmZone(lat[i], lon[i]);
+            zone[i] = z;
+            double phi = Math.toRadians(lat[i]);
+            double dLon = lon[i] - (z * 6 - 183);
+            double dLambda = Math.toRadians(dLon - 360 * Math.floor((dLon + 180) / 360));
+
+            double sinPhi = Math.sin(phi);
+            double t = Math.sinh(atanh(sinPhi) - CONFORMAL * atanh(CONFORMAL * sinPhi));
+            double xi = Math.atan2(t, Math.cos(dLambda));
+            double eta = atanh(Math.sin(dLambda) / Math.sqrt(1 + t * t));
+
+            // Harmônicos 2ξ/4ξ/6ξ e 2η/4η/6η por recorrência: um sin/cos e um exp por ponto
+            double s2 = Math.sin(2 * xi), c2 = Math.cos(2 * xi);
+            double s4 = 2 * s2 * c2, c4 = 2 * c2 * c2 - 1;
+            double s6 = s2 * c4 + c2 * s4, c6 = c2 * c4 - s2 * s4;
+            double exp2 = Math.exp(2 * eta), sh2 = (exp2 - 1 / exp2) / 2, ch2 = (exp2 + 1 / exp2) / 2;
+            double sh4 = 2 * sh2 * ch2, ch4 = 2 * ch2 * ch2 - 1;
+            double sh6 = sh2 * ch4 + ch2 * sh4, ch6 = ch2 * ch4 + sh2 * sh4;
+
+            double e = eta + ALPHA1 * c2 * sh2 + ALPHA2 * c4 * sh4 + ALPHA3 * c6 * sh6;
+            double n = xi + ALPHA1 * s2 * ch2 + ALPHA2 * s4 * ch4 + ALPHA3 * s6 * ch6;
+            easting[i] = UTM_FALSE_EASTING + UTM_K0 * RECTIFYING_RADIUS * e;
+            northing[i] = (lat[i] < 0 ? UTM_FALSE_NORTHING_SOUTH : 0) + UTM_K0 * RECTIFYING_RADIUS * n;
+        }
+    }
+
+    /**
+     * UTM → geodésicas (graus). south[i] indica o hemisfério (falso norte de 10 000 km).
+     */
+    public static void fromUtm(int[] zone, boolean[] south, double[] easting, double[] northing,
+                               double[] lat, double[] lon, int count) {
+        for (int i = 0; i < count; i++) {
+            double xi = (northing[i] - (south[i] ? UTM_FALSE_NORTHING_SOUTH : 0)) / (UTM_K0 * RECTIFYING_RADIUS);
+            double eta = (easting[i] - UTM_FALSE_EASTING) / (UTM_K0 * RECTIFYING_RADIUS);
+
+            double s2 = Math.sin(2 * xi), c2 = Math.cos(2 * xi);
+            double s4 = 2 * s2 * c2, c4 = 2 * c2 * c2 - 1;
+            double s6 = s2 * c4 + c2 * s4, c6 = c2 * c4 - s2 * s4;
+            double exp2 = Math.exp(2 * eta), sh2 = (exp2 - 1 / exp2) / 2, ch2 = (exp2 + 1 / exp2) / 2;
+            double sh4 = 2 * sh2 * ch2, ch4 = 2 * ch2 * ch2 - 1;
+            double sh6 = sh2 * ch4 + ch2 * sh4, ch6 = ch2 * ch4 + sh2 * sh4;
+
+            double xiP = xi - BETA1 * s2 * ch2 - BETA2 * s4 * ch4 - BETA3 * s6 * ch6;
+            double etaP = eta - BETA1 * c2 * sh2 - BETA2 * c4 * sh4 - BETA3 * c6 * sh6;
+            double chi = Math.asin(Math.sin(xiP) / Math.cosh(etaP));
+            double sc2 = Math.sin(2 * chi), cc2 = Math.cos(2 * chi);
+            double sc4 = 2 * sc2 * cc2, sc6 = sc2 * (2 * cc2 * cc2 - 1) + cc2 * sc4;
+            double phi = chi + DELTA1 * sc2 + DELTA2 * sc4 + DELTA3 * sc6;
+            lat[i] = Math.toDegrees(phi);
+            lon[i] = (zone[i] * 6 - 183) + Math.toDegrees(Math.atan2(Math.sinh(etaP), Math.cos(xiP)));
+        }
+    }
+
+    /**
+     * Referência MGRS de um ponto, com digits dígitos por eixo (5 = 1 m, 0 = só o quadrado de 100 km).
+     * Fora da faixa UTM (polos, acima de 84°N ou abaixo de 80°S) retorna null.
+     */
+    public static String mgrs(double lat, double lon, int digits) {
+        if (lat < -80 || lat >= 84 || Double.isNaN(lat) || Double.isNaN(lon)) return null;
+        double[] la = {lat}, lo = {lon}, e = new double[1], n = new double[1];
+        int[] z = new int[1];
+        toUtm(la, lo, z, e, n, 1, false);
+        return mgrs(z[0], lat, e[0], n[0], digits);
+    }
+
+    /**
+     * Referência MGRS a partir de coordenadas UTM já calculadas (a latitude escolhe a faixa)
+     */
+    public static String mgrs(int zone, double lat, double easting, double northing, int digits) {
+        int band = Math.min(BANDS.length() - 1, (int) Math.floor((lat + 80) / 8));
+        int e100k = (int) Math.floor(easting / 100_000);
+        int n100k = (int) Math.floor(northing / 100_000);
+        char column = COLUMN_SETS[(zone - 1) % 3].charAt(e100k - 1);
+        // Zonas pares começam as linhas em 'F'
+        char row = ROWS.charAt((n100k + (zone % 2 == 0 ? 5 : 0)) % ROWS.length());
+
+        StringBuilder sb = new StringBuilder(15);
+        sb.append(zone).append(BANDS.charAt(band)).append(column).append(row);
+        if (digits > 0) {
+            int scale = (int) Math.pow(10, 5 - digits);
+            appendPadded(sb, (int) Math.floor(easting % 100_000) / scale, digits);
+            appendPadded(sb, (int) Math.floor(northing % 100_000) / scale, digits);
+        }
+        return sb.toString();
+    }
+
+    // ---------- DISTÂNCIA E RUMO ----------
+
+    /**
+     * Distância haversine (m) entre pares de pontos (graus)
+     */
+    public static void haversine(double[] lat1, double[] lon1, double[] lat2, double[] lon2,
+                                 double[] distance, int count) {
+        for (int i = 0; i < count; i++) {
+            distance[i] = haversine(lat1[i], lon1[i], lat2[i], lon2[i]);
+        }
+    }
+
+    /**
+     * Comprimento (m) de cada segmento de um trajeto: distance[i] = ponto i → i+1 (count − 1 valores)
+     */
+    public static void segmentLengths(double[] lat, double[] lon, double[] distance, int count) {
+        if (count < 2) return;
+        // cos φ de cada ponto é calculado uma vez e serve aos dois segmentos vizinhos
+        double cosPrevious = Math.cos(Math.toRadians(lat[0]));
+        for (int i = 0; i + 1 < count; i++) {
+            double cosNext = Math.cos(Math.toRadians(lat[i + 1]));
+            double sinDPhi = Math.sin(Math.toRadians(lat[i + 1] - lat[i]) / 2);
+            double sinDLambda = Math.sin(Math.toRadians(lon[i + 1] - lon[i]) / 2);
+            double h = sinDPhi * sinDPhi + cosPrevious * cosNext * sinDLambda * sinDLambda;
+            distance[i] = 2 * MEAN_RADIUS * Math.asin(Math.sqrt(Math.min(1, h)));
+            cosPrevious = cosNext;
+        }
+    }
+
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1), phi2 = Math.toRadians(lat2);
+        double sinDPhi = Math.sin((phi2 - phi1) / 2);
+        double sinDLambda = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double h = sinDPhi * sinDPhi + Math.cos(phi1) * Math.cos(phi2) * sinDLambda * sinDLambda;
+        return 2 * MEAN_RADIUS * Math.asin(Math.sqrt(Math.min(1, h)));
+    }
+
+    /**
+     * Rumo inicial (graus, 0–360 a partir do norte) do círculo máximo entre pares de pontos
+     */
+    public static void bearing(double[] lat1, double[] lon1, double[] lat2, double[] lon2,
+                               double[] bearing, int count) {
+        for (int i = 0; i < count; i++) {
+            double phi1 = Math.toRadians(lat1[i]), phi2 = Math.toRadians(lat2[i]);
+            double dLambda = Math.toRadians(lon2[i] - lon1[i]);
+            double cosPhi2 = Math.cos(phi2);
+            double y = Math.sin(dLambda) * cosPhi2;
+            double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * cosPhi2 * Math.cos(dLambda);
+            bearing[i] = (Math.toDegrees(Math.atan2(y, x)) + 360) % 360;
+        }
+    }
+
+    /**
+     * Problema inverso de Vincenty no elipsoide: distância (m) e rumo inicial (graus) entre
+     * pares de pontos. bearing pode ser null. Pontos quase antípodas, em que a iteração não
+     * converge, ficam NaN.
+     */
+    public static void vincenty(double[] lat1, double[] lon1, double[] lat2, double[] lon2,
+                                double[] distance, double[] bearing, int count) {
+        for (int i = 0; i < count; i++) {
+            double u1 = Math.atan((1 - WGS84_F) * Math.tan(Math.toRadians(lat1[i])));
+            double u2 = Math.atan((1 - WGS84_F) * Math.tan(Math.toRadians(lat2[i])));
+            double sinU1 = Math.sin(u1), cosU1 = Math.cos(u1);
+            double sinU2 = Math.sin(u2), cosU2 = Math.cos(u2);
+            double l = Math.toRadians(lon2[i] - lon1[i]);
+
+            double lambda = l, sinLambda, cosLambda;
+            double sinSigma, cosSigma, sigma, cosSqAlpha, cos2SigmaM;
+            int iterations = 0;
+            while (true) {
+                sinLambda = Math.sin(lambda);
+                cosLambda = Math.cos(lambda);
+                double a = cosU2 * sinLambda, b = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+                sinSigma = Math.sqrt(a * a + b * b);
+                if (sinSigma == 0) break; // mesmo ponto
+                cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+                sigma = Math.atan2(sinSigma, cosSigma);
+                double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+                cosSqAlpha = 1 - sinAlpha * sinAlpha;
+                cos2SigmaM = cosSqAlpha != 0 ? cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha : 0; // linha do equador
+                double c = WGS84_F / 16 * cosSqAlpha * (4 + WGS84_F * (4 - 3 * cosSqAlpha));
+                double previous = lambda;
+                lambda = l + (1 - c) * WGS84_F * sinAlpha
+                        * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+                if (Math.abs(lambda - previous) < 1e-12) break;
+                if (++iterations >= VINCENTY_MAX_ITERATIONS) {
+                    sinSigma = Double.NaN;
+                    break;
+                }
+            }
+            if (sinSigma == 0) {
+                distance[i] = 0;
+                if (bearing != null) bearing[i] = 0;
+                continue;
+            }
+            if (Double.isNaN(sinSigma)) {
+                distance[i] = Double.NaN;
+                if (bearing != null) bearing[i] = Double.NaN;
+                continue;
+            }
+            cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            cosSqAlpha = 1 - sinAlpha * sinAlpha;
+            cos2SigmaM = cosSqAlpha != 0 ? cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha : 0;
+
+            double uSq = cosSqAlpha * (WGS84_A * WGS84_A - WGS84_B * WGS84_B) / (WGS84_B * WGS84_B);
+            double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+            double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+            double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                    - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+            distance[i] = WGS84_B * a * (sigma - deltaSigma);
+            if (bearing != null) {
+                double azimuth = Math.atan2(cosU2 * sinLambda, cosU1 * sinU2 - sinU1 * cosU2 * cosLambda);
+                bearing[i] = (Math.toDegrees(azimuth) + 360) % 360;
+            }
+        }
+    }
+
+    // ---------- AUXILIARES ----------
+
+    private static double atanh(double x) {
+        return 0.5 * Math.log((1 + x) / (1 - x));
+    }
+
+    private static void appendPadded(StringBuilder sb, int value, int digits) {
+        String s = Integer.toString(value);
+        for (int k = s.length(); k < digits; k++) sb.append('0');
+        sb.append(s);
+    }
+}
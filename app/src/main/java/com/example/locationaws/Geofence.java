@@ -0,0 +1,109 @@
+package com.example.locationaws;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 📐 Classe Geofence
+ *
+ * Cerca geográfica: um polígono simples em latitude/longitude (graus, WGS84).
+ * Só descreve a cerca; o GeofenceIndex empacota milhares delas para a busca.
+ *
+ * O polígono é fechado implicitamente (repetir o primeiro vértice no fim é opcional).
+ * Cercas que cruzam o antimeridiano (±180°) não são suportadas.
+ */
+public final class Geofence {
+
+    static final double EARTH_RADIUS = 6371008.8; // m (raio médio)
+
+    final String id;
+    final double[] latitudes;
+    final double[] longitudes;
+
+    public Geofence(String id, double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) throw new IllegalArgumentException("latitudes e longitudes com tamanhos diferentes");
+        int n = latitudes.length;
+        // Tolera o polígono "fechado" (último vértice igual ao primeiro), comum em WKT/GeoJSON
+        if (n > 3 && latitudes[0] == latitudes[n - 1] && longitudes[0] == longitudes[n - 1]) n--;
+        if (n < 3) throw new IllegalArgumentException("cerca " + id + " precisa de pelo menos 3 vértices");
+        this.id = id;
+        this.latitudes = Arrays.copyOf(latitudes, n);
+        this.longitudes = Arrays.copyOf(longitudes, n);
+    }
+
+    /**
+     * Círculo aproximado por um polígono regular de {@code segments} lados
+     */
+    public static Geofence circle(String id, double latitude, double longitude, double radiusMeters, int segments) {
+        double[] lat = new double[segments];
+        double[] lon = new double[segments];
+        double dLat = Math.toDegrees(radiusMeters / EARTH_RADIUS);
+        double dLon = dLat / Math.cos(Math.toRadians(latitude));
+        for (int i = 0; i < segments; i++) {
+            double a = 2 * Math.PI * i / segments;
+            lat[i] = latitude + dLat * Math.sin(a);
+            lon[i] = longitude + dLon * Math.cos(a);
+        }
+        return new Geofence(id, lat, lon);
+    }
+
+    // ---------- ACESSO ----------
+
+    public String getId() { return id; }
+    public int getVertexCount() { return latitudes.length; }
+    public double getLatitude(int i) { return latitudes[i]; }
+    public double getLongitude(int i) { return longitudes[i]; }
+
+    // ---------- LEITURA (WKT) ----------
+
+    /**
+     * Lê um POLYGON em WKT: "POLYGON((lon lat, lon lat, ...))".
+     * Só o anel externo é usado (furos são ignorados).
+     */
+    public static Geofence parseWkt(String id, String wkt) {
+        String s = wkt.trim();
+        if (!s.regionMatches(true, 0, "POLYGON", 0, 7)) throw new IllegalArgumentException("WKT não é POLYGON: " + id);
+        int open = s.indexOf("((");
+        int close = s.indexOf(')', open);
+        if (open < 0 || close < 0) throw new IllegalArgumentException("WKT inválido: " + id);
+
+        String[] points = s.substring(open + 2, close).split(",");
+        double[] lat = new double[points.length];
+        double[] lon = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            String[] xy = points[i].trim().split("\\s+");
+            if (xy.length < 2) throw new IllegalArgumentException("vértice inválido em " + id + ": " + points[i]);
+            lon[i] = Double.parseDouble(xy[0]);
+            lat[i] = Double.parseDouble(xy[1]);
+        }
+        return new Geofence(id, lat, lon);
+    }
+
+    /**
+     * Lê um arquivo de cercas, uma por linha: "id;POLYGON((...))".
+     * Linhas vazias e começadas com # são ignoradas.
+     */
+    public static List<Geofence> readAll(Reader reader) throws IOException {
+        List<Geofence> fences = new ArrayList<>();
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int sep = line.indexOf(';');
+            if (sep <= 0) throw new IOException("Linha " + lineNumber + ": esperado \"id;POLYGON((...))\"");
+            try {
+                fences.add(parseWkt(line.substring(0, sep).trim(), line.substring(sep + 1)));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Linha " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return fences;
+    }
+}
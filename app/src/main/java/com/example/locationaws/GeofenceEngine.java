@@ -0,0 +1,171 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 🚧 Classe GeofenceEngine
+ *
+ * Geofencing local, sem o limite de ~100 cercas da API da plataforma.
+ * Recebe os fixes de uma única fonte (GnssHub.publishFix passa só os do GNSS) e emite
+ * eventos de entrada, saída e permanência:
+ *
+ *  → ENTER: o ponto caiu dentro do polígono
+ *  → EXIT: o ponto está fora E a mais de max(margem, precisão do fix) da borda
+ *    (histerese: o ruído do GPS perto da borda não gera entra-e-sai)
+ *  → DWELL: dentro, sem sair, por pelo menos dwellMillis (uma vez por entrada)
+ *
+ * Custo por fix: uma célula da grade do GeofenceIndex + as cercas em que já se está.
+ *
+ * Threads: onFix() deve vir sempre da mesma thread (a principal, no app).
+ * setFences() pode ser chamado de qualquer thread: o índice novo é montado ali
+ * e trocado de uma vez; o estado de dentro/fora recomeça do zero.
+ */
+public final class GeofenceEngine {
+
+    public static final int EVENT_ENTER = 1;
+    public static final int EVENT_EXIT = 2;
+    public static final int EVENT_DWELL = 3;
+
+    /** Nome do evento para exibição */
+    public static String eventName(int event) {
+        switch (event) {
+            case EVENT_ENTER: return "Entrada";
+            case EVENT_EXIT: return "Saída";
+            case EVENT_DWELL: return "Permanência";
+            default: return "?";
+        }
+    }
+
+    /** Recebe os eventos na thread que chamou onFix() */
+    public interface Listener {
+        void onGeofenceEvent(int event, String fenceId, GnssFix fix);
+    }
+
+    /**
+     * Índice + estado por cerca: trocados juntos quando as cercas mudam
+     */
+    private static final class State {
+        final GeofenceIndex index;
+        final long[] enteredAt;     // elapsedRealtimeNanos da entrada, -1 = fora
+        final boolean[] dwelled;
+        final int[] stamp;          // Último fix em que o ponto estava dentro (evita conjunto/HashSet)
+        int[] inside = new int[16]; // Cercas com o ponto dentro (ou na faixa de histerese)
+        int insideCount;
+        int fixCounter;
+
+        State(GeofenceIndex index) {
+            this.index = index;
+            enteredAt = new long[index.size()];
+            dwelled = new boolean[index.size()];
+            stamp = new int[index.size()];
+            Arrays.fill(enteredAt, -1L);
+        }
+    }
+
+    private final double exitMarginMeters;
+    private final long dwellNanos;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile State state = new State(new GeofenceIndex(Collections.emptyList()));
+
+    public GeofenceEngine(double exitMarginMeters, long dwellMillis) {
+        this.exitMarginMeters = exitMarginMeters;
+        this.dwellNanos = dwellMillis * 1_000_000L;
+    }
+
+    // ---------- CONFIGURAÇÃO ----------
+
+    /**
+     * Troca o conjunto de cercas (monta o índice na thread que chamou)
+     */
+    public void setFences(List<Geofence> fences) {
+        state = new State(new GeofenceIndex(fences));
+    }
+
+    public GeofenceIndex getIndex() {
+        return state.index;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // ---------- FIXES ----------
+
+    /**
+     * Processa um fix e emite os eventos correspondentes
+     */
+    public void onFix(GnssFix fix) {
+        State s = state;
+        if (s.index.size() == 0 || !fix.hasPosition()) return;
+        GeofenceIndex index = s.index;
+        double lat = fix.getLatitude(), lon = fix.getLongitude();
+        long t = fix.getElapsedRealtimeNanos();
+        int counter = ++s.fixCounter;
+
+        // 1) Candidatos da célula: marca quem contém o ponto, entra quem estava fora
+        int cell = index.cellOf(lat, lon);
+        if (cell >= 0) {
+            for (int k = index.cellStart[cell], end = index.cellStart[cell + 1]; k < end; k++) {
+                int f = index.cellFences[k];
+                if (!index.contains(f, lat, lon)) continue;
+                s.stamp[f] = counter;
+                if (s.enteredAt[f] < 0) {
+                    s.enteredAt[f] = t;
+                    s.dwelled[f] = false;
+                    if (s.insideCount == s.inside.length) s.inside = Arrays.copyOf(s.inside, s.insideCount * 2);
+                    s.inside[s.insideCount++] = f;
+                    emit(EVENT_ENTER, index.ids[f], fix);
+                }
+            }
+        }
+
+        // 2) Cercas em que já se estava: permanência, ou saída além da histerese
+        float accuracy = fix.getAccuracy();
+        double margin = Float.isNaN(accuracy) ? exitMarginMeters : Math.max(exitMarginMeters, accuracy);
+        for (int i = 0; i < s.insideCount; ) {
+            int f = s.inside[i];
+            if (s.stamp[f] == counter) {
+                if (!s.dwelled[f] && t - s.enteredAt[f] >= dwellNanos) {
+                    s.dwelled[f] = true;
+                    emit(EVENT_DWELL, index.ids[f], fix);
+                }
+                i++;
+            } else if (index.distanceToEdge(f, lat, lon) > margin) {
+                s.enteredAt[f] = -1;
+                s.inside[i] = s.inside[--s.insideCount]; // remove trocando pelo último
+                emit(EVENT_EXIT, index.ids[f], fix);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Quantidade de cercas em que o último fix estava dentro (inclui a faixa de histerese)
+     */
+    public int getInsideCount() {
+        return state.insideCount;
+    }
+
+    /**
+     * Ids das cercas em que se está (mesma thread de onFix)
+     */
+    public String[] getInsideIds() {
+        State s = state;
+        String[] ids = new String[s.insideCount];
+        for (int i = 0; i < ids.length; i++) ids[i] = s.index.ids[s.inside[i]];
+        return ids;
+    }
+
+    private void emit(int event, String id, GnssFix fix) {
+        for (Listener l : listeners) l.onGeofenceEvent(event, id, fix);
+    }
+}
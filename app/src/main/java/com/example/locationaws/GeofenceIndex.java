@@ -0,0 +1,192 @@
+package com.example.locationaws;
+
+import java.util.List;
+
+/**
+ * 🗂️ Classe GeofenceIndex
+ *
+ * Índice espacial imutável para milhares de cercas, em arrays primitivos:
+ *  → caixa envolvente de cada cerca (minLat/minLon/maxLat/maxLon)
+ *  → vértices empacotados como deslocamentos float a partir do canto da caixa
+ *    (metade da memória de double, precisão sub-milimétrica para cercas de até ~10 km)
+ *  → grade uniforme em graus, no formato CSR: cellStart[cell]..cellStart[cell+1]
+ *    são as posições em cellFences das cercas que tocam aquela célula
+ *
+ * Uma consulta lê só a célula do ponto: caixa envolvente primeiro, ponto-em-polígono
+ * só para quem passa. Nenhuma alocação na consulta.
+ *
+ * O tamanho da célula segue o tamanho médio das cercas (cada cerca cobre poucas células),
+ * limitado a MAX_CELLS células no total.
+ */
+public final class GeofenceIndex {
+
+    static final int MAX_CELLS = 1 << 22;
+
+    // Por cerca
+    final int size;
+    final String[] ids;
+    final double[] minLat, minLon, maxLat, maxLon;
+    final int[] vertexStart;            // vértices da cerca i: [vertexStart[i], vertexStart[i+1])
+    final float[] vertexLat, vertexLon; // deslocamento (graus) a partir de minLat/minLon
+
+    // Grade
+    final double originLat, originLon, cellDegrees;
+    final int rows, cols;
+    final int[] cellStart;
+    final int[] cellFences;
+
+    public GeofenceIndex(List<Geofence> fences) {
+        size = fences.size();
+        ids = new String[size];
+        minLat = new double[size];
+        minLon = new double[size];
+        maxLat = new double[size];
+        maxLon = new double[size];
+        vertexStart = new int[size + 1];
+
+        // ---------- CERCAS ----------
+        int vertices = 0;
+        for (int i = 0; i < size; i++) {
+            vertexStart[i] = vertices;
+            vertices += fences.get(i).getVertexCount();
+        }
+        vertexStart[size] = vertices;
+        vertexLat = new float[vertices];
+        vertexLon = new float[vertices];
+
+        double gMinLat = Double.MAX_VALUE, gMinLon = Double.MAX_VALUE;
+        double gMaxLat = -Double.MAX_VALUE, gMaxLon = -Double.MAX_VALUE;
+        double extentSum = 0;
+        for (int i = 0; i < size; i++) {
+            Geofence f = fences.get(i);
+            ids[i] = f.id;
+            double loLat = Double.MAX_VALUE, loLon = Double.MAX_VALUE, hiLat = -Double.MAX_VALUE, hiLon = -Double.MAX_VALUE;
+            for (int v = 0; v < f.latitudes.length; v++) {
+                loLat = Math.min(loLat, f.latitudes[v]);
+                hiLat = Math.max(hiLat, f.latitudes[v]);
+                loLon = Math.min(loLon, f.longitudes[v]);
+                hiLon = Math.max(hiLon, f.longitudes[v]);
+            }
+            minLat[i] = loLat;
+            minLon[i] = loLon;
+            maxLat[i] = hiLat;
+            maxLon[i] = hiLon;
+            for (int v = 0, k = vertexStart[i]; v < f.latitudes.length; v++, k++) {
+                vertexLat[k] = (float) (f.latitudes[v] - loLat);
+                vertexLon[k] = (float) (f.longitudes[v] - loLon);
+            }
+            gMinLat = Math.min(gMinLat, loLat);
+            gMinLon = Math.min(gMinLon, loLon);
+            gMaxLat = Math.max(gMaxLat, hiLat);
+            gMaxLon = Math.max(gMaxLon, hiLon);
+            extentSum += Math.max(hiLat - loLat, hiLon - loLon);
+        }
+
+        // ---------- GRADE ----------
+        if (size == 0) {
+            originLat = originLon = 0;
+            cellDegrees = 1;
+            rows = cols = 0;
+            cellStart = new int[1];
+            cellFences = new int[0];
+            return;
+        }
+        double spanLat = gMaxLat - gMinLat, spanLon = gMaxLon - gMinLon;
+        double cell = Math.max(extentSum / size, 1e-6);
+        double cells = (spanLat / cell + 1) * (spanLon / cell + 1);
+        if (cells > MAX_CELLS) cell *= Math.sqrt(cells / MAX_CELLS);
+        originLat = gMinLat;
+        originLon = gMinLon;
+        cellDegrees = cell;
+        rows = (int) (spanLat / cell) + 1;
+        cols = (int) (spanLon / cell) + 1;
+
+        // Duas passadas: conta por célula, depois preenche (sem listas intermediárias)
+        cellStart = new int[rows * cols + 1];
+        for (int i = 0; i < size; i++) {
+            int r0 = row(minLat[i]), r1 = row(maxLat[i]), c0 = col(minLon[i]), c1 = col(maxLon[i]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) cellStart[r * cols + c + 1]++;
+            }
+        }
+        for (int k = 0; k < rows * cols; k++) cellStart[k + 1] += cellStart[k];
+        cellFences = new int[cellStart[rows * cols]];
+        int[] fill = new int[rows * cols];
+        for (int i = 0; i < size; i++) {
+            int r0 = row(minLat[i]), r1 = row(maxLat[i]), c0 = col(minLon[i]), c1 = col(maxLon[i]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    int k = r * cols + c;
+                    cellFences[cellStart[k] + fill[k]++] = i;
+                }
+            }
+        }
+    }
+
+    // ---------- ACESSO ----------
+
+    public int size() { return size; }
+    public String getId(int fence) { return ids[fence]; }
+    public int getCellCount() { return rows * cols; }
+
+    /**
+     * Célula que contém o ponto, ou -1 fora da grade
+     */
+    int cellOf(double lat, double lon) {
+        if (rows == 0) return -1;
+        double r = (lat - originLat) / cellDegrees, c = (lon - originLon) / cellDegrees;
+        if (r < 0 || c < 0 || r >= rows || c >= cols) return -1;
+        return (int) r * cols + (int) c;
+    }
+
+    /**
+     * Ponto dentro da cerca (caixa envolvente + cruzamento de raio)
+     */
+    public boolean contains(int fence, double lat, double lon) {
+        if (lat < minLat[fence] || lat > maxLat[fence] || lon < minLon[fence] || lon > maxLon[fence]) return false;
+        float y = (float) (lat - minLat[fence]);
+        float x = (float) (lon - minLon[fence]);
+        int start = vertexStart[fence], end = vertexStart[fence + 1];
+        boolean inside = false;
+        for (int i = start, j = end - 1; i < end; j = i++) {
+            float yi = vertexLat[i], yj = vertexLat[j];
+            if ((yi > y) != (yj > y)) {
+                float xi = vertexLon[i], xj = vertexLon[j];
+                if (x < xi + (y - yi) * (xj - xi) / (yj - yi)) inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Distância (m) do ponto até a borda da cerca, em projeção local equiretangular
+     */
+    public double distanceToEdge(int fence, double lat, double lon) {
+        double mLat = Math.toRadians(Geofence.EARTH_RADIUS);
+        double mLon = mLat * Math.cos(Math.toRadians(lat));
+        double y = (lat - minLat[fence]) * mLat;
+        double x = (lon - minLon[fence]) * mLon;
+        int start = vertexStart[fence], end = vertexStart[fence + 1];
+        double best = Double.MAX_VALUE;
+        for (int i = start, j = end - 1; i < end; j = i++) {
+            double ax = vertexLon[j] * mLon, ay = vertexLat[j] * mLat;
+            double dx = vertexLon[i] * mLon - ax, dy = vertexLat[i] * mLat - ay;
+            double len2 = dx * dx + dy * dy;
+            double t = len2 > 0 ? ((x - ax) * dx + (y - ay) * dy) / len2 : 0;
+            t = Math.max(0, Math.min(1, t));
+            double ex = ax + t * dx - x, ey = ay + t * dy - y;
+            best = Math.min(best, ex * ex + ey * ey);
+        }
+        return Math.sqrt(best);
+    }
+
+    // ---------- AUXILIARES ----------
+
+    private int row(double lat) {
+        return Math.min(rows - 1, (int) ((lat - originLat) / cellDegrees));
+    }
+
+    private int col(double lon) {
+        return Math.min(cols - 1, (int) ((lon - originLon) / cellDegrees));
+    }
+}
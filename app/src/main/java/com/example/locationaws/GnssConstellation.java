@@ -0,0 +1,172 @@
+package com.example.locationaws;
+
+/**
+ * 🌍 Classe GnssConstellation
+ *
+ * Constantes e utilitários das constelações GNSS, independentes do framework Android.
+ *
+ * Os valores são idênticos aos de {@code android.location.GnssStatus.CONSTELLATION_*},
+ * então podem ser comparados diretamente com {@code status.getConstellationType(i)}.
+ * Mantê-los aqui permite que o modelo, os parsers e os cálculos rodem em testes JVM.
+ */
+public final class GnssConstellation {
+
+    public static final int UNKNOWN = 0;
+    public static final int GPS = 1;
+    public static final int SBAS = 2;
+    public static final int GLONASS = 3;
+    public static final int QZSS = 4;
+    public static final int BEIDOU = 5;
+    public static final int GALILEO = 6;
+    public static final int IRNSS = 7;
+
+    // Quantidade de tipos (útil para dimensionar arrays indexados por constelação)
+    public static final int COUNT = 8;
+
+    // Frequências das portadoras mais comuns (Hz)
+    public static final float L1_HZ = 1575.42e6f;   // GPS L1, Galileo E1, BeiDou B1C, QZSS L1
+    public static final float L2_HZ = 1227.60e6f;   // GPS L2
+    public static final float L5_HZ = 1176.45e6f;   // GPS L5, Galileo E5a, BeiDou B2a
+    public static final float E5B_HZ = 1207.14e6f;  // Galileo E5b, BeiDou B2b
+    public static final float E6_HZ = 1278.75e6f;   // Galileo E6
+    public static final float G1_HZ = 1602.00e6f;   // GLONASS G1 (canal 0)
+    public static final float G2_HZ = 1246.00e6f;   // GLONASS G2 (canal 0)
+    public static final float B1I_HZ = 1561.098e6f; // BeiDou B1I
+    public static final float B3I_HZ = 1268.52e6f;  // BeiDou B3I
+
+    // Bandas de frequência (bits, para combinar em máscaras)
+    public static final int BAND_UNKNOWN = 1;  // portadora não informada
+    public static final int BAND_L1 = 1 << 1;  // L1 / E1 / B1 / G1
+    public static final int BAND_L2 = 1 << 2;  // L2 / G2
+    public static final int BAND_L5 = 1 << 3;  // L5 / E5a / E5b / B2
+    public static final int BAND_E6 = 1 << 4;  // E6 / B3
+    public static final int ALL_BANDS = BAND_UNKNOWN | BAND_L1 | BAND_L2 | BAND_L5 | BAND_E6;
+
+    private GnssConstellation() {
+    }
+
+    /**
+     * Abreviação de três letras (mesmo padrão usado na CelestialSphereView)
+     */
+    public static String abbreviation(int constellation) {
+        switch (constellation) {
+            case GPS: return "GPS";
+            case SBAS: return "SBS";
+            case GLONASS: return "GLO";
+            case QZSS: return "QZS";
+            case BEIDOU: return "BDS";
+            case GALILEO: return "GAL";
+            case IRNSS: return "IRN";
+            default: return "UNK";
+        }
+    }
+
+    /**
+     * Converte o "talker" NMEA (GP, GL, GA, GB/BD, GQ, GI) na constelação.
+     * Para "GN" (multi-constelação) retorna UNKNOWN: quem chama decide pelo PRN.
+     */
+    public static int fromNmeaTalker(char a, char b) {
+        if (a == 'G') {
+            switch (b) {
+                case 'P': return GPS;
+                case 'L': return GLONASS;
+                case 'A': return GALILEO;
+                case 'B': return BEIDOU;
+                case 'Q': return QZSS;
+                case 'I': return IRNSS;
+                default: return UNKNOWN;
+            }
+        }
+        if (a == 'B' && b == 'D') return BEIDOU;
+        if (a == 'P' && b == 'Q') return QZSS;
+        return UNKNOWN;
+    }
+
+    /**
+     * Converte o "System ID" do NMEA 4.10+ (campo final de GSA/GSV) na constelação
+     */
+    public static int fromNmeaSystemId(int systemId) {
+        switch (systemId) {
+            case 1: return GPS;
+            case 2: return GLONASS;
+            case 3: return GALILEO;
+            case 4: return BEIDOU;
+            case 5: return QZSS;
+            case 6: return IRNSS;
+            default: return UNKNOWN;
+        }
+    }
+
+    /**
+     * Frequência da portadora (Hz) a partir do "Signal ID" do NMEA 4.10+.
+     * Retorna 0 quando o sinal não é conhecido (o mesmo que "sem informação" no GnssStatus).
+     */
+    public static float carrierFromNmeaSignalId(int constellation, int signalId) {
+        switch (constellation) {
+            case GPS:
+            case QZSS:
+                if (signalId >= 1 && signalId <= 3) return L1_HZ;
+                if (signalId >= 4 && signalId <= 6) return L2_HZ;
+                if (signalId == 7 || signalId == 8) return L5_HZ;
+                return 0f;
+            case GALILEO:
+                if (signalId == 1 || signalId == 3) return L5_HZ;
+                if (signalId == 2) return E5B_HZ;
+                if (signalId == 4 || signalId == 5) return E6_HZ;
+                if (signalId == 6 || signalId == 7) return L1_HZ;
+                return 0f;
+            case GLONASS:
+                if (signalId == 1 || signalId == 2) return G1_HZ;
+                if (signalId == 3 || signalId == 4) return G2_HZ;
+                return 0f;
+            case BEIDOU:
+                if (signalId == 1 || signalId == 2) return B1I_HZ;
+                if (signalId == 3 || signalId == 4) return L1_HZ;
+                if (signalId == 5 || signalId == 7) return L5_HZ;
+                if (signalId == 6) return E5B_HZ;
+                if (signalId == 8) return B3I_HZ;
+                return 0f;
+            default:
+                return 0f;
+        }
+    }
+
+    /**
+     * Banda (BAND_*) de uma portadora em Hz. Faixas largas o bastante para cobrir
+     * os canais FDMA do GLONASS; 0 ou valores fora das faixas dão BAND_UNKNOWN.
+     * Consulta numa tabela por MHz, sem desvios (usada no filtro de cada sinal).
+     */
+    public static int band(float carrierHz) {
+        int mhz = (int) (carrierHz * 1e-6f) - BAND_TABLE_START_MHZ;
+        mhz = Math.max(0, Math.min(BAND_TABLE.length - 1, mhz));
+        return BAND_TABLE[mhz];
+    }
+
+    private static final int BAND_TABLE_START_MHZ = 1100;
+    private static final byte[] BAND_TABLE = new byte[1700 - BAND_TABLE_START_MHZ];
+
+    static {
+        for (int i = 0; i < BAND_TABLE.length; i++) {
+            int mhz = BAND_TABLE_START_MHZ + i;
+            int band = BAND_UNKNOWN;
+            if (mhz >= 1559 && mhz <= 1610) band = BAND_L1;
+            else if (mhz >= 1164 && mhz < 1215) band = BAND_L5;
+            else if (mhz >= 1215 && mhz < 1260) band = BAND_L2;
+            else if (mhz >= 1260 && mhz <= 1300) band = BAND_E6;
+            BAND_TABLE[i] = (byte) band;
+        }
+    }
+
+    /**
+     * Nome curto da banda (para legendas e diálogos)
+     */
+    public static String bandName(int band) {
+        switch (band) {
+            case BAND_L1: return "L1";
+            case BAND_L2: return "L2";
+            case BAND_L5: return "L5";
+            case BAND_E6: return "E6";
+            default: return "?";
+        }
+    }
+}
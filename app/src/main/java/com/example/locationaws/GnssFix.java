@@ -0,0 +1,135 @@
+package com.example.locationaws;
+
+/**
+ * 📍 Classe GnssFix
+ *
+ * Modelo mutável com os dados de uma posição (fix), em campos primitivos.
+ *
+ * Pode ser preenchido pelo NmeaParser (GGA/GSA/RMC/GST), por um Location do Android
+ * ou por outras fontes. Valores ausentes ficam como NaN (números reais) ou 0 (inteiros).
+ */
+public class GnssFix {
+
+    // Origem do fix
+    public static final int SOURCE_UNKNOWN = 0;
+    public static final int SOURCE_GPS = 1;       // LocationManager.GPS_PROVIDER
+    public static final int SOURCE_FUSED = 2;     // FusedLocationProviderClient
+    public static final int SOURCE_NMEA = 3;      // Sentenças NMEA do receptor
+    public static final int SOURCE_SYNTHETIC = 4; // Fonte sintética (testes)
+    public static final int SOURCE_DEAD_RECKONING = 5; // Navegação estimada entre fixes (sensores inerciais)
+
+    /**
+     * Fix calculado pelo receptor GNSS (plataforma, NMEA ou fonte sintética); FUSED e
+     * navegação estimada misturam rede e sensores
+     */
+    public static boolean isGnssSource(int source) {
+        return source == SOURCE_GPS || source == SOURCE_NMEA || source == SOURCE_SYNTHETIC;
+    }
+
+    // Qualidade do fix (campo 6 da sentença GGA)
+    public static final int QUALITY_INVALID = 0;
+    public static final int QUALITY_GPS = 1;
+    public static final int QUALITY_DGPS = 2;
+    public static final int QUALITY_RTK_FIXED = 4;
+    public static final int QUALITY_RTK_FLOAT = 5;
+
+    int source;
+
+    long timeMillis;            // Hora UTC em milissegundos desde 1970 (0 = desconhecida)
+    int utcMillisOfDay = -1;    // Hora UTC do dia em milissegundos (GGA/RMC), -1 = desconhecida
+    long elapsedRealtimeNanos;  // Momento de chegada (relógio monotônico)
+    long arrivalNanos;          // Chegada do callback ao app (SystemClock.elapsedRealtimeNanos), 0 = desconhecida
+
+    double latitude = Double.NaN;
+    double longitude = Double.NaN;
+    double altitude = Double.NaN; // Altitude acima do nível médio do mar (m)
+
+    float accuracy = Float.NaN; // Precisão horizontal (m, 68%)
+    float speed = Float.NaN;    // Velocidade (m/s)
+    float bearing = Float.NaN;  // Rumo (graus)
+
+    int fixQuality;             // QUALITY_*
+    int fixMode;                // GSA: 1 = sem fix, 2 = 2D, 3 = 3D
+    int satellitesUsed;
+
+    float hdop = Float.NaN;
+    float vdop = Float.NaN;
+    float pdop = Float.NaN;
+
+    // Desvios padrão da GST (m)
+    float stdLatitude = Float.NaN;
+    float stdLongitude = Float.NaN;
+    float stdAltitude = Float.NaN;
+
+    // ---------- ACESSO ----------
+
+    public int getSource() { return source; }
+    public long getTimeMillis() { return timeMillis; }
+    public long getElapsedRealtimeNanos() { return elapsedRealtimeNanos; }
+    public long getArrivalNanos() { return arrivalNanos; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public double getAltitude() { return altitude; }
+    public float getAccuracy() { return accuracy; }
+    public float getSpeed() { return speed; }
+    public float getBearing() { return bearing; }
+    public int getFixQuality() { return fixQuality; }
+    public int getSatellitesUsed() { return satellitesUsed; }
+    public float getHdop() { return hdop; }
+    public float getVdop() { return vdop; }
+    public float getPdop() { return pdop; }
+
+    /**
+     * Indica se há latitude/longitude válidas
+     */
+    public boolean hasPosition() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    // ---------- ESCRITA ----------
+
+    /**
+     * Volta todos os campos para "desconhecido"
+     */
+    public void reset() {
+        source = SOURCE_UNKNOWN;
+        timeMillis = 0;
+        utcMillisOfDay = -1;
+        elapsedRealtimeNanos = 0;
+        arrivalNanos = 0;
+        latitude = longitude = altitude = Double.NaN;
+        accuracy = speed = bearing = Float.NaN;
+        fixQuality = fixMode = satellitesUsed = 0;
+        hdop = vdop = pdop = Float.NaN;
+        stdLatitude = stdLongitude = stdAltitude = Float.NaN;
+    }
+
+    public void copyFrom(GnssFix o) {
+        source = o.source;
+        timeMillis = o.timeMillis;
+        utcMillisOfDay = o.utcMillisOfDay;
+        elapsedRealtimeNanos = o.elapsedRealtimeNanos;
+        arrivalNanos = o.arrivalNanos;
+        latitude = o.latitude;
+        longitude = o.longitude;
+        altitude = o.altitude;
+        accuracy = o.accuracy;
+        speed = o.speed;
+        bearing = o.bearing;
+        fixQuality = o.fixQuality;
+        fixMode = o.fixMode;
+        satellitesUsed = o.satellitesUsed;
+        hdop = o.hdop;
+        vdop = o.vdop;
+        pdop = o.pdop;
+        stdLatitude = o.stdLatitude;
+        stdLongitude = o.stdLongitude;
+        stdAltitude = o.stdAltitude;
+    }
+
+    public GnssFix copy() {
+        GnssFix f = new GnssFix();
+        f.copyFrom(this);
+        return f;
+    }
+}
@@ -0,0 +1,638 @@
+package com.example.locationaws;
+
+import android.Manifest;
+import android.annotation.SuppressLint;
+import android.app.Activity;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.location.GnssMeasurement;
+import android.location.GnssMeasurementsEvent;
+import android.location.GnssStatus;
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
+import android.location.OnNmeaMessageListener;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+import androidx.core.app.ActivityCompat;
+import androidx.core.content.ContextCompat;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * 🛰️ Classe GnssHub
+ *
+ * Ponto único (por processo) de acesso aos dados GNSS do aparelho.
+ *
+ * Em vez de cada tela registrar seus próprios callbacks no LocationManager,
+ * todas se inscrevem aqui. O hub mantém no máximo UMA inscrição na plataforma
+ * por tipo de dado (status dos satélites, localização, medições brutas e NMEA)
+ * e repassa cada evento para quantos inscritos existirem no app.
+ *
+ * → Contagem de referências: a inscrição na plataforma é feita quando entra o
+ *   primeiro inscrito e desfeita quando sai o último (o GPS é liberado).
+ * → Cache do último valor: uma tela nova recebe imediatamente o último status/fix,
+ *   sem esperar o próximo callback de 1 Hz.
+ *
+ * Status e fixes são distribuídos por GnssStream: cada inscrito escolhe sua política
+ * (latest, sampled, buffered) e seu executor, e um consumidor lento não atrasa os demais.
+ * Medições e NMEA são entregues diretamente na thread principal.
+ * Cada fix publicado também alimenta as estatísticas da sua fonte (LocationStats),
+ * que acumulam enquanto o processo existir.
+ * Fonte sintética (menu de desenvolvedor): enquanto estiver ligada, substitui o status e
+ * o fix da plataforma nos mesmos fluxos, para testes de carga das telas.
+ * Convenção das telas: inscrever em onStart() e cancelar em onStop().
+ */
+public final class GnssHub {
+
+    // Código usado pelas telas ao pedir a permissão de localização
+    public static final int REQUEST_LOCATION_PERMISSION = 2001;
+
+    // Intervalo mínimo entre localizações do GPS_PROVIDER (o mesmo que a GpsLocationActivity
+    // sempre usou; o status dos satélites continua a 1 Hz)
+    private static final long LOCATION_INTERVAL_MS = 2000;
+
+    // Status mais antigo que isso não vale como "satélites usados" de um fix
+    private static final long STATUS_MAX_AGE_NANOS = 2_000_000_000L;
+
+    // Cercas locais: arquivo, histerese de saída e tempo para "permanência"
+    private static final String GEOFENCE_FILE = "geofences.txt";
+    private static final double GEOFENCE_EXIT_MARGIN_M = 20;
+    private static final long GEOFENCE_DWELL_MS = 5 * 60_000;
+
+    // Trajeto exibido: erro máximo da simplificação e janela de pontos pendentes
+    private static final double TRACK_TOLERANCE_M = 5;
+    private static final int TRACK_WINDOW = 256;
+
+    // Mapas do céu por local (SkyHeatMap.siteKey)
+    private static final String SKY_MAP_DIR = "skymaps";
+
+    // ---------- INTERFACES DOS INSCRITOS ----------
+
+    /** Recebe as medições brutas de cada época */
+    public interface MeasurementsListener {
+        void onMeasurements(MeasurementSnapshot measurements);
+    }
+
+    /** Recebe o fix e os satélites decodificados das sentenças NMEA (a cada GGA) */
+    public interface NmeaListener {
+        void onNmeaFix(GnssFix fix, SatelliteSnapshot satellites);
+    }
+
+    // ---------- SINGLETON ----------
+
+    @SuppressLint("StaticFieldLeak") // guarda apenas o Application context
+    private static GnssHub instance;
+
+    public static synchronized GnssHub get(Context context) {
+        if (instance == null) instance = new GnssHub(context.getApplicationContext());
+        return instance;
+    }
+
+    private final Context appContext;
+    private final LocationManager locationManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Inscritos por tipo (a quantidade de inscritos é a contagem de referências)
+    private final GnssStream<SatelliteSnapshot> statusStream = new GnssStream<>(this::updateRegistrations);
+    private final GnssStream<GnssFix> fixStream = new GnssStream<>(this::updateRegistrations);
+    private final List<MeasurementsListener> measurementsListeners = new CopyOnWriteArrayList<>();
+    private final List<NmeaListener> nmeaListeners = new CopyOnWriteArrayList<>();
+
+    // Inscrições ativas na plataforma
+    private boolean statusRegistered;
+    private boolean locationRegistered;
+    private boolean measurementsRegistered;
+    private boolean nmeaRegistered;
+
+    // Gravador de sessão compartilhado (continua ativo mesmo trocando de tela)
+    private final SessionRecorder sessionRecorder = new SessionRecorder();
+
+    // Servidor opcional na rede local (HTTP + WebSocket), ligado no menu de desenvolvedor
+    private final GnssStreamServer streamServer = new GnssStreamServer();
+
+    // Fonte sintética no lugar do GNSS da plataforma (null = desligada)
+    private SyntheticGnssSource syntheticSource;
+
+    // Estatísticas por fonte (GnssFix.SOURCE_*), criadas no primeiro uso
+    private final LocationStats[] locationStats = new LocationStats[GnssFix.SOURCE_DEAD_RECKONING + 1];
+
+    // Arquivos do hub (log de TTFF, cercas) são lidos e gravados fora da thread principal
+    private final Executor io = Executors.newSingleThreadExecutor(r -> new Thread(r, "gnss-io"));
+
+    // Instrumentação de TTFF: uma sessão por registro do callback de status
+    private final TtffTracker ttffTracker = new TtffTracker(Build.MANUFACTURER + " " + Build.MODEL);
+    private final TtffLog ttffLog;
+
+    // Cercas locais (filesDir/geofences.txt), verificadas a cada fix do GNSS (GPS_PROVIDER
+    // ou a fonte sintética no lugar dele). Fixes FUSED intercalados teriam outra posição
+    // e o estado de dentro/fora oscilaria entre as duas fontes.
+    private final GeofenceEngine geofenceEngine = new GeofenceEngine(GEOFENCE_EXIT_MARGIN_M, GEOFENCE_DWELL_MS);
+
+    // Latência do callback até o pixel, por etapa (com seções de android.os.Trace)
+    private final LatencyTracer latencyTracer = new LatencyTracer(SystemClock::elapsedRealtimeNanos,
+            new LatencyTracer.TraceSink() {
+                @Override
+                public void beginSection(String name) {
+                    Trace.beginSection(name);
+                }
+
+                @Override
+                public void endSection() {
+                    Trace.endSection();
+                }
+            });
+
+    // Alertas de interferência/spoofing a partir do C/N0 de cada status (thread principal)
+    private final InterferenceDetector interferenceDetector = new InterferenceDetector();
+
+    // Mapa do céu do local atual (filesDir/skymaps/<local>.bin), salvo ao trocar de local
+    // e quando o status deixa de ser recebido
+    private final SkyHeatMap skyHeatMap = new SkyHeatMap();
+    private String skyMapSite;
+    private int skyMapGeneration;
+    private boolean skyMapMerged; // o arquivo do local atual já foi somado ao mapa
+
+    // Séries da sessão (satélites, C/N0, precisão) em vários níveis, memória fixa
+    private final TimeSeriesRollup timeSeries = new TimeSeriesRollup();
+
+    // Trajeto simplificado de uma fonte só: a do primeiro fix com posição depois de
+    // resetTrack(). GPS e FUSED intercalados fariam zigue-zague entre duas estimativas
+    // (thread principal)
+    private final TrackStore trackStore = new TrackStore();
+    private final TrackSimplifier trackSimplifier = new TrackSimplifier(TRACK_TOLERANCE_M, TRACK_WINDOW, trackStore::add);
+    private int trackSource = GnssFix.SOURCE_UNKNOWN;
+
+    // Navegação estimada entre fixes (sensores inerciais), ligada sob demanda
+    private final DeadReckoningEngine deadReckoning;
+
+    // Cache do último valor (status e fix ficam no próprio GnssStream)
+    private volatile MeasurementSnapshot lastMeasurements;
+    private volatile GnssFix lastNmeaFix;
+    private volatile SatelliteSnapshot lastNmeaSatellites;
+
+    // O parser NMEA só é usado na thread principal (callback do listener)
+    private final NmeaParser nmeaParser = new NmeaParser();
+
+    private GnssHub(Context appContext) {
+        this.appContext = appContext;
+        this.locationManager = (LocationManager) appContext.getSystemService(Context.LOCATION_SERVICE);
+        this.ttffLog = new TtffLog(new File(appContext.getFilesDir(), "ttff.log"), io);
+        this.deadReckoning = new DeadReckoningEngine(appContext, this);
+        reloadGeofences();
+    }
+
+    // ---------- PERMISSÕES ----------
+
+    public static boolean hasLocationPermission(Context context) {
+        return ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_FINE_LOCATION)
+                == PackageManager.PERMISSION_GRANTED;
+    }
+
+    /**
+     * Verifica a permissão e, se faltar, pede ao usuário (resultado chega em
+     * onRequestPermissionsResult da Activity, que deve chamar onPermissionResult)
+     */
+    public static boolean ensureLocationPermission(Activity activity) {
+        if (hasLocationPermission(activity)) return true;
+        ActivityCompat.requestPermissions(activity,
+                new String[]{Manifest.permission.ACCESS_FINE_LOCATION}, REQUEST_LOCATION_PERMISSION);
+        return false;
+    }
+
+    /**
+     * Chamado pelas telas depois que o usuário responde ao pedido de permissão:
+     * efetiva as inscrições que estavam pendentes
+     */
+    public void onPermissionResult() {
+        updateRegistrations();
+    }
+
+    // ---------- INSCRIÇÃO ----------
+
+    /**
+     * Fluxo de status dos satélites. Inscreva-se com a política adequada, ex.:
+     * {@code statusStream().subscribe(s -> ..., GnssStream.Policy.latest(), FrameExecutor.MAIN)}
+     */
+    public GnssStream<SatelliteSnapshot> statusStream() {
+        return statusStream;
+    }
+
+    /** Fluxo de fixes (GPS_PROVIDER e fontes publicadas via publishFix) */
+    public GnssStream<GnssFix> fixStream() {
+        return fixStream;
+    }
+
+    /**
+     * Estatísticas acumuladas dos fixes de uma fonte (GnssFix.SOURCE_*)
+     */
+    public synchronized LocationStats getLocationStats(int source) {
+        int i = source >= 0 && source < locationStats.length ? source : GnssFix.SOURCE_UNKNOWN;
+        if (locationStats[i] == null) locationStats[i] = new LocationStats();
+        return locationStats[i];
+    }
+
+    /** Sessão de aquisição em andamento (TTFF, primeiro satélite usado por constelação) */
+    public TtffTracker getTtffTracker() {
+        return ttffTracker;
+    }
+
+    /** Histórico das sessões encerradas e seus quantis */
+    public TtffLog getTtffLog() {
+        return ttffLog;
+    }
+
+    /** Cercas locais: inscreva-se com addListener para receber entrada/saída/permanência */
+    public GeofenceEngine getGeofenceEngine() {
+        return geofenceEngine;
+    }
+
+    /**
+     * Relê filesDir/geofences.txt (uma cerca por linha, "id;POLYGON((lon lat, ...))")
+     * e troca o índice em segundo plano
+     */
+    public void reloadGeofences() {
+        File file = new File(appContext.getFilesDir(), GEOFENCE_FILE);
+        io.execute(() -> {
+            if (!file.exists()) return;
+            try (Reader reader = new FileReader(file)) {
+                geofenceEngine.setFences(Geofence.readAll(reader));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /** Alertas de jamming/spoofing (ouvintes chamados na thread principal) */
+    public InterferenceDetector getInterferenceDetector() {
+        return interferenceDetector;
+    }
+
+    /** Latências por etapa, do callback até o frame (menu de desenvolvedor) */
+    public LatencyTracer getLatencyTracer() {
+        return latencyTracer;
+    }
+
+    /** Mapa do céu acumulado no local atual */
+    public SkyHeatMap getSkyHeatMap() {
+        return skyHeatMap;
+    }
+
+    /** Satélites visíveis/usados, C/N0 médio e precisão GNSS ao longo da sessão (menu do desenvolvedor) */
+    public TimeSeriesRollup getTimeSeries() {
+        return timeSeries;
+    }
+
+    /** Trajeto simplificado (para desenhar e exportar) */
+    public TrackStore getTrackStore() {
+        return trackStore;
+    }
+
+    /** Fixes recebidos e pontos mantidos no trajeto */
+    public TrackSimplifier getTrackSimplifier() {
+        return trackSimplifier;
+    }
+
+    /** Fonte (GnssFix.SOURCE_*) dos fixes do trajeto, ou SOURCE_UNKNOWN se ainda vazio */
+    public int getTrackSource() {
+        return trackSource;
+    }
+
+    /** Começa um trajeto novo (thread principal) */
+    public void resetTrack() {
+        trackSimplifier.reset();
+        trackStore.clear();
+        trackSource = GnssFix.SOURCE_UNKNOWN;
+    }
+
+    /** Posição em alta taxa entre os fixes (inscreva-se em estimateStream()) */
+    public DeadReckoningEngine getDeadReckoningEngine() {
+        return deadReckoning;
+    }
+
+    public SessionRecorder getSessionRecorder() {
+        return sessionRecorder;
+    }
+
+    /** Enquanto estiver no ar, mantém os fluxos de status e fix assinados (GNSS ativo) */
+    public GnssStreamServer getStreamServer() {
+        return streamServer;
+    }
+
+    /**
+     * Liga a fonte sintética: status e fixes passam a vir dela (os da plataforma são
+     * cancelados até stopSynthetic). Status e fixes são processados na thread principal e
+     * pelo mesmo caminho dos reais (TTFF, interferência, mapa do céu, séries).
+     */
+    public synchronized void startSynthetic(SyntheticGnssSource.Config config) {
+        stopSynthetic();
+        syntheticSource = new SyntheticGnssSource(config, System.nanoTime());
+        updateRegistrations();
+        syntheticSource.start(s -> mainHandler.post(() -> publishStatus(s)),
+                fix -> mainHandler.post(() -> publishFix(fix)), SystemClock::elapsedRealtimeNanos);
+    }
+
+    public synchronized void stopSynthetic() {
+        if (syntheticSource == null) return;
+        syntheticSource.stop();
+        syntheticSource = null;
+        updateRegistrations();
+    }
+
+    /** Fonte sintética ligada, ou null */
+    public synchronized SyntheticGnssSource getSyntheticSource() {
+        return syntheticSource;
+    }
+
+    public void subscribeMeasurements(MeasurementsListener listener) {
+        measurementsListeners.add(listener);
+        MeasurementSnapshot cached = lastMeasurements;
+        if (cached != null) listener.onMeasurements(cached);
+        updateRegistrations();
+    }
+
+    public void unsubscribeMeasurements(MeasurementsListener listener) {
+        measurementsListeners.remove(listener);
+        updateRegistrations();
+    }
+
+    public void subscribeNmea(NmeaListener listener) {
+        nmeaListeners.add(listener);
+        GnssFix cachedFix = lastNmeaFix;
+        SatelliteSnapshot cachedSats = lastNmeaSatellites;
+        if (cachedFix != null && cachedSats != null) listener.onNmeaFix(cachedFix, cachedSats);
+        updateRegistrations();
+    }
+
+    public void unsubscribeNmea(NmeaListener listener) {
+        nmeaListeners.remove(listener);
+        updateRegistrations();
+    }
+
+    public SatelliteSnapshot getLastStatus() { return statusStream.getLast(); }
+    public GnssFix getLastFix() { return fixStream.getLast(); }
+    public GnssFix getLastNmeaFix() { return lastNmeaFix; }
+    public SatelliteSnapshot getLastNmeaSatellites() { return lastNmeaSatellites; }
+
+    /**
+     * Publica um fix vindo de outra fonte (ex.: FusedLocationProviderClient)
+     * para os mesmos inscritos do GPS_PROVIDER
+     */
+    public void publishFix(GnssFix fix) {
+        latencyTracer.beginSection("gnss.fix");
+        // Sem a contagem no próprio fix, usa o status dos satélites se for recente
+        int satellites = fix.getSatellitesUsed();
+        SatelliteSnapshot status = statusStream.getLast();
+        if (satellites <= 0 && status != null
+                && Math.abs(fix.getElapsedRealtimeNanos() - status.getElapsedRealtimeNanos()) < STATUS_MAX_AGE_NANOS) {
+            satellites = status.usedCount();
+        }
+        getLocationStats(fix.getSource()).onFix(fix, satellites);
+        // Geofence, saltos de posição e série de precisão: só fixes GNSS
+        // (FUSED intercalado pareceria um salto e misturaria a precisão da rede com a do GNSS)
+        if (GnssFix.isGnssSource(fix.getSource())) {
+            geofenceEngine.onFix(fix);
+            interferenceDetector.onFix(fix);
+            timeSeries.onFix(fix);
+        }
+        if (fix.hasPosition()) updateSkyMapSite(fix.getLatitude(), fix.getLongitude());
+        if (trackSource == GnssFix.SOURCE_UNKNOWN && fix.hasPosition()) trackSource = fix.getSource();
+        if (fix.getSource() == trackSource) trackSimplifier.add(fix);
+
+        fixStream.publish(fix);
+        latencyTracer.mark(LatencyTracer.FIX_CALLBACK, fix.getArrivalNanos());
+        latencyTracer.endSection();
+    }
+
+    // ---------- MAPA DO CÉU ----------
+
+    // O mapa acumulado antes do primeiro fix fica com o primeiro local; ao mudar de local,
+    // grava o anterior e recomeça somando o que já havia sido gravado para o novo.
+    // O arquivo é lido na thread de E/S e somado na principal, só se o local não mudou
+    // de novo nesse meio-tempo (skyMapGeneration); se mudou, quem grava soma o arquivo.
+    private void updateSkyMapSite(double latitude, double longitude) {
+        String site = SkyHeatMap.siteKey(latitude, longitude);
+        if (site.equals(skyMapSite)) return;
+        if (skyMapSite != null) {
+            saveSkyMap();
+            skyHeatMap.clear();
+        }
+        skyMapSite = site;
+        skyMapMerged = false;
+        int generation = ++skyMapGeneration;
+        File file = skyMapFile(site);
+        io.execute(() -> {
+            SkyHeatMap saved = new SkyHeatMap();
+            try {
+                saved.mergeFrom(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            mainHandler.post(() -> {
+                if (generation != skyMapGeneration || skyMapMerged) return;
+                skyHeatMap.mergeFrom(saved);
+                skyMapMerged = true;
+            });
+        });
+    }
+
+    private void saveSkyMap() {
+        if (skyMapSite == null) return;
+        SkyHeatMap copy = skyHeatMap.copy();
+        boolean merged = skyMapMerged;
+        File file = skyMapFile(skyMapSite);
+        io.execute(() -> {
+            try {
+                // O que já estava gravado ainda não chegou ao mapa: soma antes de sobrescrever
+                if (!merged) copy.mergeFrom(file);
+                copy.save(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private File skyMapFile(String site) {
+        return new File(new File(appContext.getFilesDir(), SKY_MAP_DIR), site + ".bin");
+    }
+
+    // ---------- CONTAGEM DE REFERÊNCIAS ----------
+
+    /**
+     * Registra ou remove as inscrições da plataforma conforme a quantidade de inscritos
+     */
+    @SuppressLint("MissingPermission") // verificado em hasLocationPermission()
+    private synchronized void updateRegistrations() {
+        boolean permitted = hasLocationPermission(appContext);
+
+        // Com a fonte sintética ligada, a plataforma não publica status nem fix
+        boolean synthetic = syntheticSource != null;
+        boolean wantStatus = statusStream.getSubscriberCount() > 0 && !synthetic;
+        if (wantStatus && !statusRegistered && permitted) {
+            // A sessão de TTFF começa antes do registro: onStarted pode vir logo em seguida
+            ttffTracker.start(SystemClock.elapsedRealtimeNanos(), System.currentTimeMillis());
+            statusRegistered = locationManager.registerGnssStatusCallback(statusCallback, mainHandler);
+            if (!statusRegistered) ttffTracker.finish(SystemClock.elapsedRealtimeNanos());
+        } else if (!wantStatus && statusRegistered) {
+            locationManager.unregisterGnssStatusCallback(statusCallback);
+            statusRegistered = false;
+            TtffSession session = ttffTracker.finish(SystemClock.elapsedRealtimeNanos());
+            if (session != null) ttffLog.append(session);
+            saveSkyMap();
+        }
+
+        boolean wantFix = fixStream.getSubscriberCount() > 0 && !synthetic;
+        if (wantFix && !locationRegistered && permitted) {
+            locationManager.requestLocationUpdates(LocationManager.GPS_PROVIDER,
+                    LOCATION_INTERVAL_MS, 0, locationListener, Looper.getMainLooper());
+            locationRegistered = true;
+        } else if (!wantFix && locationRegistered) {
+            locationManager.removeUpdates(locationListener);
+            locationRegistered = false;
+        }
+
+        if (!measurementsListeners.isEmpty() && !measurementsRegistered && permitted) {
+            measurementsRegistered = locationManager.registerGnssMeasurementsCallback(measurementsCallback, mainHandler);
+        } else if (measurementsListeners.isEmpty() && measurementsRegistered) {
+            locationManager.unregisterGnssMeasurementsCallback(measurementsCallback);
+            measurementsRegistered = false;
+        }
+
+        if (!nmeaListeners.isEmpty() && !nmeaRegistered && permitted) {
+            nmeaParser.reset();
+            nmeaRegistered = locationManager.addNmeaListener(nmeaListener, mainHandler);
+        } else if (nmeaListeners.isEmpty() && nmeaRegistered) {
+            locationManager.removeNmeaListener(nmeaListener);
+            nmeaRegistered = false;
+        }
+    }
+
+    // ---------- CALLBACKS DA PLATAFORMA ----------
+
+    private final GnssStatus.Callback statusCallback = new GnssStatus.Callback() {
+        @Override
+        public void onStarted() {
+            ttffTracker.onStarted(SystemClock.elapsedRealtimeNanos());
+        }
+
+        @Override
+        public void onFirstFix(int ttffMillis) {
+            ttffTracker.onFirstFix(SystemClock.elapsedRealtimeNanos(), ttffMillis);
+        }
+
+        @Override
+        public void onSatelliteStatusChanged(@NonNull GnssStatus status) {
+            publishStatus(toSnapshot(status, SystemClock.elapsedRealtimeNanos()));
+        }
+    };
+
+    // Status da plataforma ou da fonte sintética (thread principal)
+    private void publishStatus(SatelliteSnapshot s) {
+        latencyTracer.beginSection("gnss.status");
+        ttffTracker.onStatus(s);
+        interferenceDetector.onStatus(s);
+        skyHeatMap.add(s);
+        timeSeries.onStatus(s);
+        statusStream.publish(s);
+        latencyTracer.mark(LatencyTracer.STATUS_CALLBACK, s.getElapsedRealtimeNanos());
+        latencyTracer.endSection();
+    }
+
+    private final LocationListener locationListener = location ->
+            publishFix(toFix(location, GnssFix.SOURCE_GPS));
+
+    private final GnssMeasurementsEvent.Callback measurementsCallback = new GnssMeasurementsEvent.Callback() {
+        @Override
+        public void onGnssMeasurementsReceived(GnssMeasurementsEvent event) {
+            MeasurementSnapshot m = toMeasurements(event, SystemClock.elapsedRealtimeNanos());
+            lastMeasurements = m;
+            for (MeasurementsListener l : measurementsListeners) l.onMeasurements(m);
+        }
+    };
+
+    private final OnNmeaMessageListener nmeaListener = (message, timestamp) -> {
+        nmeaParser.setArrivalTime(SystemClock.elapsedRealtimeNanos());
+        // Publica a cada GGA (uma vez por época), com cópias que podem ser compartilhadas
+        if (nmeaParser.parse(message) != NmeaParser.RESULT_GGA) return;
+        GnssFix fix = nmeaParser.getFix().copy();
+        SatelliteSnapshot sats = nmeaParser.getSatellites().copy();
+        lastNmeaFix = fix;
+        lastNmeaSatellites = sats;
+        for (NmeaListener l : nmeaListeners) l.onNmeaFix(fix, sats);
+    };
+
+    // ---------- CONVERSÕES ----------
+
+    /**
+     * Copia um GnssStatus para um SatelliteSnapshot novo
+     */
+    static SatelliteSnapshot toSnapshot(GnssStatus status, long elapsedRealtimeNanos) {
+        int n = status.getSatelliteCount();
+        SatelliteSnapshot s = new SatelliteSnapshot(n);
+        for (int i = 0; i < n; i++) {
+            s.add(status.getConstellationType(i), status.getSvid(i),
+                    status.getAzimuthDegrees(i), status.getElevationDegrees(i),
+                    status.getCn0DbHz(i),
+                    status.hasCarrierFrequencyHz(i) ? status.getCarrierFrequencyHz(i) : 0f,
+                    status.usedInFix(i));
+        }
+        s.elapsedRealtimeNanos = elapsedRealtimeNanos;
+        return s;
+    }
+
+    /**
+     * Converte um Location do Android para o modelo GnssFix
+     */
+    static GnssFix toFix(Location location, int source) {
+        GnssFix f = new GnssFix();
+        f.source = source;
+        f.timeMillis = location.getTime();
+        f.elapsedRealtimeNanos = location.getElapsedRealtimeNanos();
+        f.arrivalNanos = SystemClock.elapsedRealtimeNanos();
+        f.latitude = location.getLatitude();
+        f.longitude = location.getLongitude();
+        if (location.hasAltitude()) f.altitude = location.getAltitude();
+        if (location.hasAccuracy()) f.accuracy = location.getAccuracy();
+        if (location.hasSpeed()) f.speed = location.getSpeed();
+        if (location.hasBearing()) f.bearing = location.getBearing();
+        if (location.getExtras() != null) f.satellitesUsed = location.getExtras().getInt("satellites", 0);
+        return f;
+    }
+
+    /**
+     * Copia um GnssMeasurementsEvent para um MeasurementSnapshot novo
+     */
+    static MeasurementSnapshot toMeasurements(GnssMeasurementsEvent event, long elapsedRealtimeNanos) {
+        MeasurementSnapshot m = new MeasurementSnapshot(event.getMeasurements().size());
+        m.elapsedRealtimeNanos = elapsedRealtimeNanos;
+        m.clockTimeNanos = event.getClock().getTimeNanos();
+        if (event.getClock().hasFullBiasNanos()) m.fullBiasNanos = event.getClock().getFullBiasNanos();
+        if (event.getClock().hasBiasNanos()) m.biasNanos = event.getClock().getBiasNanos();
+        for (GnssMeasurement g : event.getMeasurements()) {
+            int i = m.add(g.getConstellationType(), g.getSvid(),
+                    g.hasCarrierFrequencyHz() ? g.getCarrierFrequencyHz() : 0f,
+                    (float) g.getCn0DbHz());
+            m.state[i] = g.getState();
+            m.receivedSvTimeNanos[i] = g.getReceivedSvTimeNanos();
+            m.timeOffsetNanos[i] = g.getTimeOffsetNanos();
+            m.pseudorangeRateMps[i] = g.getPseudorangeRateMetersPerSecond();
+            if ((g.getAccumulatedDeltaRangeState() & GnssMeasurement.ADR_STATE_VALID) != 0) {
+                m.accumulatedDeltaRangeM[i] = g.getAccumulatedDeltaRangeMeters();
+            }
+        }
+        return m;
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.locationaws;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 🌊 Classe GnssStream
+ *
+ * Fluxo de eventos GNSS (status de satélites, fixes...) com política de entrega
+ * escolhida por cada inscrito, para que um consumidor lento não atrase os outros.
+ *
+ * O publicador nunca bloqueia: cada inscrito tem sua própria "caixa de entrada"
+ * e seu próprio Executor (thread principal, uma thread dedicada, etc.).
+ *
+ * Políticas:
+ *  → latest():         só o evento mais recente interessa (os intermediários são descartados)
+ *  → sampled(ms):      no máximo um evento por período; o mais recente da janela é
+ *                      entregue quando ela fecha, os outros são descartados
+ *  → buffered(n):      fila de até n eventos; quando cheia, o evento novo é descartado
+ *
+ * Cada inscrição conta os eventos entregues e descartados.
+ * Exemplo: o gravador usa buffered() e recebe tudo; a tela usa latest() com um
+ * executor por frame e recebe no máximo um evento por frame.
+ *
+ * Os eventos publicados devem ser imutáveis (podem ser entregues a várias threads).
+ */
+public final class GnssStream<T> {
+
+    /** Quem recebe os eventos */
+    public interface Subscriber<T> {
+        void onEvent(T event);
+    }
+
+    /** Relógio monotônico em nanossegundos (substituível nos testes) */
+    public interface Clock {
+        long nanoTime();
+    }
+
+    /** Agenda uma tarefa para daqui a delayNanos no relógio do fluxo (substituível nos testes) */
+    public interface Timer {
+        void schedule(Runnable task, long delayNanos);
+    }
+
+    /** Executor que entrega na própria thread de quem publica */
+    public static final Executor DIRECT = Runnable::run;
+
+    /** Timer de System.nanoTime(): uma thread daemon compartilhada, criada no primeiro uso */
+    public static final Timer SYSTEM_TIMER =
+            (task, delayNanos) -> SystemTimer.INSTANCE.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+
+    private static final class SystemTimer {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gnss-stream-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Runnable onSubscribersChanged;
+    private final Clock clock;
+    private final Timer timer;
+
+    // Último evento publicado (reenviado para quem se inscreve depois)
+    private volatile T last;
+
+    public GnssStream() {
+        this(null, System::nanoTime, SYSTEM_TIMER);
+    }
+
+    /**
+     * @param onSubscribersChanged chamado quando a quantidade de inscritos muda (pode ser null)
+     */
+    public GnssStream(Runnable onSubscribersChanged) {
+        this(onSubscribersChanged, System::nanoTime, SYSTEM_TIMER);
+    }
+
+    /**
+     * @param timer fecha as janelas da política sampled; precisa seguir o mesmo relógio que clock
+     */
+    public GnssStream(Runnable onSubscribersChanged, Clock clock, Timer timer) {
+        this.onSubscribersChanged = onSubscribersChanged;
+        this.clock = clock;
+        this.timer = timer;
+    }
+
+    // ---------- POLÍTICAS ----------
+
+    public static final class Policy {
+        static final int LATEST = 0;
+        static final int SAMPLED = 1;
+        static final int BUFFERED = 2;
+
+        final int kind;
+        final long periodNanos;
+        final int capacity;
+
+        private Policy(int kind, long periodNanos, int capacity) {
+            this.kind = kind;
+            this.periodNanos = periodNanos;
+            this.capacity = capacity;
+        }
+
+        /** Conflação: entrega só o evento mais recente */
+        public static Policy latest() {
+            return new Policy(LATEST, 0, 1);
+        }
+
+        /**
+         * Amostragem: no máximo um evento a cada periodMillis. O primeiro evento depois de uma
+         * pausa sai na hora; o último que chegou durante a janela sai quando ela fecha.
+         */
+        public static Policy sampled(long periodMillis) {
+            return new Policy(SAMPLED, periodMillis * 1_000_000L, 1);
+        }
+
+        /** Fila limitada: guarda até capacity eventos pendentes */
+        public static Policy buffered(int capacity) {
+            if (capacity < 1) throw new IllegalArgumentException("capacity deve ser >= 1");
+            return new Policy(BUFFERED, 0, capacity);
+        }
+    }
+
+    // ---------- PUBLICAÇÃO ----------
+
+    /**
+     * Publica um evento para todos os inscritos (não bloqueia)
+     */
+    public void publish(T event) {
+        last = event;
+        long now = clock.nanoTime();
+        for (Subscription s : subscriptions) s.offer(event, now);
+    }
+
+    public T getLast() {
+        return last;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    // ---------- INSCRIÇÃO ----------
+
+    /**
+     * Inscreve um consumidor. Se já houver um evento publicado, ele é entregue logo em seguida.
+     */
+    public Subscription subscribe(Subscriber<? super T> subscriber, Policy policy, Executor executor) {
+        Subscription s = new Subscription(subscriber, policy, executor);
+        subscriptions.add(s);
+        T cached = last;
+        if (cached != null) s.offer(cached, clock.nanoTime());
+        if (onSubscribersChanged != null) onSubscribersChanged.run();
+        return s;
+    }
+
+    /**
+     * Uma inscrição com sua caixa de entrada, política e contadores
+     */
+    public final class Subscription {
+
+        private final Subscriber<? super T> subscriber;
+        private final Policy policy;
+        private final Executor executor;
+
+        // Caixa de entrada: um único evento (latest/sampled) ou uma fila (buffered)
+        private final AtomicReference<T> pending = new AtomicReference<>();
+        private final ArrayBlockingQueue<T> queue;
+
+        // Evita agendar mais de uma entrega ao mesmo tempo
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        // Política sampled: início da janela atual e o evento guardado para o fim dela.
+        // Protegidos pelo monitor da inscrição: publish(), subscribe() e o timer chegam aqui
+        // de threads diferentes.
+        private long lastAcceptedNanos = Long.MIN_VALUE;
+        private T trailing;
+        private boolean trailingScheduled;
+
+        private volatile boolean cancelled;
+
+        private final Runnable drainTask = this::drain;
+        private final Runnable closeWindowTask = this::closeWindow;
+
+        Subscription(Subscriber<? super T> subscriber, Policy policy, Executor executor) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.executor = executor;
+            this.queue = policy.kind == Policy.BUFFERED ? new ArrayBlockingQueue<>(policy.capacity) : null;
+        }
+
+        public long getDelivered() {
+            return delivered.get();
+        }
+
+        /** Eventos descartados (substituídos, fora do período ou com a fila cheia) */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            subscriptions.remove(this);
+            pending.set(null);
+            if (queue != null) queue.clear();
+            synchronized (this) {
+                trailing = null;
+            }
+            if (onSubscribersChanged != null) onSubscribersChanged.run();
+        }
+
+        void offer(T event, long nowNanos) {
+            if (cancelled) return;
+            switch (policy.kind) {
+                case Policy.SAMPLED:
+                    synchronized (this) {
+                        long wait = lastAcceptedNanos == Long.MIN_VALUE
+                                ? 0 : lastAcceptedNanos + policy.periodNanos - nowNanos;
+                        if (wait > 0) {
+                            // Janela aberta: fica para o fim dela, no lugar do anterior
+                            if (trailing != null) dropped.incrementAndGet();
+                            trailing = event;
+                            if (!trailingScheduled) {
+                                trailingScheduled = true;
+                                timer.schedule(closeWindowTask, wait);
+                            }
+                            return;
+                        }
+                        lastAcceptedNanos = nowNanos;
+                        // O timer atrasou e a janela já fechou: o evento novo vale mais
+                        if (trailing != null) {
+                            dropped.incrementAndGet();
+                            trailing = null;
+                        }
+                        if (pending.getAndSet(event) != null) dropped.incrementAndGet();
+                    }
+                    break;
+                case Policy.BUFFERED:
+                    if (!queue.offer(event)) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    break;
+                default:
+                    if (pending.getAndSet(event) != null) dropped.incrementAndGet();
+                    break;
+            }
+            schedule();
+        }
+
+        /**
+         * Fim da janela (thread do timer): entrega o último evento guardado e abre outra janela
+         */
+        private void closeWindow() {
+            synchronized (this) {
+                if (cancelled || trailing == null) {
+                    trailingScheduled = false;
+                    return;
+                }
+                long now = clock.nanoTime();
+                long wait = lastAcceptedNanos + policy.periodNanos - now;
+                if (wait > 0) {
+                    // Adiantado, ou a janela foi reaberta depois que o timer foi agendado
+                    timer.schedule(closeWindowTask, wait);
+                    return;
+                }
+                trailingScheduled = false;
+                lastAcceptedNanos = now;
+                if (pending.getAndSet(trailing) != null) dropped.incrementAndGet();
+                trailing = null;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) executor.execute(drainTask);
+        }
+
+        /**
+         * Entrega tudo o que estiver pendente, na thread do executor do inscrito
+         */
+        private void drain() {
+            while (true) {
+                T event;
+                while (!cancelled && (event = poll()) != null) {
+                    delivered.incrementAndGet();
+                    subscriber.onEvent(event);
+                }
+                scheduled.set(false);
+                // Um evento pode ter chegado entre o último poll() e o set(false)
+                if (cancelled || !hasPending() || !scheduled.compareAndSet(false, true)) return;
+            }
+        }
+
+        private T poll() {
+            return queue != null ? queue.poll() : pending.getAndSet(null);
+        }
+
+        private boolean hasPending() {
+            return queue != null ? !queue.isEmpty() : pending.get() != null;
+        }
+    }
+}
@@ -0,0 +1,543 @@
+package com.example.locationaws;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * 📶 Classe GnssStreamServer
+ *
+ * Servidor opcional na rede local para acompanhar os satélites e o fix ao vivo de
+ * outro computador (ex.: notebook no carro de campo). HTTP/1.1 e WebSocket (RFC 6455)
+ * sobre NIO, numa única thread com Selector, sem framework:
+ *
+ *  GET /status.json | /status.bin   último status de satélites
+ *  GET /fix.json    | /fix.bin      último fix
+ *  GET /ws[?format=bin]             WebSocket: recebe cada atualização (JSON ou binário)
+ *
+ * O binário é o registro do SessionFormat (SessionFormat.readRecord lê do outro lado).
+ *
+ * A posição não é liberada para páginas de outras origens: sem CORS nas respostas, e
+ * pedidos com cabeçalho Origin diferente do próprio servidor (inclusive o handshake do
+ * WebSocket, que o navegador não bloqueia) recebem 403. Clientes fora do navegador não
+ * mandam Origin e não são afetados.
+ *
+ * Os fluxos do GnssHub são assinados com a política latest() e entregues na própria
+ * thread do seletor: cada atualização é codificada uma vez por formato (GnssWire) e o
+ * mesmo array vai para todos os clientes daquele formato. Um cliente lento acumula no
+ * máximo MAX_QUEUED quadros; além disso os mais antigos ainda não iniciados são
+ * descartados (getDroppedFrames), como na política latest.
+ *
+ * Não depende do Android (o app precisa da permissão INTERNET).
+ */
+public final class GnssStreamServer {
+
+    public static final int DEFAULT_PORT = 8765;
+
+    private static final int MAX_REQUEST = 8 * 1024;
+    private static final int MAX_QUEUED = 16;
+    private static final String WS_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    // Estados da conexão
+    private static final int HTTP = 0;
+    private static final int WEBSOCKET = 1;
+
+    private static final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(MAX_REQUEST);
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        int state = HTTP;
+        int format;
+        boolean closeAfterWrite;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private Selector selector;
+    private ServerSocketChannel server;
+    private Thread loop;
+    private GnssStream<SatelliteSnapshot>.Subscription statusSubscription;
+    private GnssStream<GnssFix>.Subscription fixSubscription;
+
+    // Usados só na thread do seletor
+    private final List<Connection> webSockets = new ArrayList<>();
+    private final int[] subscribers = new int[GnssWire.FORMATS];
+    private final GnssWire wire = new GnssWire();
+    private final GnssWire.Frame[] lastStatus = new GnssWire.Frame[GnssWire.FORMATS];
+    private final GnssWire.Frame[] lastFix = new GnssWire.Frame[GnssWire.FORMATS];
+
+    // Último evento de cada fluxo (eventos publicados são imutáveis) e seus quadros já codificados
+    private SatelliteSnapshot lastPublishedStatus;
+    private GnssFix lastPublishedFix;
+
+    // Entregas dos fluxos, executadas na thread do seletor
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Executor loopExecutor = r -> {
+        tasks.add(r);
+        Selector s = selector;
+        if (s != null) s.wakeup();
+    };
+
+    private volatile boolean stopRequested;
+    private volatile int port = -1;
+    private volatile int connections;
+    private volatile long encodedFrames;
+    private volatile long sentFrames;
+    private volatile long droppedFrames;
+
+    // ---------- CICLO DE VIDA ----------
+
+    public synchronized boolean isRunning() {
+        return loop != null;
+    }
+
+    /**
+     * Abre a porta (0 = qualquer livre) e começa a servir os dois fluxos
+     */
+    public synchronized void start(int listenPort, GnssStream<SatelliteSnapshot> status,
+                                   GnssStream<GnssFix> fixes) throws IOException {
+        if (loop != null) stop();
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        try {
+            server.bind(new InetSocketAddress(listenPort));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+        port = server.socket().getLocalPort();
+        stopRequested = false;
+        final Selector s = selector;
+        final ServerSocketChannel ss = server;
+        loop = new Thread(() -> run(s, ss), "gnss-server");
+        loop.start();
+        statusSubscription = status.subscribe(this::onStatus, GnssStream.Policy.latest(), loopExecutor);
+        fixSubscription = fixes.subscribe(this::onFix, GnssStream.Policy.latest(), loopExecutor);
+    }
+
+    /**
+     * Fecha a porta e todas as conexões
+     */
+    public synchronized void stop() {
+        if (loop == null) return;
+        statusSubscription.cancel();
+        fixSubscription.cancel();
+        // A thread do seletor fecha as conexões, a porta e o seletor ao sair
+        stopRequested = true;
+        selector.wakeup();
+        try {
+            loop.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        loop = null;
+        selector = null;
+        server = null;
+        port = -1;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getConnectionCount() {
+        return connections;
+    }
+
+    /** Quadros codificados (um por atualização e formato com clientes) */
+    public long getEncodedFrames() {
+        return encodedFrames;
+    }
+
+    /** Quadros entregues por completo aos clientes WebSocket */
+    public long getSentFrames() {
+        return sentFrames;
+    }
+
+    /** Quadros descartados em clientes que não acompanharam */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    // ---------- ATUALIZAÇÕES (thread do seletor) ----------
+
+    private void onStatus(SatelliteSnapshot s) {
+        lastPublishedStatus = s;
+        for (int f = 0; f < GnssWire.FORMATS; f++) {
+            // Sem clientes WebSocket no formato: codifica só quando um GET pedir
+            lastStatus[f] = null;
+            if (subscribers[f] > 0) broadcast(lastStatus[f] = encode(s, null, f));
+        }
+    }
+
+    private void onFix(GnssFix fix) {
+        lastPublishedFix = fix;
+        for (int f = 0; f < GnssWire.FORMATS; f++) {
+            lastFix[f] = null;
+            if (subscribers[f] > 0) broadcast(lastFix[f] = encode(null, fix, f));
+        }
+    }
+
+    private GnssWire.Frame encode(SatelliteSnapshot s, GnssFix fix, int format) {
+        encodedFrames++;
+        return s != null ? wire.encodeStatus(s, format) : wire.encodeFix(fix, format);
+    }
+
+    private GnssWire.Frame statusFrame(int format) {
+        if (lastStatus[format] == null && lastPublishedStatus != null) {
+            lastStatus[format] = encode(lastPublishedStatus, null, format);
+        }
+        return lastStatus[format];
+    }
+
+    private GnssWire.Frame fixFrame(int format) {
+        if (lastFix[format] == null && lastPublishedFix != null) {
+            lastFix[format] = encode(null, lastPublishedFix, format);
+        }
+        return lastFix[format];
+    }
+
+    private void broadcast(GnssWire.Frame frame) {
+        // De trás para frente: close() pode tirar a conexão da lista
+        for (int i = webSockets.size() - 1; i >= 0; i--) {
+            Connection c = webSockets.get(i);
+            if (c.format != frame.format) continue;
+            send(c, frame.webSocket());
+            try {
+                flush(c);
+            } catch (IOException e) {
+                close(c);
+            }
+        }
+    }
+
+    // ---------- LAÇO DO SELETOR ----------
+
+    private void run(Selector s, ServerSocketChannel ss) {
+        try {
+            while (!stopRequested) {
+                s.select();
+                Runnable task;
+                while ((task = tasks.poll()) != null) task.run();
+                Iterator<SelectionKey> it = s.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept(s, ss);
+                        continue;
+                    }
+                    Connection c = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) read(c);
+                        if (key.isValid() && key.isWritable()) flush(c);
+                    } catch (IOException | RuntimeException e) {
+                        // Um cliente com defeito não pode derrubar a thread do servidor
+                        close(c);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException ignored) {
+            // Falha do seletor: encerra como num stop()
+        } finally {
+            for (SelectionKey key : s.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                }
+            }
+            try {
+                s.close();
+            } catch (IOException ignored) {
+            }
+            webSockets.clear();
+            subscribers[GnssWire.FORMAT_JSON] = subscribers[GnssWire.FORMAT_BINARY] = 0;
+            tasks.clear();
+            connections = 0;
+        }
+    }
+
+    private void accept(Selector s, ServerSocketChannel ss) throws IOException {
+        SocketChannel channel;
+        while ((channel = ss.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection c = new Connection(channel);
+            c.key = channel.register(s, SelectionKey.OP_READ, c);
+            connections++;
+        }
+    }
+
+    private void read(Connection c) throws IOException {
+        int n = c.channel.read(c.in);
+        if (n < 0) {
+            close(c);
+            return;
+        }
+        if (c.state == HTTP) readRequest(c);
+        else readWebSocket(c);
+    }
+
+    // ---------- HTTP ----------
+
+    private void readRequest(Connection c) throws IOException {
+        ByteBuffer in = c.in;
+        int end = indexOfHeaderEnd(in);
+        if (end < 0) {
+            if (!in.hasRemaining()) respond(c, "431 Request Header Fields Too Large", "text/plain", null);
+            return;
+        }
+        String head = new String(in.array(), 0, end, StandardCharsets.ISO_8859_1);
+        in.clear();
+        String[] lines = head.split("\r\n");
+        String[] request = lines[0].split(" ");
+        if (request.length < 3) {
+            respond(c, "400 Bad Request", "text/plain", null);
+            return;
+        }
+        if (!request[0].equals("GET")) {
+            respond(c, "405 Method Not Allowed", "text/plain", null);
+            return;
+        }
+        String path = request[1];
+        int q = path.indexOf('?');
+        String query = q >= 0 ? path.substring(q + 1) : "";
+        if (q >= 0) path = path.substring(0, q);
+
+        String webSocketKey = null, host = null, origin = null;
+        boolean upgrade = false;
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) continue;
+            String name = lines[i].substring(0, colon).trim().toLowerCase(Locale.US);
+            String value = lines[i].substring(colon + 1).trim();
+            if (name.equals("sec-websocket-key")) webSocketKey = value;
+            else if (name.equals("upgrade")) upgrade = value.equalsIgnoreCase("websocket");
+            else if (name.equals("host")) host = value;
+            else if (name.equals("origin")) origin = value;
+        }
+        if (origin != null && !origin.equalsIgnoreCase("http://" + host)) {
+            respond(c, "403 Forbidden", "text/plain", null);
+            return;
+        }
+
+        switch (path) {
+            case "/ws":
+                if (!upgrade || webSocketKey == null) {
+                    respond(c, "426 Upgrade Required", "text/plain", null);
+                } else {
+                    openWebSocket(c, webSocketKey, query.contains("format=bin")
+                            ? GnssWire.FORMAT_BINARY : GnssWire.FORMAT_JSON);
+                }
+                break;
+            case "/status.json":
+                respondFrame(c, statusFrame(GnssWire.FORMAT_JSON));
+                break;
+            case "/status.bin":
+                respondFrame(c, statusFrame(GnssWire.FORMAT_BINARY));
+                break;
+            case "/fix.json":
+                respondFrame(c, fixFrame(GnssWire.FORMAT_JSON));
+                break;
+            case "/fix.bin":
+                respondFrame(c, fixFrame(GnssWire.FORMAT_BINARY));
+                break;
+            case "/":
+                respond(c, "200 OK", "text/plain; charset=utf-8", ByteBuffer.wrap((
+                        "GNSS ao vivo\n\n"
+                                + "/status.json  /status.bin   último status de satélites\n"
+                                + "/fix.json     /fix.bin      último fix\n"
+                                + "/ws[?format=bin]            WebSocket com cada atualização\n")
+                        .getBytes(StandardCharsets.UTF_8)));
+                break;
+            default:
+                respond(c, "404 Not Found", "text/plain", null);
+        }
+    }
+
+    private void respondFrame(Connection c, GnssWire.Frame frame) throws IOException {
+        if (frame == null) respond(c, "204 No Content", "text/plain", null);
+        else respond(c, "200 OK", frame.contentType(), frame.payload());
+    }
+
+    private void respond(Connection c, String status, String contentType, ByteBuffer body)
+            throws IOException {
+        int length = body == null ? 0 : body.remaining();
+        String head = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + length + "\r\n"
+                + "Cache-Control: no-store\r\n"
+                + "Connection: close\r\n\r\n";
+        c.closeAfterWrite = true;
+        send(c, ByteBuffer.wrap(head.getBytes(StandardCharsets.ISO_8859_1)));
+        if (body != null) send(c, body);
+        flush(c);
+    }
+
+    private static int indexOfHeaderEnd(ByteBuffer in) {
+        byte[] a = in.array();
+        for (int i = 3; i < in.position(); i++) {
+            if (a[i] == '\n' && a[i - 1] == '\r' && a[i - 2] == '\n' && a[i - 3] == '\r') return i + 1;
+        }
+        return -1;
+    }
+
+    // ---------- WEBSOCKET ----------
+
+    private void openWebSocket(Connection c, String webSocketKey, int format) throws IOException {
+        String head = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(webSocketKey) + "\r\n\r\n";
+        c.state = WEBSOCKET;
+        c.format = format;
+        webSockets.add(c);
+        subscribers[format]++;
+        send(c, ByteBuffer.wrap(head.getBytes(StandardCharsets.ISO_8859_1)));
+        // Estado atual logo na conexão
+        GnssWire.Frame status = statusFrame(format), fix = fixFrame(format);
+        if (status != null) send(c, status.webSocket());
+        if (fix != null) send(c, fix.webSocket());
+        flush(c);
+    }
+
+    static String acceptKey(String webSocketKey) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((webSocketKey + WS_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Quadros do cliente (sempre mascarados): responde ping e close, ignora o resto.
+     * Quadro sem máscara ou com tamanho fora do limite (inclusive negativo, com o bit
+     * alto do tamanho de 64 bits ligado) derruba a conexão.
+     */
+    private void readWebSocket(Connection c) throws IOException {
+        ByteBuffer in = c.in;
+        in.flip();
+        while (in.remaining() >= 2) {
+            int start = in.position();
+            int b0 = in.get() & 0xFF, b1 = in.get() & 0xFF;
+            int opcode = b0 & 0x0F;
+            if ((b1 & 0x80) == 0) {
+                close(c); // RFC 6455 §5.1: o cliente sempre mascara
+                return;
+            }
+            long length = b1 & 0x7F;
+            int extra = length == 126 ? 2 : length == 127 ? 8 : 0;
+            if (in.remaining() < extra + 4) {
+                in.position(start);
+                break;
+            }
+            if (length == 126) length = in.getShort() & 0xFFFF;
+            else if (length == 127) length = in.getLong();
+            if (length < 0 || length > MAX_REQUEST - 14) {
+                close(c); // maior que o buffer: o servidor não espera mensagens grandes
+                return;
+            }
+            if (in.remaining() < 4 + length) {
+                in.position(start);
+                break;
+            }
+            byte[] mask = new byte[4];
+            in.get(mask);
+            byte[] payload = new byte[(int) length];
+            in.get(payload);
+            for (int i = 0; i < payload.length; i++) payload[i] ^= mask[i & 3];
+
+            if (opcode == 0x8) {
+                c.closeAfterWrite = true;
+                send(c, controlFrame(0x8, payload));
+            } else if (opcode == 0x9) {
+                send(c, controlFrame(0xA, payload));
+            }
+        }
+        in.compact();
+        flush(c);
+    }
+
+    private static ByteBuffer controlFrame(int opcode, byte[] payload) {
+        int n = Math.min(payload.length, 125);
+        byte[] out = new byte[2 + n];
+        GnssWire.writeHeader(out, opcode, n);
+        System.arraycopy(payload, 0, out, 2, n);
+        return ByteBuffer.wrap(out);
+    }
+
+    // ---------- ESCRITA ----------
+
+    private void send(Connection c, ByteBuffer buffer) {
+        if (c.out.size() >= MAX_QUEUED) {
+            // Mantém o quadro em andamento e descarta o mais antigo ainda não iniciado
+            ByteBuffer head = c.out.pollFirst();
+            if (head.position() > 0) {
+                c.out.pollFirst();
+                c.out.addFirst(head);
+            }
+            droppedFrames++;
+        }
+        c.out.addLast(buffer);
+    }
+
+    private void flush(Connection c) throws IOException {
+        SelectionKey key = c.key;
+        ByteBuffer b;
+        while ((b = c.out.peekFirst()) != null) {
+            c.channel.write(b);
+            if (b.hasRemaining()) break;
+            c.out.pollFirst();
+            if (c.state == WEBSOCKET) sentFrames++;
+        }
+        if (c.out.isEmpty()) {
+            if (c.closeAfterWrite) {
+                close(c);
+                return;
+            }
+            if ((key.interestOps() & SelectionKey.OP_WRITE) != 0) key.interestOps(SelectionKey.OP_READ);
+        } else if ((key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void close(Connection c) {
+        if (!c.key.isValid()) return;
+        c.key.cancel();
+        closeQuietly(c.channel);
+        if (c.state == WEBSOCKET && webSockets.remove(c)) subscribers[c.format]--;
+        connections--;
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.locationaws;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 🧵 Classe GnssSurfaceView
+ *
+ * Alternativa à GNSSView: o mesmo radar (SkyPlotRenderer), porém desenhado
+ * numa thread própria, dentro de uma SurfaceView.
+ *
+ * → A thread de renderização tem seu próprio Choreographer, então cada frame
+ *   começa no vsync, sem disputar a thread principal com diálogos, toques
+ *   ou escrita de preferências.
+ * → A thread principal só entrega o snapshot ao renderizador (cópia curta, sem alocação).
+ * → O filtro é o mesmo da GNSSView (SatelliteFilterStore).
+ */
+public class GnssSurfaceView extends SurfaceView implements SurfaceHolder.Callback {
+
+    // Mesma velocidade de varredura da GNSSView (3° a cada 30 ms)
+    private static final float SWEEP_DEGREES_PER_SECOND = 100f;
+
+    private final SkyPlotRenderer renderer;
+    private final FrameStats frameStats = new FrameStats();
+    private volatile boolean showFrameStats;
+
+    // Filtro compartilhado (o mesmo configurado pela GNSSView)
+    private final SatelliteFilterStore filterStore;
+    private GnssStream<SatelliteFilter>.Subscription filterSubscription;
+
+    // Thread de renderização (existe enquanto a superfície existir)
+    private HandlerThread renderThread;
+    private Handler renderHandler;
+
+    // ---------- ESTADO DA THREAD DE RENDERIZAÇÃO ----------
+
+    private boolean rendering;
+    private int surfaceWidth;
+    private int surfaceHeight;
+    private long lastFrameTimeNanos;
+    private float sweepAngle;
+
+    // ---------- CONSTRUTORES ----------
+
+    public GnssSurfaceView(Context context) {
+        this(context, null);
+    }
+
+    public GnssSurfaceView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+
+        int colorUsedSatellites = Color.parseColor("#4CAF50");
+        if (attrs != null) {
+            TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.GNSSView);
+            colorUsedSatellites = a.getColor(R.styleable.GNSSView_colorUsedSatellites, colorUsedSatellites);
+            a.recycle();
+        }
+        renderer = new SkyPlotRenderer(context, colorUsedSatellites);
+
+        filterStore = SatelliteFilterStore.get(context);
+        renderer.setFilter(filterStore.getFilter());
+
+        getHolder().addCallback(this);
+    }
+
+    // ---------- DADOS ----------
+
+    /**
+     * Entrega o snapshot mais recente. Pode ser chamado de qualquer thread;
+     * o próximo frame da thread de renderização já o desenha.
+     */
+    public void updateSatellites(SatelliteSnapshot snapshot) {
+        renderer.setSatellites(snapshot);
+    }
+
+    /**
+     * Mostra (ou esconde) no rodapé as estatísticas de frame da thread de renderização
+     */
+    public void setShowFrameStats(boolean show) {
+        showFrameStats = show;
+    }
+
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    // ---------- CICLO DE VIDA ----------
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // O renderizador aceita o filtro de qualquer thread: entrega direta
+        filterSubscription = filterStore.stream().subscribe(renderer::setFilter,
+                GnssStream.Policy.latest(), GnssStream.DIRECT);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        filterSubscription.cancel();
+    }
+
+    @Override
+    public void surfaceCreated(@NonNull SurfaceHolder holder) {
+        renderThread = new HandlerThread("skyplot-render", Process.THREAD_PRIORITY_DISPLAY);
+        renderThread.start();
+        renderHandler = new Handler(renderThread.getLooper());
+    }
+
+    @Override
+    public void surfaceChanged(@NonNull SurfaceHolder holder, int format, int width, int height) {
+        Display display = getDisplay();
+        if (display != null) {
+            frameStats.setVsyncNanos((long) (1_000_000_000L / display.getRefreshRate()));
+        }
+        renderHandler.post(() -> {
+            surfaceWidth = width;
+            surfaceHeight = height;
+            if (!rendering) {
+                rendering = true;
+                lastFrameTimeNanos = 0;
+                frameStats.reset();
+                Choreographer.getInstance().postFrameCallback(frameCallback);
+            }
+        });
+    }
+
+    /**
+     * A superfície só pode ser liberada depois que a thread parar de desenhar nela:
+     * para o loop, encerra a thread e espera.
+     */
+    @Override
+    public void surfaceDestroyed(@NonNull SurfaceHolder holder) {
+        renderHandler.post(() -> {
+            rendering = false;
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+        });
+        renderThread.quitSafely();
+        try {
+            renderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        renderThread = null;
+        renderHandler = null;
+    }
+
+    // ---------- LOOP DE RENDERIZAÇÃO ----------
+
+    // Um frame por vsync, na thread de renderização
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!rendering) return;
+            long start = System.nanoTime();
+
+            // Varredura proporcional ao tempo real (não ao número de frames)
+            if (lastFrameTimeNanos > 0) {
+                sweepAngle += (frameTimeNanos - lastFrameTimeNanos) / 1e9f * SWEEP_DEGREES_PER_SECOND;
+                sweepAngle %= 360f;
+            }
+            lastFrameTimeNanos = frameTimeNanos;
+
+            SurfaceHolder holder = getHolder();
+            Canvas canvas = holder.lockHardwareCanvas();
+            if (canvas != null) {
+                try {
+                    canvas.drawColor(SkyPlotRenderer.BACKGROUND_COLOR);
+                    renderer.draw(canvas, surfaceWidth, surfaceHeight, sweepAngle,
+                            showFrameStats ? "Render thread: " + frameStats.getSummary() : null);
+                } finally {
+                    holder.unlockCanvasAndPost(canvas);
+                }
+            }
+            frameStats.onFrame(frameTimeNanos, System.nanoTime() - start);
+
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    };
+}
@@ -0,0 +1,190 @@
+package com.example.locationaws;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 📡 Classe GnssWire
+ *
+ * Codifica status de satélites e fixes para o GnssStreamServer, uma vez por atualização:
+ *  → FORMAT_JSON: objeto JSON ASCII ({"type":"status",...} / {"type":"fix",...})
+ *  → FORMAT_BINARY: o mesmo registro dos arquivos de sessão (SessionFormat.writeStatus/writeFix),
+ *    lido do outro lado com SessionFormat.readRecord
+ *
+ * O resultado é um Frame: quadro WebSocket (cabeçalho + conteúdo) num único byte[] imutável.
+ * Cada cliente recebe só uma visão (ByteBuffer.wrap) desse array, nunca uma cópia; respostas
+ * HTTP usam a visão só do conteúdo.
+ *
+ * Reaproveita os buffers de trabalho: uma instância por thread. Não depende do Android.
+ */
+final class GnssWire {
+
+    static final int FORMAT_JSON = 0;
+    static final int FORMAT_BINARY = 1;
+    static final int FORMATS = 2;
+
+    private static final int OPCODE_TEXT = 0x1;
+    private static final int OPCODE_BINARY = 0x2;
+
+    /**
+     * Quadro pronto para envio (imutável, compartilhado entre todos os clientes)
+     */
+    static final class Frame {
+        final int format;
+        private final byte[] data;
+        private final int headerLength;
+
+        private Frame(int format, byte[] data, int headerLength) {
+            this.format = format;
+            this.data = data;
+            this.headerLength = headerLength;
+        }
+
+        /** Visão do quadro WebSocket completo (sem copiar os bytes) */
+        ByteBuffer webSocket() {
+            return ByteBuffer.wrap(data);
+        }
+
+        /** Visão só do conteúdo, para respostas HTTP */
+        ByteBuffer payload() {
+            return ByteBuffer.wrap(data, headerLength, data.length - headerLength).slice();
+        }
+
+        int payloadLength() {
+            return data.length - headerLength;
+        }
+
+        String contentType() {
+            return format == FORMAT_JSON ? "application/json" : "application/octet-stream";
+        }
+    }
+
+    // Buffers de trabalho reaproveitados entre atualizações
+    private final StringBuilder json = new StringBuilder(4096);
+    private final ExposedBytes bytes = new ExposedBytes();
+    private final DataOutputStream data = new DataOutputStream(bytes);
+
+    // ---------- CODIFICAÇÃO ----------
+
+    Frame encodeStatus(SatelliteSnapshot s, int format) {
+        if (format == FORMAT_BINARY) {
+            bytes.reset();
+            try {
+                SessionFormat.writeStatus(data, s);
+            } catch (IOException e) {
+                throw new IllegalStateException(e); // memória: não acontece
+            }
+            return binaryFrame();
+        }
+        StringBuilder sb = json;
+        sb.setLength(0);
+        sb.append("{\"type\":\"status\",\"t\":").append(s.elapsedRealtimeNanos).append(",\"sats\":[");
+        for (int i = 0; i < s.count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"c\":").append(s.constellation[i])
+                    .append(",\"svid\":").append(s.svid[i]);
+            appendNumber(sb.append(",\"az\":"), s.azimuth[i]);
+            appendNumber(sb.append(",\"el\":"), s.elevation[i]);
+            appendNumber(sb.append(",\"cn0\":"), s.cn0[i]);
+            appendNumber(sb.append(",\"hz\":"), s.carrierHz[i]);
+            sb.append(",\"used\":").append(s.usedInFix[i]).append('}');
+        }
+        sb.append("]}");
+        return textFrame();
+    }
+
+    Frame encodeFix(GnssFix f, int format) {
+        if (format == FORMAT_BINARY) {
+            bytes.reset();
+            try {
+                SessionFormat.writeFix(data, f);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return binaryFrame();
+        }
+        StringBuilder sb = json;
+        sb.setLength(0);
+        sb.append("{\"type\":\"fix\",\"t\":").append(f.elapsedRealtimeNanos)
+                .append(",\"src\":").append(f.source)
+                .append(",\"time\":").append(f.timeMillis);
+        appendNumber(sb.append(",\"lat\":"), f.latitude);
+        appendNumber(sb.append(",\"lon\":"), f.longitude);
+        appendNumber(sb.append(",\"alt\":"), f.altitude);
+        appendNumber(sb.append(",\"acc\":"), f.accuracy);
+        appendNumber(sb.append(",\"speed\":"), f.speed);
+        appendNumber(sb.append(",\"bearing\":"), f.bearing);
+        appendNumber(sb.append(",\"hdop\":"), f.hdop);
+        appendNumber(sb.append(",\"vdop\":"), f.vdop);
+        appendNumber(sb.append(",\"pdop\":"), f.pdop);
+        sb.append(",\"quality\":").append(f.fixQuality)
+                .append(",\"sats\":").append(f.satellitesUsed).append('}');
+        return textFrame();
+    }
+
+    // ---------- QUADROS WEBSOCKET ----------
+
+    /** Tamanho do cabeçalho de um quadro do servidor (sem máscara) */
+    static int headerLength(int payloadLength) {
+        if (payloadLength < 126) return 2;
+        if (payloadLength < 65_536) return 4;
+        return 10;
+    }
+
+    static void writeHeader(byte[] out, int opcode, int payloadLength) {
+        out[0] = (byte) (0x80 | opcode); // FIN
+        if (payloadLength < 126) {
+            out[1] = (byte) payloadLength;
+        } else if (payloadLength < 65_536) {
+            out[1] = 126;
+            out[2] = (byte) (payloadLength >>> 8);
+            out[3] = (byte) payloadLength;
+        } else {
+            out[1] = 127;
+            for (int k = 0; k < 8; k++) out[2 + k] = (byte) ((long) payloadLength >>> (56 - 8 * k));
+        }
+    }
+
+    private Frame textFrame() {
+        int n = json.length();
+        int header = headerLength(n);
+        byte[] out = new byte[header + n];
+        writeHeader(out, OPCODE_TEXT, n);
+        // Só ASCII (chaves fixas e números): um char = um byte
+        for (int i = 0; i < n; i++) out[header + i] = (byte) json.charAt(i);
+        return new Frame(FORMAT_JSON, out, header);
+    }
+
+    private Frame binaryFrame() {
+        int n = bytes.size();
+        int header = headerLength(n);
+        byte[] out = new byte[header + n];
+        writeHeader(out, OPCODE_BINARY, n);
+        System.arraycopy(bytes.buffer(), 0, out, header, n);
+        return new Frame(FORMAT_BINARY, out, header);
+    }
+
+    // JSON não tem NaN/infinito: vira null
+    private static void appendNumber(StringBuilder sb, double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) sb.append("null");
+        else sb.append(v);
+    }
+
+    private static void appendNumber(StringBuilder sb, float v) {
+        if (Float.isNaN(v) || Float.isInfinite(v)) sb.append("null");
+        else sb.append(v);
+    }
+
+    // ByteArrayOutputStream com acesso ao array interno (evita toByteArray a cada atualização)
+    private static final class ExposedBytes extends ByteArrayOutputStream {
+        ExposedBytes() {
+            super(4096);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -1,51 +1,93 @@
 package com.example.locationaws;
 
-import android.Manifest;
 import android.annotation.SuppressLint;
-import android.content.pm.PackageManager;
-import android.location.GnssStatus;
-import android.location.Location;
-import android.location.LocationListener;
-import android.location.LocationManager;
 import android.os.Bundle;
+import android.os.SystemClock;
+import android.view.ViewTreeObserver;
 import android.widget.ScrollView;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.app.ActivityCompat;
 
 public class GpsLocationActivity extends AppCompatActivity {
 
-    private LocationManager locationManager;
+    private GnssHub gnssHub;
     private TextView txtInfo;
     private ScrollView scrollView;
 
-    private final GnssStatus.Callback gnssCallback = new GnssStatus.Callback() {
-        @Override
-        public void onSatelliteStatusChanged(@NonNull GnssStatus status) {
-            StringBuilder sb = new StringBuilder();
-            sb.append("Satélites detectados: ").append(status.getSatelliteCount()).append("\n\n");
-            for (int i = 0; i < status.getSatelliteCount(); i++) {
-                sb.append("Sat #").append(i + 1)
-                        .append(": Az: ").append((int) status.getAzimuthDegrees(i))
-                        .append("° | El: ").append((int) status.getElevationDegrees(i))
-                        .append("° | Usado no Fix: ").append(status.usedInFix(i) ? "Sim" : "Não")
-                        .append("\n");
-            }
-            txtInfo.setText(sb.toString());
+    // Inscrições nos fluxos do hub (ativas entre onStart e onStop)
+    private GnssStream<SatelliteSnapshot>.Subscription statusSubscription;
+    private GnssStream<GnssFix>.Subscription fixSubscription;
+
+    // Sinais filtrados e agrupados por satélite (só a thread principal mexe)
+    private final SatelliteSnapshot filtered = new SatelliteSnapshot(64);
+    private final SignalAggregator satellites = new SignalAggregator(64);
+
+    // Bandas listadas em cada linha, na ordem
+    private static final int[] BANDS = {
+            GnssConstellation.BAND_L1, GnssConstellation.BAND_L2,
+            GnssConstellation.BAND_L5, GnssConstellation.BAND_E6
+    };
 
-            // Scroll para o fim automaticamente
-            scrollView.post(() -> scrollView.fullScroll(ScrollView.FOCUS_DOWN));
+    // Lista de satélites: reconstruída no máximo uma vez por frame (setText é caro)
+    private void showStatus(SatelliteSnapshot snapshot) {
+        StringBuilder sb = new StringBuilder();
+        appendTtffSummary(sb);
+        appendNmeaSummary(sb);
+        // Mesmo filtro configurado no radar (constelações, bandas, limiares); uma linha por satélite
+        SatelliteFilterStore.get(this).getFilter().apply(snapshot, filtered);
+        satellites.aggregate(filtered);
+        sb.append("Satélites detectados: ").append(satellites.size())
+                .append(" (").append(satellites.getSignalCount()).append(" sinais)\n\n");
+        SatelliteSnapshot nmeaSats = gnssHub.getLastNmeaSatellites();
+        for (int i = 0; i < satellites.size(); i++) {
+            // Alguns chipsets não informam C/N0 no GnssStatus: usa o SNR da GSV nesse caso
+            float cn0 = satellites.getCn0(i);
+            if (cn0 <= 0 && nmeaSats != null) {
+                int n = nmeaSats.indexOfSatellite(satellites.getConstellation(i), satellites.getSvid(i));
+                if (n >= 0) cn0 = nmeaSats.getCn0(n);
+            }
+            sb.append("Sat #").append(i + 1)
+                    .append(": Az: ").append((int) satellites.getAzimuth(i))
+                    .append("° | El: ").append((int) satellites.getElevation(i))
+                    .append("° | C/N0: ").append((int) cn0)
+                    .append(" | Usado no Fix: ").append(satellites.isUsedInFix(i) ? "Sim" : "Não");
+            appendBands(sb, i);
+            sb.append("\n");
         }
+        txtInfo.setText(sb.toString());
+
+        // Scroll para o fim automaticamente
+        scrollView.post(() -> scrollView.fullScroll(ScrollView.FOCUS_DOWN));
+    }
+
+    // Chegada do último fix escrito na tela e ainda não desenhado (0 = nenhum)
+    private long pendingFixArrival;
+
+    // Fecha a medição "fix.drawn" no primeiro frame desenhado depois do append
+    private final ViewTreeObserver.OnDrawListener fixDrawListener = () -> {
+        if (pendingFixArrival == 0) return;
+        gnssHub.getLatencyTracer().mark(LatencyTracer.FIX_DRAWN, pendingFixArrival);
+        pendingFixArrival = 0;
     };
 
-    private final LocationListener locationListener = location -> {
+    private void showFix(GnssFix fix) {
+        gnssHub.getLatencyTracer().mark(LatencyTracer.FIX_DELIVERED, fix.getArrivalNanos());
+        pendingFixArrival = fix.getArrivalNanos();
         String loc = String.format(
                 "\n📍 Localização:\nLatitude: %.6f\nLongitude: %.6f\nAltitude: %.1f m",
-                location.getLatitude(), location.getLongitude(), location.getAltitude());
+                fix.getLatitude(), fix.getLongitude(), fix.getAltitude());
         txtInfo.append(loc);
-    };
+    }
+
+    // Eventos das cercas locais (chegam na thread principal, junto com o fix)
+    private final GeofenceEngine.Listener geofenceListener = (event, fenceId, fix) ->
+            Toast.makeText(this, "🚧 " + GeofenceEngine.eventName(event) + ": " + fenceId, Toast.LENGTH_SHORT).show();
+
+    // A inscrição NMEA mantém o hub decodificando GGA/GSA/GSV (resumo e C/N0 de reserva)
+    private final GnssHub.NmeaListener nmeaListener = (fix, satellites) -> { };
 
     @SuppressLint("MissingInflatedId")
     @Override
@@ -59,23 +101,72 @@ public class GpsLocationActivity extends AppCompatActivity {
         // 🔹 Ajusta tamanho da letra menor para caber todos os satélites
         txtInfo.setTextSize(14f);
 
-        locationManager = (LocationManager) getSystemService(LOCATION_SERVICE);
+        gnssHub = GnssHub.get(this);
+        GnssHub.ensureLocationPermission(this);
+        txtInfo.getViewTreeObserver().addOnDrawListener(fixDrawListener);
+    }
 
-        if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION)
-                != PackageManager.PERMISSION_GRANTED) {
-            ActivityCompat.requestPermissions(this,
-                    new String[]{Manifest.permission.ACCESS_FINE_LOCATION}, 100);
-            return;
-        }
+    @Override
+    protected void onStart() {
+        super.onStart();
+        gnssHub.subscribeNmea(nmeaListener);
+        gnssHub.getGeofenceEngine().addListener(geofenceListener);
+        statusSubscription = gnssHub.statusStream().subscribe(this::showStatus,
+                GnssStream.Policy.latest(), FrameExecutor.MAIN);
+        // Cada fix vira uma linha: fila pequena para não perder nenhum entre frames
+        fixSubscription = gnssHub.fixStream().subscribe(this::showFix,
+                GnssStream.Policy.buffered(16), FrameExecutor.MAIN);
+    }
 
-        locationManager.registerGnssStatusCallback(gnssCallback);
-        locationManager.requestLocationUpdates(LocationManager.GPS_PROVIDER, 2000, 0, locationListener);
+    @Override
+    protected void onStop() {
+        super.onStop();
+        fixSubscription.cancel();
+        statusSubscription.cancel();
+        gnssHub.unsubscribeNmea(nmeaListener);
+        gnssHub.getGeofenceEngine().removeListener(geofenceListener);
     }
 
     @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        locationManager.removeUpdates(locationListener);
-        locationManager.unregisterGnssStatusCallback(gnssCallback);
+    public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode == GnssHub.REQUEST_LOCATION_PERMISSION) {
+            gnssHub.onPermissionResult();
+        }
+    }
+
+    // TTFF da sessão atual e quantis das sessões anteriores (TtffLog)
+    private void appendTtffSummary(StringBuilder sb) {
+        TtffSession current = gnssHub.getTtffTracker().current(SystemClock.elapsedRealtimeNanos());
+        if (current != null) sb.append("⏱️ ").append(current.format()).append("\n");
+        TtffLog.Aggregate history = gnssHub.getTtffLog().getAggregate();
+        if (history.sessions > 0) {
+            sb.append("Histórico (").append(history.sessions).append(" sessões) p50/p90/p99: ")
+                    .append(history.ttffSeconds.format(1)).append(" s\n");
+        }
+        sb.append("\n");
+    }
+
+    // C/N0 por banda quando o satélite chega em mais de uma (ex.: " | L1 38✓ L5 33")
+    private void appendBands(StringBuilder sb, int i) {
+        int bands = satellites.getBandMask(i) & ~GnssConstellation.BAND_UNKNOWN;
+        if (Integer.bitCount(bands) < 2) return;
+        sb.append(" |");
+        for (int band : BANDS) {
+            if ((bands & band) == 0) continue;
+            sb.append(' ').append(GnssConstellation.bandName(band))
+                    .append(' ').append((int) satellites.getBandCn0(i, band));
+            if ((satellites.getUsedBandMask(i) & band) != 0) sb.append('✓');
+        }
+    }
+
+    // Resumo do fix segundo o próprio receptor (sentenças GGA/GSA)
+    private void appendNmeaSummary(StringBuilder sb) {
+        GnssFix fix = gnssHub.getLastNmeaFix();
+        if (fix == null) return;
+        sb.append("NMEA → Qualidade: ").append(fix.getFixQuality())
+                .append(" | Sats: ").append(fix.getSatellitesUsed())
+                .append(" | HDOP: ").append(Float.isNaN(fix.getHdop()) ? "-" : String.valueOf(fix.getHdop()))
+                .append("\n\n");
     }
 }
@@ -1,14 +1,13 @@
 package com.example.locationaws;
 
-import android.Manifest;
-import android.content.pm.PackageManager;
-import android.location.GnssStatus;
-import android.location.LocationManager;
 import android.os.Bundle;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.Button;
+import android.widget.FrameLayout;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.app.ActivityCompat;
 
 /**
  * 📡 Classe GpsViewActivity
@@ -17,85 +16,157 @@ import androidx.core.app.ActivityCompat;
  * (GPS, GLONASS, Galileo, etc.) em uma interface personalizada.
  *
  * A comunicação é feita entre:
- *  → o LocationManager (que fornece o status GNSS do Android)
+ *  → o GnssHub (que mantém a inscrição única no LocationManager do Android)
  *  → a GNSSView (componente gráfico customizado que desenha os satélites na tela)
+ *
+ * 🧪 Modo comparação (EXTRA_COMPARE): um botão alterna em tempo real entre a GNSSView
+ * (desenho na thread principal) e a GnssSurfaceView (desenho numa thread própria),
+ * com as estatísticas de frame de cada uma no rodapé.
  */
 public class GpsViewActivity extends AppCompatActivity {
 
-    // Gerenciador de localização do sistema Android (controla o GPS)
-    private LocationManager locationManager;
+    // Extras do Intent: abre em modo comparação / já com a thread de renderização
+    public static final String EXTRA_COMPARE = "compare";
+    public static final String EXTRA_RENDER_THREAD = "renderThread";
+
+    // Ponto único de acesso aos dados GNSS do aparelho
+    private GnssHub gnssHub;
+
+    // Container onde fica o radar ativo (e o botão de troca, no modo comparação)
+    private FrameLayout root;
 
-    // Componente customizado responsável por desenhar os satélites na tela
+    // Radar ativo: apenas um dos dois existe por vez
     private GNSSView gnssView;
+    private GnssSurfaceView surfaceView;
 
-    /**
-     * 🔭 Callback que é chamado automaticamente toda vez que o status dos satélites muda.
-     * O sistema Android envia as atualizações GNSS (como número de satélites, azimute e elevação)
-     * e aqui repassamos essas informações para o componente gráfico GNSSView.
-     */
-    private final GnssStatus.Callback gnssCallback = new GnssStatus.Callback() {
-
-        @Override
-        public void onSatelliteStatusChanged(@NonNull GnssStatus status) {
-            // Executa o código na thread principal da interface (UI Thread)
-            runOnUiThread(() -> {
-                // Atualiza a GNSSView com o novo status de satélites
-                // (a GNSSView provavelmente chamará invalidate() para redesenhar)
-                if (gnssView != null) {
-                    gnssView.updateSatellites(status);
-                }
-            });
-        }
-    };
+    private boolean compareMode;
+    private boolean useRenderThread;
+    private Button btnSwitch;
+
+    // Inscrição no fluxo de status dos satélites (ativa entre onStart e onStop)
+    private GnssStream<SatelliteSnapshot>.Subscription statusSubscription;
 
     /**
      * 🧩 Método chamado quando a Activity é criada (ciclo de vida do Android).
-     * Aqui configuramos a interface e inicializamos o acesso ao GPS.
+     * Aqui configuramos a interface e obtemos o hub GNSS.
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        // Cria uma nova instância da view personalizada (GNSSView)
-        gnssView = new GNSSView(this);
+        compareMode = getIntent().getBooleanExtra(EXTRA_COMPARE, false);
+        useRenderThread = getIntent().getBooleanExtra(EXTRA_RENDER_THREAD, false);
+        if (savedInstanceState != null) {
+            useRenderThread = savedInstanceState.getBoolean(EXTRA_RENDER_THREAD, useRenderThread);
+        }
 
-        // Define essa view como conteúdo principal da Activity
-        setContentView(gnssView);
+        // Container do radar: a view personalizada é criada em showPlot()
+        root = new FrameLayout(this);
+        setContentView(root);
 
-        // Obtém o gerenciador de localização (para acessar o GPS e GNSS)
-        locationManager = (LocationManager) getSystemService(LOCATION_SERVICE);
+        if (compareMode) {
+            btnSwitch = new Button(this);
+            btnSwitch.setOnClickListener(v -> switchRenderer());
+            FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(
+                    FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT,
+                    Gravity.TOP | Gravity.END);
+            root.addView(btnSwitch, lp);
+        }
+        showPlot();
 
-        // ⚠️ Verifica se o app tem permissão para acessar localização precisa (GPS)
-        if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION)
-                != PackageManager.PERMISSION_GRANTED) {
+        gnssHub = GnssHub.get(this);
 
-            // Se não tiver, solicita a permissão em tempo de execução
-            ActivityCompat.requestPermissions(
-                    this,
-                    new String[]{Manifest.permission.ACCESS_FINE_LOCATION},
-                    2001 // Código identificador da requisição
-            );
-            return; // Sai do método até o usuário conceder a permissão
-        }
+        // ⚠️ Pede a permissão de localização precisa (GPS), se ainda não foi concedida
+        GnssHub.ensureLocationPermission(this);
+    }
 
-        // ✅ Se a permissão foi concedida, registra o callback do GNSS
-        // Isso inicia o monitoramento dos satélites (chamadas periódicas ao gnssCallback)
-        locationManager.registerGnssStatusCallback(gnssCallback);
+    /**
+     * ▶️ Tela visível: inscreve no hub. Se já houver um status em cache,
+     * o radar é desenhado na hora, sem esperar o próximo callback.
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        subscribe();
     }
 
     /**
-     * 🧹 Método chamado automaticamente quando a Activity é destruída (fechada).
-     * Aqui fazemos a limpeza de recursos e removemos os callbacks GNSS
-     * para evitar vazamentos de memória e uso desnecessário de bateria.
+     * ⏹️ Tela oculta: cancela a inscrição. Quando a última tela sair,
+     * o hub libera o GPS para economizar bateria.
      */
     @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        try {
-            // Cancela o recebimento de atualizações GNSS
-            locationManager.unregisterGnssStatusCallback(gnssCallback);
-        } catch (Exception ignored) {
-            // Ignora erros se o callback já tiver sido removido
+    protected void onStop() {
+        super.onStop();
+        statusSubscription.cancel();
+        statusSubscription = null;
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putBoolean(EXTRA_RENDER_THREAD, useRenderThread);
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode == GnssHub.REQUEST_LOCATION_PERMISSION) {
+            gnssHub.onPermissionResult();
+        }
+    }
+
+    // ---------- TROCA DE RENDERIZADOR ----------
+
+    /**
+     * 🔭 GNSSView: política "latest" + FrameExecutor, no máximo um snapshot por frame.
+     * GnssSurfaceView: entrega direta; a thread principal só copia o snapshot
+     * e a thread de renderização pega o mais recente no próximo vsync.
+     */
+    private void subscribe() {
+        if (useRenderThread) {
+            GnssSurfaceView view = surfaceView;
+            statusSubscription = gnssHub.statusStream().subscribe(view::updateSatellites,
+                    GnssStream.Policy.latest(), GnssStream.DIRECT);
+        } else {
+            GNSSView view = gnssView;
+            statusSubscription = gnssHub.statusStream().subscribe(view::updateSatellites,
+                    GnssStream.Policy.latest(), FrameExecutor.MAIN);
+        }
+    }
+
+    private void switchRenderer() {
+        useRenderThread = !useRenderThread;
+        showPlot();
+        GnssStream<SatelliteSnapshot>.Subscription old = statusSubscription;
+        if (old != null) {
+            // Inscreve o radar novo antes de soltar o antigo: o hub não chega a desligar o GPS
+            subscribe(); // reenvia o último status para o radar novo
+            old.cancel();
+        }
+    }
+
+    // Cria o radar do tipo escolhido, no lugar do anterior
+    private void showPlot() {
+        if (gnssView != null) root.removeView(gnssView);
+        if (surfaceView != null) root.removeView(surfaceView);
+        gnssView = null;
+        surfaceView = null;
+
+        View plot;
+        if (useRenderThread) {
+            surfaceView = new GnssSurfaceView(this);
+            surfaceView.setShowFrameStats(compareMode);
+            plot = surfaceView;
+        } else {
+            gnssView = new GNSSView(this);
+            gnssView.setShowFrameStats(compareMode);
+            plot = gnssView;
+        }
+        root.addView(plot, 0, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+
+        if (btnSwitch != null) {
+            btnSwitch.setText(useRenderThread ? "Render thread" : "UI thread");
         }
     }
 }
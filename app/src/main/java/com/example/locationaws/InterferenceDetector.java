@@ -0,0 +1,379 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 📡 Classe InterferenceDetector
+ *
+ * Detector de interferência (jamming) e de falsificação (spoofing) a partir do C/N0
+ * de cada sinal, alimentado a cada atualização de status (GnssHub) e a cada fix.
+ *
+ *  → JAMMING: a maioria dos sinais cai de uma vez vários dB abaixo da sua própria média
+ *    recente (o céu não muda assim; um transmissor de ruído por perto, sim)
+ *  → SPOOFING: C/N0 alto e uniforme em todos os sinais (um único transmissor em terra,
+ *    sem a diferença natural entre satélites altos e baixos) junto com um salto de posição
+ *
+ * Estatísticas em janelas deslizantes de WINDOW épocas, em arrays primitivos circulares:
+ * uma por sinal (constelação, svid, banda) e uma por constelação (C/N0 médio da época).
+ * Somas acumuladas: custo constante por sinal em cada atualização, nada alocado.
+ * Durante um alerta as médias ficam congeladas (o sinal ruim não vira referência),
+ * até MAX_FREEZE_EPOCHS; depois disso o "novo normal" é aprendido (ex.: entrou num prédio)
+ * e as janelas seguem aprendendo até o alerta desligar.
+ *
+ * O alerta liga depois de RAISE_EPOCHS épocas seguidas com a condição e desliga depois
+ * de CLEAR_EPOCHS épocas sem ela. Threads: onStatus() e onFix() sempre da mesma thread
+ * (a principal, no app); os ouvintes são chamados nela.
+ */
+public final class InterferenceDetector {
+
+    public static final int ALERT_NONE = 0;
+    public static final int ALERT_JAMMING = 1;
+    public static final int ALERT_SPOOFING = 2;
+
+    /** Nome do alerta para exibição */
+    public static String alertName(int alert) {
+        switch (alert) {
+            case ALERT_JAMMING: return "Interferência (jamming)";
+            case ALERT_SPOOFING: return "Possível spoofing";
+            default: return "Sem alerta";
+        }
+    }
+
+    /** Recebe as mudanças de alerta na thread que alimenta o detector */
+    public interface Listener {
+        void onInterferenceAlert(int alert, boolean active, String detail);
+    }
+
+    static final int WINDOW = 32;                  // épocas (~32 s a 1 Hz)
+    static final int MAX_SIGNALS = 256;            // sinais acompanhados ao mesmo tempo
+    private static final int MIN_BASELINE = 8;     // épocas antes de um sinal contar
+    private static final int STALE_EPOCHS = 60;    // sinal sumido há mais que isso pode ser reciclado
+
+    private static final float JAM_DROP_DB = 6f;   // queda por sinal
+    private static final float JAM_FRACTION = 0.6f;
+    private static final int JAM_MIN_SIGNALS = 4;
+    private static final float JAM_LOST_FRACTION = 0.4f; // sobraram até 40% dos sinais de costume
+
+    private static final float SPOOF_MIN_MEAN = 44f;   // dB-Hz
+    private static final float SPOOF_MAX_STD = 1.5f;   // dB
+    private static final int SPOOF_MIN_SIGNALS = 5;
+    private static final double JUMP_MIN_METERS = 100;
+    private static final double JUMP_MAX_SPEED = 70;   // m/s: acima disso o deslocamento é salto
+    private static final long JUMP_MEMORY_NANOS = 30_000_000_000L;
+
+    private static final int RAISE_EPOCHS = 2;
+    private static final int CLEAR_EPOCHS = 5;
+    static final int MAX_FREEZE_EPOCHS = 120;
+
+    private static final int BAND_SLOTS = 5;
+    private static final double METERS_PER_DEGREE = 111_195.08;
+
+    // ---------- JANELAS POR SINAL ----------
+
+    // Chave (constelação, svid, banda) → sinal acompanhado (-1 = nenhum)
+    private final short[] slotOf = new short[GnssConstellation.COUNT * 256 * BAND_SLOTS];
+    private final int[] keyOf = new int[MAX_SIGNALS];
+    private final float[] history = new float[MAX_SIGNALS * WINDOW];
+    private final double[] sum = new double[MAX_SIGNALS];
+    private final int[] fill = new int[MAX_SIGNALS];
+    private final int[] next = new int[MAX_SIGNALS];
+    private final long[] lastEpoch = new long[MAX_SIGNALS];
+    private int used;
+
+    // ---------- JANELAS POR CONSTELAÇÃO ----------
+
+    private final float[] constHistory = new float[GnssConstellation.COUNT * WINDOW];
+    private final double[] constSum = new double[GnssConstellation.COUNT];
+    private final int[] constFill = new int[GnssConstellation.COUNT];
+    private final int[] constNext = new int[GnssConstellation.COUNT];
+    // Época atual: soma e quantidade de C/N0 por constelação
+    private final double[] epochSum = new double[GnssConstellation.COUNT];
+    private final int[] epochCount = new int[GnssConstellation.COUNT];
+    private final float[] constDrop = new float[GnssConstellation.COUNT];
+
+    // Quantidade de sinais com C/N0 por época (sinais que somem de uma vez também são interferência)
+    private final int[] countHistory = new int[WINDOW];
+    private int countSum, countFill, countNext;
+
+    // ---------- ESTADO ----------
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private long epoch;
+    private int alert = ALERT_NONE;
+    private int pendingAlert = ALERT_NONE;
+    private int pendingEpochs, clearEpochs, frozenEpochs;
+    private String detail = "";
+
+    // Métricas da última época (para exibição e testes)
+    private int lastCompared, lastDropped;
+    private int lastSignals;
+    private float lastMeanDrop, lastMean, lastStd;
+
+    // Último fix e último salto de posição
+    private boolean hasLastFix;
+    private double lastLat, lastLon;
+    private long lastFixNanos;
+    private long lastJumpNanos = Long.MIN_VALUE;
+    private double lastJumpMeters;
+
+    public InterferenceDetector() {
+        Arrays.fill(slotOf, (short) -1);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // ---------- ENTRADA ----------
+
+    /**
+     * Processa uma atualização de status (uma época)
+     */
+    public void onStatus(SatelliteSnapshot s) {
+        epoch++;
+        // Com alerta ligado (ou prestes a ligar) as janelas não aprendem o sinal ruim,
+        // até MAX_FREEZE_EPOCHS; a contagem só zera quando o alerta desliga de vez
+        boolean active = alert != ALERT_NONE || pendingAlert != ALERT_NONE;
+        if (active) {
+            if (frozenEpochs <= MAX_FREEZE_EPOCHS) frozenEpochs++;
+        } else {
+            frozenEpochs = 0;
+        }
+        boolean frozen = active && frozenEpochs <= MAX_FREEZE_EPOCHS;
+        Arrays.fill(epochSum, 0);
+        Arrays.fill(epochCount, 0);
+
+        int compared = 0, dropped = 0, signals = 0;
+        double dropSum = 0, cn0Sum = 0, cn0SumSq = 0;
+        for (int i = 0; i < s.count; i++) {
+            float cn0 = s.cn0[i];
+            int c = s.constellation[i];
+            if (cn0 <= 0 || c <= 0 || c >= GnssConstellation.COUNT || s.svid[i] < 0 || s.svid[i] > 255) continue;
+            signals++;
+            cn0Sum += cn0;
+            cn0SumSq += (double) cn0 * cn0;
+            epochSum[c] += cn0;
+            epochCount[c]++;
+
+            int slot = slot(c, s.svid[i], s.carrierHz[i]);
+            if (slot < 0) continue;
+            lastEpoch[slot] = epoch;
+            if (fill[slot] >= MIN_BASELINE) {
+                float drop = (float) (sum[slot] / fill[slot]) - cn0;
+                compared++;
+                dropSum += drop;
+                if (drop >= JAM_DROP_DB) dropped++;
+            }
+            if (!frozen) push(slot, cn0);
+        }
+
+        // Constelações: queda da média da época em relação à janela
+        for (int c = 1; c < GnssConstellation.COUNT; c++) {
+            constDrop[c] = 0;
+            if (epochCount[c] == 0) continue;
+            float mean = (float) (epochSum[c] / epochCount[c]);
+            if (constFill[c] >= MIN_BASELINE) constDrop[c] = (float) (constSum[c] / constFill[c]) - mean;
+            if (!frozen) pushConstellation(c, mean);
+        }
+
+        boolean lost = countFill >= MIN_BASELINE && countSum >= 2 * JAM_MIN_SIGNALS * countFill
+                && signals <= JAM_LOST_FRACTION * countSum / countFill;
+        if (!frozen) pushCount(signals);
+
+        lastSignals = signals;
+        lastCompared = compared;
+        lastDropped = dropped;
+        lastMeanDrop = compared > 0 ? (float) (dropSum / compared) : 0;
+        lastMean = signals > 0 ? (float) (cn0Sum / signals) : 0;
+        lastStd = signals > 1 ? (float) Math.sqrt(Math.max(0, cn0SumSq / signals - (double) lastMean * lastMean)) : 0;
+
+        int condition = ALERT_NONE;
+        if (lost || compared >= JAM_MIN_SIGNALS && dropped >= JAM_FRACTION * compared) {
+            condition = ALERT_JAMMING;
+        } else if (isUniformHigh(signals) && lastJumpNanos != Long.MIN_VALUE
+                && s.elapsedRealtimeNanos - lastJumpNanos < JUMP_MEMORY_NANOS) {
+            condition = ALERT_SPOOFING;
+        }
+        update(condition);
+    }
+
+    /**
+     * Processa um fix (procura saltos de posição). Os fixes consecutivos são tratados
+     * como um trajeto só: passe apenas fixes de uma fonte GNSS.
+     */
+    public void onFix(GnssFix fix) {
+        if (!fix.hasPosition() || fix.getSource() == GnssFix.SOURCE_DEAD_RECKONING) return;
+        long t = fix.getElapsedRealtimeNanos();
+        if (hasLastFix && t > lastFixNanos) {
+            double dy = (fix.getLatitude() - lastLat) * METERS_PER_DEGREE;
+            double dx = (fix.getLongitude() - lastLon) * METERS_PER_DEGREE * Math.cos(Math.toRadians(lastLat));
+            double meters = Math.hypot(dx, dy);
+            double dt = (t - lastFixNanos) / 1e9;
+            float accuracy = Float.isNaN(fix.getAccuracy()) ? 0 : fix.getAccuracy();
+            if (meters - JUMP_MAX_SPEED * dt > Math.max(JUMP_MIN_METERS, 3 * accuracy)) {
+                lastJumpNanos = t;
+                lastJumpMeters = meters;
+            }
+        }
+        hasLastFix = true;
+        lastLat = fix.getLatitude();
+        lastLon = fix.getLongitude();
+        lastFixNanos = t;
+    }
+
+    public void reset() {
+        Arrays.fill(slotOf, (short) -1);
+        Arrays.fill(fill, 0);
+        Arrays.fill(constFill, 0);
+        Arrays.fill(constSum, 0);
+        countSum = countFill = countNext = 0;
+        used = 0;
+        epoch = 0;
+        hasLastFix = false;
+        lastJumpNanos = Long.MIN_VALUE;
+        pendingAlert = ALERT_NONE;
+        pendingEpochs = clearEpochs = frozenEpochs = 0;
+        if (alert != ALERT_NONE) {
+            int old = alert;
+            alert = ALERT_NONE;
+            notify(old, false);
+        }
+    }
+
+    // ---------- SAÍDA ----------
+
+    public int getAlert() {
+        return alert;
+    }
+
+    /** Descrição do alerta atual (vazia sem alerta) */
+    public String getDetail() {
+        return detail;
+    }
+
+    /** Sinais comparados com a própria média e quantos caíram ≥ JAM_DROP_DB na última época */
+    public int getComparedSignals() { return lastCompared; }
+    public int getDroppedSignals() { return lastDropped; }
+    public float getMeanDropDb() { return lastMeanDrop; }
+    public float getMeanCn0() { return lastMean; }
+    public float getCn0Spread() { return lastStd; }
+    public int getTrackedSignals() { return used; }
+
+    /** Queda do C/N0 médio da constelação na última época (dB, positivo = caiu) */
+    public float getConstellationDropDb(int constellation) {
+        return constDrop[constellation];
+    }
+
+    // ---------- INTERNO ----------
+
+    private boolean isUniformHigh(int signals) {
+        return signals >= SPOOF_MIN_SIGNALS && lastMean >= SPOOF_MIN_MEAN && lastStd <= SPOOF_MAX_STD;
+    }
+
+    // Liga o alerta depois de RAISE_EPOCHS com a condição; desliga depois de CLEAR_EPOCHS sem
+    private void update(int condition) {
+        if (condition != ALERT_NONE) {
+            clearEpochs = 0;
+            if (condition == alert) return;
+            pendingEpochs = condition == pendingAlert ? pendingEpochs + 1 : 1;
+            pendingAlert = condition;
+            if (pendingEpochs >= RAISE_EPOCHS) {
+                int old = alert;
+                alert = condition;
+                pendingEpochs = 0;
+                if (old != ALERT_NONE) notify(old, false);
+                detail = describe(condition);
+                notify(condition, true);
+            }
+        } else {
+            pendingEpochs = 0;
+            pendingAlert = ALERT_NONE;
+            if (alert != ALERT_NONE && ++clearEpochs >= CLEAR_EPOCHS) {
+                int old = alert;
+                alert = ALERT_NONE;
+                clearEpochs = 0;
+                notify(old, false);
+            }
+        }
+    }
+
+    private String describe(int condition) {
+        StringBuilder sb = new StringBuilder();
+        if (condition == ALERT_JAMMING) {
+            sb.append(String.format(Locale.US, "%d de %d sinais caíram (média −%.0f dB), %d rastreados",
+                    lastDropped, lastCompared, lastMeanDrop, lastSignals));
+            for (int c = 1; c < GnssConstellation.COUNT; c++) {
+                if (constDrop[c] >= JAM_DROP_DB) {
+                    sb.append(String.format(Locale.US, "  %s −%.0f", GnssConstellation.abbreviation(c), constDrop[c]));
+                }
+            }
+        } else {
+            sb.append(String.format(Locale.US, "C/N0 uniforme %.0f±%.1f dB-Hz, salto de %.0f m",
+                    lastMean, lastStd, lastJumpMeters));
+        }
+        return sb.toString();
+    }
+
+    private void notify(int alertType, boolean active) {
+        String d = active ? detail : "";
+        if (!active) detail = "";
+        for (Listener l : listeners) l.onInterferenceAlert(alertType, active, d);
+    }
+
+    // Sinal acompanhado para a chave; com a tabela cheia (raro) recicla o que sumiu há mais tempo
+    private int slot(int constellation, int svid, float carrierHz) {
+        int band = Integer.numberOfTrailingZeros(GnssConstellation.band(carrierHz));
+        int key = ((constellation << 8) | svid) * BAND_SLOTS + Math.min(band, BAND_SLOTS - 1);
+        int slot = slotOf[key];
+        if (slot >= 0) return slot;
+
+        if (used < MAX_SIGNALS) {
+            slot = used++;
+        } else {
+            slot = 0;
+            for (int i = 1; i < MAX_SIGNALS; i++) if (lastEpoch[i] < lastEpoch[slot]) slot = i;
+            if (epoch - lastEpoch[slot] < STALE_EPOCHS) return -1;
+            slotOf[keyOf[slot]] = -1;
+        }
+        slotOf[key] = (short) slot;
+        keyOf[slot] = key;
+        sum[slot] = 0;
+        fill[slot] = 0;
+        next[slot] = 0;
+        return slot;
+    }
+
+    private void push(int slot, float cn0) {
+        int i = slot * WINDOW + next[slot];
+        if (fill[slot] == WINDOW) sum[slot] -= history[i];
+        else fill[slot]++;
+        history[i] = cn0;
+        sum[slot] += cn0;
+        next[slot] = (next[slot] + 1) & (WINDOW - 1);
+    }
+
+    private void pushCount(int signals) {
+        if (countFill == WINDOW) countSum -= countHistory[countNext];
+        else countFill++;
+        countHistory[countNext] = signals;
+        countSum += signals;
+        countNext = (countNext + 1) & (WINDOW - 1);
+    }
+
+    private void pushConstellation(int c, float mean) {
+        int i = c * WINDOW + constNext[c];
+        if (constFill[c] == WINDOW) constSum[c] -= constHistory[i];
+        else constFill[c]++;
+        constHistory[i] = mean;
+        constSum[c] += mean;
+        constNext[c] = (constNext[c] + 1) & (WINDOW - 1);
+    }
+}
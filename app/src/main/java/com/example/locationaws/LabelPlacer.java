@@ -0,0 +1,262 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 🏷️ Classe LabelPlacer
+ *
+ * Posiciona os rótulos do radar (bandeira + SVID) sem sobreposição.
+ *
+ * Com 60+ satélites, os rótulos em posição fixa se acumulam perto do zênite
+ * e do horizonte. Aqui cada rótulo tenta algumas posições candidatas ao redor
+ * do seu ponto, em ordem de prioridade:
+ *  → primeiro os usados no Fix, depois os de maior C/N0 (ordenação por baldes, O(n))
+ *  → colisões são testadas num hash espacial uniforme sobre a tela (grade fixa),
+ *    então cada teste olha só as poucas células vizinhas: O(n) no total
+ *  → se nenhuma posição couber, o rótulo é suprimido e contado no rótulo vizinho
+ *    que o bloqueou (o renderizador mostra "+N" nele)
+ *
+ * Deve rodar uma vez por atualização GNSS (ou mudança de tamanho), não a cada frame.
+ * Depois de aquecido, não aloca. Não depende do Android.
+ */
+public class LabelPlacer {
+
+    // Posições candidatas: direita, esquerda, acima, abaixo e diagonais
+    private static final int CANDIDATES = 8;
+
+    // Baldes de prioridade: C/N0 inteiro de 0 a 63 dB-Hz, separado por usado/não usado
+    private static final int CN0_BUCKETS = 64;
+
+    private final float cellSize;
+    private final float gap;
+
+    // ---------- RESULTADO (por satélite) ----------
+
+    private int count;
+    private float[] labelX = new float[64];  // canto superior esquerdo do rótulo
+    private float[] labelY = new float[64];
+    private boolean[] placed = new boolean[64];
+    private int[] collapsed = new int[64];
+    private int placedCount;
+
+    // ---------- ORDEM DE PRIORIDADE ----------
+
+    private int[] order = new int[64];
+    private final int[] bucketStart = new int[2 * CN0_BUCKETS + 1];
+
+    // ---------- HASH ESPACIAL ----------
+
+    private int cols;
+    private int rows;
+    private int[] cellHead = new int[0];   // primeira entrada de cada célula (-1 = vazia)
+    private int entries;
+    private int[] entryItem = new int[256]; // item referenciado pela entrada
+    private int[] entryNext = new int[256]; // próxima entrada da mesma célula
+
+    // Itens: pontos dos satélites (0..n-1) e rótulos posicionados (n..2n-1)
+    private float[] itemLeft = new float[128];
+    private float[] itemTop = new float[128];
+    private float[] itemRight = new float[128];
+    private float[] itemBottom = new float[128];
+
+    /**
+     * @param cellSize tamanho da célula da grade (px); algo perto da altura do rótulo
+     * @param gap      distância entre o ponto do satélite e o rótulo (px)
+     */
+    public LabelPlacer(float cellSize, float gap) {
+        this.cellSize = cellSize;
+        this.gap = gap;
+    }
+
+    /**
+     * Posiciona os rótulos de n satélites.
+     *
+     * @param x, y        centro de cada ponto na tela (px)
+     * @param labelWidth  largura do rótulo de cada satélite (px)
+     * @param labelHeight altura comum dos rótulos (px)
+     * @param dotRadius   raio do ponto desenhado para cada satélite (px)
+     */
+    public void place(int n, float[] x, float[] y, boolean[] used, float[] cn0,
+                      float[] labelWidth, float labelHeight, float dotRadius,
+                      int screenWidth, int screenHeight) {
+        ensureCapacity(n);
+        count = n;
+        placedCount = 0;
+        Arrays.fill(placed, 0, n, false);
+        Arrays.fill(collapsed, 0, n, 0);
+
+        resetGrid(screenWidth, screenHeight);
+        sortByPriority(n, used, cn0);
+
+        // Os pontos são obstáculos: nenhum rótulo pode cobrir o ponto de outro satélite
+        for (int i = 0; i < n; i++) {
+            insert(i, x[i] - dotRadius, y[i] - dotRadius, x[i] + dotRadius, y[i] + dotRadius);
+        }
+
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            float w = labelWidth[i];
+            float h = labelHeight;
+            int firstBlocker = -1;
+
+            for (int c = 0; c < CANDIDATES; c++) {
+                float left = candidateLeft(c, x[i], w, dotRadius);
+                float top = candidateTop(c, y[i], h, dotRadius);
+                float right = left + w;
+                float bottom = top + h;
+                if (left < 0 || top < 0 || right > screenWidth || bottom > screenHeight) continue;
+
+                int blocker = findCollision(i, left, top, right, bottom);
+                if (blocker < 0) {
+                    labelX[i] = left;
+                    labelY[i] = top;
+                    placed[i] = true;
+                    placedCount++;
+                    insert(n + i, left, top, right, bottom);
+                    break;
+                }
+                if (firstBlocker < 0) firstBlocker = blocker >= n ? blocker - n : blocker;
+            }
+
+            // Não coube: agrupa no rótulo vizinho (já posicionado, logo de maior prioridade)
+            // que bloqueou a primeira posição válida, ou no dono do ponto que a bloqueou
+            if (!placed[i] && firstBlocker >= 0 && placed[firstBlocker]) collapsed[firstBlocker]++;
+        }
+    }
+
+    // ---------- CANDIDATOS ----------
+
+    private float candidateLeft(int c, float x, float w, float r) {
+        switch (c) {
+            case 0: case 4: case 6: return x + r + gap;     // direita
+            case 1: case 5: case 7: return x - r - gap - w; // esquerda
+            default: return x - w / 2f;                     // centralizado (acima/abaixo)
+        }
+    }
+
+    private float candidateTop(int c, float y, float h, float r) {
+        switch (c) {
+            case 2: case 4: case 5: return y - r - gap - h; // acima
+            case 3: case 6: case 7: return y + r + gap;     // abaixo
+            default: return y - h / 2f;                     // centralizado (esquerda/direita)
+        }
+    }
+
+    // ---------- PRIORIDADE ----------
+
+    // Counting sort: usados antes, depois C/N0 decrescente; empates mantêm a ordem de entrada
+    private void sortByPriority(int n, boolean[] used, float[] cn0) {
+        Arrays.fill(bucketStart, 0);
+        for (int i = 0; i < n; i++) bucketStart[bucketOf(used[i], cn0[i]) + 1]++;
+        for (int b = 1; b < bucketStart.length; b++) bucketStart[b] += bucketStart[b - 1];
+        for (int i = 0; i < n; i++) order[bucketStart[bucketOf(used[i], cn0[i])]++] = i;
+    }
+
+    // Balde 0 = maior prioridade
+    private static int bucketOf(boolean used, float cn0) {
+        int c = Float.isNaN(cn0) ? 0 : Math.max(0, Math.min(CN0_BUCKETS - 1, (int) cn0));
+        return (used ? 0 : CN0_BUCKETS) + (CN0_BUCKETS - 1 - c);
+    }
+
+    // ---------- GRADE ----------
+
+    private void resetGrid(int width, int height) {
+        cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        int cells = cols * rows;
+        if (cellHead.length < cells) cellHead = new int[cells];
+        Arrays.fill(cellHead, 0, cells, -1);
+        entries = 0;
+    }
+
+    private int col(float v) {
+        return Math.max(0, Math.min(cols - 1, (int) (v / cellSize)));
+    }
+
+    private int row(float v) {
+        return Math.max(0, Math.min(rows - 1, (int) (v / cellSize)));
+    }
+
+    // Registra o item em todas as células que ele toca
+    private void insert(int item, float left, float top, float right, float bottom) {
+        itemLeft[item] = left;
+        itemTop[item] = top;
+        itemRight[item] = right;
+        itemBottom[item] = bottom;
+        int c0 = col(left), c1 = col(right), r0 = row(top), r1 = row(bottom);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (entries == entryItem.length) {
+                    entryItem = Arrays.copyOf(entryItem, entries * 2);
+                    entryNext = Arrays.copyOf(entryNext, entries * 2);
+                }
+                int cell = r * cols + c;
+                entryItem[entries] = item;
+                entryNext[entries] = cellHead[cell];
+                cellHead[cell] = entries++;
+            }
+        }
+    }
+
+    /**
+     * Retorna o primeiro item que colide com a caixa (ignorando o próprio ponto), ou -1
+     */
+    private int findCollision(int self, float left, float top, float right, float bottom) {
+        int c0 = col(left), c1 = col(right), r0 = row(top), r1 = row(bottom);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int e = cellHead[r * cols + c]; e >= 0; e = entryNext[e]) {
+                    int item = entryItem[e];
+                    if (item != self && left < itemRight[item] && itemLeft[item] < right
+                            && top < itemBottom[item] && itemTop[item] < bottom) {
+                        return item;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= placed.length) return;
+        int c = Math.max(n, placed.length * 2);
+        labelX = Arrays.copyOf(labelX, c);
+        labelY = Arrays.copyOf(labelY, c);
+        placed = Arrays.copyOf(placed, c);
+        collapsed = Arrays.copyOf(collapsed, c);
+        order = Arrays.copyOf(order, c);
+        itemLeft = Arrays.copyOf(itemLeft, 2 * c);
+        itemTop = Arrays.copyOf(itemTop, 2 * c);
+        itemRight = Arrays.copyOf(itemRight, 2 * c);
+        itemBottom = Arrays.copyOf(itemBottom, 2 * c);
+    }
+
+    // ---------- GETTERS ----------
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isPlaced(int i) {
+        return placed[i];
+    }
+
+    public float getLabelX(int i) {
+        return labelX[i];
+    }
+
+    public float getLabelY(int i) {
+        return labelY[i];
+    }
+
+    /**
+     * Quantos rótulos suprimidos foram agrupados neste (mostrado como "+N")
+     */
+    public int getCollapsedCount(int i) {
+        return collapsed[i];
+    }
+
+    public int getPlacedCount() {
+        return placedCount;
+    }
+}
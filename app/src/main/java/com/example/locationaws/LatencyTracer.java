@@ -0,0 +1,135 @@
+package com.example.locationaws;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * ⏱️ Classe LatencyTracer
+ *
+ * Latência ponta a ponta, do callback do GNSS até o pixel. Cada GnssStatus e cada Location
+ * recebe a hora de chegada (SystemClock.elapsedRealtimeNanos) no próprio snapshot/fix, e
+ * cada etapa do caminho registra quanto tempo se passou desde então:
+ *
+ *  status: callback → entregue ao inscrito → filtrado (filtro + DOP) → projetado (layout
+ *          do radar) → frame desenhado
+ *  fix:    callback → entregue ao inscrito → frame desenhado (TextView)
+ *
+ * Os valores são acumulados desde a chegada; a diferença entre etapas vizinhas mostra
+ * onde o tempo vai. Um QuantileSketch por etapa (ms), memória fixa.
+ * Também abre seções de trace (android.os.Trace no app) pelo TraceSink, para ver as
+ * mesmas etapas no Perfetto/systrace.
+ *
+ * Thread-safe: as etapas são marcadas na thread principal e na de renderização.
+ * Não depende do Android.
+ */
+public final class LatencyTracer {
+
+    public static final int STATUS_CALLBACK = 0;
+    public static final int STATUS_DELIVERED = 1;
+    public static final int STATUS_FILTERED = 2;
+    public static final int STATUS_PROJECTED = 3;
+    public static final int STATUS_DRAWN = 4;
+    public static final int FIX_CALLBACK = 5;
+    public static final int FIX_DELIVERED = 6;
+    public static final int FIX_DRAWN = 7;
+    public static final int STAGE_COUNT = 8;
+
+    private static final String[] STAGE_NAMES = {
+            "status.callback", "status.delivered", "status.filtered", "status.projected", "status.drawn",
+            "fix.callback", "fix.delivered", "fix.drawn"
+    };
+
+    public static String stageName(int stage) {
+        return STAGE_NAMES[stage];
+    }
+
+    /** Destino das seções de trace (no app: Trace.beginSection/endSection) */
+    public interface TraceSink {
+        void beginSection(String name);
+        void endSection();
+    }
+
+    /** Sem trace (testes) */
+    public static final TraceSink NO_TRACE = new TraceSink() {
+        @Override
+        public void beginSection(String name) {
+        }
+
+        @Override
+        public void endSection() {
+        }
+    };
+
+    // Latências entre 10 µs e 10 s, com 1% de erro relativo
+    private static final double MIN_MS = 0.01, MAX_MS = 10_000;
+
+    private final GnssStream.Clock clock;
+    private final TraceSink trace;
+    private final QuantileSketch[] stages = new QuantileSketch[STAGE_COUNT];
+
+    public LatencyTracer(GnssStream.Clock clock, TraceSink trace) {
+        this.clock = clock;
+        this.trace = trace;
+        for (int i = 0; i < STAGE_COUNT; i++) stages[i] = new QuantileSketch(MIN_MS, MAX_MS);
+    }
+
+    // ---------- REGISTRO ----------
+
+    /**
+     * Registra a etapa para um evento que chegou em arrivalNanos (0 = desconhecido, ignorado)
+     */
+    public void mark(int stage, long arrivalNanos) {
+        if (arrivalNanos <= 0) return;
+        long elapsed = clock.nanoTime() - arrivalNanos;
+        if (elapsed < 0) return;
+        synchronized (this) {
+            stages[stage].add(Math.max(MIN_MS, elapsed / 1e6));
+        }
+    }
+
+    public void beginSection(String name) {
+        trace.beginSection(name);
+    }
+
+    public void endSection() {
+        trace.endSection();
+    }
+
+    public long now() {
+        return clock.nanoTime();
+    }
+
+    public synchronized void reset() {
+        for (QuantileSketch s : stages) s.clear();
+    }
+
+    // ---------- CONSULTA ----------
+
+    public synchronized LocationStats.Quantiles getQuantiles(int stage) {
+        return new LocationStats.Quantiles(stages[stage]);
+    }
+
+    /**
+     * Tabela com amostras, p50/p90/p99 e máximo (ms) de cada etapa
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%-18s %8s %8s %8s %8s %8s%n", "etapa", "n", "p50", "p90", "p99", "max"));
+        for (int i = 0; i < STAGE_COUNT; i++) {
+            LocationStats.Quantiles q = getQuantiles(i);
+            if (q.count == 0) {
+                sb.append(String.format(Locale.US, "%-18s %8d %8s %8s %8s %8s%n", STAGE_NAMES[i], 0, "--", "--", "--", "--"));
+            } else {
+                sb.append(String.format(Locale.US, "%-18s %8d %8.2f %8.2f %8.2f %8.2f%n",
+                        STAGE_NAMES[i], q.count, q.p50, q.p90, q.p99, q.max));
+            }
+        }
+        return sb.toString();
+    }
+
+    public void writeReport(Writer out) throws IOException {
+        out.write("# Latência desde a chegada do callback (ms)\n");
+        out.write(report());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.locationaws;
+
+import java.util.Locale;
+
+/**
+ * 📈 Classe LocationStats
+ *
+ * Estatísticas acumuladas de uma fonte de localização, para sessões longas:
+ *  → precisão informada (m)
+ *  → velocidade (m/s)
+ *  → intervalo entre fixes (s)
+ *  → satélites usados em cada fix
+ *
+ * Cada série é um QuantileSketch de tamanho fixo: a memória não cresce com a duração.
+ *
+ * Escrita: onFix() é sincronizado (chamado pelos callbacks de localização).
+ * Leitura: getSummary() devolve o último resumo imutável, publicado num campo
+ * volatile a cada fix. A tela lê sem lock e sem recalcular nada.
+ *
+ * Não depende do Android.
+ */
+public final class LocationStats {
+
+    // ---------- RESUMO (imutável) ----------
+
+    /**
+     * Quantis de uma série no momento da publicação
+     */
+    public static final class Quantiles {
+        public final long count;
+        public final double p50;
+        public final double p90;
+        public final double p99;
+        public final double max;
+
+        Quantiles(QuantileSketch s) {
+            count = s.getCount();
+            p50 = s.quantile(0.50);
+            p90 = s.quantile(0.90);
+            p99 = s.quantile(0.99);
+            max = s.getMax();
+        }
+
+        /**
+         * "p50 / p90 / p99" com a casa decimal pedida, ou "--" sem dados
+         */
+        public String format(int decimals) {
+            if (count == 0) return "--";
+            String f = "%." + decimals + "f";
+            return String.format(Locale.US, f + " / " + f + " / " + f, p50, p90, p99);
+        }
+    }
+
+    public static final class Summary {
+        public final long fixes;
+        public final long firstFixNanos;    // elapsedRealtimeNanos do primeiro fix
+        public final long lastFixNanos;     // elapsedRealtimeNanos do último fix
+        public final Quantiles accuracy;
+        public final Quantiles speed;
+        public final Quantiles interval;
+        public final Quantiles satellites;
+
+        Summary(long fixes, long firstFixNanos, long lastFixNanos, Quantiles accuracy, Quantiles speed,
+                Quantiles interval, Quantiles satellites) {
+            this.fixes = fixes;
+            this.firstFixNanos = firstFixNanos;
+            this.lastFixNanos = lastFixNanos;
+            this.accuracy = accuracy;
+            this.speed = speed;
+            this.interval = interval;
+            this.satellites = satellites;
+        }
+
+        /**
+         * Duração coberta pelos fixes (s)
+         */
+        public double getDurationSeconds() {
+            return fixes < 2 ? 0 : (lastFixNanos - firstFixNanos) / 1e9;
+        }
+    }
+
+    // ---------- SÉRIES (protegidas por this) ----------
+
+    private final QuantileSketch accuracy = new QuantileSketch(0.01, 100_000);
+    private final QuantileSketch speed = new QuantileSketch(0.01, 1_000);
+    private final QuantileSketch interval = new QuantileSketch(0.001, 7 * 86_400);
+    private final QuantileSketch satellites = new QuantileSketch(1, 512);
+
+    private long fixes;
+    private long firstFixNanos;
+    private long lastFixNanos;
+
+    private volatile Summary summary;
+
+    public LocationStats() {
+        publish();
+    }
+
+    // ---------- ESCRITA ----------
+
+    /**
+     * Registra um fix. satellitesUsed ≤ 0 = desconhecido (não entra na série de satélites).
+     */
+    public synchronized void onFix(GnssFix fix, int satellitesUsed) {
+        long t = fix.getElapsedRealtimeNanos();
+        if (fixes > 0 && t > lastFixNanos) interval.add((t - lastFixNanos) / 1e9);
+        if (fixes == 0) firstFixNanos = t;
+        if (t > lastFixNanos || fixes == 0) lastFixNanos = t;
+        fixes++;
+
+        if (!Float.isNaN(fix.getAccuracy())) accuracy.add(fix.getAccuracy());
+        if (!Float.isNaN(fix.getSpeed())) speed.add(fix.getSpeed());
+        if (satellitesUsed > 0) satellites.add(satellitesUsed);
+
+        publish();
+    }
+
+    /**
+     * Junta as estatísticas de outra instância (ex.: sessão anterior)
+     */
+    public void merge(LocationStats other) {
+        // Copia primeiro (lock do outro), depois soma (lock deste): nunca os dois locks juntos
+        QuantileSketch a, s, i, sat;
+        long otherFixes, otherFirst, otherLast;
+        synchronized (other) {
+            a = other.accuracy.copy();
+            s = other.speed.copy();
+            i = other.interval.copy();
+            sat = other.satellites.copy();
+            otherFixes = other.fixes;
+            otherFirst = other.firstFixNanos;
+            otherLast = other.lastFixNanos;
+        }
+        synchronized (this) {
+            accuracy.merge(a);
+            speed.merge(s);
+            interval.merge(i);
+            satellites.merge(sat);
+            if (otherFixes > 0) {
+                firstFixNanos = fixes == 0 ? otherFirst : Math.min(firstFixNanos, otherFirst);
+                lastFixNanos = fixes == 0 ? otherLast : Math.max(lastFixNanos, otherLast);
+            }
+            fixes += otherFixes;
+            publish();
+        }
+    }
+
+    public synchronized void reset() {
+        accuracy.clear();
+        speed.clear();
+        interval.clear();
+        satellites.clear();
+        fixes = 0;
+        firstFixNanos = lastFixNanos = 0;
+        publish();
+    }
+
+    // ---------- LEITURA (qualquer thread, sem lock) ----------
+
+    public Summary getSummary() {
+        return summary;
+    }
+
+    // Chamado com o lock: monta o resumo novo e o publica de uma vez
+    private void publish() {
+        summary = new Summary(fixes, firstFixNanos, lastFixNanos, new Quantiles(accuracy),
+                new Quantiles(speed), new Quantiles(interval), new Quantiles(satellites));
+    }
+}
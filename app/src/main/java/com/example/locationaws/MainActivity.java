@@ -1,11 +1,32 @@
 package com.example.locationaws;
 
+import android.app.AlertDialog;
 import android.content.Intent;
+import android.graphics.Typeface;
 import android.os.Bundle;
 import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.LinearLayout;
+import android.widget.SeekBar;
+import android.widget.TextView;
+import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
+
 /**
  * 🚀 Classe MainActivity
  *
@@ -15,11 +36,24 @@ import androidx.appcompat.app.AppCompatActivity;
  * 1️⃣ FusedLocationActivity → Localização via API do Google (mais precisa e moderna)
  * 2️⃣ GpsLocationActivity → Exibe dados brutos do GPS e satélites (texto)
  * 3️⃣ GpsViewActivity → Mostra a posição dos satélites em uma visualização gráfica (GNSSView)
+ *    (toque longo: modo comparação entre desenho na thread principal e em thread própria)
+ *
+ * 4️⃣ PlannerActivity → Previsão de visibilidade e DOP das próximas 24 h (almanaque)
+ * 5️⃣ TrackActivity → Trajeto percorrido (TrackView), com exportação GPX
+ *
+ * O último botão liga/desliga a gravação da sessão GNSS em arquivo (SessionRecorder).
+ * Toque longo nele: menu de desenvolvedor com a latência do callback até a tela (LatencyTracer)
+ * e o servidor na rede local (GnssStreamServer), além da fonte sintética para testes
+ * de carga (SyntheticGnssSource: até 500 satélites a 100 Hz no lugar do GNSS real).
  */
 public class MainActivity extends AppCompatActivity {
 
+    // Fonte sintética: configuração escolhida no menu de desenvolvedor (vale até fechar o app)
+    private static SyntheticGnssSource.Config syntheticConfig =
+            SyntheticGnssSource.Config.DEFAULT.withSatellites(200).withRateHz(20);
+
     // Declaração dos botões da interface
-    Button btnApiLoc, btnGnssLoc, btnGnssPlot;
+    Button btnApiLoc, btnGnssLoc, btnGnssPlot, btnPlanner, btnTrack, btnRecord;
 
     /**
      * Método principal de inicialização da Activity.
@@ -34,6 +68,9 @@ public class MainActivity extends AppCompatActivity {
         btnApiLoc = findViewById(R.id.btnApiLoc);   // Botão para API de localização (FusedLocationProvider)
         btnGnssLoc = findViewById(R.id.btnGnssLoc); // Botão para localização via GNSS (texto)
         btnGnssPlot = findViewById(R.id.btnGnssPlot); // Botão para visualização GNSS (gráfica)
+        btnPlanner = findViewById(R.id.btnPlanner);   // Botão para o planejamento (almanaque)
+        btnTrack = findViewById(R.id.btnTrack);       // Botão para o trajeto percorrido
+        btnRecord = findViewById(R.id.btnRecord);     // Botão para gravar a sessão GNSS
 
         // 📍 Botão: abre a tela da API de Localização (Fused Location Provider Client)
         btnApiLoc.setOnClickListener(v ->
@@ -49,5 +86,238 @@ public class MainActivity extends AppCompatActivity {
         btnGnssPlot.setOnClickListener(v ->
                 startActivity(new Intent(this, GpsViewActivity.class))
         );
+
+        // 🧪 Toque longo: abre o radar em modo comparação (GNSSView × GnssSurfaceView)
+        btnGnssPlot.setOnLongClickListener(v -> {
+            startActivity(new Intent(this, GpsViewActivity.class)
+                    .putExtra(GpsViewActivity.EXTRA_COMPARE, true));
+            return true;
+        });
+
+        // 🗓️ Botão: abre a previsão de visibilidade/DOP a partir do almanaque
+        btnPlanner.setOnClickListener(v ->
+                startActivity(new Intent(this, PlannerActivity.class))
+        );
+
+        // 🗺️ Botão: abre o mapa do trajeto (TrackView)
+        btnTrack.setOnClickListener(v ->
+                startActivity(new Intent(this, TrackActivity.class))
+        );
+
+        // ⏺️ Botão: inicia/para a gravação da sessão (status dos satélites + fixes)
+        btnRecord.setOnClickListener(v -> toggleRecording());
+
+        // 🧪 Toque longo: menu de desenvolvedor (latência ponta a ponta)
+        btnRecord.setOnLongClickListener(v -> {
+            showDeveloperMenu();
+            return true;
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        updateRecordButton();
+    }
+
+    /**
+     * Liga ou desliga o gravador de sessão do GnssHub.
+     * Enquanto grava, o hub mantém o GNSS ativo mesmo sem nenhuma tela aberta.
+     */
+    private void toggleRecording() {
+        GnssHub hub = GnssHub.get(this);
+        SessionRecorder recorder = hub.getSessionRecorder();
+        if (recorder.isRecording()) {
+            recorder.stop();
+            Toast.makeText(this, "Sessão salva em " + recorder.getFile().getName(), Toast.LENGTH_LONG).show();
+        } else {
+            if (!GnssHub.ensureLocationPermission(this)) return;
+            File dir = new File(getExternalFilesDir(null), "sessions");
+            File file = new File(dir, "sessao_" + System.currentTimeMillis() + ".gnss");
+            try {
+                recorder.start(file, hub.statusStream(), hub.fixStream());
+            } catch (IOException e) {
+                e.printStackTrace();
+                Toast.makeText(this, "Falha ao iniciar gravação", Toast.LENGTH_SHORT).show();
+            }
+        }
+        updateRecordButton();
+    }
+
+    /**
+     * Resumo da última hora das séries do GnssHub e quantis de latência por etapa,
+     * com exportação em texto e opção de zerar
+     */
+    private void showDeveloperMenu() {
+        LatencyTracer tracer = GnssHub.get(this).getLatencyTracer();
+        TextView report = new TextView(this);
+        report.setTypeface(Typeface.MONOSPACE);
+        report.setTextSize(11f);
+        report.setPadding(32, 24, 32, 0);
+        report.setText(timeSeriesReport(GnssHub.get(this).getTimeSeries()) + "\n" + tracer.report());
+
+        GnssStreamServer server = GnssHub.get(this).getStreamServer();
+        CheckBox serve = new CheckBox(this);
+        serve.setText("Servidor na rede local (porta " + GnssStreamServer.DEFAULT_PORT + ")");
+        serve.setChecked(server.isRunning());
+        serve.setOnCheckedChangeListener((b, checked) -> setStreamServer(server, checked));
+
+        LinearLayout content = new LinearLayout(this);
+        content.setOrientation(LinearLayout.VERTICAL);
+        content.addView(report);
+        content.addView(serve);
+        addSyntheticOptions(content);
+
+        new AlertDialog.Builder(this)
+                .setTitle("Desenvolvedor")
+                .setView(content)
+                .setPositiveButton("Exportar", (d, w) -> exportLatency(tracer))
+                .setNeutralButton("Zerar", (d, w) -> tracer.reset())
+                .setNegativeButton("Fechar", null)
+                .show();
+    }
+
+    /**
+     * Média, mínimo e máximo de cada métrica na última hora com dados
+     */
+    private static String timeSeriesReport(TimeSeriesRollup rollup) {
+        long newest = rollup.getNewestMillis();
+        if (newest == Long.MIN_VALUE) return "Séries: sem dados\n";
+        TimeSeriesRollup.Series series = new TimeSeriesRollup.Series(60);
+        StringBuilder sb = new StringBuilder("Última hora      média     mín     máx\n");
+        for (int m = 0; m < TimeSeriesRollup.METRIC_COUNT; m++) {
+            int n = rollup.query(m, newest - 3_600_000 + 1, newest + 1, series);
+            if (n == 0) continue;
+            float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+            double sum = 0;
+            long count = 0;
+            for (int i = 0; i < n; i++) {
+                min = Math.min(min, series.getMin(i));
+                max = Math.max(max, series.getMax(i));
+                sum += (double) series.getMean(i) * series.getCount(i);
+                count += series.getCount(i);
+            }
+            sb.append(String.format(Locale.US, "%-12s %8.1f %7.1f %7.1f\n",
+                    TimeSeriesRollup.metricName(m), sum / count, min, max));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Fonte sintética: liga/desliga e escolhe satélites (até 500) e taxa (até 100 Hz).
+     * Mudanças com a fonte ligada reiniciam a fonte com a nova configuração.
+     */
+    private void addSyntheticOptions(LinearLayout content) {
+        GnssHub hub = GnssHub.get(this);
+        CheckBox synthetic = new CheckBox(this);
+        synthetic.setText("Fonte sintética (no lugar do GNSS)");
+        synthetic.setChecked(hub.getSyntheticSource() != null);
+        synthetic.setOnCheckedChangeListener((b, checked) -> {
+            if (checked) hub.startSynthetic(syntheticConfig);
+            else hub.stopSynthetic();
+        });
+        content.addView(synthetic);
+
+        addSlider(content, "Satélites", "", SyntheticGnssSource.MAX_SATELLITES, syntheticConfig.getSatellites(), value -> {
+            syntheticConfig = syntheticConfig.withSatellites(value);
+            if (hub.getSyntheticSource() != null) hub.startSynthetic(syntheticConfig);
+        });
+        addSlider(content, "Taxa", " Hz", SyntheticGnssSource.MAX_RATE_HZ, syntheticConfig.getRateHz(), value -> {
+            syntheticConfig = syntheticConfig.withRateHz(value);
+            if (hub.getSyntheticSource() != null) hub.startSynthetic(syntheticConfig);
+        });
+    }
+
+    private interface SliderListener {
+        void onValue(int value);
+    }
+
+    // Rótulo + barra; o valor só é aplicado ao soltar a barra
+    private void addSlider(LinearLayout content, String label, String unit, int max, int value, SliderListener listener) {
+        TextView text = new TextView(this);
+        text.setPadding(32, 8, 32, 0);
+        text.setText(label + ": " + value + unit);
+        SeekBar bar = new SeekBar(this);
+        bar.setMin(1);
+        bar.setMax(max);
+        bar.setProgress(value);
+        bar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                text.setText(label + ": " + progress + unit);
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
+            }
+
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {
+                listener.onValue(seekBar.getProgress());
+            }
+        });
+        content.addView(text);
+        content.addView(bar);
+    }
+
+    private void setStreamServer(GnssStreamServer server, boolean on) {
+        if (!on) {
+            server.stop();
+            return;
+        }
+        if (!GnssHub.ensureLocationPermission(this)) return;
+        GnssHub hub = GnssHub.get(this);
+        try {
+            server.start(GnssStreamServer.DEFAULT_PORT, hub.statusStream(), hub.fixStream());
+            Toast.makeText(this, "Servidor em http://" + localAddress() + ":" + server.getPort() + "/",
+                    Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            e.printStackTrace();
+            Toast.makeText(this, "Falha ao iniciar servidor: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    // Primeiro IPv4 que não é loopback (Wi-Fi ou hotspot)
+    private static String localAddress() {
+        try {
+            for (NetworkInterface nif : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                if (!nif.isUp() || nif.isLoopback()) continue;
+                for (InetAddress address : Collections.list(nif.getInetAddresses())) {
+                    if (address instanceof Inet4Address) return address.getHostAddress();
+                }
+            }
+        } catch (SocketException e) {
+            e.printStackTrace();
+        }
+        return "127.0.0.1";
+    }
+
+    private void exportLatency(LatencyTracer tracer) {
+        File file = new File(getExternalFilesDir("traces"), "latencia_" + System.currentTimeMillis() + ".txt");
+        new Thread(() -> {
+            String message;
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                tracer.writeReport(out);
+                message = "Latência salva em " + file.getName();
+            } catch (IOException e) {
+                e.printStackTrace();
+                message = "Falha ao exportar: " + e.getMessage();
+            }
+            String m = message;
+            runOnUiThread(() -> Toast.makeText(this, m, Toast.LENGTH_LONG).show());
+        }, "trace-export").start();
+    }
+
+    private void updateRecordButton() {
+        boolean recording = GnssHub.get(this).getSessionRecorder().isRecording();
+        btnRecord.setText(recording ? "⏹️ Parar gravação" : "⏺️ Gravar sessão");
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode == GnssHub.REQUEST_LOCATION_PERMISSION) {
+            GnssHub.get(this).onPermissionResult();
+        }
     }
 }
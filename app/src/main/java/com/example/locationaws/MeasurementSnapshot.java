@@ -0,0 +1,90 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 📶 Classe MeasurementSnapshot
+ *
+ * Medições brutas de uma época GNSS (equivalente a um GnssMeasurementsEvent),
+ * guardadas em arrays primitivos paralelos: um índice por sinal rastreado.
+ *
+ * Assim como o SatelliteSnapshot, não depende do framework Android e pode ser
+ * preenchido pelo GnssHub (medições do aparelho) ou por outras fontes.
+ */
+public class MeasurementSnapshot {
+
+    // ⏱️ Relógio do receptor (GnssClock)
+    long elapsedRealtimeNanos;   // Momento de chegada (relógio monotônico)
+    long clockTimeNanos;         // GnssClock.getTimeNanos()
+    long fullBiasNanos;          // GnssClock.getFullBiasNanos() (0 = desconhecido)
+    double biasNanos;            // GnssClock.getBiasNanos()
+
+    int count;
+
+    int[] constellation;               // Tipo de constelação (GnssConstellation)
+    int[] svid;                        // Identificador do satélite
+    float[] carrierHz;                 // Frequência da portadora (0 = desconhecida)
+    float[] cn0;                       // C/N0 em dB-Hz
+    int[] state;                       // Estado de rastreamento (GnssMeasurement.STATE_*)
+    long[] receivedSvTimeNanos;        // Tempo de transmissão recebido
+    double[] timeOffsetNanos;          // Deslocamento em relação ao clockTimeNanos
+    double[] pseudorangeRateMps;       // Taxa de pseudodistância (Doppler) em m/s
+    double[] accumulatedDeltaRangeM;   // Fase da portadora acumulada em metros (NaN = indisponível)
+
+    public MeasurementSnapshot() {
+        this(32);
+    }
+
+    public MeasurementSnapshot(int capacity) {
+        int c = Math.max(1, capacity);
+        constellation = new int[c];
+        svid = new int[c];
+        carrierHz = new float[c];
+        cn0 = new float[c];
+        state = new int[c];
+        receivedSvTimeNanos = new long[c];
+        timeOffsetNanos = new double[c];
+        pseudorangeRateMps = new double[c];
+        accumulatedDeltaRangeM = new double[c];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Acrescenta uma medição e retorna seu índice (só aloca se exceder a capacidade)
+     */
+    public int add(int constellationType, int satelliteId, float carrier, float cn0DbHz) {
+        ensureCapacity(count + 1);
+        int i = count++;
+        constellation[i] = constellationType;
+        svid[i] = satelliteId;
+        carrierHz[i] = carrier;
+        cn0[i] = cn0DbHz;
+        state[i] = 0;
+        receivedSvTimeNanos[i] = 0;
+        timeOffsetNanos[i] = 0;
+        pseudorangeRateMps[i] = Double.NaN;
+        accumulatedDeltaRangeM[i] = Double.NaN;
+        return i;
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity <= svid.length) return;
+        int c = Math.max(capacity, svid.length * 2);
+        constellation = Arrays.copyOf(constellation, c);
+        svid = Arrays.copyOf(svid, c);
+        carrierHz = Arrays.copyOf(carrierHz, c);
+        cn0 = Arrays.copyOf(cn0, c);
+        state = Arrays.copyOf(state, c);
+        receivedSvTimeNanos = Arrays.copyOf(receivedSvTimeNanos, c);
+        timeOffsetNanos = Arrays.copyOf(timeOffsetNanos, c);
+        pseudorangeRateMps = Arrays.copyOf(pseudorangeRateMps, c);
+        accumulatedDeltaRangeM = Arrays.copyOf(accumulatedDeltaRangeM, c);
+    }
+}
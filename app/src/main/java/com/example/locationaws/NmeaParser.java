@@ -0,0 +1,559 @@
+package com.example.locationaws;
+
+/**
+ * 🧾 Classe NmeaParser
+ *
+ * Decodifica as sentenças NMEA 0183 que o receptor GNSS já produz
+ * (GGA, GSA, GSV, RMC e GST) e grava o resultado no modelo do app:
+ *  → SatelliteSnapshot: satélites em vista, C/N0 por sinal e uso no fix (GSV + GSA)
+ *  → GnssFix: posição, qualidade do fix, HDOP/PDOP/VDOP e desvios padrão (GGA, GSA, RMC, GST)
+ *
+ * Útil em chipsets cujo GnssStatus vem incompleto (sem C/N0 ou sem DOP).
+ *
+ * O parser não aloca memória por sentença: a linha é copiada para um buffer char[]
+ * reutilizável, os campos são localizados por índices (sem String.split) e os números
+ * são convertidos diretamente dos caracteres (sem Integer/Double.parse e sem boxing).
+ *
+ * Não é thread-safe: use uma instância por thread (normalmente a thread do listener NMEA).
+ */
+public class NmeaParser {
+
+    // Resultado de parse(): tipo de sentença reconhecida
+    public static final int RESULT_INVALID = -1;     // formato inválido ou checksum errado
+    public static final int RESULT_UNSUPPORTED = 0;  // sentença válida, mas não tratada
+    public static final int RESULT_GGA = 1;
+    public static final int RESULT_GSA = 2;
+    public static final int RESULT_GSV = 3;
+    public static final int RESULT_RMC = 4;
+    public static final int RESULT_GST = 5;
+
+    // NMEA 4.x permite sentenças maiores que 82 caracteres; 256 cobre as extensões comuns
+    private static final int MAX_LENGTH = 256;
+    private static final int MAX_FIELDS = 40;
+
+    private static final double KNOTS_TO_MPS = 0.514444;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    // Buffer da linha atual e posições de início/fim de cada campo
+    private final char[] line = new char[MAX_LENGTH];
+    private int length;
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private int fieldCount;
+
+    // Modelo de saída
+    private final SatelliteSnapshot satellites;
+    private final GnssFix fix;
+
+    // Satélites usados no fix (GSA): 256 bits de svid por constelação
+    private final long[] usedMask = new long[GnssConstellation.COUNT * 4];
+
+    // Data UTC (meia-noite, em ms desde 1970) vinda da última RMC; -1 = desconhecida
+    private long dateEpochMillis = -1;
+
+    // Momento de chegada informado por quem chama (gravado no modelo)
+    private long arrivalNanos;
+
+    // Contadores
+    private long sentenceCount;
+    private long checksumErrors;
+    private long formatErrors;
+    private long unsupportedCount;
+
+    public NmeaParser() {
+        this(new SatelliteSnapshot(64), new GnssFix());
+    }
+
+    public NmeaParser(SatelliteSnapshot satellites, GnssFix fix) {
+        this.satellites = satellites;
+        this.fix = fix;
+        fix.source = GnssFix.SOURCE_NMEA;
+    }
+
+    // ---------- ACESSO ----------
+
+    public SatelliteSnapshot getSatellites() {
+        return satellites;
+    }
+
+    public GnssFix getFix() {
+        return fix;
+    }
+
+    public long getSentenceCount() { return sentenceCount; }
+    public long getChecksumErrors() { return checksumErrors; }
+    public long getFormatErrors() { return formatErrors; }
+    public long getUnsupportedCount() { return unsupportedCount; }
+
+    /**
+     * Define o momento de chegada (ex.: SystemClock.elapsedRealtimeNanos())
+     * que será gravado no modelo pelas próximas sentenças
+     */
+    public void setArrivalTime(long elapsedRealtimeNanos) {
+        arrivalNanos = elapsedRealtimeNanos;
+    }
+
+    /**
+     * Limpa satélites, fix e estado interno (ex.: ao reiniciar a sessão)
+     */
+    public void reset() {
+        satellites.clear();
+        fix.reset();
+        fix.source = GnssFix.SOURCE_NMEA;
+        for (int i = 0; i < usedMask.length; i++) usedMask[i] = 0;
+        dateEpochMillis = -1;
+    }
+
+    // ---------- ENTRADA ----------
+
+    /**
+     * Decodifica uma sentença recebida como texto (ex.: OnNmeaMessageListener)
+     */
+    public int parse(CharSequence sentence) {
+        int n = sentence.length();
+        if (n > MAX_LENGTH) return rejectFormat();
+        for (int i = 0; i < n; i++) line[i] = sentence.charAt(i);
+        length = n;
+        return parseLine();
+    }
+
+    /**
+     * Decodifica uma sentença a partir de um buffer de caracteres
+     */
+    public int parse(char[] buffer, int offset, int len) {
+        if (len > MAX_LENGTH) return rejectFormat();
+        System.arraycopy(buffer, offset, line, 0, len);
+        length = len;
+        return parseLine();
+    }
+
+    /**
+     * Decodifica uma sentença a partir de bytes ASCII (ex.: leitura de arquivo ou socket)
+     */
+    public int parse(byte[] buffer, int offset, int len) {
+        if (len > MAX_LENGTH) return rejectFormat();
+        for (int i = 0; i < len; i++) line[i] = (char) (buffer[offset + i] & 0xFF);
+        length = len;
+        return parseLine();
+    }
+
+    // ---------- ESTRUTURA DA SENTENÇA ----------
+
+    private int parseLine() {
+        // Remove CR/LF e espaços do final
+        while (length > 0 && line[length - 1] <= ' ') length--;
+        if (length < 7 || line[0] != '$') return rejectFormat();
+
+        // Localiza os campos e calcula o checksum (XOR de tudo entre '$' e '*')
+        int checksum = 0;
+        int star = -1;
+        fieldCount = 0;
+        fieldStart[0] = 1;
+        for (int i = 1; i < length; i++) {
+            char c = line[i];
+            if (c == '*') {
+                star = i;
+                break;
+            }
+            checksum ^= c;
+            if (c == ',') {
+                if (fieldCount + 1 >= MAX_FIELDS) return rejectFormat();
+                fieldEnd[fieldCount++] = i;
+                fieldStart[fieldCount] = i + 1;
+            }
+        }
+        if (star < 0 || star + 3 != length) return rejectFormat();
+        fieldEnd[fieldCount++] = star;
+
+        int expected = (hexValue(line[star + 1]) << 4) | hexValue(line[star + 2]);
+        if (expected < 0) return rejectFormat();
+        if (expected != checksum) {
+            checksumErrors++;
+            return RESULT_INVALID;
+        }
+
+        // Endereço: 2 letras de "talker" + 3 letras do tipo (ex.: GPGGA)
+        if (fieldEnd[0] - fieldStart[0] != 5) {
+            unsupportedCount++;
+            return RESULT_UNSUPPORTED;
+        }
+        sentenceCount++;
+        int talker = GnssConstellation.fromNmeaTalker(line[1], line[2]);
+        char t0 = line[3], t1 = line[4], t2 = line[5];
+
+        if (t0 == 'G' && t1 == 'G' && t2 == 'A') return parseGga();
+        if (t0 == 'G' && t1 == 'S' && t2 == 'A') return parseGsa(talker);
+        if (t0 == 'G' && t1 == 'S' && t2 == 'V') return parseGsv(talker);
+        if (t0 == 'R' && t1 == 'M' && t2 == 'C') return parseRmc();
+        if (t0 == 'G' && t1 == 'S' && t2 == 'T') return parseGst();
+
+        unsupportedCount++;
+        return RESULT_UNSUPPORTED;
+    }
+
+    private int rejectFormat() {
+        formatErrors++;
+        return RESULT_INVALID;
+    }
+
+    // ---------- SENTENÇAS ----------
+
+    /**
+     * GGA: hora, posição, qualidade do fix, satélites usados, HDOP e altitude
+     */
+    private int parseGga() {
+        if (fieldCount < 10) return rejectFormat();
+        int millisOfDay = timeField(1);
+        fix.utcMillisOfDay = millisOfDay;
+        if (millisOfDay >= 0 && dateEpochMillis >= 0) fix.timeMillis = dateEpochMillis + millisOfDay;
+        fix.latitude = coordinateField(2, 3);
+        fix.longitude = coordinateField(4, 5);
+        fix.fixQuality = intField(6, GnssFix.QUALITY_INVALID);
+        fix.satellitesUsed = intField(7, 0);
+        fix.hdop = (float) decimalField(8);
+        fix.altitude = decimalField(9);
+        fix.elapsedRealtimeNanos = arrivalNanos;
+        return RESULT_GGA;
+    }
+
+    /**
+     * GSA: modo do fix, PRNs usados no fix (até 12) e PDOP/HDOP/VDOP
+     */
+    private int parseGsa(int talker) {
+        if (fieldCount < 18) return rejectFormat();
+
+        int constellation = talker;
+        if (constellation == GnssConstellation.UNKNOWN) {
+            // Talker "GN": usa o System ID (NMEA 4.10+) ou deduz pela faixa do primeiro PRN
+            if (fieldCount > 18 && !isEmpty(18)) {
+                constellation = GnssConstellation.fromNmeaSystemId(hexField(18));
+            } else {
+                for (int f = 3; f <= 14 && constellation == GnssConstellation.UNKNOWN; f++) {
+                    if (!isEmpty(f)) constellation = constellationForPrn(GnssConstellation.UNKNOWN, intField(f, 0));
+                }
+            }
+        }
+
+        if (constellation != GnssConstellation.UNKNOWN) {
+            clearUsed(constellation);
+            // PRNs 33-64 de GP são SBAS: a mesma GSA descreve as duas
+            if (constellation == GnssConstellation.GPS) clearUsed(GnssConstellation.SBAS);
+            for (int f = 3; f <= 14; f++) {
+                if (isEmpty(f)) continue;
+                int prn = intField(f, 0);
+                int c = constellationForPrn(constellation, prn);
+                setUsed(c, svidForPrn(c, prn));
+            }
+            for (int i = 0; i < satellites.count; i++) {
+                satellites.usedInFix[i] = isUsed(satellites.constellation[i], satellites.svid[i]);
+            }
+        }
+
+        fix.fixMode = intField(2, 0);
+        fix.pdop = (float) decimalField(15);
+        fix.hdop = (float) decimalField(16);
+        fix.vdop = (float) decimalField(17);
+        return RESULT_GSA;
+    }
+
+    /**
+     * GSV: satélites em vista com elevação, azimute e SNR (até 4 por sentença).
+     * Uma sequência de GSV (mensagem 1..N) descreve uma constelação e um sinal.
+     */
+    private int parseGsv(int talker) {
+        if (fieldCount < 4) return rejectFormat();
+        int messageNumber = intField(2, 0);
+
+        // Se sobrar um campo depois dos blocos de 4, é o Signal ID (NMEA 4.10+)
+        int blockFields = fieldCount - 4;
+        int blocks = blockFields / 4;
+        int signalId = -1;
+        if (blockFields % 4 == 1 && !isEmpty(fieldCount - 1)) signalId = hexField(fieldCount - 1);
+        float carrier = signalId >= 0 ? GnssConstellation.carrierFromNmeaSignalId(talker, signalId) : 0f;
+
+        // Primeira mensagem da sequência: descarta os sinais anteriores desse grupo
+        if (messageNumber == 1) {
+            for (int i = satellites.count - 1; i >= 0; i--) {
+                if (satellites.carrierHz[i] == carrier && inGsvGroup(talker, satellites.constellation[i])) {
+                    satellites.remove(i);
+                }
+            }
+        }
+
+        for (int b = 0; b < blocks; b++) {
+            int f = 4 + b * 4;
+            if (isEmpty(f)) continue;
+            int prn = intField(f, 0);
+            int c = constellationForPrn(talker, prn);
+            int sv = svidForPrn(c, prn);
+            float el = (float) decimalOr(f + 1, 0);
+            float az = (float) decimalOr(f + 2, 0);
+            float snr = (float) decimalOr(f + 3, 0);
+
+            int index = satellites.indexOf(c, sv, carrier);
+            if (index < 0) {
+                satellites.add(c, sv, az, el, snr, carrier, isUsed(c, sv));
+            } else {
+                satellites.azimuth[index] = az;
+                satellites.elevation[index] = el;
+                satellites.cn0[index] = snr;
+                satellites.usedInFix[index] = isUsed(c, sv);
+            }
+        }
+        satellites.elapsedRealtimeNanos = arrivalNanos;
+        return RESULT_GSV;
+    }
+
+    /**
+     * RMC: hora e data UTC, validade, posição, velocidade e rumo
+     */
+    private int parseRmc() {
+        if (fieldCount < 10) return rejectFormat();
+        int millisOfDay = timeField(1);
+        long date = dateField(9);
+        if (date >= 0) dateEpochMillis = date;
+        fix.utcMillisOfDay = millisOfDay;
+        if (millisOfDay >= 0 && dateEpochMillis >= 0) fix.timeMillis = dateEpochMillis + millisOfDay;
+
+        if (charField(2) == 'A') {
+            fix.latitude = coordinateField(3, 4);
+            fix.longitude = coordinateField(5, 6);
+            double knots = decimalField(7);
+            fix.speed = (float) (knots * KNOTS_TO_MPS);
+            fix.bearing = (float) decimalField(8);
+        }
+        fix.elapsedRealtimeNanos = arrivalNanos;
+        return RESULT_RMC;
+    }
+
+    /**
+     * GST: desvios padrão estimados de latitude, longitude e altitude
+     */
+    private int parseGst() {
+        if (fieldCount < 9) return rejectFormat();
+        fix.stdLatitude = (float) decimalField(6);
+        fix.stdLongitude = (float) decimalField(7);
+        fix.stdAltitude = (float) decimalField(8);
+        if (!Float.isNaN(fix.stdLatitude) && !Float.isNaN(fix.stdLongitude)) {
+            fix.accuracy = (float) Math.sqrt(fix.stdLatitude * fix.stdLatitude
+                    + fix.stdLongitude * fix.stdLongitude);
+        }
+        return RESULT_GST;
+    }
+
+    // ---------- NUMERAÇÃO DOS SATÉLITES ----------
+
+    /**
+     * Decide a constelação de um PRN NMEA (GP com PRN 33-64 é SBAS; GN usa faixas)
+     */
+    private static int constellationForPrn(int talker, int prn) {
+        if (talker == GnssConstellation.GPS || talker == GnssConstellation.UNKNOWN) {
+            if (prn >= 33 && prn <= 64) return GnssConstellation.SBAS;
+            if (talker == GnssConstellation.UNKNOWN && prn >= 65 && prn <= 96) return GnssConstellation.GLONASS;
+            if (talker == GnssConstellation.UNKNOWN && prn >= 193 && prn <= 202) return GnssConstellation.QZSS;
+            return GnssConstellation.GPS;
+        }
+        return talker;
+    }
+
+    /**
+     * Constelações que uma sequência GSV do talker descreve: GP inclui SBAS; GN (talker
+     * UNKNOWN) cobre tudo o que constellationForPrn deriva das faixas de PRN
+     */
+    private static boolean inGsvGroup(int talker, int constellation) {
+        switch (talker) {
+            case GnssConstellation.UNKNOWN:
+                return constellation == GnssConstellation.GPS || constellation == GnssConstellation.SBAS
+                        || constellation == GnssConstellation.GLONASS || constellation == GnssConstellation.QZSS;
+            case GnssConstellation.GPS:
+                return constellation == GnssConstellation.GPS || constellation == GnssConstellation.SBAS;
+            default:
+                return constellation == talker;
+        }
+    }
+
+    /**
+     * Converte o PRN NMEA no svid usado pelo GnssStatus do Android
+     */
+    private static int svidForPrn(int constellation, int prn) {
+        switch (constellation) {
+            case GnssConstellation.SBAS:
+                return prn <= 64 ? prn + 87 : prn;      // NMEA 33-64 → 120-151
+            case GnssConstellation.GLONASS:
+                return prn > 64 ? prn - 64 : prn;       // NMEA 65-96 → slot 1-32
+            case GnssConstellation.QZSS:
+                return prn < 193 ? prn + 192 : prn;     // NMEA 4.11 usa 1-10
+            case GnssConstellation.BEIDOU:
+                return prn > 200 ? prn - 200 : prn;     // receptores antigos usam 201-263
+            default:
+                return prn;
+        }
+    }
+
+    private void clearUsed(int constellation) {
+        int base = constellation * 4;
+        usedMask[base] = usedMask[base + 1] = usedMask[base + 2] = usedMask[base + 3] = 0;
+    }
+
+    private void setUsed(int constellation, int svid) {
+        if (svid < 0 || svid > 255) return;
+        usedMask[constellation * 4 + (svid >>> 6)] |= 1L << (svid & 63);
+    }
+
+    private boolean isUsed(int constellation, int svid) {
+        if (svid < 0 || svid > 255 || constellation < 0 || constellation >= GnssConstellation.COUNT) return false;
+        return (usedMask[constellation * 4 + (svid >>> 6)] & (1L << (svid & 63))) != 0;
+    }
+
+    // ---------- CONVERSÃO DE CAMPOS ----------
+
+    private boolean isEmpty(int field) {
+        return field >= fieldCount || fieldStart[field] == fieldEnd[field];
+    }
+
+    private char charField(int field) {
+        return isEmpty(field) ? '\0' : line[fieldStart[field]];
+    }
+
+    private int intField(int field, int defaultValue) {
+        if (isEmpty(field)) return defaultValue;
+        int value = 0;
+        for (int i = fieldStart[field]; i < fieldEnd[field]; i++) {
+            int d = line[i] - '0';
+            if (d < 0 || d > 9) {
+                if (line[i] == '.') break; // alguns receptores enviam "08.0"
+                return defaultValue;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private int hexField(int field) {
+        if (isEmpty(field)) return -1;
+        int value = 0;
+        for (int i = fieldStart[field]; i < fieldEnd[field]; i++) {
+            int d = hexValue(line[i]);
+            if (d < 0) return -1;
+            value = (value << 4) | d;
+        }
+        return value;
+    }
+
+    private double decimalField(int field) {
+        if (isEmpty(field)) return Double.NaN;
+        return parseDecimal(fieldStart[field], fieldEnd[field]);
+    }
+
+    private double decimalOr(int field, double defaultValue) {
+        double v = decimalField(field);
+        return Double.isNaN(v) ? defaultValue : v;
+    }
+
+    /**
+     * Converte "ddmm.mmmm" / "dddmm.mmmm" + hemisfério em graus decimais
+     */
+    private double coordinateField(int field, int hemisphereField) {
+        double v = decimalField(field);
+        if (Double.isNaN(v)) return Double.NaN;
+        int degrees = (int) (v / 100);
+        double result = degrees + (v - degrees * 100) / 60.0;
+        char h = charField(hemisphereField);
+        return (h == 'S' || h == 'W') ? -result : result;
+    }
+
+    /**
+     * Converte "hhmmss.sss" em milissegundos do dia (-1 se vazio/inválido)
+     */
+    private int timeField(int field) {
+        if (isEmpty(field)) return -1;
+        int s = fieldStart[field];
+        if (fieldEnd[field] - s < 6) return -1;
+        int hh = digit(s) * 10 + digit(s + 1);
+        int mm = digit(s + 2) * 10 + digit(s + 3);
+        double ss = parseDecimal(s + 4, fieldEnd[field]);
+        if (hh < 0 || mm < 0 || Double.isNaN(ss)) return -1;
+        return (hh * 3600 + mm * 60) * 1000 + (int) Math.round(ss * 1000);
+    }
+
+    /**
+     * Converte "ddmmyy" em milissegundos (meia-noite UTC) desde 1970 (-1 se vazio/inválido)
+     */
+    private long dateField(int field) {
+        if (isEmpty(field) || fieldEnd[field] - fieldStart[field] != 6) return -1;
+        int s = fieldStart[field];
+        int dd = digit(s) * 10 + digit(s + 1);
+        int mo = digit(s + 2) * 10 + digit(s + 3);
+        int yy = digit(s + 4) * 10 + digit(s + 5);
+        if (dd <= 0 || mo <= 0 || mo > 12 || yy < 0) return -1;
+        int year = yy >= 80 ? 1900 + yy : 2000 + yy;
+        return daysFromCivil(year, mo, dd) * 86_400_000L;
+    }
+
+    private int digit(int index) {
+        int d = line[index] - '0';
+        return (d < 0 || d > 9) ? -1000 : d;
+    }
+
+    /**
+     * Converte um número decimal (com sinal e ponto opcionais) direto do buffer
+     */
+    private double parseDecimal(int start, int end) {
+        if (start >= end) return Double.NaN;
+        int i = start;
+        boolean negative = false;
+        if (line[i] == '-' || line[i] == '+') {
+            negative = line[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean dot = false;
+        boolean any = false;
+        for (; i < end; i++) {
+            char c = line[i];
+            if (c == '.') {
+                if (dot) return Double.NaN;
+                dot = true;
+                continue;
+            }
+            int d = c - '0';
+            if (d < 0 || d > 9) return Double.NaN;
+            any = true;
+            if (digits < 18 && (!dot || scale < 18)) {
+                mantissa = mantissa * 10 + d;
+                if (mantissa != 0) digits++;
+                if (dot) scale++;
+            } else if (!dot) {
+                return Double.NaN; // parte inteira grande demais para NMEA
+            }
+        }
+        if (!any) return Double.NaN;
+        double value = mantissa / POW10[scale];
+        return negative ? -value : value;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        return -1;
+    }
+
+    /**
+     * Dias desde 1970-01-01 para uma data do calendário gregoriano (sem Calendar/LocalDate)
+     */
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yoe = y - era * 400;
+        long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.locationaws;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 📥 Classe NtripClient
+ *
+ * Cliente NTRIP 1.0 mínimo: pede um ponto de montagem ao caster e passa o fluxo RTCM 3
+ * recebido ao Rtcm3Decoder, numa thread própria ("ntrip"). O mesmo buffer de leitura é
+ * reaproveitado do começo ao fim; cada mensagem decodificada chega ao Listener na thread
+ * do cliente, com o modelo do decoder já preenchido (copie o que precisar guardar).
+ *
+ * A resposta do caster ("ICY 200 OK") é conferida só na primeira linha; o que vier depois
+ * vai direto ao decoder, que ignora tudo que não for quadro RTCM.
+ *
+ * Não depende do Android (o app precisa da permissão INTERNET).
+ */
+public final class NtripClient {
+
+    public interface Listener {
+        void onRtcmMessage(int messageType, Rtcm3Decoder decoder);
+
+        /** Conexão recusada ou perdida (o cliente para) */
+        void onNtripError(IOException error);
+    }
+
+    private static final int READ_BUFFER = 16 * 1024;
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+
+    private final Rtcm3Decoder decoder;
+    private final Listener listener;
+
+    private Thread thread;
+    private volatile SocketChannel channel;
+    private volatile long bytesReceived;
+
+    public NtripClient(Rtcm3Decoder decoder, Listener listener) {
+        this.decoder = decoder;
+        this.listener = listener;
+    }
+
+    public synchronized boolean isRunning() {
+        return thread != null;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Conecta e começa a receber (user null = sem autenticação)
+     */
+    public synchronized void start(String host, int port, String mountpoint, String user, String password) {
+        if (thread != null) stop();
+        StringBuilder request = new StringBuilder()
+                .append("GET /").append(mountpoint).append(" HTTP/1.0\r\n")
+                .append("User-Agent: NTRIP LocationAWS/1.0\r\n")
+                .append("Accept: */*\r\n");
+        if (user != null) {
+            String credentials = user + ":" + (password == null ? "" : password);
+            request.append("Authorization: Basic ")
+                    .append(Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                    .append("\r\n");
+        }
+        request.append("\r\n");
+        byte[] head = request.toString().getBytes(StandardCharsets.ISO_8859_1);
+        thread = new Thread(() -> run(host, port, head), "ntrip");
+        thread.start();
+    }
+
+    /**
+     * Fecha a conexão e espera a thread terminar
+     */
+    public synchronized void stop() {
+        if (thread == null) return;
+        Thread t = thread;
+        thread = null;
+        closeChannel();
+        t.interrupt();
+        try {
+            t.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------- THREAD DO CLIENTE ----------
+
+    private void run(String host, int port, byte[] head) {
+        try (SocketChannel ch = SocketChannel.open()) {
+            channel = ch;
+            ch.socket().connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            ch.write(ByteBuffer.wrap(head));
+
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER);
+            readStatusLine(ch, buffer);
+            while (true) {
+                buffer.flip();
+                int type;
+                while ((type = decoder.next(buffer)) != Rtcm3Decoder.NEED_MORE) {
+                    listener.onRtcmMessage(type, decoder);
+                }
+                buffer.clear(); // o decoder guarda o quadro incompleto
+                int n = ch.read(buffer);
+                if (n < 0) throw new IOException("Caster encerrou a conexão");
+                bytesReceived += n;
+            }
+        } catch (IOException e) {
+            // stop() fecha o canal de propósito: não é erro
+            if (channel != null) listener.onNtripError(e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    // Confere a primeira linha da resposta e decodifica o que já veio junto com ela
+    private void readStatusLine(SocketChannel ch, ByteBuffer buffer) throws IOException {
+        int end;
+        while ((end = indexOfLineEnd(buffer)) < 0) {
+            if (!buffer.hasRemaining() || ch.read(buffer) < 0) throw new IOException("Resposta do caster inválida");
+        }
+        String status = new String(buffer.array(), 0, end, StandardCharsets.ISO_8859_1).trim();
+        // Ponto de montagem inexistente: o caster responde "SOURCETABLE 200 OK" com a lista
+        if (!status.endsWith("200 OK") || status.startsWith("SOURCETABLE")) throw new IOException("Caster recusou: " + status);
+        // O resto do buffer já é fluxo RTCM
+        buffer.flip();
+        buffer.position(end + 1);
+        bytesReceived += buffer.remaining();
+        int type;
+        while ((type = decoder.next(buffer)) != Rtcm3Decoder.NEED_MORE) listener.onRtcmMessage(type, decoder);
+        buffer.clear();
+    }
+
+    private static int indexOfLineEnd(ByteBuffer buffer) {
+        byte[] a = buffer.array();
+        for (int i = 0; i < buffer.position(); i++) if (a[i] == '\n') return i;
+        return -1;
+    }
+
+    private void closeChannel() {
+        SocketChannel ch = channel;
+        channel = null;
+        if (ch == null) return;
+        try {
+            ch.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.locationaws;
+
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Bundle;
+import android.provider.OpenableColumns;
+import android.util.TypedValue;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 🗓️ Classe PlannerActivity
+ *
+ * Planejamento de levantamentos: previsão de visibilidade para as próximas 24 horas
+ * na posição atual, a partir dos almanaques (YUMA/SEM) guardados no aparelho.
+ *
+ * → "Abrir almanaque" copia um ou mais arquivos escolhidos pelo usuário para a pasta
+ *   interna "almanac" (um arquivo por constelação; a constelação sai do nome do arquivo).
+ * → A posição vem do primeiro fix do GnssHub; a previsão roda em segundo plano
+ *   (VisibilityPlanner, fork/join) e é refeita quando os almanaques mudam.
+ * → O gráfico (DopChartView) mostra o DOP do dia; arrastar o cursor mostra na GNSSView
+ *   o céu previsto daquele instante.
+ */
+public class PlannerActivity extends AppCompatActivity {
+
+    // Período, passo e máscara de elevação da previsão
+    private static final int DURATION_SECONDS = 24 * 3600;
+    private static final int STEP_SECONDS = 5 * 60;
+    private static final float ELEVATION_MASK = 10f;
+
+    private static final String ALMANAC_DIR = "almanac";
+
+    private GnssHub gnssHub;
+    private GNSSView skyView;
+    private DopChartView chart;
+    private TextView txtStatus;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> new Thread(r, "planner"));
+    private final SatelliteSnapshot predictedSky = new SatelliteSnapshot();
+
+    // Estado (somente na thread principal)
+    private Almanac almanac;
+    private GnssFix position;
+    private VisibilityPlan plan;
+
+    // Aguarda o primeiro fix (cancelada assim que a posição chega)
+    private GnssStream<GnssFix>.Subscription fixSubscription;
+
+    private final ActivityResultLauncher<String[]> pickAlmanac = registerForActivityResult(
+            new ActivityResultContracts.OpenMultipleDocuments(), this::importAlmanacs);
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        LinearLayout root = new LinearLayout(this);
+        root.setOrientation(LinearLayout.VERTICAL);
+        root.setBackgroundColor(SkyPlotRenderer.BACKGROUND_COLOR);
+
+        Button btnOpen = new Button(this);
+        btnOpen.setText("📂 Abrir almanaque (YUMA/SEM)");
+        btnOpen.setOnClickListener(v -> pickAlmanac.launch(new String[]{"*/*"}));
+        root.addView(btnOpen, new LinearLayout.LayoutParams(
+                LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT));
+
+        txtStatus = new TextView(this);
+        txtStatus.setTextColor(0xFFDDDDDD);
+        txtStatus.setPadding(16, 8, 16, 8);
+        root.addView(txtStatus);
+
+        skyView = new GNSSView(this);
+        skyView.setLiveOverlays(false); // céu previsto
+        root.addView(skyView, new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, 0, 1f));
+
+        chart = new DopChartView(this);
+        chart.setOnSliceSelectedListener(this::showSlice);
+        int chartHeight = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 180,
+                getResources().getDisplayMetrics());
+        root.addView(chart, new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, chartHeight));
+
+        setContentView(root);
+
+        gnssHub = GnssHub.get(this);
+        GnssHub.ensureLocationPermission(this);
+        loadAlmanacs();
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (position == null) {
+            txtStatus.setText("Aguardando posição...");
+            fixSubscription = gnssHub.fixStream().subscribe(this::onFix,
+                    GnssStream.Policy.latest(), FrameExecutor.MAIN);
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (fixSubscription != null) {
+            fixSubscription.cancel();
+            fixSubscription = null;
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        worker.shutdownNow();
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode == GnssHub.REQUEST_LOCATION_PERMISSION) {
+            gnssHub.onPermissionResult();
+        }
+    }
+
+    // ---------- POSIÇÃO ----------
+
+    // Só precisa de uma posição: depois do primeiro fix, libera o GPS
+    private void onFix(GnssFix fix) {
+        if (!fix.hasPosition() || position != null) return;
+        position = fix.copy();
+        if (fixSubscription != null) {
+            fixSubscription.cancel();
+            fixSubscription = null;
+        }
+        replan();
+    }
+
+    // ---------- ALMANAQUES ----------
+
+    private File almanacDir() {
+        return new File(getFilesDir(), ALMANAC_DIR);
+    }
+
+    // Lê todos os arquivos da pasta (em segundo plano) e junta num único almanaque
+    private void loadAlmanacs() {
+        File dir = almanacDir();
+        worker.execute(() -> {
+            Almanac all = new Almanac();
+            StringBuilder errors = new StringBuilder();
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File f : files) {
+                    try {
+                        all.addAll(Almanac.load(f));
+                    } catch (IOException e) {
+                        errors.append(f.getName()).append(": ").append(e.getMessage()).append('\n');
+                    }
+                }
+            }
+            runOnUiThread(() -> {
+                almanac = all;
+                if (errors.length() > 0) txtStatus.setText(errors.toString().trim());
+                replan();
+            });
+        });
+    }
+
+    // Copia os arquivos escolhidos para a pasta interna e recarrega
+    private void importAlmanacs(List<Uri> uris) {
+        if (uris == null || uris.isEmpty()) return;
+        File dir = almanacDir();
+        worker.execute(() -> {
+            if (!dir.exists() && !dir.mkdirs()) return;
+            for (Uri uri : uris) {
+                File target = new File(dir, displayName(uri));
+                try (InputStream in = getContentResolver().openInputStream(uri);
+                     OutputStream out = new FileOutputStream(target)) {
+                    if (in == null) continue;
+                    byte[] buf = new byte[8192];
+                    int n;
+                    while ((n = in.read(buf)) > 0) out.write(buf, 0, n);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            loadAlmanacs();
+        });
+    }
+
+    // Nome do arquivo escolhido (guarda a pista da constelação, ex.: "galileo.alm")
+    private String displayName(Uri uri) {
+        try (Cursor c = getContentResolver().query(uri, new String[]{OpenableColumns.DISPLAY_NAME},
+                null, null, null)) {
+            if (c != null && c.moveToFirst()) {
+                String name = c.getString(0);
+                if (name != null) return name.replaceAll("[^A-Za-z0-9._-]", "_");
+            }
+        }
+        return "almanac_" + System.currentTimeMillis() + ".alm";
+    }
+
+    // ---------- PREVISÃO ----------
+
+    private void replan() {
+        if (almanac == null || position == null) return;
+        if (almanac.size() == 0) {
+            txtStatus.setText("Nenhum almanaque: toque em \"Abrir almanaque\"");
+            return;
+        }
+
+        Almanac a = almanac;
+        double lat = position.getLatitude();
+        double lon = position.getLongitude();
+        // Fix sem altitude (FUSED, cache): NaN estragaria as coordenadas ECEF
+        double alt = Double.isNaN(position.getAltitude()) ? 0 : position.getAltitude();
+        long start = System.currentTimeMillis();
+        txtStatus.setText("Calculando previsão (" + a.size() + " satélites)...");
+
+        worker.execute(() -> {
+            long t0 = System.nanoTime();
+            VisibilityPlan p = new VisibilityPlanner().plan(a, lat, lon, alt, start,
+                    DURATION_SECONDS, STEP_SECONDS, ELEVATION_MASK);
+            long ms = (System.nanoTime() - t0) / 1_000_000;
+            runOnUiThread(() -> {
+                plan = p;
+                chart.setPlan(p);
+                showSlice(0);
+                txtStatus.setText(String.format(Locale.US,
+                        "%d satélites, próximas 24 h a cada %d min (%d ms)",
+                        p.getSatelliteCount(), STEP_SECONDS / 60, ms));
+            });
+        });
+    }
+
+    // Mostra no radar o céu previsto de um instante
+    private void showSlice(int slice) {
+        if (plan == null) return;
+        plan.fillSnapshot(slice, predictedSky);
+        skyView.updateSatellites(predictedSky);
+        skyView.setCaption("Previsão: " + DateFormat.getTimeInstance(DateFormat.SHORT)
+                .format(new Date(plan.getTimeMillis(slice))));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 📊 Classe QuantileSketch
+ *
+ * Histograma logarítmico de tamanho fixo para estimar quantis (p50, p90, p99...)
+ * de uma série sem guardar os valores. Memória constante, não importa quantos
+ * valores entrem (sessões de dias cabem no mesmo array).
+ *
+ * → Cada balde cobre [γ^(i-1), γ^i), com γ = (1+α)/(1-α): o quantil devolvido
+ *   tem erro relativo de no máximo α (1% por padrão), como no DDSketch.
+ * → Valores abaixo de minValue (inclusive 0) caem no balde zero; acima de maxValue,
+ *   no último balde (min/máx exatos continuam guardados à parte).
+ * → Dois sketches com a mesma configuração podem ser somados (merge), ex.: juntar
+ *   sessões ou threads diferentes.
+ *
+ * Não é thread-safe: quem escreve sincroniza (ver LocationStats).
+ * Não depende do Android.
+ */
+public final class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double minValue;
+    private final double maxValue;
+    private final double logGamma;
+    private final int offset;   // índice logarítmico do primeiro balde
+
+    // counts[0] = balde zero; counts[1..] = baldes logarítmicos
+    private final long[] counts;
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch(double minValue, double maxValue) {
+        this(minValue, maxValue, 0.01);
+    }
+
+    public QuantileSketch(double minValue, double maxValue, double relativeAccuracy) {
+        if (!(minValue > 0) || !(maxValue > minValue)) {
+            throw new IllegalArgumentException("faixa inválida: [" + minValue + ", " + maxValue + "]");
+        }
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("precisão relativa deve estar em (0, 1)");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        this.offset = logIndex(minValue);
+        this.counts = new long[logIndex(maxValue) - offset + 2];
+    }
+
+    // ---------- ESCRITA ----------
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void add(double value, long n) {
+        if (Double.isNaN(value) || n <= 0) return;
+        counts[bucket(value)] += n;
+        count += n;
+        sum += value * n;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Soma os valores de outro sketch (mesma faixa e precisão)
+     */
+    public void merge(QuantileSketch o) {
+        if (o.counts.length != counts.length || o.offset != offset || o.logGamma != logGamma) {
+            throw new IllegalArgumentException("sketches com configurações diferentes");
+        }
+        for (int i = 0; i < counts.length; i++) counts[i] += o.counts[i];
+        count += o.count;
+        sum += o.sum;
+        min = Math.min(min, o.min);
+        max = Math.max(max, o.max);
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0L);
+        count = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch c = new QuantileSketch(minValue, maxValue, relativeAccuracy);
+        c.merge(this);
+        return c;
+    }
+
+    // ---------- LEITURA ----------
+
+    /**
+     * Valor do quantil q (0..1), com erro relativo ≤ α. NaN se vazio.
+     */
+    public double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+
+        // Posição (0-based) do valor procurado na série ordenada
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                double v = i == 0 ? 0 : value(i);
+                // O valor representativo pode sair da faixa observada: limita a [min, max]
+                return Math.max(min, Math.min(max, v));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() { return count; }
+    public double getMin() { return count == 0 ? Double.NaN : min; }
+    public double getMax() { return count == 0 ? Double.NaN : max; }
+    public double getMean() { return count == 0 ? Double.NaN : sum / count; }
+    public double getRelativeAccuracy() { return relativeAccuracy; }
+
+    /**
+     * Quantidade de baldes (memória: 8 bytes cada, fixa desde a criação)
+     */
+    public int getBucketCount() { return counts.length; }
+
+    // ---------- BALDES ----------
+
+    private int logIndex(double v) {
+        return (int) Math.ceil(Math.log(v) / logGamma);
+    }
+
+    private int bucket(double value) {
+        if (value < minValue) return 0;
+        if (value >= maxValue) return counts.length - 1;
+        return logIndex(value) - offset + 1;
+    }
+
+    // Representante do balde: ponto que minimiza o erro relativo dentro de [γ^(i-1), γ^i)
+    private double value(int bucket) {
+        int i = bucket - 1 + offset;
+        return 2 * Math.exp(i * logGamma) / (Math.exp(logGamma) + 1);
+    }
+}
@@ -0,0 +1,548 @@
+package com.example.locationaws;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 📻 Classe Rtcm3Decoder
+ *
+ * Decodifica um fluxo de correções RTCM 3 (ex.: de um caster NTRIP) e grava o resultado
+ * no modelo do app:
+ *  → 1005: coordenadas ECEF da antena da estação base
+ *  → MSM4/MSM7 (1074/1077 GPS, 1084/1087 GLONASS, 1094/1097 Galileo, 1114/1117 QZSS,
+ *    1124/1127 BeiDou): uma medição por célula satélite × sinal no MeasurementSnapshot
+ *  → 1019: efemérides GPS (Ephemeris, e os elementos keplerianos num Almanac)
+ *
+ * Enquadramento: preâmbulo 0xD3, 6 bits reservados, 10 bits de tamanho, conteúdo e
+ * CRC-24Q. Bytes que não formam um quadro válido são descartados até o próximo preâmbulo.
+ *
+ * Os bytes do quadro atual ficam num ByteBuffer reutilizável e os campos são extraídos
+ * por posição de bit direto do array (getBits), sem alocação por mensagem.
+ *
+ * Medições MSM: clockTimeNanos = hora da época no tempo da semana GPS (BeiDou e GLONASS
+ * convertidos, para que as constelações de uma mesma época caiam juntas), fullBiasNanos = 0
+ * e a pseudodistância fica em
+ * (clockTimeNanos + timeOffsetNanos − receivedSvTimeNanos)·c, como no GnssMeasurement.
+ * Mensagens com o bit "multiple message" ligado acumulam na mesma época (isEpochComplete).
+ *
+ * Não é thread-safe: use uma instância por thread (normalmente a de leitura do socket).
+ */
+public final class Rtcm3Decoder {
+
+    /** next() consumiu todos os bytes sem completar uma mensagem */
+    public static final int NEED_MORE = -1;
+
+    public static final double SPEED_OF_LIGHT = 299_792_458.0;
+    private static final double RANGE_MS = SPEED_OF_LIGHT / 1000; // m por milissegundo de luz
+
+    private static final int PREAMBLE = 0xD3;
+    private static final int HEADER = 3;
+    private static final int CRC = 3;
+    private static final int MAX_PAYLOAD = 1023;
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final long WEEK_MS = 7 * DAY_MS;
+    private static final long BDT_OFFSET_MS = 14_000;          // BDT = GPST − 14 s
+    private static final long GLONASS_OFFSET_MS = 3 * 3_600_000L; // tempo GLONASS = UTC + 3 h
+    private static final long LEAP_SECONDS_MS = 18_000;        // GPST − UTC desde 2017
+
+    // Estado do rastreamento informado nas medições (GnssMeasurement.STATE_CODE_LOCK | STATE_TOW_DECODED)
+    private static final int MSM_STATE = 1 | 8;
+
+    private static final int[] CRC24Q = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int c = i << 16;
+            for (int k = 0; k < 8; k++) {
+                c <<= 1;
+                if ((c & 0x1000000) != 0) c ^= 0x1864CFB;
+            }
+            CRC24Q[i] = c & 0xFFFFFF;
+        }
+    }
+
+    /**
+     * Efemérides GPS (mensagem 1019), em unidades SI (ângulos em rad)
+     */
+    public static final class Ephemeris {
+        int svid;
+        int week;           // Semana GPS módulo 1024
+        int accuracy;       // Índice URA
+        int health;
+        int iode, iodc;
+        double toc, toe;    // s da semana
+        double af0, af1, af2;
+        double crs, crc, cuc, cus, cic, cis;
+        double deltaN, idot, omegaDot;   // rad/s
+        double m0, omega0, i0, omega;    // rad
+        double eccentricity;
+        double sqrtA;       // m^½
+        double tgd;         // s
+        boolean fitInterval;
+
+        public int getSvid() { return svid; }
+        public int getWeek() { return week; }
+        public double getToe() { return toe; }
+        public double getSqrtA() { return sqrtA; }
+        public double getEccentricity() { return eccentricity; }
+        public double getInclination() { return i0; }
+        public double getClockBias() { return af0; }
+
+        /**
+         * Acrescenta os elementos keplerianos ao almanaque (para o VisibilityPlanner)
+         */
+        public int addTo(Almanac almanac) {
+            return almanac.add(GnssConstellation.GPS, svid, health, week, toe, eccentricity, i0,
+                    omegaDot, sqrtA, omega0, omega, m0);
+        }
+    }
+
+    // Quadro atual: cabeçalho + conteúdo + CRC
+    private final ByteBuffer frame = ByteBuffer.allocate(HEADER + MAX_PAYLOAD + CRC);
+    private final byte[] bytes = frame.array();
+
+    // Modelo de saída
+    private final MeasurementSnapshot measurements;
+    private final Ephemeris ephemeris = new Ephemeris();
+    private Almanac almanac;
+
+    // Rascunhos das MSM (máximo de 64 satélites, 32 sinais e 64 células)
+    private final int[] satScratch = new int[64];
+    private final int[] sigScratch = new int[32];
+    private final int[] satOfCell = new int[64];
+    private final double[] roughScratch = new double[64];
+    private final double[] rateScratch = new double[64];
+
+    private int stationId = -1;
+    private double stationX, stationY, stationZ;
+
+    // Época MSM em andamento (multiple message bit)
+    private boolean epochOpen;
+    private long epochTimeMs = -1;
+
+    // Momento de chegada informado por quem chama (gravado nas medições)
+    private long arrivalNanos;
+
+    // Contadores
+    private long messageCount;
+    private long crcErrors;
+    private long unsupportedCount;
+    private long discardedBytes;
+
+    public Rtcm3Decoder() {
+        this(new MeasurementSnapshot(64));
+    }
+
+    public Rtcm3Decoder(MeasurementSnapshot measurements) {
+        this.measurements = measurements;
+    }
+
+    // ---------- ACESSO ----------
+
+    public MeasurementSnapshot getMeasurements() {
+        return measurements;
+    }
+
+    /** Efemérides da última mensagem 1019 */
+    public Ephemeris getEphemeris() {
+        return ephemeris;
+    }
+
+    /** Cada 1019 decodificada também entra neste almanaque (null = não grava) */
+    public void setAlmanac(Almanac target) {
+        almanac = target;
+    }
+
+    /** Estação base da última 1005 (-1 = nenhuma recebida) */
+    public int getStationId() { return stationId; }
+    public double getStationX() { return stationX; }
+    public double getStationY() { return stationY; }
+    public double getStationZ() { return stationZ; }
+
+    /** A última MSM fechou a época (nenhuma outra constelação a caminho) */
+    public boolean isEpochComplete() {
+        return !epochOpen;
+    }
+
+    public long getMessageCount() { return messageCount; }
+    public long getCrcErrors() { return crcErrors; }
+    public long getUnsupportedCount() { return unsupportedCount; }
+    public long getDiscardedBytes() { return discardedBytes; }
+
+    public void setArrivalTime(long elapsedRealtimeNanos) {
+        arrivalNanos = elapsedRealtimeNanos;
+    }
+
+    public static boolean isSupported(int messageType) {
+        int kind = messageType % 10;
+        return messageType == 1005 || messageType == 1019
+                || msmConstellation(messageType) != GnssConstellation.UNKNOWN && (kind == 4 || kind == 7);
+    }
+
+    // ---------- ENTRADA ----------
+
+    /**
+     * Consome bytes de in até completar uma mensagem válida e retorna o seu número
+     * (também para tipos não tratados), ou NEED_MORE se in acabou antes
+     */
+    public int next(ByteBuffer in) {
+        while (true) {
+            if (frame.position() == 0) {
+                // Procura o preâmbulo
+                while (in.hasRemaining()) {
+                    byte b = in.get();
+                    if ((b & 0xFF) == PREAMBLE) {
+                        frame.put(b);
+                        break;
+                    }
+                    discardedBytes++;
+                }
+                if (frame.position() == 0) return NEED_MORE;
+            }
+            if (frame.position() < HEADER && !fill(in, HEADER)) return NEED_MORE;
+            if ((bytes[1] & 0xFC) != 0) { // bits reservados
+                resync();
+                continue;
+            }
+            int total = HEADER + payloadLength() + CRC;
+            if (!fill(in, total)) return NEED_MORE;
+            if (crc24q(bytes, 0, total - CRC) != (int) getBits((total - CRC) * 8, 24)) {
+                crcErrors++;
+                resync();
+                continue;
+            }
+            int type = decode(payloadLength());
+            frame.clear();
+            messageCount++;
+            return type;
+        }
+    }
+
+    // Copia de in até o quadro ter size bytes
+    private boolean fill(ByteBuffer in, int size) {
+        int need = size - frame.position();
+        int n = Math.min(need, in.remaining());
+        if (n > 0) {
+            if (in.hasArray()) {
+                frame.put(in.array(), in.arrayOffset() + in.position(), n);
+                in.position(in.position() + n);
+            } else {
+                for (int k = 0; k < n; k++) frame.put(in.get());
+            }
+        }
+        return n == need;
+    }
+
+    private int payloadLength() {
+        return ((bytes[1] & 0x03) << 8) | (bytes[2] & 0xFF);
+    }
+
+    // Quadro inválido: descarta o preâmbulo e recomeça no próximo 0xD3 já lido
+    private void resync() {
+        int have = frame.position();
+        int next = 1;
+        while (next < have && (bytes[next] & 0xFF) != PREAMBLE) next++;
+        discardedBytes += next;
+        System.arraycopy(bytes, next, bytes, 0, have - next);
+        frame.position(have - next);
+    }
+
+    static int crc24q(byte[] data, int offset, int length) {
+        int crc = 0;
+        for (int i = offset; i < offset + length; i++) {
+            crc = ((crc << 8) & 0xFFFFFF) ^ CRC24Q[((crc >>> 16) ^ data[i]) & 0xFF];
+        }
+        return crc;
+    }
+
+    // ---------- MENSAGENS ----------
+
+    private int decode(int length) {
+        int p = HEADER * 8;
+        int type = (int) getBits(p, 12);
+        if (type == 1005 && length >= 19) {
+            decodeStation(p + 12);
+        } else if (type == 1019 && length >= 61) {
+            decodeGpsEphemeris(p + 12);
+        } else if (msmConstellation(type) != GnssConstellation.UNKNOWN) {
+            if (!decodeMsm(type, p + 12, (HEADER + length) * 8)) unsupportedCount++;
+        } else {
+            unsupportedCount++;
+        }
+        return type;
+    }
+
+    private void decodeStation(int p) {
+        stationId = (int) getBits(p, 12);
+        p += 12 + 6 + 4; // ITRF, indicadores GPS/GLO/GAL/estação de referência
+        stationX = getSigned(p, 38) * 1e-4;
+        p += 38 + 2; // oscilador único, reservado
+        stationY = getSigned(p, 38) * 1e-4;
+        p += 38 + 2; // quarter cycle
+        stationZ = getSigned(p, 38) * 1e-4;
+    }
+
+    private void decodeGpsEphemeris(int p) {
+        Ephemeris e = ephemeris;
+        double sc = Math.PI; // semicírculos → rad
+        e.svid = (int) getBits(p, 6); p += 6;
+        e.week = (int) getBits(p, 10); p += 10;
+        e.accuracy = (int) getBits(p, 4); p += 4;
+        p += 2; // código em L2
+        e.idot = getSigned(p, 14) * 0x1p-43 * sc; p += 14;
+        e.iode = (int) getBits(p, 8); p += 8;
+        e.toc = getBits(p, 16) * 16.0; p += 16;
+        e.af2 = getSigned(p, 8) * 0x1p-55; p += 8;
+        e.af1 = getSigned(p, 16) * 0x1p-43; p += 16;
+        e.af0 = getSigned(p, 22) * 0x1p-31; p += 22;
+        e.iodc = (int) getBits(p, 10); p += 10;
+        e.crs = getSigned(p, 16) * 0x1p-5; p += 16;
+        e.deltaN = getSigned(p, 16) * 0x1p-43 * sc; p += 16;
+        e.m0 = getSigned(p, 32) * 0x1p-31 * sc; p += 32;
+        e.cuc = getSigned(p, 16) * 0x1p-29; p += 16;
+        e.eccentricity = getBits(p, 32) * 0x1p-33; p += 32;
+        e.cus = getSigned(p, 16) * 0x1p-29; p += 16;
+        e.sqrtA = getBits(p, 32) * 0x1p-19; p += 32;
+        e.toe = getBits(p, 16) * 16.0; p += 16;
+        e.cic = getSigned(p, 16) * 0x1p-29; p += 16;
+        e.omega0 = getSigned(p, 32) * 0x1p-31 * sc; p += 32;
+        e.cis = getSigned(p, 16) * 0x1p-29; p += 16;
+        e.i0 = getSigned(p, 32) * 0x1p-31 * sc; p += 32;
+        e.crc = getSigned(p, 16) * 0x1p-5; p += 16;
+        e.omega = getSigned(p, 32) * 0x1p-31 * sc; p += 32;
+        e.omegaDot = getSigned(p, 24) * 0x1p-43 * sc; p += 24;
+        e.tgd = getSigned(p, 8) * 0x1p-31; p += 8;
+        e.health = (int) getBits(p, 6); p += 6;
+        p += 1; // L2 P data flag
+        e.fitInterval = getBits(p, 1) != 0;
+        if (almanac != null) e.addTo(almanac);
+    }
+
+    /**
+     * MSM4 ou MSM7: cabeçalho, dados por satélite e dados por célula. Retorna false para
+     * MSM1–3/5/6 ou mensagem truncada.
+     */
+    private boolean decodeMsm(int type, int p, int endBit) {
+        int constellation = msmConstellation(type);
+        int kind = type % 10;
+        if (kind != 4 && kind != 7) return false;
+        boolean full = kind == 7;
+
+        p += 12; // estação
+        long epochMs = gpsTimeOfWeekMs(constellation, getBits(p, 30)); p += 30;
+        boolean multiple = getBits(p, 1) != 0; p += 1;
+        p += 3 + 7 + 2 + 2 + 1 + 3; // IODS, reservado, relógio, suavização
+
+        // Máscaras: satélites (64), sinais (32), células (satélites × sinais)
+        int nSat = 0, nSig = 0;
+        int[] satIds = satScratch, sigIds = sigScratch;
+        long satMask = getLong(p, 64);
+        p += 64;
+        long sigMask = getBits(p, 32) << 32;
+        p += 32;
+        while (satMask != 0) {
+            int k = Long.numberOfLeadingZeros(satMask);
+            satIds[nSat++] = k + 1;
+            satMask &= ~(Long.MIN_VALUE >>> k);
+        }
+        while (sigMask != 0) {
+            int k = Long.numberOfLeadingZeros(sigMask);
+            sigIds[nSig++] = k + 1;
+            sigMask &= ~(Long.MIN_VALUE >>> k);
+        }
+        int cells = nSat * nSig;
+        if (cells > 64) return false;
+        long cellMask = cells == 0 ? 0 : getLong(p, cells) << (64 - cells);
+        p += cells;
+        int nCell = Long.bitCount(cellMask);
+
+        int satBits = full ? 8 + 4 + 10 + 14 : 8 + 10;
+        int cellBits = full ? 20 + 24 + 10 + 1 + 10 + 15 : 15 + 22 + 4 + 1 + 6;
+        if (p + nSat * satBits + nCell * cellBits > endBit) return false;
+
+        // Dados por satélite (campo a campo, para todos os satélites)
+        double[] rough = roughScratch, roughRate = rateScratch;
+        for (int s = 0; s < nSat; s++) {
+            long ms = getBits(p, 8); p += 8;
+            rough[s] = ms == 255 ? Double.NaN : ms * RANGE_MS;
+        }
+        if (full) p += 4 * nSat; // informação estendida (canal GLONASS)
+        for (int s = 0; s < nSat; s++) {
+            rough[s] += getBits(p, 10) * 0x1p-10 * RANGE_MS; p += 10;
+        }
+        if (full) {
+            for (int s = 0; s < nSat; s++) {
+                long rate = getSigned(p, 14); p += 14;
+                roughRate[s] = rate == -8192 ? Double.NaN : rate;
+            }
+        }
+
+        // Época nova, a menos que a mensagem anterior tenha avisado que havia mais
+        MeasurementSnapshot m = measurements;
+        if (!epochOpen || epochMs != epochTimeMs) m.clear();
+        epochOpen = multiple;
+        epochTimeMs = epochMs;
+        m.elapsedRealtimeNanos = arrivalNanos;
+        m.clockTimeNanos = epochMs * 1_000_000L;
+        m.fullBiasNanos = 0;
+        m.biasNanos = 0;
+        m.ensureCapacity(m.count + nCell);
+
+        // Dados por célula, na ordem satélite × sinal
+        int first = m.count;
+        int prBits = full ? 20 : 15, cpBits = full ? 24 : 22, lockBits = full ? 10 : 4, cnBits = full ? 10 : 6;
+        double prScale = (full ? 0x1p-29 : 0x1p-24) * RANGE_MS;
+        double cpScale = (full ? 0x1p-31 : 0x1p-29) * RANGE_MS;
+        long prInvalid = -(1L << (prBits - 1)), cpInvalid = -(1L << (cpBits - 1));
+        for (int s = 0, c = 0; s < nSat; s++) {
+            for (int g = 0; g < nSig; g++, c++) {
+                if ((cellMask << c) >= 0) continue; // célula vazia (bit mais alto = 0)
+                int i = m.add(constellation, svid(constellation, satIds[s]),
+                        signalFrequency(constellation, sigIds[g]), 0f);
+                satOfCell[i - first] = s;
+            }
+        }
+        int n = m.count - first;
+        for (int k = 0; k < n; k++) {
+            long fine = getSigned(p, prBits); p += prBits;
+            double pr = fine == prInvalid ? Double.NaN : rough[satOfCell[k]] + fine * prScale;
+            setPseudorange(m, first + k, pr);
+        }
+        for (int k = 0; k < n; k++) {
+            long fine = getSigned(p, cpBits); p += cpBits;
+            m.accumulatedDeltaRangeM[first + k] = fine == cpInvalid ? Double.NaN : rough[satOfCell[k]] + fine * cpScale;
+        }
+        p += n * (lockBits + 1); // tempo de travamento, meio ciclo
+        for (int k = 0; k < n; k++) {
+            long cn = getBits(p, cnBits); p += cnBits;
+            m.cn0[first + k] = full ? cn * 0x1p-4f : cn;
+        }
+        if (full) {
+            for (int k = 0; k < n; k++) {
+                long fine = getSigned(p, 15); p += 15;
+                double rate = roughRate[satOfCell[k]];
+                m.pseudorangeRateMps[first + k] = fine == -16384 || Double.isNaN(rate) ? Double.NaN : rate + fine * 1e-4;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Época MSM no tempo da semana GPS (ms). BeiDou: BDT + 14 s. GLONASS: 3 bits de dia da
+     * semana + 27 bits de ms do dia em tempo de Moscou (UTC + 3 h); sem o dia (7), vale o
+     * dia que deixa a época mais perto da anterior.
+     */
+    long gpsTimeOfWeekMs(int constellation, long epoch) {
+        if (constellation == GnssConstellation.BEIDOU) return (epoch + BDT_OFFSET_MS) % WEEK_MS;
+        if (constellation != GnssConstellation.GLONASS) return epoch;
+        long day = epoch >>> 27;
+        long ms = (epoch & 0x7FFFFFF) - GLONASS_OFFSET_MS + LEAP_SECONDS_MS;
+        if (day < 7) return Math.floorMod(day * DAY_MS + ms, WEEK_MS);
+        if (epochTimeMs < 0) return Math.floorMod(ms, DAY_MS);
+        long diff = Math.floorMod(ms - epochTimeMs % DAY_MS + DAY_MS / 2, DAY_MS) - DAY_MS / 2;
+        return Math.floorMod(epochTimeMs + diff, WEEK_MS);
+    }
+
+    // Pseudodistância como no GnssMeasurement: tempo de transmissão em ns inteiros + fração no timeOffset
+    private static void setPseudorange(MeasurementSnapshot m, int i, double pr) {
+        if (Double.isNaN(pr)) {
+            m.state[i] = 0;
+            return;
+        }
+        // Tempo de voo separado em ns inteiros e fração: subtrair direto da hora (~1e14 ns)
+        // perderia centímetros no double
+        double travelNanos = pr / SPEED_OF_LIGHT * 1e9;
+        long whole = (long) Math.floor(travelNanos);
+        m.receivedSvTimeNanos[i] = m.clockTimeNanos - whole;
+        m.timeOffsetNanos[i] = travelNanos - whole;
+        m.state[i] = MSM_STATE;
+    }
+
+    // ---------- TABELAS ----------
+
+    static int msmConstellation(int type) {
+        if (type < 1071 || type > 1137) return GnssConstellation.UNKNOWN;
+        switch ((type - 1070) / 10) {
+            case 0: return GnssConstellation.GPS;
+            case 1: return GnssConstellation.GLONASS;
+            case 2: return GnssConstellation.GALILEO;
+            case 3: return GnssConstellation.SBAS;
+            case 4: return GnssConstellation.QZSS;
+            case 5: return GnssConstellation.BEIDOU;
+            case 6: return GnssConstellation.IRNSS;
+            default: return GnssConstellation.UNKNOWN;
+        }
+    }
+
+    // Numeração de satélites do Android (QZSS 193+, SBAS 120+)
+    private static int svid(int constellation, int satId) {
+        if (constellation == GnssConstellation.QZSS) return 192 + satId;
+        if (constellation == GnssConstellation.SBAS) return 119 + satId;
+        return satId;
+    }
+
+    /**
+     * Portadora (Hz) do identificador de sinal MSM (RTCM 10403, tabelas de sinais), 0 = desconhecida
+     */
+    static float signalFrequency(int constellation, int signalId) {
+        switch (constellation) {
+            case GnssConstellation.GPS:
+            case GnssConstellation.QZSS:
+            case GnssConstellation.SBAS:
+                if (signalId >= 2 && signalId <= 4 || signalId >= 30 && signalId <= 32) return GnssConstellation.L1_HZ;
+                if (signalId >= 8 && signalId <= 17) {
+                    return constellation == GnssConstellation.QZSS && signalId <= 11 ? GnssConstellation.E6_HZ
+                            : GnssConstellation.L2_HZ;
+                }
+                if (signalId >= 22 && signalId <= 24) return GnssConstellation.L5_HZ;
+                return 0f;
+            case GnssConstellation.GLONASS:
+                if (signalId == 2 || signalId == 3) return GnssConstellation.G1_HZ;
+                if (signalId == 8 || signalId == 9) return GnssConstellation.G2_HZ;
+                return 0f;
+            case GnssConstellation.GALILEO:
+                if (signalId >= 2 && signalId <= 6) return GnssConstellation.L1_HZ;
+                if (signalId >= 8 && signalId <= 12) return GnssConstellation.E6_HZ;
+                if (signalId >= 14 && signalId <= 16) return GnssConstellation.E5B_HZ;
+                if (signalId >= 22 && signalId <= 24) return GnssConstellation.L5_HZ;
+                return 0f;
+            case GnssConstellation.BEIDOU:
+                if (signalId >= 2 && signalId <= 4) return GnssConstellation.B1I_HZ;
+                if (signalId >= 8 && signalId <= 10) return GnssConstellation.B3I_HZ;
+                if (signalId >= 14 && signalId <= 16) return GnssConstellation.E5B_HZ;
+                if (signalId >= 22 && signalId <= 24) return GnssConstellation.L5_HZ;
+                if (signalId >= 30 && signalId <= 32) return GnssConstellation.L1_HZ;
+                return 0f;
+            case GnssConstellation.IRNSS:
+                return signalId >= 22 && signalId <= 24 ? GnssConstellation.L5_HZ : 0f;
+            default:
+                return 0f;
+        }
+    }
+
+    // ---------- BITS ----------
+
+    /**
+     * len (≤ 56) bits sem sinal a partir do bit pos do quadro (bit 0 = mais significativo do byte 0)
+     */
+    long getBits(int pos, int len) {
+        if (len == 0) return 0;
+        int first = pos >>> 3;
+        int last = (pos + len - 1) >>> 3;
+        long v = 0;
+        for (int k = first; k <= last; k++) v = (v << 8) | (bytes[k] & 0xFF);
+        int unused = (last + 1) * 8 - (pos + len);
+        return (v >>> unused) & (-1L >>> (64 - len));
+    }
+
+    /** Até 64 bits sem sinal (máscaras MSM) */
+    long getLong(int pos, int len) {
+        if (len <= 32) return getBits(pos, len);
+        return getBits(pos, 32) << (len - 32) | getBits(pos + 32, len - 32);
+    }
+
+    /** Idem, em complemento de dois */
+    long getSigned(int pos, int len) {
+        return getBits(pos, len) << (64 - len) >> (64 - len);
+    }
+}
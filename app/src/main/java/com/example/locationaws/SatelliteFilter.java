@@ -0,0 +1,185 @@
+package com.example.locationaws;
+
+import java.util.Set;
+
+/**
+ * 🔎 Classe SatelliteFilter
+ *
+ * Filtro de satélites compartilhado por todas as telas.
+ *
+ * Imutável: cada alteração (withX) gera um novo filtro, que pode ser publicado
+ * para outras threads sem cópia nem lock. Os critérios ficam em campos primitivos:
+ *  → constelações: máscara de bits (bit c = GnssConstellation c)
+ *  → bandas: máscara de GnssConstellation.BAND_*
+ *  → elevação mínima e C/N0 mínimo
+ *  → só satélites usados no Fix
+ *
+ * accepts() é uma única expressão com comparações primitivas, sem boxing nem desvios:
+ * decidir 300 sinais custa na ordem de 1 µs (ver SatelliteFilterTest).
+ */
+public final class SatelliteFilter {
+
+    // Constelações marcadas por padrão (as mesmas do diálogo original da GNSSView)
+    public static final int DEFAULT_CONSTELLATIONS = bit(GnssConstellation.GPS) | bit(GnssConstellation.GLONASS)
+            | bit(GnssConstellation.GALILEO) | bit(GnssConstellation.BEIDOU);
+
+    public static final SatelliteFilter DEFAULT = new SatelliteFilter(
+            DEFAULT_CONSTELLATIONS, GnssConstellation.ALL_BANDS, 0f, 0f, false);
+
+    final int constellationMask;
+    final int bandMask;
+    final float minElevation;
+    final float minCn0;
+    final boolean usedOnly;
+
+    // Só classifica a portadora se alguma banda estiver desmarcada (caso raro)
+    private final boolean checkBands;
+
+    SatelliteFilter(int constellationMask, int bandMask, float minElevation, float minCn0, boolean usedOnly) {
+        this.constellationMask = constellationMask;
+        this.bandMask = bandMask;
+        this.minElevation = minElevation;
+        this.minCn0 = minCn0;
+        this.usedOnly = usedOnly;
+        this.checkBands = (bandMask & GnssConstellation.ALL_BANDS) != GnssConstellation.ALL_BANDS;
+    }
+
+    public static int bit(int constellation) {
+        return 1 << constellation;
+    }
+
+    /**
+     * Filtro equivalente às preferências antigas da GNSSView: conjunto de constelações
+     * como Set&lt;String&gt; (null = nunca salvo) e a opção "mostrar não usados".
+     */
+    public static SatelliteFilter fromLegacy(Set<String> constellations, boolean showUnused) {
+        int mask = DEFAULT_CONSTELLATIONS;
+        if (constellations != null) {
+            mask = 0;
+            for (String s : constellations) {
+                try {
+                    int c = Integer.parseInt(s);
+                    if (c >= 0 && c < GnssConstellation.COUNT) mask |= bit(c);
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+        return new SatelliteFilter(mask, GnssConstellation.ALL_BANDS, 0f, 0f, !showUnused);
+    }
+
+    // ---------- PREDICADO ----------
+
+    /**
+     * O sinal passa em todos os critérios?
+     * Usa "&" (e não "&&"): todas as comparações são avaliadas, sem desvios que o
+     * processador erraria ao filtrar sinais de elevação/C/N0 aleatórios.
+     */
+    public boolean accepts(int constellation, float elevation, float cn0, float carrierHz, boolean used) {
+        boolean ok = ((constellationMask >>> constellation) & 1) != 0
+                & elevation >= minElevation
+                & cn0 >= minCn0
+                & (used | !usedOnly);
+        // checkBands é fixo para o filtro: o JIT tira este teste de dentro do laço
+        return checkBands ? ok & (bandMask & GnssConstellation.band(carrierHz)) != 0 : ok;
+    }
+
+    public boolean accepts(SatelliteSnapshot s, int i) {
+        return accepts(s.constellation[i], s.elevation[i], s.cn0[i], s.carrierHz[i], s.usedInFix[i]);
+    }
+
+    /**
+     * Copia para "out" apenas os sinais aceitos (out é limpo antes). Retorna quantos passaram.
+     * Cada sinal é copiado para a próxima posição livre e o índice só avança se ele
+     * for aceito: o laço não tem desvio dependente dos dados.
+     */
+    public int apply(SatelliteSnapshot in, SatelliteSnapshot out) {
+        int n = in.count;
+        out.ensureCapacity(n);
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            out.constellation[k] = in.constellation[i];
+            out.svid[k] = in.svid[i];
+            out.azimuth[k] = in.azimuth[i];
+            out.elevation[k] = in.elevation[i];
+            out.cn0[k] = in.cn0[i];
+            out.carrierHz[k] = in.carrierHz[i];
+            out.usedInFix[k] = in.usedInFix[i];
+            k += accepts(in, i) ? 1 : 0;
+        }
+        out.count = k;
+        out.elapsedRealtimeNanos = in.elapsedRealtimeNanos;
+        return k;
+    }
+
+    // ---------- ALTERAÇÕES (geram um novo filtro) ----------
+
+    public SatelliteFilter withConstellation(int constellation, boolean enabled) {
+        int mask = enabled ? constellationMask | bit(constellation) : constellationMask & ~bit(constellation);
+        return new SatelliteFilter(mask, bandMask, minElevation, minCn0, usedOnly);
+    }
+
+    public SatelliteFilter withBand(int band, boolean enabled) {
+        int mask = enabled ? bandMask | band : bandMask & ~band;
+        return new SatelliteFilter(constellationMask, mask, minElevation, minCn0, usedOnly);
+    }
+
+    public SatelliteFilter withMinElevation(float degrees) {
+        return new SatelliteFilter(constellationMask, bandMask, degrees, minCn0, usedOnly);
+    }
+
+    public SatelliteFilter withMinCn0(float dbHz) {
+        return new SatelliteFilter(constellationMask, bandMask, minElevation, dbHz, usedOnly);
+    }
+
+    public SatelliteFilter withUsedOnly(boolean onlyUsed) {
+        return new SatelliteFilter(constellationMask, bandMask, minElevation, minCn0, onlyUsed);
+    }
+
+    // ---------- GETTERS ----------
+
+    public boolean isConstellationEnabled(int constellation) {
+        return ((constellationMask >>> constellation) & 1) != 0;
+    }
+
+    public boolean isBandEnabled(int band) {
+        return (bandMask & band) != 0;
+    }
+
+    public int getConstellationMask() {
+        return constellationMask;
+    }
+
+    public int getBandMask() {
+        return bandMask;
+    }
+
+    public float getMinElevation() {
+        return minElevation;
+    }
+
+    public float getMinCn0() {
+        return minCn0;
+    }
+
+    public boolean isUsedOnly() {
+        return usedOnly;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SatelliteFilter)) return false;
+        SatelliteFilter f = (SatelliteFilter) o;
+        return constellationMask == f.constellationMask && bandMask == f.bandMask
+                && Float.compare(minElevation, f.minElevation) == 0
+                && Float.compare(minCn0, f.minCn0) == 0 && usedOnly == f.usedOnly;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = constellationMask;
+        h = 31 * h + bandMask;
+        h = 31 * h + Float.floatToIntBits(minElevation);
+        h = 31 * h + Float.floatToIntBits(minCn0);
+        return 31 * h + (usedOnly ? 1 : 0);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.locationaws;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 💾 Classe SatelliteFilterStore
+ *
+ * Guarda o SatelliteFilter único do app, compartilhado por todas as telas.
+ *
+ * → As preferências são lidas numa thread própria logo no primeiro get():
+ *   nenhuma View lê disco no construtor. Até a leitura terminar, vale o filtro padrão.
+ * → Mudanças são publicadas num GnssStream: quem se inscreve recebe o filtro
+ *   atual (replay) e cada alteração seguinte.
+ * → Migra o formato antigo da GNSSView (Set&lt;String&gt; + "showUnusedSats") para as
+ *   chaves primitivas novas, apagando as antigas.
+ */
+public final class SatelliteFilterStore {
+
+    // Mesmo arquivo de preferências usado antes pela GNSSView
+    private static final String PREFS_NAME = "GNSSViewPrefs";
+
+    // Formato antigo
+    private static final String LEGACY_KEY_SELECTED_CONSTELLATIONS = "selectedConstellations";
+    private static final String LEGACY_KEY_SHOW_UNUSED_SATS = "showUnusedSats";
+
+    // Formato novo
+    private static final String KEY_CONSTELLATION_MASK = "filterConstellationMask";
+    private static final String KEY_BAND_MASK = "filterBandMask";
+    private static final String KEY_MIN_ELEVATION = "filterMinElevation";
+    private static final String KEY_MIN_CN0 = "filterMinCn0";
+    private static final String KEY_USED_ONLY = "filterUsedOnly";
+
+    // ---------- SINGLETON ----------
+
+    @SuppressLint("StaticFieldLeak") // guarda apenas o Application context
+    private static SatelliteFilterStore instance;
+
+    public static synchronized SatelliteFilterStore get(Context context) {
+        if (instance == null) instance = new SatelliteFilterStore(context.getApplicationContext());
+        return instance;
+    }
+
+    private final Context appContext;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> new Thread(r, "filter-prefs"));
+    private final GnssStream<SatelliteFilter> stream = new GnssStream<>();
+
+    private volatile SatelliteFilter filter = SatelliteFilter.DEFAULT;
+
+    // Se o usuário salvar antes da leitura terminar, a leitura não sobrescreve
+    private boolean changedBeforeLoad;
+
+    private SatelliteFilterStore(Context appContext) {
+        this.appContext = appContext;
+        io.execute(this::load);
+    }
+
+    // ---------- ACESSO ----------
+
+    /**
+     * Filtro atual (o padrão, enquanto as preferências ainda estão sendo lidas)
+     */
+    public SatelliteFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Fluxo de filtros: publica ao terminar a leitura e a cada save()
+     */
+    public GnssStream<SatelliteFilter> stream() {
+        return stream;
+    }
+
+    /**
+     * Aplica o novo filtro em todas as telas e grava em segundo plano
+     */
+    public void save(SatelliteFilter newFilter) {
+        synchronized (this) {
+            changedBeforeLoad = true;
+            filter = newFilter;
+        }
+        stream.publish(newFilter);
+        io.execute(() -> write(newFilter));
+    }
+
+    // ---------- PERSISTÊNCIA (thread "filter-prefs") ----------
+
+    private void load() {
+        SharedPreferences prefs = prefs();
+        SatelliteFilter loaded;
+        if (prefs.contains(KEY_CONSTELLATION_MASK)) {
+            loaded = new SatelliteFilter(
+                    prefs.getInt(KEY_CONSTELLATION_MASK, SatelliteFilter.DEFAULT_CONSTELLATIONS),
+                    prefs.getInt(KEY_BAND_MASK, GnssConstellation.ALL_BANDS),
+                    prefs.getFloat(KEY_MIN_ELEVATION, 0f),
+                    prefs.getFloat(KEY_MIN_CN0, 0f),
+                    prefs.getBoolean(KEY_USED_ONLY, false));
+        } else {
+            // Primeira execução desta versão: converte (ou cria) a partir do formato antigo
+            Set<String> legacy = prefs.getStringSet(LEGACY_KEY_SELECTED_CONSTELLATIONS, null);
+            boolean showUnused = prefs.getBoolean(LEGACY_KEY_SHOW_UNUSED_SATS, true);
+            loaded = SatelliteFilter.fromLegacy(legacy, showUnused);
+            write(loaded);
+        }
+
+        synchronized (this) {
+            if (changedBeforeLoad) return;
+            filter = loaded;
+        }
+        stream.publish(loaded);
+    }
+
+    private void write(SatelliteFilter f) {
+        prefs().edit()
+                .putInt(KEY_CONSTELLATION_MASK, f.constellationMask)
+                .putInt(KEY_BAND_MASK, f.bandMask)
+                .putFloat(KEY_MIN_ELEVATION, f.minElevation)
+                .putFloat(KEY_MIN_CN0, f.minCn0)
+                .putBoolean(KEY_USED_ONLY, f.usedOnly)
+                .remove(LEGACY_KEY_SELECTED_CONSTELLATIONS)
+                .remove(LEGACY_KEY_SHOW_UNUSED_SATS)
+                .commit(); // já estamos fora da thread principal
+    }
+
+    private SharedPreferences prefs() {
+        return appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
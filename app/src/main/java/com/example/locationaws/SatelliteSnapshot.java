@@ -0,0 +1,175 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 🛰️ Classe SatelliteSnapshot
+ *
+ * Fotografia de todos os sinais de satélite de uma atualização GNSS, guardada
+ * em arrays primitivos paralelos (um índice por sinal) em vez de uma lista de objetos.
+ *
+ * Pode ser preenchida a partir de um GnssStatus, de sentenças NMEA ou de outras fontes,
+ * e é o formato comum consumido pelas telas e pelos cálculos.
+ *
+ * Regra de uso: um snapshot reutilizável pertence a quem o escreve (ex.: o NmeaParser);
+ * snapshots entregues a outras threads são cópias que ninguém altera depois de publicadas.
+ */
+public class SatelliteSnapshot {
+
+    // ⏱️ Momento de chegada (SystemClock.elapsedRealtimeNanos) da atualização de origem
+    long elapsedRealtimeNanos;
+
+    // Quantidade de sinais válidos nos arrays abaixo
+    int count;
+
+    int[] constellation;   // Tipo de constelação (GnssConstellation)
+    int[] svid;            // Identificador do satélite
+    float[] azimuth;       // Azimute em graus (0° = Norte)
+    float[] elevation;     // Elevação em graus (0° = horizonte)
+    float[] cn0;           // Relação portadora/ruído em dB-Hz (0 = sem sinal)
+    float[] carrierHz;     // Frequência da portadora em Hz (0 = desconhecida)
+    boolean[] usedInFix;   // Usado no cálculo da posição
+
+    public SatelliteSnapshot() {
+        this(64);
+    }
+
+    public SatelliteSnapshot(int capacity) {
+        int c = Math.max(1, capacity);
+        constellation = new int[c];
+        svid = new int[c];
+        azimuth = new float[c];
+        elevation = new float[c];
+        cn0 = new float[c];
+        carrierHz = new float[c];
+        usedInFix = new boolean[c];
+    }
+
+    // ---------- ACESSO ----------
+
+    public int size() {
+        return count;
+    }
+
+    public long getElapsedRealtimeNanos() {
+        return elapsedRealtimeNanos;
+    }
+
+    public int getConstellation(int i) { return constellation[i]; }
+    public int getSvid(int i) { return svid[i]; }
+    public float getAzimuth(int i) { return azimuth[i]; }
+    public float getElevation(int i) { return elevation[i]; }
+    public float getCn0(int i) { return cn0[i]; }
+    public float getCarrierHz(int i) { return carrierHz[i]; }
+    public boolean isUsedInFix(int i) { return usedInFix[i]; }
+
+    /**
+     * Quantos sinais estão marcados como usados no fix
+     */
+    public int usedCount() {
+        int used = 0;
+        for (int i = 0; i < count; i++) if (usedInFix[i]) used++;
+        return used;
+    }
+
+    /**
+     * Procura um sinal por (constelação, svid, portadora). Retorna -1 se não existir.
+     */
+    public int indexOf(int constellationType, int satelliteId, float carrier) {
+        for (int i = 0; i < count; i++) {
+            if (svid[i] == satelliteId && constellation[i] == constellationType && carrierHz[i] == carrier) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Procura o primeiro sinal de um satélite (qualquer banda). Retorna -1 se não existir.
+     */
+    public int indexOfSatellite(int constellationType, int satelliteId) {
+        for (int i = 0; i < count; i++) {
+            if (svid[i] == satelliteId && constellation[i] == constellationType) return i;
+        }
+        return -1;
+    }
+
+    // ---------- ESCRITA ----------
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Acrescenta um sinal e retorna seu índice.
+     * Só aloca quando a capacidade é excedida (os arrays dobram de tamanho).
+     */
+    public int add(int constellationType, int satelliteId, float az, float el,
+                   float cn0DbHz, float carrier, boolean used) {
+        ensureCapacity(count + 1);
+        int i = count++;
+        constellation[i] = constellationType;
+        svid[i] = satelliteId;
+        azimuth[i] = az;
+        elevation[i] = el;
+        cn0[i] = cn0DbHz;
+        carrierHz[i] = carrier;
+        usedInFix[i] = used;
+        return i;
+    }
+
+    /**
+     * Remove o sinal do índice informado, preservando a ordem dos demais
+     */
+    public void remove(int index) {
+        int tail = count - index - 1;
+        if (tail > 0) {
+            System.arraycopy(constellation, index + 1, constellation, index, tail);
+            System.arraycopy(svid, index + 1, svid, index, tail);
+            System.arraycopy(azimuth, index + 1, azimuth, index, tail);
+            System.arraycopy(elevation, index + 1, elevation, index, tail);
+            System.arraycopy(cn0, index + 1, cn0, index, tail);
+            System.arraycopy(carrierHz, index + 1, carrierHz, index, tail);
+            System.arraycopy(usedInFix, index + 1, usedInFix, index, tail);
+        }
+        count--;
+    }
+
+    /**
+     * Copia todo o conteúdo de outro snapshot (reaproveitando os arrays se couber)
+     */
+    public void copyFrom(SatelliteSnapshot other) {
+        ensureCapacity(other.count);
+        int n = other.count;
+        System.arraycopy(other.constellation, 0, constellation, 0, n);
+        System.arraycopy(other.svid, 0, svid, 0, n);
+        System.arraycopy(other.azimuth, 0, azimuth, 0, n);
+        System.arraycopy(other.elevation, 0, elevation, 0, n);
+        System.arraycopy(other.cn0, 0, cn0, 0, n);
+        System.arraycopy(other.carrierHz, 0, carrierHz, 0, n);
+        System.arraycopy(other.usedInFix, 0, usedInFix, 0, n);
+        count = n;
+        elapsedRealtimeNanos = other.elapsedRealtimeNanos;
+    }
+
+    /**
+     * Cria uma cópia com capacidade exata (para publicar para outras threads)
+     */
+    public SatelliteSnapshot copy() {
+        SatelliteSnapshot s = new SatelliteSnapshot(count);
+        s.copyFrom(this);
+        return s;
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity <= svid.length) return;
+        int c = Math.max(capacity, svid.length * 2);
+        constellation = Arrays.copyOf(constellation, c);
+        svid = Arrays.copyOf(svid, c);
+        azimuth = Arrays.copyOf(azimuth, c);
+        elevation = Arrays.copyOf(elevation, c);
+        cn0 = Arrays.copyOf(cn0, c);
+        carrierHz = Arrays.copyOf(carrierHz, c);
+        usedInFix = Arrays.copyOf(usedInFix, c);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.locationaws;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🔁 Classe SensorRing
+ *
+ * Fila circular de amostras de sensores entre a thread dos callbacks do SensorManager
+ * (produtor) e a thread de fusão (consumidor). Um produtor e um consumidor, sem lock.
+ *
+ * As amostras ficam em arrays primitivos pré-alocados (tipo, tempo, x, y, z, w):
+ * offer() e drain() não alocam nada. Com a fila cheia a amostra nova é descartada
+ * e contada em getDropped() (o consumidor está atrasado; melhor perder amostras do que travar).
+ */
+public final class SensorRing {
+
+    // Tipos de amostra (independentes das constantes do Android, para testar na JVM)
+    public static final int TYPE_ACCELEROMETER = 1;   // m/s², referencial do aparelho, com gravidade
+    public static final int TYPE_GYROSCOPE = 2;       // rad/s, referencial do aparelho
+    public static final int TYPE_ROTATION_VECTOR = 3; // quaternion (x, y, z, w) aparelho → mundo (leste, norte, cima)
+
+    /** Recebe as amostras na thread de quem chamou drain() */
+    public interface SampleHandler {
+        void onSample(int type, long timestampNanos, float x, float y, float z, float w);
+    }
+
+    private final int mask;
+    private final byte[] type;
+    private final long[] time;
+    private final float[] x, y, z, w;
+
+    // head: próxima a ler (só o consumidor escreve); tail: próxima a escrever (só o produtor)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long dropped;
+
+    /**
+     * @param capacity arredondada para a próxima potência de 2
+     */
+    public SensorRing(int capacity) {
+        int n = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = n - 1;
+        type = new byte[n];
+        time = new long[n];
+        x = new float[n];
+        y = new float[n];
+        z = new float[n];
+        w = new float[n];
+    }
+
+    // ---------- PRODUTOR ----------
+
+    public boolean offer(int sampleType, long timestampNanos, float vx, float vy, float vz, float vw) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++; // só o produtor escreve
+            return false;
+        }
+        int i = (int) t & mask;
+        type[i] = (byte) sampleType;
+        time[i] = timestampNanos;
+        x[i] = vx;
+        y[i] = vy;
+        z[i] = vz;
+        w[i] = vw;
+        tail.lazySet(t + 1); // publica a amostra depois de escrita
+        return true;
+    }
+
+    // ---------- CONSUMIDOR ----------
+
+    /**
+     * Entrega todas as amostras pendentes, em ordem. Retorna quantas foram entregues.
+     */
+    public int drain(SampleHandler handler) {
+        long h = head.get();
+        long t = tail.get();
+        for (long k = h; k < t; k++) {
+            int i = (int) k & mask;
+            handler.onSample(type[i], time[i], x[i], y[i], z[i], w[i]);
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
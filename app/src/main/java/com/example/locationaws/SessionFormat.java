@@ -0,0 +1,141 @@
+package com.example.locationaws;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 💾 Classe SessionFormat
+ *
+ * Formato binário dos arquivos de sessão gravados pelo SessionRecorder.
+ *
+ * Cabeçalho: int mágico "LAWS", short versão, long hora de início (ms UTC).
+ * Cada registro: byte tipo, long elapsedRealtimeNanos e o conteúdo:
+ *  → STATUS: short quantidade + (byte constelação, short svid, float az, float el,
+ *            float C/N0, float portadora, byte usado) por sinal
+ *  → FIX:    byte origem, long hora, double lat/lon/alt, float precisão/velocidade/rumo,
+ *            float HDOP/VDOP/PDOP, byte qualidade, short satélites usados
+ *
+ * Tudo em big-endian (DataOutputStream na escrita, ByteBuffer na leitura),
+ * para que arquivos grandes possam ser lidos via memória mapeada sem alocação.
+ */
+public final class SessionFormat {
+
+    public static final int MAGIC = 0x4C415753; // "LAWS"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 4 + 2 + 8;
+
+    public static final byte TYPE_STATUS = 1;
+    public static final byte TYPE_FIX = 2;
+
+    // Fim do arquivo (ou último registro incompleto, ex.: app encerrado no meio da escrita)
+    public static final int END = -1;
+
+    private static final int RECORD_HEADER = 1 + 8;
+    private static final int SATELLITE_SIZE = 1 + 2 + 4 * 4 + 1;
+    private static final int FIX_SIZE = 1 + 8 + 3 * 8 + 6 * 4 + 1 + 2;
+
+    private SessionFormat() {
+    }
+
+    // ---------- ESCRITA ----------
+
+    public static void writeHeader(DataOutput out, long startTimeMillis) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(startTimeMillis);
+    }
+
+    public static void writeStatus(DataOutput out, SatelliteSnapshot s) throws IOException {
+        out.writeByte(TYPE_STATUS);
+        out.writeLong(s.elapsedRealtimeNanos);
+        out.writeShort(s.count);
+        for (int i = 0; i < s.count; i++) {
+            out.writeByte(s.constellation[i]);
+            out.writeShort(s.svid[i]);
+            out.writeFloat(s.azimuth[i]);
+            out.writeFloat(s.elevation[i]);
+            out.writeFloat(s.cn0[i]);
+            out.writeFloat(s.carrierHz[i]);
+            out.writeByte(s.usedInFix[i] ? 1 : 0);
+        }
+    }
+
+    public static void writeFix(DataOutput out, GnssFix f) throws IOException {
+        out.writeByte(TYPE_FIX);
+        out.writeLong(f.elapsedRealtimeNanos);
+        out.writeByte(f.source);
+        out.writeLong(f.timeMillis);
+        out.writeDouble(f.latitude);
+        out.writeDouble(f.longitude);
+        out.writeDouble(f.altitude);
+        out.writeFloat(f.accuracy);
+        out.writeFloat(f.speed);
+        out.writeFloat(f.bearing);
+        out.writeFloat(f.hdop);
+        out.writeFloat(f.vdop);
+        out.writeFloat(f.pdop);
+        out.writeByte(f.fixQuality);
+        out.writeShort(f.satellitesUsed);
+    }
+
+    // ---------- LEITURA ----------
+
+    /**
+     * Lê o cabeçalho e retorna a hora de início da sessão (ms UTC)
+     */
+    public static long readHeader(ByteBuffer in) throws IOException {
+        if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC) throw new IOException("Arquivo de sessão inválido");
+        short version = in.getShort();
+        if (version != VERSION) throw new IOException("Versão de sessão não suportada: " + version);
+        return in.getLong();
+    }
+
+    /**
+     * Lê o próximo registro para dentro dos modelos reutilizáveis e retorna seu tipo
+     * (TYPE_STATUS ou TYPE_FIX), ou END no fim do arquivo
+     */
+    public static int readRecord(ByteBuffer in, SatelliteSnapshot sats, GnssFix fix) throws IOException {
+        if (in.remaining() < RECORD_HEADER) return END;
+        int start = in.position();
+        byte type = in.get();
+        long elapsed = in.getLong();
+        if (type == TYPE_STATUS) {
+            if (in.remaining() < 2) return truncated(in, start);
+            int n = in.getShort() & 0xFFFF;
+            if (in.remaining() < n * SATELLITE_SIZE) return truncated(in, start);
+            sats.clear();
+            sats.ensureCapacity(n);
+            for (int i = 0; i < n; i++) {
+                sats.add(in.get(), in.getShort() & 0xFFFF, in.getFloat(), in.getFloat(),
+                        in.getFloat(), in.getFloat(), in.get() != 0);
+            }
+            sats.elapsedRealtimeNanos = elapsed;
+            return TYPE_STATUS;
+        }
+        if (type == TYPE_FIX) {
+            if (in.remaining() < FIX_SIZE) return truncated(in, start);
+            fix.elapsedRealtimeNanos = elapsed;
+            fix.source = in.get();
+            fix.timeMillis = in.getLong();
+            fix.latitude = in.getDouble();
+            fix.longitude = in.getDouble();
+            fix.altitude = in.getDouble();
+            fix.accuracy = in.getFloat();
+            fix.speed = in.getFloat();
+            fix.bearing = in.getFloat();
+            fix.hdop = in.getFloat();
+            fix.vdop = in.getFloat();
+            fix.pdop = in.getFloat();
+            fix.fixQuality = in.get();
+            fix.satellitesUsed = in.getShort();
+            return TYPE_FIX;
+        }
+        throw new IOException("Tipo de registro desconhecido: " + type + " na posição " + start);
+    }
+
+    private static int truncated(ByteBuffer in, int start) {
+        in.position(start);
+        return END;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.locationaws;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ⏺️ Classe SessionRecorder
+ *
+ * Grava em arquivo (formato SessionFormat) todos os status de satélites e fixes
+ * de uma sessão, para análise posterior. Os fixes não são simplificados: a análise
+ * precisa da sessão inteira (o trajeto simplificado é o do GnssHub, exportado em GPX).
+ *
+ * Inscreve-se nos GnssStream com a política buffered(): recebe todos os eventos
+ * numa thread própria de escrita, sem atrasar a tela. Se o disco não acompanhar
+ * e a fila encher, os descartes ficam registrados em getDropped().
+ */
+public class SessionRecorder {
+
+    // Tamanho da fila de eventos pendentes por tipo (~17 s de folga a 30 Hz)
+    private static final int QUEUE_CAPACITY = 512;
+
+    private ExecutorService writer;
+    private DataOutputStream out;
+    private GnssStream<SatelliteSnapshot>.Subscription statusSubscription;
+    private GnssStream<GnssFix>.Subscription fixSubscription;
+    private File file;
+
+    private volatile long recordCount;
+    private volatile IOException lastError;
+
+    public synchronized boolean isRecording() {
+        return writer != null;
+    }
+
+    public synchronized File getFile() {
+        return file;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public IOException getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Eventos perdidos porque a fila de escrita estava cheia
+     */
+    public synchronized long getDropped() {
+        long d = 0;
+        if (statusSubscription != null) d += statusSubscription.getDropped();
+        if (fixSubscription != null) d += fixSubscription.getDropped();
+        return d;
+    }
+
+    /**
+     * Abre o arquivo e começa a gravar os eventos dos dois fluxos
+     */
+    public synchronized void start(File target, GnssStream<SatelliteSnapshot> status,
+                                   GnssStream<GnssFix> fixes) throws IOException {
+        if (writer != null) stop();
+        File dir = target.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) throw new IOException("Não foi possível criar " + dir);
+
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(target), 64 * 1024));
+        SessionFormat.writeHeader(out, System.currentTimeMillis());
+        file = target;
+        recordCount = 0;
+        lastError = null;
+        writer = Executors.newSingleThreadExecutor(r -> new Thread(r, "session-recorder"));
+
+        // Os inscritos escrevem sempre no stream desta gravação (mesmo se stop() já trocou o campo)
+        final DataOutputStream stream = out;
+        statusSubscription = status.subscribe(s -> writeStatus(stream, s),
+                GnssStream.Policy.buffered(QUEUE_CAPACITY), writer);
+        fixSubscription = fixes.subscribe(f -> writeFix(stream, f),
+                GnssStream.Policy.buffered(QUEUE_CAPACITY), writer);
+    }
+
+    /**
+     * Para de gravar e fecha o arquivo (eventos ainda na fila são descartados)
+     */
+    public synchronized void stop() {
+        if (writer == null) return;
+        statusSubscription.cancel();
+        fixSubscription.cancel();
+        final DataOutputStream stream = out;
+        writer.execute(() -> {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                lastError = e;
+            }
+        });
+        writer.shutdown();
+        writer = null;
+        out = null;
+    }
+
+    // ---------- ESCRITA (thread "session-recorder") ----------
+
+    private void writeStatus(DataOutputStream stream, SatelliteSnapshot snapshot) {
+        if (lastError != null) return;
+        try {
+            SessionFormat.writeStatus(stream, snapshot);
+            recordCount++;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void writeFix(DataOutputStream stream, GnssFix fix) {
+        if (lastError != null) return;
+        try {
+            SessionFormat.writeFix(stream, fix);
+            recordCount++;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        e.printStackTrace();
+        lastError = e;
+    }
+}
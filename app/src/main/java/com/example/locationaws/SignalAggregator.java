@@ -0,0 +1,241 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 📶 Classe SignalAggregator
+ *
+ * Junta os sinais de um SatelliteSnapshot por satélite. Em aparelhos de dupla frequência
+ * o GnssStatus traz o mesmo svid uma vez por banda (L1 e L5, E1 e E5a...); as telas
+ * querem um marcador e uma linha por satélite, não um por sinal.
+ *
+ * A cada atualização, aggregate() agrupa por (constelação, svid) numa tabela hash de
+ * endereçamento aberto com chaves int (sondagem linear). A tabela é "limpa" trocando o
+ * carimbo da geração, sem percorrer os arrays. Por satélite ficam, em arrays primitivos
+ * paralelos:
+ *  → posição e C/N0 do sinal mais forte; usado no fix se qualquer banda for usada
+ *  → máscara de bandas recebidas e de bandas usadas (GnssConstellation.BAND_*, um byte cada)
+ *  → C/N0 por banda (BAND_SLOTS floats por satélite; 0 = banda ausente)
+ *
+ * Os satélites saem na ordem do primeiro sinal de cada um. Só aloca quando a capacidade
+ * é excedida (os arrays dobram de tamanho). Não é thread-safe: quem publica para outra
+ * thread faz copyFrom() numa instância própria. Não depende do Android.
+ */
+public final class SignalAggregator {
+
+    // Um slot por bit de banda: BAND_UNKNOWN, L1, L2, L5, E6
+    public static final int BAND_SLOTS = 5;
+
+    // ---------- TABELA (constelação, svid) → satélite ----------
+
+    private int[] tableKey = new int[128];
+    private int[] tableValue = new int[128];
+    private int[] tableStamp = new int[128];
+    private int stamp;
+    private int shift = 32 - 7;
+
+    // ---------- RESULTADO (por satélite) ----------
+
+    long elapsedRealtimeNanos;
+    int count;
+    int signals;
+
+    int[] constellation;
+    int[] svid;
+    float[] azimuth;
+    float[] elevation;
+    float[] cn0;           // C/N0 do sinal mais forte
+    boolean[] usedInFix;   // Alguma banda usada no fix
+    byte[] bandMask;       // Bandas recebidas (BAND_*)
+    byte[] usedBandMask;   // Bandas usadas no fix
+    float[] bandCn0;       // [satélite * BAND_SLOTS + slot]
+
+    public SignalAggregator() {
+        this(64);
+    }
+
+    public SignalAggregator(int capacity) {
+        int c = Math.max(1, capacity);
+        constellation = new int[c];
+        svid = new int[c];
+        azimuth = new float[c];
+        elevation = new float[c];
+        cn0 = new float[c];
+        usedInFix = new boolean[c];
+        bandMask = new byte[c];
+        usedBandMask = new byte[c];
+        bandCn0 = new float[c * BAND_SLOTS];
+    }
+
+    /**
+     * Slot de uma banda (BAND_* tem um único bit)
+     */
+    public static int bandSlot(int band) {
+        return Integer.numberOfTrailingZeros(band);
+    }
+
+    // ---------- AGREGAÇÃO ----------
+
+    /**
+     * Agrupa os sinais de `s` por satélite (substitui o resultado anterior)
+     */
+    public void aggregate(SatelliteSnapshot s) {
+        int n = s.count;
+        ensureTable(n);
+        if (++stamp == 0) { // deu a volta: carimbos antigos poderiam valer de novo
+            Arrays.fill(tableStamp, 0);
+            stamp = 1;
+        }
+        count = 0;
+        signals = n;
+        elapsedRealtimeNanos = s.elapsedRealtimeNanos;
+
+        int mask = tableKey.length - 1;
+        for (int i = 0; i < n; i++) {
+            int key = (s.constellation[i] << 16) ^ (s.svid[i] & 0xFFFF);
+            int h = (key * 0x9E3779B9) >>> shift;
+            int g = -1;
+            while (tableStamp[h] == stamp) {
+                if (tableKey[h] == key) {
+                    g = tableValue[h];
+                    break;
+                }
+                h = (h + 1) & mask;
+            }
+            if (g < 0) {
+                g = newSatellite(s, i);
+                tableKey[h] = key;
+                tableValue[h] = g;
+                tableStamp[h] = stamp;
+            }
+            addSignal(g, s, i);
+        }
+    }
+
+    private int newSatellite(SatelliteSnapshot s, int i) {
+        ensureCapacity(count + 1);
+        int g = count++;
+        constellation[g] = s.constellation[i];
+        svid[g] = s.svid[i];
+        azimuth[g] = s.azimuth[i];
+        elevation[g] = s.elevation[i];
+        cn0[g] = s.cn0[i];
+        usedInFix[g] = false;
+        bandMask[g] = 0;
+        usedBandMask[g] = 0;
+        Arrays.fill(bandCn0, g * BAND_SLOTS, g * BAND_SLOTS + BAND_SLOTS, 0f);
+        return g;
+    }
+
+    private void addSignal(int g, SatelliteSnapshot s, int i) {
+        float c = s.cn0[i];
+        int band = GnssConstellation.band(s.carrierHz[i]);
+        int k = g * BAND_SLOTS + bandSlot(band);
+        if (c > bandCn0[k]) bandCn0[k] = c;
+        bandMask[g] |= band;
+        if (s.usedInFix[i]) {
+            usedInFix[g] = true;
+            usedBandMask[g] |= band;
+        }
+        // Posição e C/N0 do satélite vêm do sinal mais forte
+        if (c > cn0[g]) {
+            cn0[g] = c;
+            azimuth[g] = s.azimuth[i];
+            elevation[g] = s.elevation[i];
+        }
+    }
+
+    // Tabela com pelo menos o dobro de slots que sinais (fator de carga ≤ 0,5)
+    private void ensureTable(int n) {
+        if (2 * n <= tableKey.length) return;
+        int size = Integer.highestOneBit(Math.max(1, 2 * n - 1)) << 1;
+        tableKey = new int[size];
+        tableValue = new int[size];
+        tableStamp = new int[size];
+        stamp = 0;
+        shift = 32 - Integer.numberOfTrailingZeros(size);
+    }
+
+    // ---------- ACESSO ----------
+
+    /** Quantidade de satélites */
+    public int size() {
+        return count;
+    }
+
+    /** Quantidade de sinais agrupados */
+    public int getSignalCount() {
+        return signals;
+    }
+
+    public long getElapsedRealtimeNanos() {
+        return elapsedRealtimeNanos;
+    }
+
+    public int getConstellation(int i) { return constellation[i]; }
+    public int getSvid(int i) { return svid[i]; }
+    public float getAzimuth(int i) { return azimuth[i]; }
+    public float getElevation(int i) { return elevation[i]; }
+    public float getCn0(int i) { return cn0[i]; }
+    public boolean isUsedInFix(int i) { return usedInFix[i]; }
+    public int getBandMask(int i) { return bandMask[i]; }
+    public int getUsedBandMask(int i) { return usedBandMask[i]; }
+
+    /** C/N0 do satélite numa banda (BAND_*), ou 0 se a banda não foi recebida */
+    public float getBandCn0(int i, int band) {
+        return bandCn0[i * BAND_SLOTS + bandSlot(band)];
+    }
+
+    /**
+     * Quantos satélites têm alguma banda usada no fix
+     */
+    public int usedCount() {
+        int used = 0;
+        for (int i = 0; i < count; i++) if (usedInFix[i]) used++;
+        return used;
+    }
+
+    /**
+     * Procura um satélite por (constelação, svid). Retorna -1 se não existir.
+     */
+    public int indexOf(int constellationType, int satelliteId) {
+        for (int i = 0; i < count; i++) {
+            if (svid[i] == satelliteId && constellation[i] == constellationType) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Copia o resultado de outra instância (reaproveitando os arrays se couber)
+     */
+    public void copyFrom(SignalAggregator other) {
+        int n = other.count;
+        ensureCapacity(n);
+        System.arraycopy(other.constellation, 0, constellation, 0, n);
+        System.arraycopy(other.svid, 0, svid, 0, n);
+        System.arraycopy(other.azimuth, 0, azimuth, 0, n);
+        System.arraycopy(other.elevation, 0, elevation, 0, n);
+        System.arraycopy(other.cn0, 0, cn0, 0, n);
+        System.arraycopy(other.usedInFix, 0, usedInFix, 0, n);
+        System.arraycopy(other.bandMask, 0, bandMask, 0, n);
+        System.arraycopy(other.usedBandMask, 0, usedBandMask, 0, n);
+        System.arraycopy(other.bandCn0, 0, bandCn0, 0, n * BAND_SLOTS);
+        count = n;
+        signals = other.signals;
+        elapsedRealtimeNanos = other.elapsedRealtimeNanos;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= svid.length) return;
+        int c = Math.max(capacity, svid.length * 2);
+        constellation = Arrays.copyOf(constellation, c);
+        svid = Arrays.copyOf(svid, c);
+        azimuth = Arrays.copyOf(azimuth, c);
+        elevation = Arrays.copyOf(elevation, c);
+        cn0 = Arrays.copyOf(cn0, c);
+        usedInFix = Arrays.copyOf(usedInFix, c);
+        bandMask = Arrays.copyOf(bandMask, c);
+        usedBandMask = Arrays.copyOf(usedBandMask, c);
+        bandCn0 = Arrays.copyOf(bandCn0, c * BAND_SLOTS);
+    }
+}
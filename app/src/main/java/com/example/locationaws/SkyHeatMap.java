@@ -0,0 +1,244 @@
+package com.example.locationaws;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 🌡️ Classe SkyHeatMap
+ *
+ * Mapa do céu de um local, acumulado ao longo do tempo em células de azimute × elevação
+ * (BIN_DEGREES graus): mostra onde o céu está obstruído (C/N0 baixo ou nenhum sinal) e
+ * onde há multipercurso (C/N0 que oscila de uma atualização para a outra).
+ *
+ * Por célula, em arrays primitivos de tamanho fixo:
+ *  → amostras e amostras usadas no fix
+ *  → C/N0 médio
+ *  → oscilação média |C/N0 − C/N0 anterior do mesmo sinal| (dB); sinal = constelação,
+ *    svid e banda: L1 e L5 do mesmo satélite não se comparam entre si
+ * As médias são incrementais com peso limitado a MAX_WEIGHT amostras: depois disso viram
+ * médias móveis exponenciais e continuam estáveis em float por horas a 10 Hz.
+ * Memória fixa (~150 KB), nada alocado por atualização.
+ *
+ * Cada célula tem uma versão que muda quando ela é alterada: cada desenho (GNSSView,
+ * GnssSurfaceView) guarda as versões que já viu e só refaz as células novas.
+ *
+ * Persistência por local (siteKey: grade de ~1 km) em arquivo binário "SKYH".
+ * Thread-safe (métodos sincronizados): alimentado na thread principal, lido na de desenho.
+ * Não depende do Android.
+ */
+public final class SkyHeatMap {
+
+    public static final int MAGIC = 0x534B5948; // "SKYH"
+    public static final short VERSION = 1;
+
+    public static final int BIN_DEGREES = 5;
+    public static final int AZ_BINS = 360 / BIN_DEGREES;
+    public static final int EL_BINS = 90 / BIN_DEGREES;
+    public static final int BINS = AZ_BINS * EL_BINS;
+
+    private static final int MAX_WEIGHT = 10_000;
+    private static final int BAND_SLOTS = 5;
+
+    private final int[] samples = new int[BINS];
+    private final int[] usedSamples = new int[BINS];
+    private final float[] cn0Mean = new float[BINS];
+    private final float[] fluctuation = new float[BINS];
+    private final int[] fluctuationSamples = new int[BINS];
+    private final int[] binVersion = new int[BINS];
+    private int version;
+
+    // Último C/N0 de cada sinal (para a oscilação entre atualizações)
+    private final float[] lastCn0 = new float[GnssConstellation.COUNT * 256 * BAND_SLOTS];
+    private final long[] lastSeen = new long[GnssConstellation.COUNT * 256 * BAND_SLOTS];
+    private long updates;
+
+    // ---------- ENTRADA ----------
+
+    /**
+     * Acumula uma atualização de status
+     */
+    public synchronized void add(SatelliteSnapshot s) {
+        updates++;
+        for (int i = 0; i < s.count; i++) {
+            float cn0 = s.cn0[i];
+            float el = s.elevation[i];
+            if (cn0 <= 0 || el < 0 || el > 90 || Float.isNaN(s.azimuth[i])) continue;
+            int bin = binOf(s.azimuth[i], el);
+            int n = Math.min(++samples[bin], MAX_WEIGHT);
+            if (s.usedInFix[i]) usedSamples[bin]++;
+            cn0Mean[bin] += (cn0 - cn0Mean[bin]) / n;
+
+            int c = s.constellation[i], svid = s.svid[i];
+            if (c > 0 && c < GnssConstellation.COUNT && svid >= 0 && svid < 256) {
+                int band = Integer.numberOfTrailingZeros(GnssConstellation.band(s.carrierHz[i]));
+                int sig = ((c << 8) | svid) * BAND_SLOTS + Math.min(band, BAND_SLOTS - 1);
+                // Só compara com a atualização imediatamente anterior em que o sinal apareceu
+                // (lastSeen 0 = nunca visto; updates começa em 1)
+                if (lastSeen[sig] != 0 && lastSeen[sig] == updates - 1) {
+                    int m = Math.min(++fluctuationSamples[bin], MAX_WEIGHT);
+                    fluctuation[bin] += (Math.abs(cn0 - lastCn0[sig]) - fluctuation[bin]) / m;
+                }
+                lastCn0[sig] = cn0;
+                lastSeen[sig] = updates;
+            }
+            binVersion[bin] = ++version;
+        }
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(samples, 0);
+        Arrays.fill(usedSamples, 0);
+        Arrays.fill(cn0Mean, 0);
+        Arrays.fill(fluctuation, 0);
+        Arrays.fill(fluctuationSamples, 0);
+        Arrays.fill(lastSeen, 0);
+        updates = 0;
+        version++;
+        Arrays.fill(binVersion, version);
+    }
+
+    // ---------- ACESSO ----------
+
+    public static int binOf(float azimuthDegrees, float elevationDegrees) {
+        int az = (int) (((azimuthDegrees % 360) + 360) % 360 / BIN_DEGREES);
+        int el = (int) (elevationDegrees / BIN_DEGREES);
+        return Math.min(el, EL_BINS - 1) * AZ_BINS + Math.min(az, AZ_BINS - 1);
+    }
+
+    public synchronized int getSamples(int bin) { return samples[bin]; }
+    public synchronized int getUsedSamples(int bin) { return usedSamples[bin]; }
+    public synchronized float getCn0Mean(int bin) { return cn0Mean[bin]; }
+    public synchronized float getFluctuation(int bin) { return fluctuation[bin]; }
+
+    /** Muda a cada alteração de qualquer célula */
+    public synchronized int getVersion() {
+        return version;
+    }
+
+    /** Células com pelo menos uma amostra */
+    public synchronized int getCoveredBins() {
+        int covered = 0;
+        for (int b = 0; b < BINS; b++) if (samples[b] > 0) covered++;
+        return covered;
+    }
+
+    /**
+     * Copia as células alteradas desde seenVersion (atualizado aqui) e devolve quantas mudaram.
+     * changed recebe os índices; os demais arrays são indexados pela célula.
+     */
+    public synchronized int copyChanged(int[] seenVersion, int[] changed,
+                                        int[] outSamples, float[] outCn0, float[] outFluctuation) {
+        int n = 0;
+        for (int b = 0; b < BINS; b++) {
+            if (binVersion[b] == seenVersion[b]) continue;
+            seenVersion[b] = binVersion[b];
+            outSamples[b] = samples[b];
+            outCn0[b] = cn0Mean[b];
+            outFluctuation[b] = fluctuation[b];
+            changed[n++] = b;
+        }
+        return n;
+    }
+
+    public synchronized SkyHeatMap copy() {
+        SkyHeatMap m = new SkyHeatMap();
+        System.arraycopy(samples, 0, m.samples, 0, BINS);
+        System.arraycopy(usedSamples, 0, m.usedSamples, 0, BINS);
+        System.arraycopy(cn0Mean, 0, m.cn0Mean, 0, BINS);
+        System.arraycopy(fluctuation, 0, m.fluctuation, 0, BINS);
+        System.arraycopy(fluctuationSamples, 0, m.fluctuationSamples, 0, BINS);
+        return m;
+    }
+
+    // ---------- PERSISTÊNCIA ----------
+
+    /** Local do mapa: célula de 0,01° (~1 km) */
+    public static String siteKey(double latitude, double longitude) {
+        return String.format(Locale.US, "%.2f_%.2f", latitude, longitude);
+    }
+
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(BIN_DEGREES);
+        for (int b = 0; b < BINS; b++) {
+            out.writeInt(samples[b]);
+            out.writeInt(usedSamples[b]);
+            out.writeFloat(cn0Mean[b]);
+            out.writeFloat(fluctuation[b]);
+            out.writeInt(fluctuationSamples[b]);
+        }
+    }
+
+    /**
+     * Soma ao mapa o conteúdo gravado (médias ponderadas pelas amostras)
+     */
+    public void mergeFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Arquivo de mapa do céu inválido");
+        short v = in.readShort();
+        if (v != VERSION) throw new IOException("Versão de mapa do céu não suportada: " + v);
+        if (in.readShort() != BIN_DEGREES) throw new IOException("Tamanho de célula diferente");
+        int[] s = new int[BINS], u = new int[BINS], fs = new int[BINS];
+        float[] m = new float[BINS], f = new float[BINS];
+        for (int b = 0; b < BINS; b++) {
+            s[b] = in.readInt();
+            u[b] = in.readInt();
+            m[b] = in.readFloat();
+            f[b] = in.readFloat();
+            fs[b] = in.readInt();
+        }
+        merge(s, u, m, f, fs);
+    }
+
+    /**
+     * Soma ao mapa o conteúdo de outro (ex.: um arquivo lido fora da thread que alimenta)
+     */
+    public void mergeFrom(SkyHeatMap other) {
+        SkyHeatMap o = other.copy();
+        merge(o.samples, o.usedSamples, o.cn0Mean, o.fluctuation, o.fluctuationSamples);
+    }
+
+    private synchronized void merge(int[] s, int[] u, float[] m, float[] f, int[] fs) {
+        for (int b = 0; b < BINS; b++) {
+            if (s[b] == 0) continue;
+            cn0Mean[b] = weighted(cn0Mean[b], samples[b], m[b], s[b]);
+            fluctuation[b] = weighted(fluctuation[b], fluctuationSamples[b], f[b], fs[b]);
+            samples[b] += s[b];
+            usedSamples[b] += u[b];
+            fluctuationSamples[b] += fs[b];
+            binVersion[b] = ++version;
+        }
+    }
+
+    /** Grava num arquivo (via temporário, para não deixar um mapa pela metade) */
+    public void save(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) throw new IOException("Não foi possível criar " + dir);
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            writeTo(out);
+        }
+        if (!tmp.renameTo(file)) throw new IOException("Não foi possível gravar " + file);
+    }
+
+    /** Soma o arquivo ao mapa (nada acontece se ele não existir) */
+    public void mergeFrom(File file) throws IOException {
+        if (!file.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            mergeFrom(in);
+        }
+    }
+
+    private static float weighted(float a, int na, float b, int nb) {
+        int wa = Math.min(na, MAX_WEIGHT), wb = Math.min(nb, MAX_WEIGHT);
+        return wa + wb == 0 ? 0 : (a * wa + b * wb) / (wa + wb);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 🖼️ Classe SkyHeatMapRaster
+ *
+ * Imagem (ARGB, size × size) do SkyHeatMap na mesma projeção do radar: centro = zênite,
+ * raio = cos(elevação). A tabela pixel → célula é montada uma vez; a cada frame só os
+ * pixels das células alteradas são repintados, e getDirty*() dá o retângulo a enviar
+ * ao Bitmap (setPixels) — o resto da textura fica como estava.
+ *
+ * Cores:
+ *  → MODE_SIGNAL: C/N0 médio, de vermelho (≤ 20 dB-Hz, obstruído) a verde (≥ 45 dB-Hz)
+ *  → MODE_MULTIPATH: oscilação do C/N0, de verde (estável) a vermelho (≥ 4 dB)
+ * A opacidade cresce com o número de amostras da célula (uma passagem rápida quase não aparece).
+ *
+ * Usado só pela thread de desenho. Não depende do Android.
+ */
+public final class SkyHeatMapRaster {
+
+    public static final int MODE_SIGNAL = 0;
+    public static final int MODE_MULTIPATH = 1;
+
+    private static final float CN0_LOW = 20f, CN0_HIGH = 45f;
+    private static final float FLUCTUATION_HIGH = 4f;
+    private static final int FULL_ALPHA_SAMPLES = 100;
+    private static final int MAX_ALPHA = 150;
+
+    private final int size;
+    private final int[] pixels;
+
+    // Pixels de cada célula (CSR: binPixels[binStart[b] .. binStart[b+1]))
+    private final int[] binStart = new int[SkyHeatMap.BINS + 1];
+    private final int[] binPixels;
+
+    // Cópia das células já vistas
+    private final int[] seenVersion = new int[SkyHeatMap.BINS];
+    private final int[] changed = new int[SkyHeatMap.BINS];
+    private final int[] samples = new int[SkyHeatMap.BINS];
+    private final float[] cn0 = new float[SkyHeatMap.BINS];
+    private final float[] fluctuation = new float[SkyHeatMap.BINS];
+
+    private SkyHeatMap source;
+    private int mode = MODE_SIGNAL;
+    private int dirtyLeft, dirtyTop, dirtyRight, dirtyBottom; // right/bottom exclusivos
+
+    public SkyHeatMapRaster(int size) {
+        this.size = size;
+        pixels = new int[size * size];
+
+        // Célula de cada pixel dentro do círculo (-1 fora)
+        int[] binOfPixel = new int[size * size];
+        float half = size / 2f;
+        int inside = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                double dx = (x + 0.5 - half) / half, dy = (y + 0.5 - half) / half;
+                double r = Math.hypot(dx, dy);
+                int bin = -1;
+                if (r <= 1) {
+                    float el = (float) Math.toDegrees(Math.acos(r));
+                    float az = (float) Math.toDegrees(Math.atan2(dx, -dy));
+                    bin = SkyHeatMap.binOf(az, el);
+                    binStart[bin + 1]++;
+                    inside++;
+                }
+                binOfPixel[y * size + x] = bin;
+            }
+        }
+        for (int b = 0; b < SkyHeatMap.BINS; b++) binStart[b + 1] += binStart[b];
+        binPixels = new int[inside];
+        int[] cursor = binStart.clone();
+        for (int p = 0; p < binOfPixel.length; p++) {
+            if (binOfPixel[p] >= 0) binPixels[cursor[binOfPixel[p]]++] = p;
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    /** Troca o mapa de origem (a imagem inteira é refeita no próximo update) */
+    public void setSource(SkyHeatMap map) {
+        if (map == source) return;
+        source = map;
+        invalidateAll();
+    }
+
+    public void setMode(int newMode) {
+        if (newMode == mode) return;
+        mode = newMode;
+        invalidateAll();
+    }
+
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * Repinta as células que mudaram desde a última chamada. Retorna quantas foram repintadas;
+     * se > 0, o retângulo alterado fica em getDirty*().
+     */
+    public int update() {
+        dirtyLeft = dirtyTop = size;
+        dirtyRight = dirtyBottom = 0;
+        if (source == null) return 0;
+        int n = source.copyChanged(seenVersion, changed, samples, cn0, fluctuation);
+        for (int k = 0; k < n; k++) {
+            int b = changed[k];
+            int color = colorOf(b);
+            for (int i = binStart[b]; i < binStart[b + 1]; i++) {
+                int p = binPixels[i];
+                pixels[p] = color;
+                int x = p % size, y = p / size;
+                if (x < dirtyLeft) dirtyLeft = x;
+                if (x >= dirtyRight) dirtyRight = x + 1;
+                if (y < dirtyTop) dirtyTop = y;
+                if (y >= dirtyBottom) dirtyBottom = y + 1;
+            }
+        }
+        return n;
+    }
+
+    public int getDirtyLeft() { return dirtyLeft; }
+    public int getDirtyTop() { return dirtyTop; }
+    public int getDirtyWidth() { return Math.max(0, dirtyRight - dirtyLeft); }
+    public int getDirtyHeight() { return Math.max(0, dirtyBottom - dirtyTop); }
+
+    // ---------- CORES ----------
+
+    private int colorOf(int bin) {
+        if (samples[bin] == 0) return 0;
+        float t = mode == MODE_MULTIPATH
+                ? 1f - Math.min(1f, fluctuation[bin] / FLUCTUATION_HIGH)
+                : Math.max(0f, Math.min(1f, (cn0[bin] - CN0_LOW) / (CN0_HIGH - CN0_LOW)));
+        int alpha = (int) (MAX_ALPHA * Math.min(1f, (float) samples[bin] / FULL_ALPHA_SAMPLES));
+        // Vermelho → amarelo → verde
+        int red = t < 0.5f ? 255 : (int) (255 * (1 - t) * 2);
+        int green = t < 0.5f ? (int) (255 * t * 2) : 255;
+        return (Math.max(alpha, 24) << 24) | (red << 16) | (green << 8);
+    }
+
+    private void invalidateAll() {
+        Arrays.fill(seenVersion, -1);
+    }
+}
@@ -0,0 +1,452 @@
+package com.example.locationaws;
+
+import android.content.Context;
+import android.graphics.*;
+import android.graphics.drawable.Drawable;
+import android.location.GnssStatus;
+
+import androidx.appcompat.content.res.AppCompatResources;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 🎨 Classe SkyPlotRenderer
+ *
+ * Desenho do radar de satélites, separado da View que o exibe.
+ * É usado tanto pela GNSSView (desenho na thread principal) quanto pela
+ * GnssSurfaceView (desenho numa thread própria), para que as duas mostrem
+ * exatamente a mesma imagem e possam ser comparadas.
+ *
+ * Os sinais filtrados são agrupados por satélite (SignalAggregator): com dupla frequência
+ * cada satélite vira um único ponto e rótulo, com um indicador por banda recebida.
+ *
+ * A posição dos rótulos (LabelPlacer) é recalculada só quando chega um snapshot
+ * novo ou o tamanho muda; os frames intermediários reaproveitam o layout.
+ *
+ * Os DOPs do cabeçalho (DopCalculator) saem de todos os satélites usados no fix,
+ * independentemente do filtro de exibição: a geometria do fix não muda porque
+ * uma constelação foi escondida no radar.
+ *
+ * Thread-safety: setSatellites()/setFilter() podem ser chamados de qualquer thread;
+ * draw() deve ser chamado sempre pela mesma thread (a que desenha).
+ */
+final class SkyPlotRenderer {
+
+    // Tamanho das bandeiras desenhadas ao lado de cada satélite
+    private static final int FLAG_SIZE = 55;
+
+    // Raio do ponto de cada satélite e espaço entre bandeira e SVID
+    private static final float DOT_RADIUS = 12f;
+    private static final float LABEL_SPACING = 4f;
+
+    // Cor de fundo para a qual o rastro do radar converge
+    static final int BACKGROUND_COLOR = Color.rgb(10, 25, 50);
+
+    // Pincéis (usados apenas pela thread de desenho)
+    private final Paint paintCircle = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintSatUsed = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintSatUnused = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintText = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintRadarSweep = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintBand = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    // Indicadores de banda sob o SVID: uma bolinha por banda, cheia se usada no fix
+    private static final int[] BAND_ORDER = {
+            GnssConstellation.BAND_L1, GnssConstellation.BAND_L2,
+            GnssConstellation.BAND_L5, GnssConstellation.BAND_E6
+    };
+    private static final int[] BAND_COLORS = {
+            Color.WHITE, Color.YELLOW, Color.CYAN, Color.MAGENTA
+    };
+    private static final float BAND_RADIUS = 4f;
+
+    // Bandeiras já recortadas em círculo e no tamanho final (antes eram refeitas a cada frame)
+    private final Bitmap flagUS;
+    private final Bitmap flagRU;
+    private final Bitmap flagEU;
+    private final Bitmap flagCN;
+    private final Bitmap flagUnknown;
+
+    // Rastro da varredura do radar
+    private Bitmap radarTrailBitmap;
+    private Canvas radarTrailCanvas;
+
+    // Latência por etapa (projeção e frame desenhado), ou null
+    private volatile LatencyTracer tracer;
+
+    // Mapa do céu acumulado (textura fixa, repintada só nas células alteradas)
+    private static final int HEAT_MAP_SIZE = 256;
+    private volatile SkyHeatMap heatMap;
+    private volatile int heatMapMode = SkyHeatMapRaster.MODE_SIGNAL;
+    private SkyHeatMapRaster heatRaster;
+    private Bitmap heatBitmap;
+    private final Paint paintHeat = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF heatRect = new RectF();
+
+    // ---------- ESTADO COMPARTILHADO (protegido por lock) ----------
+
+    private final Object lock = new Object();
+    private final SatelliteSnapshot raw = new SatelliteSnapshot(64);    // último recebido
+    private final SatelliteSnapshot latest = new SatelliteSnapshot(64); // último, já filtrado
+    private final SignalAggregator grouped = new SignalAggregator(64);  // último, filtrado e por satélite
+    private int latestVersion;
+    private SatelliteFilter filter = SatelliteFilter.DEFAULT;
+    private final DopCalculator dop = new DopCalculator();
+
+    // Cópia usada durante o desenho (só a thread de desenho mexe)
+    private final SignalAggregator drawing = new SignalAggregator(64);
+
+    // ---------- LAYOUT (refeito só quando chega snapshot novo ou muda o tamanho) ----------
+
+    private final LabelPlacer labelPlacer = new LabelPlacer(FLAG_SIZE, 6f);
+    private int layoutVersion = -1;
+    private int layoutWidth;
+    private int layoutHeight;
+    private float[] dotX = new float[64];
+    private float[] dotY = new float[64];
+    private float[] cn0 = new float[64];
+    private boolean[] used = new boolean[64];
+    private float[] labelWidth = new float[64];
+    private String[] svidText = new String[64];
+
+    // Textos de DOP do cabeçalho (refeitos só quando chega snapshot novo)
+    private String dopText = "";
+    private String dopBreakdownText = "";
+
+    SkyPlotRenderer(Context context, int colorUsedSatellites) {
+        paintCircle.setStyle(Paint.Style.STROKE);
+        paintCircle.setColor(Color.LTGRAY);
+        paintCircle.setStrokeWidth(4f);
+
+        paintSatUsed.setStyle(Paint.Style.FILL);
+        paintSatUsed.setColor(colorUsedSatellites); // verde para satélites usados
+
+        paintSatUnused.setStyle(Paint.Style.FILL);
+        paintSatUnused.setColor(Color.GRAY); // cinza para não usados
+
+        paintText.setColor(Color.WHITE);
+        paintText.setTextSize(30f);
+
+        paintRadarSweep.setColor(Color.CYAN); // cor da linha de varredura
+        paintRadarSweep.setStrokeWidth(4f);
+
+        paintBand.setStrokeWidth(2f);
+
+        flagUS = loadFlag(context, R.drawable.president_us);
+        flagRU = loadFlag(context, R.drawable.president_ru);
+        flagEU = loadFlag(context, R.drawable.president_eu);
+        flagCN = loadFlag(context, R.drawable.president_cn);
+        flagUnknown = loadFlag(context, R.drawable.president_unknown);
+    }
+
+    // ---------- DADOS ----------
+
+    /**
+     * Define quais satélites aparecem (reaplicado na hora sobre o último snapshot)
+     */
+    void setFilter(SatelliteFilter newFilter) {
+        synchronized (lock) {
+            filter = newFilter;
+            latestVersion++;
+            filter.apply(raw, latest);
+            grouped.aggregate(latest);
+        }
+    }
+
+    /**
+     * Guarda o snapshot mais recente, já filtrado. Não aloca (reaproveita os arrays).
+     */
+    void setSatellites(SatelliteSnapshot snapshot) {
+        synchronized (lock) {
+            latestVersion++;
+            raw.copyFrom(snapshot);
+            filter.apply(raw, latest);
+            grouped.aggregate(latest);
+            dop.compute(raw);
+        }
+    }
+
+    /**
+     * Registra as etapas "projetado" e "desenhado" de cada snapshot novo (null = não registra)
+     */
+    void setLatencyTracer(LatencyTracer latencyTracer) {
+        tracer = latencyTracer;
+    }
+
+    /**
+     * Mapa do céu desenhado sob os satélites (null = nenhum); mode = SkyHeatMapRaster.MODE_*
+     */
+    void setHeatMap(SkyHeatMap map, int mode) {
+        heatMap = map;
+        heatMapMode = mode;
+    }
+
+    // ---------- DESENHO ----------
+
+    /**
+     * Desenha um frame completo do radar
+     *
+     * @param sweepAngle ângulo atual da linha de varredura (graus, 0 = Norte)
+     * @param footer     texto opcional no rodapé (ex.: estatísticas de frame), ou null
+     */
+    void draw(Canvas canvas, int w, int h, float sweepAngle, String footer) {
+        int version;
+        synchronized (lock) {
+            version = latestVersion;
+            if (version != layoutVersion) {
+                drawing.copyFrom(grouped);
+                formatDop();
+            }
+        }
+
+        int cx = w / 2; // centro X
+        int cy = h / 2; // centro Y
+        int R = SkyProjection.radius(w, h); // raio máximo do radar
+
+        // Primeiro frame com um snapshot novo: é ele que mede a latência até o pixel
+        LatencyTracer t = tracer;
+        boolean fresh = version != layoutVersion;
+        if (t != null) t.beginSection("gnss.draw");
+        if (fresh || w != layoutWidth || h != layoutHeight) {
+            layoutSatellites(cx, cy, R, w, h);
+            layoutVersion = version;
+            layoutWidth = w;
+            layoutHeight = h;
+            if (fresh && t != null) t.mark(LatencyTracer.STATUS_PROJECTED, drawing.getElapsedRealtimeNanos());
+        }
+
+        // Cria (ou recria) o bitmap que guarda o rastro do radar
+        if (radarTrailBitmap == null || radarTrailBitmap.getWidth() != w || radarTrailBitmap.getHeight() != h) {
+            radarTrailBitmap = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+            radarTrailCanvas = new Canvas(radarTrailBitmap);
+        }
+
+        // Aplica uma camada transparente para criar o efeito de "desaparecimento gradual" do rastro
+        radarTrailCanvas.drawColor(Color.argb(40, 10, 25, 50));
+
+        // Calcula as coordenadas da linha de varredura com base no ângulo atual
+        float sweepX = (float) (cx + R * Math.sin(Math.toRadians(sweepAngle)));
+        float sweepY = (float) (cy - R * Math.cos(Math.toRadians(sweepAngle)));
+        radarTrailCanvas.drawLine(cx, cy, sweepX, sweepY, paintRadarSweep);
+
+        // Desenha o rastro animado no canvas principal
+        canvas.drawBitmap(radarTrailBitmap, 0, 0, null);
+
+        SkyHeatMap map = heatMap;
+        if (map != null) drawHeatMap(canvas, map, cx, cy, R);
+
+        // Desenha os círculos do radar (para representar níveis de elevação)
+        paintCircle.setColor(Color.LTGRAY);
+        paintCircle.setStrokeWidth(4f);
+        canvas.drawCircle(cx, cy, R, paintCircle);
+        canvas.drawCircle(cx, cy, R * 2 / 3f, paintCircle);
+        canvas.drawCircle(cx, cy, R / 3f, paintCircle);
+
+        // Linhas cruzadas (N-S e L-O)
+        paintCircle.setColor(Color.DKGRAY);
+        paintCircle.setStrokeWidth(2f);
+        canvas.drawLine(cx, cy - R, cx, cy + R, paintCircle);
+        canvas.drawLine(cx - R, cy, cx + R, cy, paintCircle);
+
+        // Indicador de Norte
+        paintText.setColor(Color.DKGRAY);
+        paintText.setTextSize(36f);
+        canvas.drawText("N", cx - 12f, cy - R - 12f, paintText);
+
+        // Desenha os satélites: primeiro todos os pontos, depois os rótulos posicionados
+        int n = drawing.size();
+        for (int i = 0; i < n; i++) {
+            Paint paintSat = drawing.isUsedInFix(i) ? paintSatUsed : paintSatUnused;
+            canvas.drawCircle(dotX[i], dotY[i], DOT_RADIUS, paintSat);
+        }
+        paintText.setColor(Color.WHITE);
+        paintText.setTextSize(28f);
+        for (int i = 0; i < n; i++) {
+            if (labelPlacer.isPlaced(i)) drawLabel(canvas, i);
+        }
+
+        // Mostra texto com contagem de satélites
+        paintText.setColor(Color.WHITE);
+        paintText.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
+        paintText.setTextSize(36f);
+
+        float baseY = cy - R - 60f;
+        String visibleText = "Visíveis: " + drawing.size();
+        if (drawing.getSignalCount() > drawing.size()) visibleText += " (" + drawing.getSignalCount() + " sinais)";
+        String usedText = "Usados no Fix: " + drawing.usedCount();
+        float maxWidth = Math.max(paintText.measureText(visibleText), paintText.measureText(usedText));
+        float startX = cx - maxWidth / 2f;
+
+        canvas.drawText(visibleText, startX, baseY, paintText);
+        canvas.drawText(usedText, startX, baseY - 44f, paintText);
+        paintText.setTypeface(Typeface.DEFAULT);
+
+        // DOPs logo acima da contagem: total e, acima dele, o PDOP de cada constelação
+        paintText.setColor(Color.CYAN);
+        paintText.setTextSize(28f);
+        canvas.drawText(dopText, cx - paintText.measureText(dopText) / 2f, baseY - 84f, paintText);
+        paintText.setColor(Color.LTGRAY);
+        paintText.setTextSize(24f);
+        canvas.drawText(dopBreakdownText, cx - paintText.measureText(dopBreakdownText) / 2f, baseY - 116f, paintText);
+
+        if (footer != null && !footer.isEmpty()) {
+            paintText.setColor(Color.LTGRAY);
+            paintText.setTextSize(26f);
+            canvas.drawText(footer, 16f, h - 24f, paintText);
+        }
+
+        if (t != null) {
+            if (fresh) t.mark(LatencyTracer.STATUS_DRAWN, drawing.getElapsedRealtimeNanos());
+            t.endSection();
+        }
+    }
+
+    // ---------- MAPA DO CÉU ----------
+
+    private void drawHeatMap(Canvas canvas, SkyHeatMap map, int cx, int cy, int R) {
+        if (heatRaster == null) {
+            heatRaster = new SkyHeatMapRaster(HEAT_MAP_SIZE);
+            heatBitmap = Bitmap.createBitmap(HEAT_MAP_SIZE, HEAT_MAP_SIZE, Bitmap.Config.ARGB_8888);
+        }
+        heatRaster.setSource(map);
+        heatRaster.setMode(heatMapMode);
+        if (heatRaster.update() > 0) {
+            int left = heatRaster.getDirtyLeft(), top = heatRaster.getDirtyTop();
+            heatBitmap.setPixels(heatRaster.getPixels(), top * HEAT_MAP_SIZE + left, HEAT_MAP_SIZE,
+                    left, top, heatRaster.getDirtyWidth(), heatRaster.getDirtyHeight());
+        }
+        heatRect.set(cx - R, cy - R, cx + R, cy + R);
+        canvas.drawBitmap(heatBitmap, null, heatRect, paintHeat);
+    }
+
+    // ---------- DOP ----------
+
+    // Monta os textos de DOP (chamado com o lock, só quando há snapshot novo)
+    private void formatDop() {
+        if (Float.isNaN(dop.getPdop())) {
+            dopText = "DOP: --";
+        } else {
+            dopText = String.format(Locale.US, "PDOP %.1f  HDOP %.1f  VDOP %.1f",
+                    dop.getPdop(), dop.getHdop(), dop.getVdop());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int c = 0; c < GnssConstellation.COUNT; c++) {
+            if (!dop.isSolvable(c)) continue;
+            if (sb.length() > 0) sb.append("  ");
+            sb.append(GnssConstellation.abbreviation(c)).append(' ')
+                    .append(String.format(Locale.US, "%.1f", dop.getPdop(c)));
+        }
+        dopBreakdownText = sb.toString();
+    }
+
+    // ---------- RÓTULOS ----------
+
+    /**
+     * Calcula a posição de cada ponto e distribui os rótulos sem sobreposição.
+     * Roda na thread de desenho, mas só quando os dados ou o tamanho mudam.
+     */
+    private void layoutSatellites(int cx, int cy, int R, int w, int h) {
+        int n = drawing.size();
+        if (dotX.length < n) {
+            int c = Math.max(n, dotX.length * 2);
+            dotX = Arrays.copyOf(dotX, c);
+            dotY = Arrays.copyOf(dotY, c);
+            cn0 = Arrays.copyOf(cn0, c);
+            used = Arrays.copyOf(used, c);
+            labelWidth = Arrays.copyOf(labelWidth, c);
+            svidText = Arrays.copyOf(svidText, c);
+        }
+
+        // Converte a posição (azimute e elevação) em coordenadas x/y no radar
+        // Elevação alta = próximo do centro. Baixa = mais próximo da borda.
+        SkyProjection.project(drawing, cx, cy, R, dotX, dotY);
+
+        paintText.setTextSize(28f);
+        for (int i = 0; i < n; i++) {
+            cn0[i] = drawing.getCn0(i);
+            used[i] = drawing.isUsedInFix(i);
+            svidText[i] = String.valueOf(drawing.getSvid(i));
+            labelWidth[i] = FLAG_SIZE + LABEL_SPACING + paintText.measureText(svidText[i]);
+        }
+        labelPlacer.place(n, dotX, dotY, used, cn0, labelWidth, FLAG_SIZE, DOT_RADIUS, w, h);
+    }
+
+    // Desenha o rótulo de um satélite (bandeira + SVID, e "+N" se outros foram agrupados nele)
+    private void drawLabel(Canvas canvas, int i) {
+        float left = labelPlacer.getLabelX(i);
+        float top = labelPlacer.getLabelY(i);
+
+        Bitmap flag = getFlagBitmapForConstellation(drawing.getConstellation(i));
+        if (flag != null) canvas.drawBitmap(flag, left, top, null);
+
+        float textX = left + FLAG_SIZE + LABEL_SPACING;
+        float baseline = top + FLAG_SIZE / 2f + 10f;
+        canvas.drawText(svidText[i], textX, baseline, paintText);
+
+        drawBands(canvas, i, textX, baseline + 10f);
+
+        int collapsed = labelPlacer.getCollapsedCount(i);
+        if (collapsed > 0) {
+            paintText.setTextSize(20f);
+            paintText.setColor(Color.YELLOW);
+            canvas.drawText("+" + collapsed, textX, top + 14f, paintText);
+            paintText.setTextSize(28f);
+            paintText.setColor(Color.WHITE);
+        }
+    }
+
+    // Uma bolinha por banda recebida, na ordem L1, L2, L5, E6 (só com mais de uma banda)
+    private void drawBands(Canvas canvas, int i, float x, float y) {
+        int bands = drawing.getBandMask(i) & ~GnssConstellation.BAND_UNKNOWN;
+        if (Integer.bitCount(bands) < 2) return;
+        int usedBands = drawing.getUsedBandMask(i);
+        float cx = x + BAND_RADIUS;
+        for (int k = 0; k < BAND_ORDER.length; k++) {
+            int band = BAND_ORDER[k];
+            if ((bands & band) == 0) continue;
+            paintBand.setColor(BAND_COLORS[k]);
+            paintBand.setStyle((usedBands & band) != 0 ? Paint.Style.FILL : Paint.Style.STROKE);
+            canvas.drawCircle(cx, y, BAND_RADIUS, paintBand);
+            cx += 3 * BAND_RADIUS;
+        }
+    }
+
+    // ---------- BANDEIRAS ----------
+
+    /**
+     * Retorna a bandeira correspondente à constelação GNSS
+     */
+    private Bitmap getFlagBitmapForConstellation(int type) {
+        switch (type) {
+            case GnssStatus.CONSTELLATION_GPS: return flagUS;
+            case GnssStatus.CONSTELLATION_GLONASS: return flagRU;
+            case GnssStatus.CONSTELLATION_GALILEO: return flagEU;
+            case GnssStatus.CONSTELLATION_BEIDOU: return flagCN;
+            default: return flagUnknown;
+        }
+    }
+
+    // Converte o Drawable em Bitmap, redimensiona e recorta em círculo (uma única vez)
+    private static Bitmap loadFlag(Context context, int resId) {
+        try {
+            Drawable d = AppCompatResources.getDrawable(context, resId);
+            if (d == null) return null;
+            Bitmap square = Bitmap.createBitmap(FLAG_SIZE, FLAG_SIZE, Bitmap.Config.ARGB_8888);
+            d.setBounds(0, 0, FLAG_SIZE, FLAG_SIZE);
+            d.draw(new Canvas(square));
+
+            Bitmap output = Bitmap.createBitmap(FLAG_SIZE, FLAG_SIZE, Bitmap.Config.ARGB_8888);
+            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            paint.setShader(new BitmapShader(square, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+            float radius = FLAG_SIZE / 2f;
+            new Canvas(output).drawCircle(radius, radius, radius, paint);
+            square.recycle();
+            return output;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
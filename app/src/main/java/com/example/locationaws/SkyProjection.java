@@ -0,0 +1,35 @@
+package com.example.locationaws;
+
+/**
+ * 🧭 Classe SkyProjection
+ *
+ * Projeção do céu local no radar (SkyPlotRenderer): círculo de raio radius centrado em
+ * (cx, cy), norte para cima e leste à direita. A distância ao centro é radius · cos(elevação):
+ * zênite no centro, horizonte na borda.
+ *
+ * Separada do renderizador para ser testada na JVM. Não aloca. Não depende do Android.
+ */
+public final class SkyProjection {
+
+    private SkyProjection() {
+    }
+
+    /**
+     * Raio do radar numa área w × h (90% da menor metade)
+     */
+    public static int radius(int w, int h) {
+        return (int) (0.9 * Math.min(w / 2, h / 2));
+    }
+
+    /**
+     * Posição no radar de cada satélite agrupado (x e y com pelo menos s.size() posições)
+     */
+    public static void project(SignalAggregator s, float cx, float cy, float radius, float[] x, float[] y) {
+        for (int i = 0; i < s.size(); i++) {
+            double r = radius * Math.cos(Math.toRadians(s.getElevation(i)));
+            double az = Math.toRadians(s.getAzimuth(i));
+            x[i] = (float) (cx + r * Math.sin(az));
+            y[i] = (float) (cy - r * Math.cos(az));
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.locationaws;
+
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 🧪 Classe SyntheticGnssSource
+ *
+ * Fonte GNSS sintética para testes de carga: gera status de satélites (e um fix parado
+ * por segundo) muito acima do que um aparelho real entrega (~60 sinais a 1 Hz), para
+ * ver como o caminho GnssStream → GNSSView → onDraw se comporta sob pressão.
+ *
+ * Céu plausível e em movimento:
+ *  → cada satélite faz uma passagem num grande círculo do céu local: nasce no horizonte
+ *    num azimute qualquer, culmina na sua elevação máxima e se põe do outro lado;
+ *    ao se pôr, outro satélite (novo SVID) nasce no lugar, então a contagem é constante
+ *  → passagens de 4 a 7 h como os MEO reais (timeScale acelera o céu); SBAS fica parado
+ *  → mistura de constelações parecida com a real; parte dos satélites em dupla frequência
+ *    publica dois sinais (L1/E1/B1 e L5/E5a/B2a), como os aparelhos de dupla frequência
+ *  → C/N0 cresce com a elevação, com viés por satélite, ruído gaussiano e quedas
+ *    (o satélite some do status por 0,5–3 s)
+ *
+ * Dois satélites visíveis nunca têm o mesmo SVID na mesma constelação: primeiro a faixa
+ * real do Android, depois (mais satélites do que ela comporta) os SVIDs acima dela, até 255.
+ * Sem Android: roda no app (menu de desenvolvedor, via GnssHub) e nos
+ * testes JVM; next()/nextFix() avançam a simulação num instante dado (determinístico
+ * para a mesma semente), start() publica em tempo real numa thread própria.
+ */
+public final class SyntheticGnssSource {
+
+    public static final int MAX_SATELLITES = 500;
+    public static final int MAX_RATE_HZ = 100;
+
+    private static final long FIX_INTERVAL_NANOS = 1_000_000_000L;
+
+    // Proporção aproximada de cada constelação num céu real (soma 100)
+    private static final int[] CONSTELLATIONS = {
+            GnssConstellation.GPS, GnssConstellation.GLONASS, GnssConstellation.GALILEO,
+            GnssConstellation.BEIDOU, GnssConstellation.QZSS, GnssConstellation.SBAS
+    };
+    private static final int[] WEIGHTS = {30, 20, 22, 22, 3, 3};
+
+    /**
+     * Parâmetros da simulação. Imutável: cada withX gera uma configuração nova.
+     */
+    public static final class Config {
+
+        public static final Config DEFAULT = new Config(40, 1, 1.5f, 0.002f, 1, -23.5505, -46.6333);
+
+        final int satellites;
+        final int rateHz;
+        final float cn0NoiseDb;          // Desvio padrão do ruído de C/N0 (dB-Hz)
+        final float dropoutProbability;  // Chance de queda por satélite a cada atualização
+        final double timeScale;          // 1 = céu em tempo real
+        final double latitude, longitude;
+
+        Config(int satellites, int rateHz, float cn0NoiseDb, float dropoutProbability, double timeScale,
+               double latitude, double longitude) {
+            this.satellites = satellites;
+            this.rateHz = rateHz;
+            this.cn0NoiseDb = cn0NoiseDb;
+            this.dropoutProbability = dropoutProbability;
+            this.timeScale = timeScale;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        public Config withSatellites(int n) {
+            return new Config(Math.max(1, Math.min(MAX_SATELLITES, n)), rateHz, cn0NoiseDb, dropoutProbability,
+                    timeScale, latitude, longitude);
+        }
+
+        public Config withRateHz(int hz) {
+            return new Config(satellites, Math.max(1, Math.min(MAX_RATE_HZ, hz)), cn0NoiseDb, dropoutProbability,
+                    timeScale, latitude, longitude);
+        }
+
+        public Config withCn0Noise(float sigmaDb) {
+            return new Config(satellites, rateHz, Math.max(0f, sigmaDb), dropoutProbability,
+                    timeScale, latitude, longitude);
+        }
+
+        public Config withDropoutProbability(float p) {
+            return new Config(satellites, rateHz, cn0NoiseDb, Math.max(0f, Math.min(1f, p)),
+                    timeScale, latitude, longitude);
+        }
+
+        public Config withTimeScale(double scale) {
+            return new Config(satellites, rateHz, cn0NoiseDb, dropoutProbability, Math.max(0, scale),
+                    latitude, longitude);
+        }
+
+        public Config withPosition(double lat, double lon) {
+            return new Config(satellites, rateHz, cn0NoiseDb, dropoutProbability, timeScale, lat, lon);
+        }
+
+        public int getSatellites() { return satellites; }
+        public int getRateHz() { return rateHz; }
+        public float getCn0Noise() { return cn0NoiseDb; }
+        public float getDropoutProbability() { return dropoutProbability; }
+        public double getTimeScale() { return timeScale; }
+    }
+
+    private final Config config;
+    private final Random random;
+
+    // ---------- ESTADO DOS SATÉLITES (um array por campo) ----------
+
+    private final int[] constellation;
+    private final int[] svid;
+    private final boolean[] dual;               // Publica também o sinal em L5
+    private final double[] riseSin, riseCos;    // Azimute de nascimento
+    private final double[] peakSin, peakCos;    // Elevação máxima da passagem
+    private final double[] theta;               // Ângulo percorrido na passagem (0..π)
+    private final double[] omega;               // rad/s (0 = geoestacionário)
+    private final float[] cn0Bias;
+    private final long[] dropoutUntil;
+
+    // SVIDs em uso ([constelação * 256 + svid]), quantos por constelação e onde a busca
+    // por um livre recomeça na faixa real (o SVID que acabou de se pôr fica para o fim)
+    private final boolean[] svidInUse = new boolean[GnssConstellation.COUNT * 256];
+    private final int[] svidsInUse = new int[GnssConstellation.COUNT];
+    private final int[] svidCursor = new int[GnssConstellation.COUNT];
+
+    private long lastNanos = Long.MIN_VALUE;
+    private long lastFixNanos = Long.MIN_VALUE;
+    private int lastUsed;
+
+    // ---------- THREAD DE PUBLICAÇÃO ----------
+
+    private Thread thread;
+    private volatile boolean running;
+    private volatile long publishedCount;
+
+    public SyntheticGnssSource(Config config, long seed) {
+        this.config = config;
+        this.random = new Random(seed);
+        int n = config.satellites;
+        constellation = new int[n];
+        svid = new int[n];
+        dual = new boolean[n];
+        riseSin = new double[n];
+        riseCos = new double[n];
+        peakSin = new double[n];
+        peakCos = new double[n];
+        theta = new double[n];
+        omega = new double[n];
+        cn0Bias = new float[n];
+        dropoutUntil = new long[n];
+        for (int i = 0; i < n; i++) {
+            int c;
+            do {
+                c = pickConstellation();
+            } while (svidsInUse[c] >= svidCapacity(c) - 1); // sobra um SVID para a próxima passagem
+            constellation[i] = c;
+            // Tipo de satélite fixo por posição: quem nasce no lugar publica as mesmas bandas
+            dual[i] = c != GnssConstellation.GLONASS && c != GnssConstellation.SBAS && random.nextFloat() < 0.4f;
+            spawn(i);
+            // Céu já "em andamento": cada passagem começa num ponto qualquer
+            if (omega[i] > 0) theta[i] = Math.PI * random.nextDouble();
+        }
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    // ---------- SIMULAÇÃO ----------
+
+    /**
+     * Avança o céu até o instante dado e retorna um snapshot novo (só os satélites visíveis;
+     * os de dupla frequência com dois sinais seguidos, L1 e depois L5)
+     */
+    public SatelliteSnapshot next(long elapsedRealtimeNanos) {
+        double dt = lastNanos == Long.MIN_VALUE ? 0 : (elapsedRealtimeNanos - lastNanos) * 1e-9 * config.timeScale;
+        lastNanos = elapsedRealtimeNanos;
+
+        int n = config.satellites;
+        SatelliteSnapshot s = new SatelliteSnapshot(2 * n);
+        int used = 0;
+        for (int i = 0; i < n; i++) {
+            theta[i] += omega[i] * dt;
+            if (theta[i] > Math.PI) spawn(i);
+
+            if (dropoutUntil[i] > elapsedRealtimeNanos) continue;
+            if (random.nextFloat() < config.dropoutProbability) {
+                dropoutUntil[i] = elapsedRealtimeNanos + 500_000_000L + (long) (2.5e9 * random.nextDouble());
+                continue;
+            }
+
+            // Ponto da passagem: cos θ·(horizonte no nascimento) + sen θ·(direção da culminação)
+            double c = Math.cos(theta[i]), sn = Math.sin(theta[i]);
+            double east = c * riseSin[i] + sn * peakCos[i] * riseCos[i];
+            double north = c * riseCos[i] - sn * peakCos[i] * riseSin[i];
+            double up = sn * peakSin[i];
+            float el = (float) Math.toDegrees(Math.asin(Math.min(1, up)));
+            float az = (float) Math.toDegrees(Math.atan2(east, north));
+            if (az < 0) az += 360f;
+
+            float cn0 = (float) (18 + 30 * Math.sqrt(Math.max(0, up)) + cn0Bias[i]
+                    + random.nextGaussian() * config.cn0NoiseDb);
+            cn0 = Math.max(0f, Math.min(60f, cn0));
+            boolean inFix = el >= 10f && cn0 >= 25f;
+            if (inFix) used++;
+            s.add(constellation[i], svid[i], az, el, cn0, l1Carrier(constellation[i]), inFix);
+            if (dual[i]) {
+                // L5/E5a/B2a: ~2 dB abaixo, com ruído próprio
+                float cn0L5 = (float) (cn0 - 2 + random.nextGaussian() * config.cn0NoiseDb * 0.5);
+                cn0L5 = Math.max(0f, Math.min(60f, cn0L5));
+                s.add(constellation[i], svid[i], az, el, cn0L5, GnssConstellation.L5_HZ, inFix && cn0L5 >= 25f);
+            }
+        }
+        s.elapsedRealtimeNanos = elapsedRealtimeNanos;
+        lastUsed = used;
+        return s;
+    }
+
+    /**
+     * Fix parado na posição configurada, com alguns metros de ruído
+     */
+    public GnssFix nextFix(long elapsedRealtimeNanos, long timeMillis) {
+        GnssFix f = new GnssFix();
+        f.source = GnssFix.SOURCE_SYNTHETIC;
+        f.timeMillis = timeMillis;
+        f.elapsedRealtimeNanos = elapsedRealtimeNanos;
+        f.arrivalNanos = elapsedRealtimeNanos;
+        f.latitude = config.latitude + random.nextGaussian() * 2 / 111_195.0;
+        f.longitude = config.longitude + random.nextGaussian() * 2 / (111_195.0 * Math.cos(Math.toRadians(config.latitude)));
+        f.altitude = 760 + random.nextGaussian() * 3;
+        f.accuracy = 3f;
+        f.speed = 0f;
+        f.fixQuality = GnssFix.QUALITY_GPS;
+        f.satellitesUsed = lastUsed;
+        return f;
+    }
+
+    // Nova passagem para o satélite i (mesma constelação, outro SVID livre)
+    private void spawn(int i) {
+        int c = constellation[i];
+        int previous = svid[i];
+        svid[i] = nextSvid(c);
+        if (previous > 0) releaseSvid(c, previous);
+        double rise = 2 * Math.PI * random.nextDouble();
+        riseSin[i] = Math.sin(rise);
+        riseCos[i] = Math.cos(rise);
+        // Elevações máximas baixas são mais comuns que passagens pelo zênite
+        double peak = Math.asin(0.05 + 0.95 * random.nextDouble());
+        peakSin[i] = Math.sin(peak);
+        peakCos[i] = Math.cos(peak);
+        theta[i] = 0;
+        if (c == GnssConstellation.SBAS) {
+            // Geoestacionário: ponto fixo da passagem
+            theta[i] = Math.PI * (0.2 + 0.6 * random.nextDouble());
+            omega[i] = 0;
+        } else {
+            omega[i] = Math.PI / ((4 + 3 * random.nextDouble()) * 3600);
+        }
+        cn0Bias[i] = (float) (random.nextDouble() * 6 - 3);
+        dropoutUntil[i] = 0;
+    }
+
+    private int pickConstellation() {
+        int r = random.nextInt(100);
+        for (int k = 0; k < WEIGHTS.length; k++) {
+            if (r < WEIGHTS[k]) return CONSTELLATIONS[k];
+            r -= WEIGHTS[k];
+        }
+        return GnssConstellation.GPS;
+    }
+
+    // SVID livre: faixa real a partir do cursor; com ela cheia, o primeiro livre acima dela
+    private int nextSvid(int c) {
+        int first = firstSvid(c), count = realSvids(c);
+        for (int k = 0; k < count; k++) {
+            int s = first + (svidCursor[c] + k) % count;
+            if (!svidInUse[c * 256 + s]) {
+                svidCursor[c] = (svidCursor[c] + k + 1) % count;
+                return takeSvid(c, s);
+            }
+        }
+        for (int s = first + count; s < 256; s++) {
+            if (!svidInUse[c * 256 + s]) return takeSvid(c, s);
+        }
+        throw new IllegalStateException("Sem SVID livre na constelação " + c);
+    }
+
+    private int takeSvid(int c, int s) {
+        svidInUse[c * 256 + s] = true;
+        svidsInUse[c]++;
+        return s;
+    }
+
+    private void releaseSvid(int c, int s) {
+        svidInUse[c * 256 + s] = false;
+        svidsInUse[c]--;
+    }
+
+    private static int svidCapacity(int c) {
+        return 256 - firstSvid(c);
+    }
+
+    // Faixas de SVID do Android por constelação
+    private static int firstSvid(int c) {
+        if (c == GnssConstellation.QZSS) return 193;
+        if (c == GnssConstellation.SBAS) return 120;
+        return 1;
+    }
+
+    private static int realSvids(int c) {
+        switch (c) {
+            case GnssConstellation.GLONASS: return 24;
+            case GnssConstellation.GALILEO: return 36;
+            case GnssConstellation.BEIDOU: return 63;
+            case GnssConstellation.QZSS: return 10;
+            case GnssConstellation.SBAS: return 39;
+            default: return 32;
+        }
+    }
+
+    private static float l1Carrier(int c) {
+        if (c == GnssConstellation.GLONASS) return GnssConstellation.G1_HZ;
+        if (c == GnssConstellation.BEIDOU) return GnssConstellation.B1I_HZ;
+        return GnssConstellation.L1_HZ;
+    }
+
+    // ---------- PUBLICAÇÃO EM TEMPO REAL ----------
+
+    public synchronized boolean isRunning() {
+        return thread != null;
+    }
+
+    /** Status publicados desde o início */
+    public long getPublishedCount() {
+        return publishedCount;
+    }
+
+    /**
+     * Publica status na taxa configurada e um fix por segundo, na thread "gnss-synthetic".
+     * Se a thread atrasar, pula atualizações em vez de acumulá-las.
+     */
+    public synchronized void start(GnssStream.Subscriber<SatelliteSnapshot> onStatus,
+                                   GnssStream.Subscriber<GnssFix> onFix, GnssStream.Clock clock) {
+        if (thread != null) return;
+        running = true;
+        thread = new Thread(() -> run(onStatus, onFix, clock), "gnss-synthetic");
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    private void run(GnssStream.Subscriber<SatelliteSnapshot> onStatus, GnssStream.Subscriber<GnssFix> onFix,
+                     GnssStream.Clock clock) {
+        long period = 1_000_000_000L / config.rateHz;
+        long deadline = clock.nanoTime();
+        while (running) {
+            long now = clock.nanoTime();
+            onStatus.onEvent(next(now));
+            publishedCount++;
+            if (lastFixNanos == Long.MIN_VALUE || now - lastFixNanos >= FIX_INTERVAL_NANOS) {
+                lastFixNanos = now;
+                onFix.onEvent(nextFix(now, System.currentTimeMillis()));
+            }
+            deadline += period;
+            now = clock.nanoTime();
+            if (deadline < now - period) deadline = now; // atrasado: não tenta compensar em rajada
+            while (running && (now = clock.nanoTime()) < deadline) LockSupport.parkNanos(deadline - now);
+        }
+    }
+}
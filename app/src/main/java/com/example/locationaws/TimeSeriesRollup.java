@@ -0,0 +1,254 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 📉 Classe TimeSeriesRollup
+ *
+ * Séries temporais de sessões longas (horas ou dias) sem guardar as amostras:
+ * satélites visíveis/usados, C/N0 médio e precisão do fix, alimentados pelos
+ * callbacks de status e localização do GnssHub.
+ *
+ * Cada amostra entra direto em quatro níveis de resolução (1 s, 10 s, 1 min, 10 min);
+ * cada nível guarda mínimo, máximo, soma e contagem por intervalo, em arrays primitivos
+ * circulares de capacidade fixa:
+ *
+ *  nível   intervalo   capacidade   cobre
+ *  0       1 s         3600         1 h
+ *  1       10 s        4320         12 h
+ *  2       1 min       4320         3 dias
+ *  3       10 min      4320         30 dias
+ *
+ * Um slot vale para o intervalo cujo índice está gravado nele; quando o anel dá a volta o
+ * intervalo antigo é sobrescrito. Intervalos sem amostras não custam nada. A memória é
+ * alocada toda no construtor (ver memoryBytes()), não importa a duração da sessão.
+ *
+ * query() escolhe o nível mais fino que ainda cobre o período pedido em até maxPoints
+ * intervalos, então o custo é proporcional aos pontos exibidos em qualquer zoom.
+ * Tempos em ms de um relógio monotônico (elapsedRealtime). Thread-safe.
+ */
+public final class TimeSeriesRollup {
+
+    public static final int METRIC_VISIBLE = 0;    // Satélites no status
+    public static final int METRIC_USED = 1;       // Satélites usados no fix
+    public static final int METRIC_CN0 = 2;        // C/N0 médio do status (dB-Hz)
+    public static final int METRIC_ACCURACY = 3;   // Precisão horizontal do fix (m)
+    public static final int METRIC_COUNT = 4;
+
+    private static final String[] METRIC_NAMES = {"visíveis", "usados", "C/N0", "precisão"};
+
+    static final long[] TIER_MILLIS = {1_000, 10_000, 60_000, 600_000};
+    static final int[] TIER_CAPACITY = {3600, 4320, 4320, 4320};
+    public static final int TIER_COUNT = TIER_MILLIS.length;
+
+    public static String metricName(int metric) {
+        return METRIC_NAMES[metric];
+    }
+
+    /**
+     * Resultado de query(), reaproveitável entre leituras (não aloca depois de criado)
+     */
+    public static final class Series {
+        final long[] time;      // Início de cada ponto (ms)
+        final float[] min, max, mean;
+        final int[] count;
+        int size;
+        int tier;
+        long stepMillis;
+
+        public Series(int capacity) {
+            time = new long[capacity];
+            min = new float[capacity];
+            max = new float[capacity];
+            mean = new float[capacity];
+            count = new int[capacity];
+        }
+
+        public int size() { return size; }
+        public int capacity() { return time.length; }
+        public long getTime(int i) { return time[i]; }
+        public float getMin(int i) { return min[i]; }
+        public float getMax(int i) { return max[i]; }
+        public float getMean(int i) { return mean[i]; }
+        public int getCount(int i) { return count[i]; }
+        /** Nível usado na última leitura */
+        public int getTier() { return tier; }
+        /** Largura de cada ponto (ms) */
+        public long getStepMillis() { return stepMillis; }
+    }
+
+    // ---------- NÍVEIS ----------
+
+    // Um nível: índice do intervalo em cada slot + estatísticas por métrica (slot * METRIC_COUNT + métrica)
+    private static final class Tier {
+        final long width;
+        final int capacity;
+        final long[] bucket;
+        final float[] min, max;
+        final double[] sum;
+        final int[] count;
+        long newest = Long.MIN_VALUE;
+
+        Tier(long width, int capacity) {
+            this.width = width;
+            this.capacity = capacity;
+            bucket = new long[capacity];
+            Arrays.fill(bucket, Long.MIN_VALUE);
+            min = new float[capacity * METRIC_COUNT];
+            max = new float[capacity * METRIC_COUNT];
+            sum = new double[capacity * METRIC_COUNT];
+            count = new int[capacity * METRIC_COUNT];
+        }
+
+        void add(int metric, long b, float value) {
+            if (newest != Long.MIN_VALUE && b <= newest - capacity) return; // mais antigo que o anel
+            int slot = (int) Math.floorMod(b, (long) capacity);
+            if (bucket[slot] != b) {
+                bucket[slot] = b;
+                int base = slot * METRIC_COUNT;
+                Arrays.fill(count, base, base + METRIC_COUNT, 0);
+                Arrays.fill(sum, base, base + METRIC_COUNT, 0);
+            }
+            if (b > newest) newest = b;
+            int i = slot * METRIC_COUNT + metric;
+            if (count[i] == 0) {
+                min[i] = max[i] = value;
+            } else {
+                if (value < min[i]) min[i] = value;
+                if (value > max[i]) max[i] = value;
+            }
+            sum[i] += value;
+            count[i]++;
+        }
+
+        // Intervalo mais antigo ainda guardado (só com dados)
+        long oldest() {
+            return newest - capacity + 1;
+        }
+
+        boolean isEmpty() {
+            return newest == Long.MIN_VALUE;
+        }
+    }
+
+    private final Tier[] tiers = new Tier[TIER_COUNT];
+
+    public TimeSeriesRollup() {
+        for (int t = 0; t < TIER_COUNT; t++) tiers[t] = new Tier(TIER_MILLIS[t], TIER_CAPACITY[t]);
+    }
+
+    /**
+     * Memória ocupada pelos arrays dos níveis (fixa, conhecida antes de começar)
+     */
+    public static long memoryBytes() {
+        long bytes = 0;
+        for (int capacity : TIER_CAPACITY) {
+            bytes += capacity * 8L                              // índice do intervalo
+                    + capacity * (long) METRIC_COUNT * (4 + 4 + 8 + 4); // min, max, soma, contagem
+        }
+        return bytes;
+    }
+
+    // ---------- ENTRADA ----------
+
+    public synchronized void add(int metric, long timeMillis, float value) {
+        if (Float.isNaN(value)) return;
+        for (Tier t : tiers) t.add(metric, Math.floorDiv(timeMillis, t.width), value);
+    }
+
+    /**
+     * Satélites visíveis/usados e C/N0 médio de um status
+     */
+    public void onStatus(SatelliteSnapshot s) {
+        long t = s.elapsedRealtimeNanos / 1_000_000;
+        float cn0 = 0;
+        for (int i = 0; i < s.count; i++) cn0 += s.cn0[i];
+        synchronized (this) {
+            add(METRIC_VISIBLE, t, s.count);
+            add(METRIC_USED, t, s.usedCount());
+            if (s.count > 0) add(METRIC_CN0, t, cn0 / s.count);
+        }
+    }
+
+    /**
+     * Precisão horizontal de um fix (fixes sem precisão são ignorados)
+     */
+    public void onFix(GnssFix f) {
+        add(METRIC_ACCURACY, f.elapsedRealtimeNanos / 1_000_000, f.accuracy);
+    }
+
+    public synchronized void clear() {
+        for (Tier t : tiers) {
+            Arrays.fill(t.bucket, Long.MIN_VALUE);
+            t.newest = Long.MIN_VALUE;
+        }
+    }
+
+    // ---------- LEITURA ----------
+
+    /**
+     * Nível mais fino que cobre [from, to) em até maxPoints intervalos; se nenhum couber,
+     * o mais grosso (e query junta intervalos vizinhos)
+     */
+    public synchronized int tierFor(long fromMillis, long toMillis, int maxPoints) {
+        for (int k = 0; k < TIER_COUNT; k++) {
+            Tier t = tiers[k];
+            long span = Math.floorDiv(toMillis - 1, t.width) - Math.floorDiv(fromMillis, t.width) + 1;
+            boolean covers = t.isEmpty() || Math.floorDiv(fromMillis, t.width) >= t.oldest();
+            if (span <= maxPoints && covers) return k;
+        }
+        return TIER_COUNT - 1;
+    }
+
+    /**
+     * Pontos de [from, to) com dados, em ordem de tempo, no máximo out.capacity().
+     * Pontos sem nenhuma amostra são omitidos. Retorna a quantidade de pontos.
+     */
+    public synchronized int query(int metric, long fromMillis, long toMillis, Series out) {
+        int maxPoints = out.capacity();
+        int k = tierFor(fromMillis, toMillis, maxPoints);
+        Tier t = tiers[k];
+        out.size = 0;
+        out.tier = k;
+        out.stepMillis = t.width;
+        if (t.isEmpty()) return 0;
+        long first = Math.max(Math.floorDiv(fromMillis, t.width), t.oldest());
+        long last = Math.min(Math.floorDiv(toMillis - 1, t.width), t.newest);
+        // Mais intervalos que pontos (só no nível mais grosso): junta `stride` vizinhos por ponto
+        long buckets = Math.max(0, last - first + 1);
+        long stride = Math.max(1, (buckets + maxPoints - 1) / maxPoints);
+        first = Math.floorDiv(first, stride) * stride; // pontos alinhados, estáveis ao rolar
+
+        out.stepMillis = t.width * stride;
+        for (long p = first; p <= last && out.size < maxPoints; p += stride) {
+            float mn = Float.POSITIVE_INFINITY, mx = Float.NEGATIVE_INFINITY;
+            double sum = 0;
+            int n = 0;
+            for (long b = Math.max(p, t.oldest()); b < p + stride && b <= last; b++) {
+                int slot = (int) Math.floorMod(b, (long) t.capacity);
+                if (t.bucket[slot] != b) continue;
+                int i = slot * METRIC_COUNT + metric;
+                int c = t.count[i];
+                if (c == 0) continue;
+                if (t.min[i] < mn) mn = t.min[i];
+                if (t.max[i] > mx) mx = t.max[i];
+                sum += t.sum[i];
+                n += c;
+            }
+            if (n == 0) continue;
+            int j = out.size++;
+            out.time[j] = p * t.width;
+            out.min[j] = mn;
+            out.max[j] = mx;
+            out.mean[j] = (float) (sum / n);
+            out.count[j] = n;
+        }
+        return out.size;
+    }
+
+    /** Instante (ms) da amostra mais recente, ou Long.MIN_VALUE se vazio */
+    public synchronized long getNewestMillis() {
+        Tier t = tiers[0];
+        return t.isEmpty() ? Long.MIN_VALUE : t.newest * t.width;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.locationaws;
+
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 🗺️ Classe TrackActivity
+ *
+ * Mostra o trajeto percorrido (TrackStore do GnssHub) numa TrackView.
+ * Enquanto a tela está aberta, o hub recebe fixes e o trajeto cresce.
+ *
+ * → "Exportar GPX" grava o trajeto simplificado em Android/data/.../files/tracks
+ * → "Novo trajeto" descarta o trajeto atual
+ * → O ponto magenta é a navegação estimada entre fixes (sensores inerciais, 50 Hz)
+ */
+public class TrackActivity extends AppCompatActivity {
+
+    private GnssHub gnssHub;
+    private TrackView trackView;
+    private TextView txtStatus;
+
+    // Fix ainda pendente no simplificador do hub (thread principal)
+    private final GnssFix pending = new GnssFix();
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> new Thread(r, "track-export"));
+
+    private GnssStream<GnssFix>.Subscription fixSubscription;
+    private GnssStream<GnssFix>.Subscription estimateSubscription;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        gnssHub = GnssHub.get(this);
+
+        LinearLayout root = new LinearLayout(this);
+        root.setOrientation(LinearLayout.VERTICAL);
+        root.setBackgroundColor(SkyPlotRenderer.BACKGROUND_COLOR);
+
+        LinearLayout buttons = new LinearLayout(this);
+        Button btnExport = new Button(this);
+        btnExport.setText("💾 Exportar GPX");
+        btnExport.setOnClickListener(v -> exportGpx());
+        Button btnClear = new Button(this);
+        btnClear.setText("🧹 Novo trajeto");
+        btnClear.setOnClickListener(v -> {
+            gnssHub.resetTrack();
+            updateStatus();
+            updatePendingPosition();
+            trackView.fitToTrack();
+        });
+        buttons.addView(btnExport, new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f));
+        buttons.addView(btnClear, new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f));
+        root.addView(buttons);
+
+        txtStatus = new TextView(this);
+        txtStatus.setTextColor(0xFFDDDDDD);
+        txtStatus.setPadding(16, 8, 16, 8);
+        root.addView(txtStatus);
+
+        trackView = new TrackView(this);
+        trackView.setTrackStore(gnssHub.getTrackStore());
+        root.addView(trackView, new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, 0, 1f));
+
+        setContentView(root);
+        GnssHub.ensureLocationPermission(this);
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        updateStatus();
+        updatePendingPosition();
+        // O TrackView lê os pontos novos do TrackStore no próximo frame
+        fixSubscription = gnssHub.fixStream().subscribe(fix -> {
+            updateStatus();
+            updatePendingPosition();
+            trackView.invalidate();
+        }, GnssStream.Policy.latest(), FrameExecutor.MAIN);
+        // Estimativas chegam a 50 Hz; no máximo uma por frame
+        estimateSubscription = gnssHub.getDeadReckoningEngine().estimateStream().subscribe(
+                e -> trackView.setEstimate(e.getLatitude(), e.getLongitude(), e.getBearing()),
+                GnssStream.Policy.latest(), FrameExecutor.MAIN);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        fixSubscription.cancel();
+        estimateSubscription.cancel();
+        trackView.setEstimate(Double.NaN, Double.NaN, Float.NaN);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        worker.shutdown();
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode == GnssHub.REQUEST_LOCATION_PERMISSION) {
+            gnssHub.onPermissionResult();
+        }
+    }
+
+    private void updateStatus() {
+        TrackSimplifier s = gnssHub.getTrackSimplifier();
+        txtStatus.setText(String.format(Locale.getDefault(), "%d fixes → %d pontos (%.1f:1)",
+                s.getInputCount(), gnssHub.getTrackStore().size(), s.getCompressionRatio()));
+    }
+
+    // Sem isso a posição atual e o fim do trajeto ficariam na última âncora emitida,
+    // até TRACK_WINDOW fixes atrás numa reta
+    private void updatePendingPosition() {
+        if (gnssHub.getTrackSimplifier().copyPending(pending)) {
+            trackView.setPendingPosition(pending.getLatitude(), pending.getLongitude());
+        } else {
+            trackView.setPendingPosition(Double.NaN, Double.NaN);
+        }
+    }
+
+    private void exportGpx() {
+        TrackStore store = gnssHub.getTrackStore();
+        if (store.size() == 0) {
+            Toast.makeText(this, "Trajeto vazio", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        // O fim do trajeto ainda está na janela do simplificador: copiado aqui, na thread principal
+        GnssFix last = new GnssFix();
+        if (!gnssHub.getTrackSimplifier().copyPending(last)) last = null;
+        final GnssFix tail = last;
+        File file = new File(getExternalFilesDir("tracks"), "trajeto_" + System.currentTimeMillis() + ".gpx");
+        worker.execute(() -> {
+            String message;
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                store.writeGpx(out, file.getName(), tail);
+                message = "Trajeto salvo em " + file.getName();
+            } catch (IOException e) {
+                e.printStackTrace();
+                message = "Falha ao exportar: " + e.getMessage();
+            }
+            String m = message;
+            runOnUiThread(() -> Toast.makeText(this, m, Toast.LENGTH_LONG).show());
+        });
+    }
+}
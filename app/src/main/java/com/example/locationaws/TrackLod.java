@@ -0,0 +1,234 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 🔺 Classe TrackLod
+ *
+ * Pirâmide de níveis de detalhe de um trajeto, para desenhar milhões de pontos:
+ *
+ *  → coordenadas projetadas em metros (x leste, y norte) a partir do primeiro ponto,
+ *    em float[] intercalado (x, y)
+ *  → nível 0 = todos os pontos; nível k ≥ 1 recebe só os pontos mantidos no nível k-1
+ *    e mantém os que se afastam mais de cellMeters(k) = 0,5 m · 2^(k-1) (em x ou y)
+ *    do último mantido; o erro acumulado fica abaixo de ~2 células
+ *  → cada nível é dividido em blocos de CHUNK pontos com caixa envolvente:
+ *    o desenho pula os blocos fora da tela
+ *
+ * Para desenhar, escolhe-se o nível cuja célula cabe em um pixel (chooseLevel):
+ * o número de segmentos passa a depender da tela, não do tamanho do trajeto.
+ *
+ * Construção incremental (append): cada ponto novo custa O(níveis), sem reconstruir.
+ * Não depende do Android; não é thread-safe (use da thread principal).
+ */
+public final class TrackLod {
+
+    static final int CHUNK = 256;
+    static final int LEVELS = 16;
+    static final float BASE_CELL = 0.5f; // m
+
+    private static final double METERS_PER_DEGREE = 111_195.08;
+
+    /**
+     * Recebe os segmentos prontos para Canvas.drawLines: (x0, y0, x1, y1) repetidos
+     */
+    public interface SegmentSink {
+        void onSegments(float[] buffer, int floatCount);
+    }
+
+    /**
+     * Um nível: polilinha + caixa envolvente por bloco
+     */
+    static final class Level {
+        final float cell;
+        float[] xy = new float[2 * CHUNK];
+        int count;
+        // minX, minY, maxX, maxY por bloco; o bloco i vai do ponto i*CHUNK até (i+1)*CHUNK inclusive
+        float[] bounds = new float[16];
+
+        Level(float cell) {
+            this.cell = cell;
+        }
+
+        int chunkCount() {
+            return count < 2 ? 0 : (count - 2) / CHUNK + 1;
+        }
+
+        void add(float x, float y) {
+            if (2 * count + 2 > xy.length) xy = Arrays.copyOf(xy, xy.length * 2);
+            xy[2 * count] = x;
+            xy[2 * count + 1] = y;
+            int chunk = count / CHUNK;
+            if (count % CHUNK == 0) {
+                if (4 * chunk + 4 > bounds.length) bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                bounds[4 * chunk] = bounds[4 * chunk + 2] = x;
+                bounds[4 * chunk + 1] = bounds[4 * chunk + 3] = y;
+                // O primeiro ponto do bloco também fecha o bloco anterior
+                if (chunk > 0) extend(chunk - 1, x, y);
+            } else {
+                extend(chunk, x, y);
+            }
+            count++;
+        }
+
+        private void extend(int chunk, float x, float y) {
+            int b = 4 * chunk;
+            if (x < bounds[b]) bounds[b] = x;
+            if (y < bounds[b + 1]) bounds[b + 1] = y;
+            if (x > bounds[b + 2]) bounds[b + 2] = x;
+            if (y > bounds[b + 3]) bounds[b + 3] = y;
+        }
+    }
+
+    final Level[] levels = new Level[LEVELS];
+
+    private boolean hasOrigin;
+    private double originLat, originLon, metersPerDegreeLon;
+    private float minX, minY, maxX, maxY;
+
+    public TrackLod() {
+        clear();
+    }
+
+    // ---------- CONSTRUÇÃO ----------
+
+    public void clear() {
+        for (int k = 0; k < LEVELS; k++) levels[k] = new Level(cellMeters(k));
+        hasOrigin = false;
+    }
+
+    /**
+     * Acrescenta um ponto no fim do trajeto
+     */
+    public void append(double latitude, double longitude) {
+        if (!hasOrigin) {
+            originLat = latitude;
+            originLon = longitude;
+            metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+            hasOrigin = true;
+        }
+        float x = (float) ((longitude - originLon) * metersPerDegreeLon);
+        float y = (float) ((latitude - originLat) * METERS_PER_DEGREE);
+
+        if (levels[0].count == 0) {
+            minX = maxX = x;
+            minY = maxY = y;
+        } else {
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+        }
+
+        levels[0].add(x, y);
+        for (int k = 1; k < LEVELS; k++) {
+            Level l = levels[k];
+            if (l.count > 0) {
+                float dx = Math.abs(x - l.xy[2 * l.count - 2]);
+                float dy = Math.abs(y - l.xy[2 * l.count - 1]);
+                // Níveis mais grossos só mantêm um subconjunto do nível anterior: pode parar aqui
+                if (dx <= l.cell && dy <= l.cell) break;
+            }
+            l.add(x, y);
+        }
+    }
+
+    // ---------- CONSULTA ----------
+
+    public int size() { return levels[0].count; }
+    public float getMinX() { return minX; }
+    public float getMinY() { return minY; }
+    public float getMaxX() { return maxX; }
+    public float getMaxY() { return maxY; }
+    public int getPointCount(int level) { return levels[level].count; }
+    public float getLastX() { return levels[0].xy[2 * levels[0].count - 2]; }
+    public float getLastY() { return levels[0].xy[2 * levels[0].count - 1]; }
+
+    /** Projeção local: metros leste/norte ↔ graus */
+    public double toLatitude(float y) { return originLat + y / METERS_PER_DEGREE; }
+    public double toLongitude(float x) { return originLon + x / metersPerDegreeLon; }
+    public float toX(double longitude) { return (float) ((longitude - originLon) * metersPerDegreeLon); }
+    public float toY(double latitude) { return (float) ((latitude - originLat) * METERS_PER_DEGREE); }
+
+    static float cellMeters(int level) {
+        return level == 0 ? 0 : BASE_CELL * (1 << (level - 1));
+    }
+
+    /**
+     * Nível mais grosso cuja célula não passa de maxErrorMeters
+     * (use metade dos metros por pixel para erro de ~1 pixel)
+     */
+    public int chooseLevel(float maxErrorMeters) {
+        int level = 0;
+        for (int k = 1; k < LEVELS; k++) {
+            if (cellMeters(k) > maxErrorMeters) break;
+            level = k;
+        }
+        return level;
+    }
+
+    // ---------- DESENHO ----------
+
+    /**
+     * Gera os segmentos visíveis de um nível, já em coordenadas de tela
+     * (sx = x·scale + offsetX, sy = offsetY − y·scale), em lotes do tamanho de buffer.
+     * A janela [viewMinX, viewMaxX] x [viewMinY, viewMaxY] está em metros.
+     * Um segmento que liga o último ponto mantido ao último ponto real fecha o trajeto.
+     *
+     * @return quantidade de segmentos gerados
+     */
+    public int render(int level, float viewMinX, float viewMinY, float viewMaxX, float viewMaxY,
+                      float scale, float offsetX, float offsetY, float[] buffer, SegmentSink sink) {
+        Level l = levels[level];
+        float[] xy = l.xy;
+        float[] b = l.bounds;
+        int capacity = buffer.length / 4 * 4;
+        int n = 0;
+        int segments = 0;
+
+        int chunks = l.chunkCount();
+        for (int c = 0; c < chunks; c++) {
+            if (b[4 * c] > viewMaxX || b[4 * c + 2] < viewMinX || b[4 * c + 1] > viewMaxY || b[4 * c + 3] < viewMinY) continue;
+            int end = Math.min((c + 1) * CHUNK, l.count - 1);
+            float px = xy[2 * c * CHUNK] * scale + offsetX;
+            float py = offsetY - xy[2 * c * CHUNK + 1] * scale;
+            for (int i = c * CHUNK + 1; i <= end; i++) {
+                float qx = xy[2 * i] * scale + offsetX;
+                float qy = offsetY - xy[2 * i + 1] * scale;
+                if (n == capacity) {
+                    sink.onSegments(buffer, n);
+                    n = 0;
+                }
+                buffer[n] = px;
+                buffer[n + 1] = py;
+                buffer[n + 2] = qx;
+                buffer[n + 3] = qy;
+                n += 4;
+                segments++;
+                px = qx;
+                py = qy;
+            }
+        }
+
+        // Pontos recentes que o nível ainda não manteve
+        Level full = levels[0];
+        if (level > 0 && l.count > 0 && full.count > 0) {
+            float lx = xy[2 * l.count - 2], ly = xy[2 * l.count - 1];
+            float rx = full.xy[2 * full.count - 2], ry = full.xy[2 * full.count - 1];
+            if (lx != rx || ly != ry) {
+                if (n == capacity) {
+                    sink.onSegments(buffer, n);
+                    n = 0;
+                }
+                buffer[n] = lx * scale + offsetX;
+                buffer[n + 1] = offsetY - ly * scale;
+                buffer[n + 2] = rx * scale + offsetX;
+                buffer[n + 3] = offsetY - ry * scale;
+                n += 4;
+                segments++;
+            }
+        }
+        if (n > 0) sink.onSegments(buffer, n);
+        return segments;
+    }
+}
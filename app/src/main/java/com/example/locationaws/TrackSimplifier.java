@@ -0,0 +1,171 @@
+package com.example.locationaws;
+
+/**
+ * ✂️ Classe TrackSimplifier
+ *
+ * Simplificação online do trajeto, entre os callbacks de localização e quem
+ * grava ou desenha os pontos. Algoritmo de "janela aberta" (Douglas–Peucker em fluxo):
+ *
+ *  → âncora = último ponto emitido; a janela guarda os pontos depois dela
+ *  → chega um ponto novo P: se todos os pontos da janela ficam a até
+ *    toleranceMeters do segmento âncora→P, P entra na janela (nada é emitido)
+ *  → se algum ficaria mais longe, o último ponto da janela é emitido e vira a âncora
+ *
+ * Andando em linha reta ou parado (o ruído fica dentro da tolerância), centenas de
+ * fixes viram um segmento. Curvas são preservadas com erro máximo de toleranceMeters.
+ *
+ * Memória limitada: a janela tem no máximo maxWindow pontos, pré-alocados; quando
+ * enche, o último ponto é emitido mesmo sem desvio. Nenhuma alocação por fix.
+ *
+ * Até o próximo ponto emitido, o trajeto termina na âncora: quem desenha ou exporta
+ * o trajeto ainda aberto completa com copyPending().
+ *
+ * Não é thread-safe: add(), flush() e copyPending() sempre da mesma thread.
+ */
+public final class TrackSimplifier {
+
+    // Projeção local equiretangular (suficiente para distâncias de até alguns km)
+    private static final double METERS_PER_DEGREE = 111_195.08;
+
+    /**
+     * Recebe os pontos mantidos. O fix só vale durante a chamada (é reaproveitado):
+     * copie se precisar guardar.
+     */
+    public interface Sink {
+        void onPoint(GnssFix fix);
+    }
+
+    private final double tolerance2;
+    private final Sink sink;
+
+    // Âncora
+    private final GnssFix anchor = new GnssFix();
+    private boolean hasAnchor;
+    private double metersPerDegreeLon;
+
+    // Janela: fixes e suas coordenadas locais (m) em relação à âncora
+    private final GnssFix[] window;
+    private final double[] x, y;
+    private int count;
+
+    private long inputCount;
+    private long outputCount;
+
+    public TrackSimplifier(double toleranceMeters, int maxWindow, Sink sink) {
+        if (maxWindow < 1) throw new IllegalArgumentException("maxWindow deve ser >= 1");
+        this.tolerance2 = toleranceMeters * toleranceMeters;
+        this.sink = sink;
+        window = new GnssFix[maxWindow];
+        for (int i = 0; i < maxWindow; i++) window[i] = new GnssFix();
+        x = new double[maxWindow];
+        y = new double[maxWindow];
+    }
+
+    // ---------- ENTRADA ----------
+
+    /**
+     * Processa um fix (fixes sem posição são ignorados)
+     */
+    public void add(GnssFix fix) {
+        if (!fix.hasPosition()) return;
+        inputCount++;
+
+        if (!hasAnchor) {
+            setAnchor(fix);
+            emit(anchor);
+            return;
+        }
+
+        double px = (fix.getLongitude() - anchor.getLongitude()) * metersPerDegreeLon;
+        double py = (fix.getLatitude() - anchor.getLatitude()) * METERS_PER_DEGREE;
+        if (count < window.length && fitsSegment(px, py)) {
+            push(fix, px, py);
+            return;
+        }
+
+        // O último ponto da janela é o fim do segmento válido: vira a nova âncora
+        GnssFix last = window[count - 1];
+        setAnchor(last);
+        emit(anchor);
+        count = 0;
+        push(fix, (fix.getLongitude() - anchor.getLongitude()) * metersPerDegreeLon,
+                (fix.getLatitude() - anchor.getLatitude()) * METERS_PER_DEGREE);
+    }
+
+    /**
+     * Fim do trajeto: emite o último ponto pendente da janela
+     */
+    public void flush() {
+        if (count == 0) return;
+        setAnchor(window[count - 1]);
+        emit(anchor);
+        count = 0;
+    }
+
+    /**
+     * Copia o fix mais recente ainda na janela (a posição atual, que ainda não saiu
+     * no sink). Retorna false se não há nada pendente: o último ponto emitido é o atual.
+     */
+    public boolean copyPending(GnssFix out) {
+        if (count == 0) return false;
+        out.copyFrom(window[count - 1]);
+        return true;
+    }
+
+    /**
+     * Recomeça do zero (novo trajeto, sem ligar ao ponto anterior)
+     */
+    public void reset() {
+        hasAnchor = false;
+        count = 0;
+        inputCount = 0;
+        outputCount = 0;
+    }
+
+    // ---------- ESTATÍSTICAS ----------
+
+    public long getInputCount() { return inputCount; }
+    public long getOutputCount() { return outputCount; }
+
+    /**
+     * Fixes recebidos por ponto mantido (≥ 1); conta o ponto pendente da janela
+     * como se já tivesse saído, para não inflar a razão no meio de um segmento
+     */
+    public double getCompressionRatio() {
+        long out = outputCount + (count > 0 ? 1 : 0);
+        return out == 0 ? 1 : inputCount / (double) out;
+    }
+
+    // ---------- AUXILIARES ----------
+
+    // Todos os pontos da janela a até a tolerância do segmento âncora→(px, py)
+    private boolean fitsSegment(double px, double py) {
+        double len2 = px * px + py * py;
+        for (int i = 0; i < count; i++) {
+            double t = len2 > 0 ? (x[i] * px + y[i] * py) / len2 : 0;
+            if (t < 0) t = 0;
+            else if (t > 1) t = 1;
+            double dx = x[i] - t * px, dy = y[i] - t * py;
+            if (dx * dx + dy * dy > tolerance2) return false;
+        }
+        return true;
+    }
+
+    private void push(GnssFix fix, double px, double py) {
+        window[count].copyFrom(fix);
+        x[count] = px;
+        y[count] = py;
+        count++;
+    }
+
+    private void setAnchor(GnssFix fix) {
+        anchor.copyFrom(fix);
+        metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(fix.getLatitude()));
+        hasAnchor = true;
+    }
+
+    private void emit(GnssFix fix) {
+        outputCount++;
+        sink.onPoint(fix);
+    }
+}
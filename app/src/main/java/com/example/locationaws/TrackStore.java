@@ -0,0 +1,125 @@
+package com.example.locationaws;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * 🧵 Classe TrackStore
+ *
+ * Trajeto já simplificado (saída do TrackSimplifier), em arrays primitivos que
+ * crescem por duplicação: ~36 bytes por ponto, sem um objeto por fix.
+ *
+ * getVersion() muda a cada alteração: quem desenha só refaz o cache quando precisa.
+ * Métodos sincronizados: o hub escreve na thread principal, a exportação roda em outra.
+ */
+public final class TrackStore {
+
+    private double[] latitude = new double[256];
+    private double[] longitude = new double[256];
+    private float[] altitude = new float[256];
+    private float[] accuracy = new float[256];
+    private long[] timeMillis = new long[256];
+    private int size;
+    private int version;
+
+    // ---------- ESCRITA ----------
+
+    /**
+     * Acrescenta um ponto (copia os campos: o fix pode ser reaproveitado por quem chamou)
+     */
+    public synchronized void add(GnssFix fix) {
+        if (size == latitude.length) grow();
+        latitude[size] = fix.getLatitude();
+        longitude[size] = fix.getLongitude();
+        altitude[size] = (float) fix.getAltitude();
+        accuracy[size] = fix.getAccuracy();
+        timeMillis[size] = fix.getTimeMillis();
+        size++;
+        version++;
+    }
+
+    public synchronized void clear() {
+        size = 0;
+        version++;
+    }
+
+    // ---------- LEITURA ----------
+
+    public synchronized int size() { return size; }
+    public synchronized int getVersion() { return version; }
+    public synchronized double getLatitude(int i) { return latitude[i]; }
+    public synchronized double getLongitude(int i) { return longitude[i]; }
+    public synchronized float getAltitude(int i) { return altitude[i]; }
+    public synchronized float getAccuracy(int i) { return accuracy[i]; }
+    public synchronized long getTimeMillis(int i) { return timeMillis[i]; }
+
+    /**
+     * Copia as coordenadas a partir do ponto {@code from} para out (lat, lon intercalados),
+     * até encher out. Retorna quantos pontos foram copiados.
+     */
+    public synchronized int copyCoordinates(int from, double[] out) {
+        int n = Math.max(0, Math.min(size - from, out.length / 2));
+        for (int i = 0; i < n; i++) {
+            out[2 * i] = latitude[from + i];
+            out[2 * i + 1] = longitude[from + i];
+        }
+        return n;
+    }
+
+    // ---------- EXPORTAÇÃO ----------
+
+    /**
+     * Escreve o trajeto em GPX 1.1 (um trkseg)
+     */
+    public void writeGpx(Writer out, String name) throws IOException {
+        writeGpx(out, name, null);
+    }
+
+    /**
+     * Escreve o trajeto em GPX 1.1 (um trkseg) terminando em {@code last}, se não for null
+     * (o ponto ainda pendente no TrackSimplifier)
+     */
+    public synchronized void writeGpx(Writer out, String name, GnssFix last) throws IOException {
+        SimpleDateFormat iso = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        iso.setTimeZone(TimeZone.getTimeZone("UTC"));
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<gpx version=\"1.1\" creator=\"LocationAWS\" xmlns=\"http://www.topografix.com/GPX/1/1\">\n");
+        out.write("<trk><name>" + escape(name) + "</name><trkseg>\n");
+        for (int i = 0; i < size; i++) {
+            writePoint(out, iso, latitude[i], longitude[i], altitude[i], timeMillis[i]);
+        }
+        if (last != null) {
+            writePoint(out, iso, last.getLatitude(), last.getLongitude(), (float) last.getAltitude(), last.getTimeMillis());
+        }
+        out.write("</trkseg></trk>\n</gpx>\n");
+        out.flush();
+    }
+
+    // ---------- AUXILIARES ----------
+
+    private static void writePoint(Writer out, SimpleDateFormat iso, double lat, double lon, float alt, long time)
+            throws IOException {
+        out.write(String.format(Locale.US, "<trkpt lat=\"%.7f\" lon=\"%.7f\">", lat, lon));
+        if (!Float.isNaN(alt)) out.write(String.format(Locale.US, "<ele>%.1f</ele>", alt));
+        if (time > 0) out.write("<time>" + iso.format(new Date(time)) + "</time>");
+        out.write("</trkpt>\n");
+    }
+
+    private void grow() {
+        int n = latitude.length * 2;
+        latitude = Arrays.copyOf(latitude, n);
+        longitude = Arrays.copyOf(longitude, n);
+        altitude = Arrays.copyOf(altitude, n);
+        accuracy = Arrays.copyOf(accuracy, n);
+        timeMillis = Arrays.copyOf(timeMillis, n);
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
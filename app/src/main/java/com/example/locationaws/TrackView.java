@@ -0,0 +1,316 @@
+package com.example.locationaws;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * 🗺️ Classe TrackView
+ *
+ * Desenha o trajeto de um TrackStore com arrastar (pan) e pinça (zoom).
+ *
+ * → Os pontos vão para uma pirâmide de níveis de detalhe (TrackLod), atualizada
+ *   de forma incremental: só os pontos novos do TrackStore são copiados a cada frame.
+ * → Em cada frame escolhe o nível em que 1 célula ≈ meio pixel e gera só os segmentos
+ *   dos blocos visíveis, em lotes de drawLines a partir de um float[] reaproveitado.
+ * → Nenhuma alocação por frame (os textos só são refeitos quando mudam).
+ *
+ * Toque duplo: volta a enquadrar o trajeto inteiro.
+ */
+public class TrackView extends View implements TrackLod.SegmentSink {
+
+    // Segmentos por chamada de drawLines (4 floats cada)
+    private static final int BATCH_SEGMENTS = 2048;
+    private static final float MIN_METERS_PER_PIXEL = 0.01f;
+    private static final float MAX_METERS_PER_PIXEL = 100_000f;
+    private static final float MARGIN = 48f;
+
+    private final Paint paintTrack = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintPosition = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintEstimate = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintText = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint paintScale = new Paint();
+
+    private final TrackLod lod = new TrackLod();
+    private final float[] segmentBuffer = new float[BATCH_SEGMENTS * 4];
+    private final double[] copyBuffer = new double[8192];
+
+    private final ScaleGestureDetector scaleDetector;
+    private final GestureDetector gestureDetector;
+
+    // Origem dos pontos e quanto dela já está no lod
+    private TrackStore store;
+    private int appliedSize;
+    private int appliedVersion;
+
+    // Janela: centro (m, na projeção do lod) e escala
+    private float centerX, centerY;
+    private float metersPerPixel = 1f;
+    private boolean autoFit = true;
+
+    // Último fix ainda na janela do TrackSimplifier; NaN = o último ponto do trajeto é o atual
+    private double pendingLat = Double.NaN, pendingLon = Double.NaN;
+
+    // Posição estimada entre fixes (navegação estimada); NaN = sem estimativa
+    private double estimateLat = Double.NaN, estimateLon = Double.NaN;
+    private float estimateBearing = Float.NaN;
+
+    // Canvas do onDraw atual (usado por onSegments)
+    private Canvas drawCanvas;
+
+    // Textos em cache
+    private String caption = "";
+    private int captionPoints = -1, captionLevel = -1, captionSegments = -1;
+    private String scaleText = "";
+    private float scaleMeters;
+
+    public TrackView(Context context) {
+        this(context, null);
+    }
+
+    public TrackView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+
+        paintTrack.setStyle(Paint.Style.STROKE);
+        paintTrack.setStrokeWidth(4f);
+        paintTrack.setStrokeCap(Paint.Cap.ROUND);
+        paintTrack.setColor(Color.parseColor("#FFB300"));
+
+        paintPosition.setColor(Color.CYAN);
+
+        paintEstimate.setColor(Color.MAGENTA);
+        paintEstimate.setStrokeWidth(4f);
+
+        paintText.setColor(Color.LTGRAY);
+        paintText.setTextSize(28f);
+
+        paintScale.setColor(Color.LTGRAY);
+        paintScale.setStrokeWidth(3f);
+
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(@NonNull ScaleGestureDetector d) {
+                zoomAround(d.getFocusX(), d.getFocusY(), d.getScaleFactor());
+                return true;
+            }
+        });
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(@Nullable MotionEvent e1, @NonNull MotionEvent e2, float dx, float dy) {
+                autoFit = false;
+                centerX += dx * metersPerPixel;
+                centerY -= dy * metersPerPixel;
+                invalidate();
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(@NonNull MotionEvent e) {
+                autoFit = true;
+                invalidate();
+                return true;
+            }
+        });
+    }
+
+    // ---------- DADOS ----------
+
+    public void setTrackStore(@Nullable TrackStore trackStore) {
+        store = trackStore;
+        lod.clear();
+        appliedSize = 0;
+        appliedVersion = trackStore == null ? 0 : trackStore.getVersion() - trackStore.size();
+        autoFit = true;
+        invalidate();
+    }
+
+    public TrackLod getLod() {
+        return lod;
+    }
+
+    /**
+     * Posiciona a janela (m na projeção do lod); desliga o enquadramento automático
+     */
+    public void setViewport(float centerXMeters, float centerYMeters, float metersPerPixel) {
+        autoFit = false;
+        centerX = centerXMeters;
+        centerY = centerYMeters;
+        this.metersPerPixel = clamp(metersPerPixel);
+        invalidate();
+    }
+
+    /**
+     * Posição atual ainda não emitida pelo TrackSimplifier (TrackSimplifier.copyPending()):
+     * o trajeto é desenhado até ela. Latitude NaN = o último ponto do TrackStore é o atual.
+     */
+    public void setPendingPosition(double latitude, double longitude) {
+        pendingLat = latitude;
+        pendingLon = longitude;
+        invalidate();
+    }
+
+    /**
+     * Posição estimada entre fixes, desenhada com um traço no rumo (graus; NaN = sem rumo).
+     * Latitude NaN apaga a estimativa.
+     */
+    public void setEstimate(double latitude, double longitude, float bearingDegrees) {
+        estimateLat = latitude;
+        estimateLon = longitude;
+        estimateBearing = bearingDegrees;
+        invalidate();
+    }
+
+    public void fitToTrack() {
+        autoFit = true;
+        invalidate();
+    }
+
+    // Copia do TrackStore só o que mudou desde o último frame
+    private void sync() {
+        if (store == null) return;
+        int version = store.getVersion();
+        if (version == appliedVersion) return;
+        int size = store.size();
+        // Cada add() soma 1 à versão; qualquer outra diferença é um clear(): recomeça
+        if (version - appliedVersion != size - appliedSize) {
+            lod.clear();
+            appliedSize = 0;
+        }
+        while (appliedSize < size) {
+            int n = store.copyCoordinates(appliedSize, copyBuffer);
+            if (n == 0) break;
+            for (int i = 0; i < n; i++) lod.append(copyBuffer[2 * i], copyBuffer[2 * i + 1]);
+            appliedSize += n;
+        }
+        appliedVersion = version;
+    }
+
+    // ---------- TOQUE ----------
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean handled = scaleDetector.onTouchEvent(event);
+        handled |= gestureDetector.onTouchEvent(event);
+        return handled || super.onTouchEvent(event);
+    }
+
+    private void zoomAround(float focusX, float focusY, float factor) {
+        autoFit = false;
+        // O ponto sob os dedos fica parado
+        float wx = centerX + (focusX - getWidth() / 2f) * metersPerPixel;
+        float wy = centerY - (focusY - getHeight() / 2f) * metersPerPixel;
+        metersPerPixel = clamp(metersPerPixel / factor);
+        centerX = wx - (focusX - getWidth() / 2f) * metersPerPixel;
+        centerY = wy + (focusY - getHeight() / 2f) * metersPerPixel;
+        invalidate();
+    }
+
+    // ---------- DESENHO ----------
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        canvas.drawColor(SkyPlotRenderer.BACKGROUND_COLOR);
+        sync();
+
+        int w = getWidth(), h = getHeight();
+        if (lod.size() == 0) {
+            canvas.drawText("Aguardando fixes...", MARGIN, h / 2f, paintText);
+            return;
+        }
+        if (autoFit) fit(w, h);
+
+        float scale = 1f / metersPerPixel;
+        float offsetX = w / 2f - centerX * scale;
+        float offsetY = h / 2f + centerY * scale;
+        float halfW = w / 2f * metersPerPixel, halfH = h / 2f * metersPerPixel;
+        int level = lod.chooseLevel(metersPerPixel * 0.5f);
+
+        drawCanvas = canvas;
+        int segments = lod.render(level, centerX - halfW, centerY - halfH, centerX + halfW, centerY + halfH,
+                scale, offsetX, offsetY, segmentBuffer, this);
+        drawCanvas = null;
+
+        // Posição atual: o fix pendente, ligado ao último ponto emitido
+        float lastX = lod.getLastX() * scale + offsetX, lastY = offsetY - lod.getLastY() * scale;
+        if (!Double.isNaN(pendingLat)) {
+            float x = lod.toX(pendingLon) * scale + offsetX, y = offsetY - lod.toY(pendingLat) * scale;
+            canvas.drawLine(lastX, lastY, x, y, paintTrack);
+            lastX = x;
+            lastY = y;
+        }
+        canvas.drawCircle(lastX, lastY, 10f, paintPosition);
+        if (!Double.isNaN(estimateLat)) drawEstimate(canvas, scale, offsetX, offsetY);
+
+        drawScaleBar(canvas, h);
+        if (lod.size() != captionPoints || level != captionLevel || segments != captionSegments) {
+            captionPoints = lod.size();
+            captionLevel = level;
+            captionSegments = segments;
+            caption = String.format(Locale.getDefault(), "%d pontos · nível %d · %d segmentos",
+                    captionPoints, level, segments);
+        }
+        canvas.drawText(caption, MARGIN / 2f, MARGIN, paintText);
+    }
+
+    @Override
+    public void onSegments(float[] buffer, int floatCount) {
+        drawCanvas.drawLines(buffer, 0, floatCount, paintTrack);
+    }
+
+    private void drawEstimate(Canvas canvas, float scale, float offsetX, float offsetY) {
+        float x = lod.toX(estimateLon) * scale + offsetX;
+        float y = offsetY - lod.toY(estimateLat) * scale;
+        canvas.drawCircle(x, y, 7f, paintEstimate);
+        if (!Float.isNaN(estimateBearing)) {
+            double b = Math.toRadians(estimateBearing);
+            canvas.drawLine(x, y, x + (float) Math.sin(b) * 28f, y - (float) Math.cos(b) * 28f, paintEstimate);
+        }
+    }
+
+    // Enquadra o trajeto inteiro com margem
+    private void fit(int w, int h) {
+        float spanX = Math.max(lod.getMaxX() - lod.getMinX(), 10f);
+        float spanY = Math.max(lod.getMaxY() - lod.getMinY(), 10f);
+        centerX = (lod.getMinX() + lod.getMaxX()) / 2f;
+        centerY = (lod.getMinY() + lod.getMaxY()) / 2f;
+        metersPerPixel = clamp(Math.max(spanX / Math.max(1f, w - 2 * MARGIN), spanY / Math.max(1f, h - 2 * MARGIN)));
+    }
+
+    // Barra de escala com comprimento "redondo" (1, 2 ou 5 × 10^n m) de até ~1/4 da largura
+    private void drawScaleBar(Canvas canvas, int h) {
+        float target = getWidth() / 4f * metersPerPixel;
+        float magnitude = (float) Math.pow(10, Math.floor(Math.log10(target)));
+        float meters = target >= 5 * magnitude ? 5 * magnitude : target >= 2 * magnitude ? 2 * magnitude : magnitude;
+        if (meters != scaleMeters) {
+            scaleMeters = meters;
+            scaleText = meters >= 1000 ? String.format(Locale.US, "%.0f km", meters / 1000)
+                    : meters >= 1 ? String.format(Locale.US, "%.0f m", meters)
+                    : String.format(Locale.US, "%.0f cm", meters * 100);
+        }
+        float px = meters / metersPerPixel;
+        float y = h - MARGIN;
+        canvas.drawLine(MARGIN, y, MARGIN + px, y, paintScale);
+        canvas.drawText(scaleText, MARGIN, y - 12f, paintText);
+    }
+
+    private static float clamp(float mpp) {
+        return Math.max(MIN_METERS_PER_PIXEL, Math.min(MAX_METERS_PER_PIXEL, mpp));
+    }
+}
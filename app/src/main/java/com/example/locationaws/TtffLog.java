@@ -0,0 +1,157 @@
+package com.example.locationaws;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 📒 Classe TtffLog
+ *
+ * Histórico de sessões de aquisição (TtffSession) num arquivo binário compacto
+ * (cabeçalho "TTFF" + versão, depois um registro por sessão, ~100 bytes), e o
+ * agregado de todas as sessões: p50/p90/p99 do TTFF e da aquisição de cada constelação.
+ *
+ * → Leitura e escrita do arquivo rodam no Executor recebido (fora da thread principal).
+ * → O agregado é um objeto imutável publicado num campo volatile: a tela lê sem lock.
+ *
+ * Não depende do Android.
+ */
+public final class TtffLog {
+
+    public static final int MAGIC = 0x54544646; // "TTFF"
+    public static final short VERSION = 1;
+
+    /**
+     * Agregado de todas as sessões gravadas
+     */
+    public static final class Aggregate {
+        public final int sessions;
+        public final LocationStats.Quantiles ttffSeconds;
+        public final LocationStats.Quantiles[] acquisitionSeconds = new LocationStats.Quantiles[GnssConstellation.COUNT];
+
+        Aggregate(int sessions, QuantileSketch ttff, QuantileSketch[] acquisition) {
+            this.sessions = sessions;
+            this.ttffSeconds = new LocationStats.Quantiles(ttff);
+            for (int c = 0; c < GnssConstellation.COUNT; c++) {
+                acquisitionSeconds[c] = new LocationStats.Quantiles(acquisition[c]);
+            }
+        }
+    }
+
+    private final File file;
+    private final Executor io;
+
+    // Protegidos por this (escritos só pela thread de io)
+    private final QuantileSketch ttff = newSketch();
+    private final QuantileSketch[] acquisition = new QuantileSketch[GnssConstellation.COUNT];
+    private int sessions;
+
+    private volatile Aggregate aggregate;
+
+    public TtffLog(File file, Executor io) {
+        this.file = file;
+        this.io = io;
+        for (int c = 0; c < GnssConstellation.COUNT; c++) acquisition[c] = newSketch();
+        aggregate = new Aggregate(0, ttff, acquisition);
+        io.execute(this::loadAggregate);
+    }
+
+    // ---------- ACESSO ----------
+
+    public Aggregate getAggregate() {
+        return aggregate;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Grava a sessão no fim do arquivo e atualiza o agregado (em segundo plano)
+     */
+    public void append(TtffSession session) {
+        io.execute(() -> {
+            try {
+                write(session);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            synchronized (this) {
+                add(session);
+            }
+        });
+    }
+
+    /**
+     * Lê todas as sessões do arquivo (ignora um último registro incompleto)
+     */
+    public static List<TtffSession> readAll(File file) throws IOException {
+        List<TtffSession> list = new ArrayList<>();
+        if (!file.exists()) return list;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Arquivo TTFF inválido");
+            short version = in.readShort();
+            if (version != VERSION) throw new IOException("Versão TTFF não suportada: " + version);
+            while (true) {
+                try {
+                    list.add(TtffSession.readFrom(in));
+                } catch (EOFException end) {
+                    break;
+                }
+            }
+        }
+        return list;
+    }
+
+    // ---------- THREAD DE IO ----------
+
+    private void loadAggregate() {
+        List<TtffSession> all;
+        try {
+            all = readAll(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        synchronized (this) {
+            for (TtffSession s : all) add(s);
+        }
+    }
+
+    private void write(TtffSession session) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) throw new IOException("Não foi possível criar " + dir);
+        boolean fresh = !file.exists() || file.length() == 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+            if (fresh) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+            }
+            session.writeTo(out);
+        }
+    }
+
+    // Chamado com o lock
+    private void add(TtffSession s) {
+        sessions++;
+        if (s.ttffMillis >= 0) ttff.add(s.ttffMillis / 1000.0);
+        for (int c = 0; c < GnssConstellation.COUNT; c++) {
+            if (s.firstUsedMillis[c] >= 0) acquisition[c].add(s.firstUsedMillis[c] / 1000.0);
+        }
+        aggregate = new Aggregate(sessions, ttff, acquisition);
+    }
+
+    // Tempos de 10 ms a 1 h
+    private static QuantileSketch newSketch() {
+        return new QuantileSketch(0.01, 3600);
+    }
+}
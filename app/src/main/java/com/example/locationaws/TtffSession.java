@@ -0,0 +1,112 @@
+package com.example.locationaws;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * ⏱️ Classe TtffSession
+ *
+ * Resultado de uma sessão GNSS (do registro do callback até a liberação do GPS):
+ * tempo até o primeiro fix e tempo de aquisição de cada constelação.
+ *
+ * Todos os tempos em ms desde o registro; -1 = não aconteceu na sessão.
+ * Imutável; gravada em formato compacto pelo TtffLog.
+ */
+public final class TtffSession {
+
+    final long startWallMillis;     // Hora UTC do registro
+    final String label;             // Aparelho/configuração (para comparar receptores)
+    final int durationMillis;
+    final int startedMillis;        // GnssStatus.Callback.onStarted
+    final int ttffMillis;           // onFirstFix, medido pelo app (desde o registro)
+    final int platformTtffMillis;   // onFirstFix, valor informado pela plataforma
+    final int sinceLastSessionMillis; // Tempo desde o fim da sessão anterior (partida quente/fria), -1 = primeira
+    final int satellitesSeen;
+    final int satellitesUsed;
+    final int[] firstSeenMillis = new int[GnssConstellation.COUNT];
+    final int[] firstUsedMillis = new int[GnssConstellation.COUNT];
+
+    TtffSession(long startWallMillis, String label, int durationMillis, int startedMillis, int ttffMillis,
+                int platformTtffMillis, int sinceLastSessionMillis, int satellitesSeen, int satellitesUsed) {
+        this.startWallMillis = startWallMillis;
+        this.label = label;
+        this.durationMillis = durationMillis;
+        this.startedMillis = startedMillis;
+        this.ttffMillis = ttffMillis;
+        this.platformTtffMillis = platformTtffMillis;
+        this.sinceLastSessionMillis = sinceLastSessionMillis;
+        this.satellitesSeen = satellitesSeen;
+        this.satellitesUsed = satellitesUsed;
+    }
+
+    // ---------- ACESSO ----------
+
+    public long getStartWallMillis() { return startWallMillis; }
+    public String getLabel() { return label; }
+    public int getDurationMillis() { return durationMillis; }
+    public int getStartedMillis() { return startedMillis; }
+    public int getTtffMillis() { return ttffMillis; }
+    public int getPlatformTtffMillis() { return platformTtffMillis; }
+    public int getSinceLastSessionMillis() { return sinceLastSessionMillis; }
+    public int getSatellitesSeen() { return satellitesSeen; }
+    public int getSatellitesUsed() { return satellitesUsed; }
+    public int getFirstSeenMillis(int constellation) { return firstSeenMillis[constellation]; }
+    public int getFirstUsedMillis(int constellation) { return firstUsedMillis[constellation]; }
+
+    /**
+     * Resumo de uma linha: "TTFF 12.3 s | GPS 9.8 s  GAL 11.0 s ..."
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder("TTFF ");
+        sb.append(ttffMillis < 0 ? "--" : String.format(Locale.US, "%.1f s", ttffMillis / 1000f));
+        boolean first = true;
+        for (int c = 0; c < GnssConstellation.COUNT; c++) {
+            if (firstUsedMillis[c] < 0) continue;
+            sb.append(first ? " | " : "  ").append(GnssConstellation.abbreviation(c))
+                    .append(String.format(Locale.US, " %.1f s", firstUsedMillis[c] / 1000f));
+            first = false;
+        }
+        return sb.toString();
+    }
+
+    // ---------- FORMATO BINÁRIO ----------
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(startWallMillis);
+        out.writeUTF(label);
+        out.writeInt(durationMillis);
+        out.writeInt(startedMillis);
+        out.writeInt(ttffMillis);
+        out.writeInt(platformTtffMillis);
+        out.writeInt(sinceLastSessionMillis);
+        out.writeShort(satellitesSeen);
+        out.writeShort(satellitesUsed);
+        out.writeByte(GnssConstellation.COUNT);
+        for (int c = 0; c < GnssConstellation.COUNT; c++) {
+            out.writeInt(firstSeenMillis[c]);
+            out.writeInt(firstUsedMillis[c]);
+        }
+    }
+
+    static TtffSession readFrom(DataInput in) throws IOException {
+        TtffSession s = new TtffSession(in.readLong(), in.readUTF(), in.readInt(), in.readInt(), in.readInt(),
+                in.readInt(), in.readInt(), in.readUnsignedShort(), in.readUnsignedShort());
+        // Arquivos gravados com mais (ou menos) constelações continuam legíveis
+        int n = in.readUnsignedByte();
+        for (int c = 0; c < n; c++) {
+            int seen = in.readInt();
+            int used = in.readInt();
+            if (c < GnssConstellation.COUNT) {
+                s.firstSeenMillis[c] = seen;
+                s.firstUsedMillis[c] = used;
+            }
+        }
+        for (int c = n; c < GnssConstellation.COUNT; c++) {
+            s.firstSeenMillis[c] = -1;
+            s.firstUsedMillis[c] = -1;
+        }
+        return s;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 🏁 Classe TtffTracker
+ *
+ * Instrumentação de aquisição de uma sessão GNSS. Marca os instantes de:
+ *  → registro do GnssStatus.Callback (início da sessão)
+ *  → onStarted e onFirstFix da plataforma
+ *  → primeira vez que cada (constelação, svid) aparece no status
+ *  → primeira vez que cada um é usado no fix
+ *
+ * A aquisição de uma constelação é o primeiro instante em que algum satélite
+ * dela foi usado no fix. finish() fecha a sessão num TtffSession.
+ *
+ * Todos os tempos vêm de elapsedRealtimeNanos (relógio monotônico).
+ * Métodos sincronizados: eventos chegam da thread principal, leituras de qualquer thread.
+ * Não depende do Android.
+ */
+public final class TtffTracker {
+
+    // svid vai até ~200 (QZSS 193-200, SBAS 120-158); acima disso é ignorado
+    private static final int MAX_SVID = 256;
+
+    private final String label;
+
+    // Por (constelação, svid): primeiro visto / primeiro usado (nanos, -1 = nunca)
+    private final long[] seenAt = new long[GnssConstellation.COUNT * MAX_SVID];
+    private final long[] usedAt = new long[GnssConstellation.COUNT * MAX_SVID];
+
+    // Por constelação
+    private final long[] constellationSeenAt = new long[GnssConstellation.COUNT];
+    private final long[] constellationUsedAt = new long[GnssConstellation.COUNT];
+
+    private boolean active;
+    private long startNanos;
+    private long startWallMillis;
+    private long startedNanos;
+    private long firstFixNanos;
+    private int platformTtffMillis;
+    private int satellitesSeen;
+    private int satellitesUsed;
+
+    // Fim da sessão anterior (para saber se a partida foi quente ou fria)
+    private long lastFinishNanos = -1;
+
+    public TtffTracker(String label) {
+        this.label = label;
+    }
+
+    // ---------- EVENTOS ----------
+
+    /**
+     * Início da sessão: o callback de status acabou de ser registrado
+     */
+    public synchronized void start(long nanos, long wallMillis) {
+        Arrays.fill(seenAt, -1L);
+        Arrays.fill(usedAt, -1L);
+        Arrays.fill(constellationSeenAt, -1L);
+        Arrays.fill(constellationUsedAt, -1L);
+        startNanos = nanos;
+        startWallMillis = wallMillis;
+        startedNanos = -1;
+        firstFixNanos = -1;
+        platformTtffMillis = -1;
+        satellitesSeen = 0;
+        satellitesUsed = 0;
+        active = true;
+    }
+
+    public synchronized void onStarted(long nanos) {
+        if (active && startedNanos < 0) startedNanos = nanos;
+    }
+
+    public synchronized void onFirstFix(long nanos, int ttffMillis) {
+        if (!active || firstFixNanos >= 0) return;
+        firstFixNanos = nanos;
+        platformTtffMillis = ttffMillis;
+    }
+
+    public synchronized void onStatus(SatelliteSnapshot s) {
+        if (!active) return;
+        long t = s.elapsedRealtimeNanos;
+        for (int i = 0; i < s.count; i++) {
+            int c = s.constellation[i];
+            int svid = s.svid[i];
+            if (c < 0 || c >= GnssConstellation.COUNT || svid < 0 || svid >= MAX_SVID) continue;
+            int k = c * MAX_SVID + svid;
+
+            if (seenAt[k] < 0) {
+                seenAt[k] = t;
+                satellitesSeen++;
+                if (constellationSeenAt[c] < 0) constellationSeenAt[c] = t;
+            }
+            if (s.usedInFix[i] && usedAt[k] < 0) {
+                usedAt[k] = t;
+                satellitesUsed++;
+                if (constellationUsedAt[c] < 0) constellationUsedAt[c] = t;
+            }
+        }
+    }
+
+    /**
+     * Fecha a sessão (GPS liberado). Retorna null se não havia sessão aberta.
+     */
+    public synchronized TtffSession finish(long nanos) {
+        if (!active) return null;
+        TtffSession s = build(nanos);
+        active = false;
+        lastFinishNanos = nanos;
+        return s;
+    }
+
+    // ---------- LEITURA ----------
+
+    public synchronized boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Situação da sessão em andamento (para mostrar na tela), ou null
+     */
+    public synchronized TtffSession current(long nanos) {
+        return active ? build(nanos) : null;
+    }
+
+    /**
+     * Primeira vez que um satélite foi usado no fix (ms desde o início), ou -1
+     */
+    public synchronized int getFirstUsedMillis(int constellation, int svid) {
+        if (svid < 0 || svid >= MAX_SVID) return -1;
+        return millis(usedAt[constellation * MAX_SVID + svid]);
+    }
+
+    public synchronized int getFirstSeenMillis(int constellation, int svid) {
+        if (svid < 0 || svid >= MAX_SVID) return -1;
+        return millis(seenAt[constellation * MAX_SVID + svid]);
+    }
+
+    // ---------- AUXILIARES ----------
+
+    private TtffSession build(long nanos) {
+        int sinceLast = lastFinishNanos < 0 ? -1 : (int) Math.min(Integer.MAX_VALUE, (startNanos - lastFinishNanos) / 1_000_000);
+        TtffSession s = new TtffSession(startWallMillis, label, millis(nanos), millis(startedNanos),
+                millis(firstFixNanos), platformTtffMillis, sinceLast, satellitesSeen, satellitesUsed);
+        for (int c = 0; c < GnssConstellation.COUNT; c++) {
+            s.firstSeenMillis[c] = millis(constellationSeenAt[c]);
+            s.firstUsedMillis[c] = millis(constellationUsedAt[c]);
+        }
+        return s;
+    }
+
+    // Instante absoluto → ms desde o início da sessão (-1 continua -1)
+    private int millis(long nanos) {
+        if (nanos < 0) return -1;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, nanos - startNanos) / 1_000_000);
+    }
+}
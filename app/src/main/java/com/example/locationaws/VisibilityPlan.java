@@ -0,0 +1,93 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * 🗓️ Classe VisibilityPlan
+ *
+ * Resultado do VisibilityPlanner: posição prevista (azimute/elevação) de cada
+ * satélite do almanaque em cada instante do período, e os DOPs de cada instante.
+ *
+ * Arrays planos, indexados por [instante × satélites + satélite].
+ * Imutável depois de pronto: pode ser lido por qualquer thread.
+ */
+public final class VisibilityPlan {
+
+    final long startMillis;
+    final int stepSeconds;
+    final int slices;
+    final int satellites;
+    final float elevationMask;
+
+    // Identidade de cada satélite (mesma ordem do almanaque)
+    final int[] constellation;
+    final int[] svid;
+
+    // Posições previstas (elevação NaN = satélite não saudável, fora do plano)
+    final float[] azimuth;
+    final float[] elevation;
+
+    // Por instante
+    final float[] pdop;
+    final float[] hdop;
+    final float[] vdop;
+    final int[] visible;
+
+    VisibilityPlan(long startMillis, int stepSeconds, int slices, Almanac almanac, float elevationMask) {
+        this.startMillis = startMillis;
+        this.stepSeconds = stepSeconds;
+        this.slices = slices;
+        this.satellites = almanac.count;
+        this.elevationMask = elevationMask;
+        this.constellation = Arrays.copyOf(almanac.constellation, satellites);
+        this.svid = Arrays.copyOf(almanac.svid, satellites);
+        this.azimuth = new float[slices * satellites];
+        this.elevation = new float[slices * satellites];
+        this.pdop = new float[slices];
+        this.hdop = new float[slices];
+        this.vdop = new float[slices];
+        this.visible = new int[slices];
+    }
+
+    // ---------- ACESSO ----------
+
+    public int getSliceCount() { return slices; }
+    public int getSatelliteCount() { return satellites; }
+    public int getStepSeconds() { return stepSeconds; }
+    public long getStartMillis() { return startMillis; }
+    public float getElevationMask() { return elevationMask; }
+
+    public long getTimeMillis(int slice) {
+        return startMillis + slice * (long) stepSeconds * 1000L;
+    }
+
+    public float getAzimuth(int slice, int sat) { return azimuth[slice * satellites + sat]; }
+    public float getElevation(int slice, int sat) { return elevation[slice * satellites + sat]; }
+
+    public float getPdop(int slice) { return pdop[slice]; }
+    public float getHdop(int slice) { return hdop[slice]; }
+    public float getVdop(int slice) { return vdop[slice]; }
+    public int getVisibleCount(int slice) { return visible[slice]; }
+
+    /**
+     * Céu previsto num instante, no formato das telas: satélites acima do horizonte,
+     * marcados como "usados" os que estão acima da máscara de elevação
+     */
+    public void fillSnapshot(int slice, SatelliteSnapshot out) {
+        out.clear();
+        int o = slice * satellites;
+        for (int s = 0; s < satellites; s++) {
+            float el = elevation[o + s];
+            if (!(el >= 0f)) continue; // abaixo do horizonte (ou NaN)
+            out.add(constellation[s], svid[s], azimuth[o + s], el, 0f, 0f, el >= elevationMask);
+        }
+    }
+
+    /**
+     * Instante mais próximo de um horário (limitado ao período do plano)
+     */
+    public int sliceAt(long timeMillis) {
+        long i = Math.round((timeMillis - startMillis) / (stepSeconds * 1000.0));
+        return (int) Math.max(0, Math.min(slices - 1, i));
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.locationaws;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 🔮 Classe VisibilityPlanner
+ *
+ * Previsão de visibilidade para planejamento de levantamentos: propaga as órbitas
+ * do almanaque (modelo kepleriano do IS-GPS-200) ao longo de um período, com passo
+ * configurável, e calcula azimute/elevação de cada satélite e os DOPs de cada instante
+ * para uma posição fixa.
+ *
+ * O trabalho é dividido com fork/join em duas fases:
+ *  1️⃣ posições: blocos de (instantes × satélites), divididos pela maior dimensão
+ *     até ficarem pequenos o suficiente; cada bloco escreve sua faixa dos arrays
+ *  2️⃣ DOPs: blocos de instantes, cada um com seu próprio DopCalculator
+ * Nenhum bloco escreve na faixa de outro: não há locks.
+ *
+ * Não depende do Android.
+ */
+public final class VisibilityPlanner {
+
+    // Constantes WGS-84 / IS-GPS-200
+    private static final double MU = 3.986005e14;               // m³/s²
+    private static final double EARTH_ROTATION = 7.2921151467e-5; // rad/s
+    private static final double WGS84_A = 6378137.0;
+    private static final double WGS84_E2 = 6.69437999014e-3;
+
+    // Tempo GPS: época 06/01/1980 e segundos intercalares acumulados desde então
+    private static final long GPS_EPOCH_UNIX_SECONDS = 315_964_800L;
+    private static final int LEAP_SECONDS = 18;
+    private static final int SECONDS_PER_WEEK = 604_800;
+
+    // Tempo BeiDou (BDT): semana 0 = semana GPS 1356, 14 s atrás do GPS
+    private static final int BDT_WEEK_OFFSET = 1356;
+    private static final int BDT_SECONDS_OFFSET = 14;
+
+    // Tamanho máximo de um bloco de posições (instantes × satélites) e de DOPs (instantes)
+    private static final int POSITION_LEAF = 2048;
+    private static final int DOP_LEAF = 64;
+
+    private final ForkJoinPool pool;
+
+    public VisibilityPlanner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public VisibilityPlanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Calcula a previsão
+     *
+     * @param latitude        graus
+     * @param longitude       graus
+     * @param altitude        metros (elipsoidal)
+     * @param startMillis     início (UTC)
+     * @param durationSeconds duração do período (ex.: 24 h)
+     * @param stepSeconds     passo entre instantes
+     * @param elevationMask   elevação mínima (graus) para o satélite contar como utilizável
+     */
+    public VisibilityPlan plan(Almanac almanac, double latitude, double longitude, double altitude,
+                               long startMillis, int durationSeconds, int stepSeconds, float elevationMask) {
+        if (stepSeconds <= 0) throw new IllegalArgumentException("stepSeconds deve ser > 0");
+        int slices = durationSeconds / stepSeconds + 1;
+        VisibilityPlan plan = new VisibilityPlan(startMillis, stepSeconds, slices, almanac, elevationMask);
+        if (almanac.count == 0) return plan;
+
+        double startGps = toGpsSeconds(startMillis);
+        PlanJob job = new PlanJob(almanac, plan, latitude, longitude, altitude, startGps);
+
+        pool.invoke(new PositionTask(job, 0, slices, 0, almanac.count));
+        pool.invoke(new DopTask(plan, 0, slices));
+        return plan;
+    }
+
+    /**
+     * Horário UTC (ms) → segundos desde a época GPS
+     */
+    static double toGpsSeconds(long unixMillis) {
+        return unixMillis / 1000.0 - GPS_EPOCH_UNIX_SECONDS + LEAP_SECONDS;
+    }
+
+    /**
+     * Época de referência (s de tempo GPS) de um satélite: resolve a semana do arquivo
+     * (normalmente módulo 1024) para a semana completa mais próxima da data planejada
+     */
+    static double referenceEpoch(int constellationType, int almanacWeek, double toa, double nearGpsSeconds) {
+        boolean beidou = constellationType == GnssConstellation.BEIDOU;
+        int weekOffset = beidou ? BDT_WEEK_OFFSET : 0;
+        double scaleOffset = beidou ? BDT_SECONDS_OFFSET : 0;
+
+        int nearWeek = (int) Math.floor((nearGpsSeconds - scaleOffset) / SECONDS_PER_WEEK) - weekOffset;
+        int week = almanacWeek;
+        if (almanacWeek < 1024) {
+            week = nearWeek - Math.floorMod(nearWeek - almanacWeek, 1024);
+            if (nearWeek - week > 512) week += 1024;
+        }
+        return (week + weekOffset) * (double) SECONDS_PER_WEEK + toa + scaleOffset;
+    }
+
+    // ---------- DADOS COMPARTILHADOS PELAS TAREFAS (somente leitura) ----------
+
+    private static final class PlanJob {
+        final Almanac almanac;
+        final VisibilityPlan plan;
+        final double startGps;
+        final double[] epoch;
+
+        // Receptor: posição ECEF e linhas da rotação ECEF → ENU
+        final double rx, ry, rz;
+        final double eX, eY;
+        final double nX, nY, nZ;
+        final double uX, uY, uZ;
+
+        PlanJob(Almanac almanac, VisibilityPlan plan, double latitude, double longitude, double altitude,
+                double startGps) {
+            this.almanac = almanac;
+            this.plan = plan;
+            this.startGps = startGps;
+
+            epoch = new double[almanac.count];
+            for (int s = 0; s < almanac.count; s++) {
+                epoch[s] = referenceEpoch(almanac.constellation[s], almanac.week[s], almanac.toa[s], startGps);
+            }
+
+            double lat = Math.toRadians(latitude);
+            double lon = Math.toRadians(longitude);
+            double sinLat = Math.sin(lat), cosLat = Math.cos(lat);
+            double sinLon = Math.sin(lon), cosLon = Math.cos(lon);
+            double n = WGS84_A / Math.sqrt(1 - WGS84_E2 * sinLat * sinLat);
+            rx = (n + altitude) * cosLat * cosLon;
+            ry = (n + altitude) * cosLat * sinLon;
+            rz = (n * (1 - WGS84_E2) + altitude) * sinLat;
+
+            eX = -sinLon; eY = cosLon;
+            nX = -sinLat * cosLon; nY = -sinLat * sinLon; nZ = cosLat;
+            uX = cosLat * cosLon; uY = cosLat * sinLon; uZ = sinLat;
+        }
+    }
+
+    // ---------- FASE 1: POSIÇÕES ----------
+
+    private static final class PositionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PlanJob job;
+        private final int sliceFrom, sliceTo, satFrom, satTo;
+
+        PositionTask(PlanJob job, int sliceFrom, int sliceTo, int satFrom, int satTo) {
+            this.job = job;
+            this.sliceFrom = sliceFrom;
+            this.sliceTo = sliceTo;
+            this.satFrom = satFrom;
+            this.satTo = satTo;
+        }
+
+        @Override
+        protected void compute() {
+            int slices = sliceTo - sliceFrom;
+            int sats = satTo - satFrom;
+            if (slices * sats <= POSITION_LEAF) {
+                for (int s = satFrom; s < satTo; s++) propagate(s);
+                return;
+            }
+            // Divide a maior dimensão ao meio
+            if (slices >= sats) {
+                int mid = sliceFrom + slices / 2;
+                invokeAll(new PositionTask(job, sliceFrom, mid, satFrom, satTo),
+                        new PositionTask(job, mid, sliceTo, satFrom, satTo));
+            } else {
+                int mid = satFrom + sats / 2;
+                invokeAll(new PositionTask(job, sliceFrom, sliceTo, satFrom, mid),
+                        new PositionTask(job, sliceFrom, sliceTo, mid, satTo));
+            }
+        }
+
+        // Órbita de um satélite nos instantes do bloco
+        private void propagate(int s) {
+            Almanac a = job.almanac;
+            VisibilityPlan plan = job.plan;
+            int stride = plan.satellites;
+
+            if (a.health[s] != 0) {
+                for (int k = sliceFrom; k < sliceTo; k++) {
+                    plan.azimuth[k * stride + s] = Float.NaN;
+                    plan.elevation[k * stride + s] = Float.NaN;
+                }
+                return;
+            }
+
+            double sqrtA = a.sqrtA[s];
+            double semiMajor = sqrtA * sqrtA;
+            double meanMotion = Math.sqrt(MU / (semiMajor * semiMajor * semiMajor));
+            double e = a.eccentricity[s];
+            double sqrt1e2 = Math.sqrt(1 - e * e);
+            double cosI = Math.cos(a.inclination[s]);
+            double sinI = Math.sin(a.inclination[s]);
+            double nodeRate = a.omegaDot[s] - EARTH_ROTATION;
+            double node0 = a.omega0[s] - EARTH_ROTATION * a.toa[s];
+
+            for (int k = sliceFrom; k < sliceTo; k++) {
+                double tk = job.startGps + k * (double) plan.stepSeconds - job.epoch[s];
+
+                // Equação de Kepler por Newton (e pequeno: 3 iterações bastam)
+                double m = a.meanAnomaly[s] + meanMotion * tk;
+                double ea = m;
+                for (int it = 0; it < 3; it++) {
+                    ea -= (ea - e * Math.sin(ea) - m) / (1 - e * Math.cos(ea));
+                }
+                double sinE = Math.sin(ea), cosE = Math.cos(ea);
+
+                double phi = Math.atan2(sqrt1e2 * sinE, cosE - e) + a.perigee[s];
+                double r = semiMajor * (1 - e * cosE);
+                double xp = r * Math.cos(phi);
+                double yp = r * Math.sin(phi);
+
+                double node = node0 + nodeRate * tk;
+                double sinNode = Math.sin(node), cosNode = Math.cos(node);
+                double dx = xp * cosNode - yp * cosI * sinNode - job.rx;
+                double dy = xp * sinNode + yp * cosI * cosNode - job.ry;
+                double dz = yp * sinI - job.rz;
+
+                double east = job.eX * dx + job.eY * dy;
+                double north = job.nX * dx + job.nY * dy + job.nZ * dz;
+                double up = job.uX * dx + job.uY * dy + job.uZ * dz;
+
+                double az = Math.toDegrees(Math.atan2(east, north));
+                plan.azimuth[k * stride + s] = (float) (az < 0 ? az + 360 : az);
+                plan.elevation[k * stride + s] = (float) Math.toDegrees(Math.atan2(up, Math.hypot(east, north)));
+            }
+        }
+    }
+
+    // ---------- FASE 2: DOPs ----------
+
+    private static final class DopTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final VisibilityPlan plan;
+        private final int sliceFrom, sliceTo;
+
+        DopTask(VisibilityPlan plan, int sliceFrom, int sliceTo) {
+            this.plan = plan;
+            this.sliceFrom = sliceFrom;
+            this.sliceTo = sliceTo;
+        }
+
+        @Override
+        protected void compute() {
+            if (sliceTo - sliceFrom > DOP_LEAF) {
+                int mid = (sliceFrom + sliceTo) >>> 1;
+                invokeAll(new DopTask(plan, sliceFrom, mid), new DopTask(plan, mid, sliceTo));
+                return;
+            }
+            SatelliteSnapshot sky = new SatelliteSnapshot(plan.satellites);
+            DopCalculator dop = new DopCalculator();
+            for (int k = sliceFrom; k < sliceTo; k++) {
+                plan.fillSnapshot(k, sky);
+                dop.compute(sky);
+                plan.pdop[k] = dop.getPdop();
+                plan.hdop[k] = dop.getHdop();
+                plan.vdop[k] = dop.getVdop();
+                plan.visible[k] = dop.getUsedCount();
+            }
+        }
+    }
+}
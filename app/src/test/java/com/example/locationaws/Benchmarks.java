@@ -0,0 +1,60 @@
+package com.example.locationaws;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Utilitários simples de medição usados pelos testes de desempenho (JVM).
+ *
+ * Não substitui um framework de benchmark: faz aquecimento, mede o tempo de N repetições
+ * e imprime o resultado no log do teste. Os testes só verificam limites folgados,
+ * para não falharem em máquinas de CI lentas.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Executa a operação (aquecimento + medição) e retorna operações por segundo
+     */
+    static double opsPerSecond(String name, int iterations, Runnable op) {
+        for (int i = 0; i < iterations; i++) op.run(); // aquecimento (JIT)
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) op.run();
+        long elapsed = System.nanoTime() - start;
+        double ops = iterations * 1e9 / Math.max(1, elapsed);
+        System.out.printf("[benchmark] %s: %.0f ops/s (%.1f ns/op)%n", name, ops, elapsed / (double) iterations);
+        return ops;
+    }
+
+    /**
+     * Bytes alocados pela thread atual durante a operação, ou -1 se a JVM não informar
+     */
+    static long allocatedBytes(Runnable op) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return -1;
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+        if (!sun.isThreadAllocatedMemorySupported() || !sun.isThreadAllocatedMemoryEnabled()) return -1;
+        long id = Thread.currentThread().getId();
+        long before = sun.getThreadAllocatedBytes(id);
+        op.run();
+        return sun.getThreadAllocatedBytes(id) - before;
+    }
+
+    /**
+     * Heap em uso depois de pedir coleta (para testes de carga que verificam crescimento)
+     */
+    static long usedHeapAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
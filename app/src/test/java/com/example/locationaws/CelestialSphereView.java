@@ -7,6 +7,7 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.location.GnssStatus;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
@@ -69,18 +70,23 @@ public class CelestialSphereView extends View {
     }
 
     public void updateSatellites(GnssStatus status) {
+        updateSatellites(GnssHub.toSnapshot(status, SystemClock.elapsedRealtimeNanos()));
+    }
+
+    // Mesma atualização a partir de um SatelliteSnapshot (GnssHub, dados sintéticos, testes)
+    public void updateSatellites(SatelliteSnapshot snapshot) {
         List<SatelliteInfo> updated = new ArrayList<>();
         int visible = 0;
         int used = 0;
 
-        for (int i = 0; i < status.getSatelliteCount(); i++) {
-            int constType = status.getConstellationType(i);
+        for (int i = 0; i < snapshot.size(); i++) {
+            int constType = snapshot.getConstellation(i);
             if (!enabledConstellations.contains(constType)) continue;
 
-            int svid = status.getSvid(i);
-            float az = status.getAzimuthDegrees(i);
-            float el = status.getElevationDegrees(i);
-            boolean usedInFix = status.usedInFix(i);
+            int svid = snapshot.getSvid(i);
+            float az = snapshot.getAzimuth(i);
+            float el = snapshot.getElevation(i);
+            boolean usedInFix = snapshot.isUsedInFix(i);
 
             if (!showNonFix && !usedInFix) {
                 continue; // skip satellites not used in fix if option disabled
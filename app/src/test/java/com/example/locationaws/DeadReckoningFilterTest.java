@@ -0,0 +1,161 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DeadReckoningFilterTest {
+
+    private static final double LAT = -23.55, LON = -46.63;
+    private static final double M_LAT = 1 / 111_195.08;
+    private static final double M_LON = M_LAT / Math.cos(Math.toRadians(LAT));
+    private static final long MS = 1_000_000L;
+
+    /**
+     * Carro simulado com o celular deitado num suporte girado 30° em relação ao veículo.
+     * Sensores com ruído e viés; fixes a cada 2 s com 3 m de erro, entregues 300 ms depois.
+     * Compara o erro da estimativa (a cada 20 ms) com o de repetir o último fix entregue.
+     */
+    @Test
+    public void beatsHoldingLastFixByFactorTwo() {
+        Random random = new Random(7);
+        double mount = Math.toRadians(30);
+        double gyroBias = 0.005, accelBias = 0.02;
+
+        SensorRing ring = new SensorRing(1024);
+        DeadReckoningFilter filter = new DeadReckoningFilter();
+
+        double east = 0, north = 0, heading = Math.toRadians(80), speed = 0;
+        GnssFix pending = null, delivered = null;
+        long pendingAt = 0;
+        double errDr = 0, errHold = 0;
+        int n = 0;
+
+        for (long ms = 0; ms <= 180_000; ms++) {
+            double t = ms / 1000.0;
+            // Perfil: arranca, mantém ~15 m/s com variações e faz curvas suaves
+            double accel = t < 10 ? 1.5 : 0.6 * Math.cos(t / 7);
+            double turn = t < 10 ? 0 : 0.12 * Math.sin(t / 9);
+            speed += accel * 0.001;
+            heading += turn * 0.001;
+            east += speed * Math.sin(heading) * 0.001;
+            north += speed * Math.cos(heading) * 0.001;
+            long nanos = 1_000_000_000L + ms * MS;
+
+            double yaw = heading - mount; // rumo do aparelho
+            if (ms % 10 == 0) {
+                // Aceleração no mundo (longitudinal + centrípeta) para o referencial do aparelho
+                double aE = accel * Math.sin(heading) + speed * turn * Math.cos(heading);
+                double aN = accel * Math.cos(heading) - speed * turn * Math.sin(heading);
+                double ax = Math.cos(yaw) * aE - Math.sin(yaw) * aN;
+                double ay = Math.sin(yaw) * aE + Math.cos(yaw) * aN;
+                ring.offer(SensorRing.TYPE_ACCELEROMETER, nanos, (float) (ax + accelBias + 0.05 * random.nextGaussian()),
+                        (float) (ay + accelBias + 0.05 * random.nextGaussian()), (float) (9.81 + 0.05 * random.nextGaussian()), 0);
+                ring.offer(SensorRing.TYPE_GYROSCOPE, nanos, (float) (0.01 * random.nextGaussian()),
+                        (float) (0.01 * random.nextGaussian()), (float) (-turn + gyroBias + 0.01 * random.nextGaussian()), 0);
+            }
+            if (ms % 20 == 5) {
+                double noisy = -(yaw + 0.03 * random.nextGaussian()) / 2;
+                ring.offer(SensorRing.TYPE_ROTATION_VECTOR, nanos, 0, 0, (float) Math.sin(noisy), Float.NaN);
+            }
+
+            // Fix medido agora, entregue 300 ms depois
+            if (ms % 2000 == 0) {
+                pending = new GnssFix();
+                pending.source = GnssFix.SOURCE_GPS;
+                pending.elapsedRealtimeNanos = nanos;
+                pending.latitude = LAT + (north + 3 * random.nextGaussian()) * M_LAT;
+                pending.longitude = LON + (east + 3 * random.nextGaussian()) * M_LON;
+                pending.accuracy = 3;
+                pending.speed = (float) Math.max(0, speed + 0.2 * random.nextGaussian());
+                pending.bearing = (float) ((Math.toDegrees(heading) + 2 * random.nextGaussian() + 360) % 360);
+                pendingAt = ms + 300;
+            }
+            if (pending != null && ms == pendingAt) {
+                ring.drain(filter);
+                filter.onFix(pending);
+                delivered = pending;
+                pending = null;
+            }
+
+            // Saída a 50 Hz (depois de 30 s, com o desvio de montagem já aprendido)
+            if (ms % 20 == 0) {
+                ring.drain(filter);
+                if (delivered != null && t > 30) {
+                    GnssFix out = new GnssFix();
+                    filter.estimate(nanos, out);
+                    assertEquals(GnssFix.SOURCE_DEAD_RECKONING, out.getSource());
+                    errDr += sq(distance(out, east, north));
+                    errHold += sq(distance(delivered, east, north));
+                    n++;
+                }
+            }
+        }
+        double rmsDr = Math.sqrt(errDr / n), rmsHold = Math.sqrt(errHold / n);
+        System.out.printf("[dead reckoning] RMS %.1f m (último fix: %.1f m), erro de rumo %.1f°%n",
+                rmsDr, rmsHold, wrapDegrees(filter.getHeadingDegrees() - Math.toDegrees(heading)));
+        assertEquals(0, ring.getDropped());
+        assertTrue("RMS " + rmsDr + " vs " + rmsHold, rmsDr < 0.5 * rmsHold);
+        assertTrue(Math.abs(wrapDegrees(filter.getHeadingDegrees() - Math.toDegrees(heading))) < 10);
+    }
+
+    @Test
+    public void ring_keepsOrderAndCountsDrops() {
+        SensorRing ring = new SensorRing(6);
+        assertEquals(8, ring.getCapacity());
+        for (int i = 0; i < 10; i++) ring.offer(SensorRing.TYPE_GYROSCOPE, i, i, 0, 0, 0);
+        assertEquals(8, ring.size());
+        assertEquals(2, ring.getDropped());
+
+        long[] seen = new long[8];
+        int[] k = {0};
+        assertEquals(8, ring.drain((type, t, x, y, z, w) -> seen[k[0]++] = t));
+        assertArrayEquals(new long[]{0, 1, 2, 3, 4, 5, 6, 7}, seen);
+        assertEquals(0, ring.size());
+        assertTrue(ring.offer(SensorRing.TYPE_GYROSCOPE, 10, 0, 0, 0, 0));
+    }
+
+    @Test
+    public void noAllocationPerSample() {
+        SensorRing ring = new SensorRing(1024);
+        DeadReckoningFilter filter = new DeadReckoningFilter();
+        GnssFix fix = new GnssFix();
+        fix.latitude = LAT;
+        fix.longitude = LON;
+        fix.speed = 10;
+        fix.bearing = 90;
+        fix.elapsedRealtimeNanos = 0;
+        filter.onFix(fix);
+        long[] t = {0};
+        Runnable burst = () -> {
+            for (int i = 0; i < 500; i++) {
+                t[0] += 5 * MS;
+                ring.offer(SensorRing.TYPE_ACCELEROMETER, t[0], 0.1f, 0.2f, 9.8f, 0);
+                ring.offer(SensorRing.TYPE_GYROSCOPE, t[0], 0, 0, 0.01f, 0);
+                ring.offer(SensorRing.TYPE_ROTATION_VECTOR, t[0], 0, 0, 0.5f, Float.NaN);
+                if (i % 20 == 0) ring.drain(filter);
+            }
+            ring.drain(filter);
+        };
+        burst.run();
+        long bytes = Benchmarks.allocatedBytes(burst);
+        if (bytes >= 0) assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+        assertTrue(filter.getSpeed() >= 0);
+    }
+
+    private static double distance(GnssFix fix, double east, double north) {
+        double de = (fix.getLongitude() - LON) / M_LON - east;
+        double dn = (fix.getLatitude() - LAT) / M_LAT - north;
+        return Math.hypot(de, dn);
+    }
+
+    private static double sq(double v) {
+        return v * v;
+    }
+
+    private static double wrapDegrees(double d) {
+        return ((d % 360) + 540) % 360 - 180;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DopCalculatorTest {
+
+    @Test
+    public void zenithPlusHorizonTriangle_matchesClosedForm() {
+        SatelliteSnapshot s = new SatelliteSnapshot();
+        add(s, GnssConstellation.GPS, 0f, 90f);
+        add(s, GnssConstellation.GPS, 0f, 0f);
+        add(s, GnssConstellation.GPS, 120f, 0f);
+        add(s, GnssConstellation.GPS, 240f, 0f);
+
+        DopCalculator dop = new DopCalculator();
+        dop.compute(s);
+
+        // HᵀH = diag(1.5, 1.5, 1, 4) + termo cruzado u·t = -1
+        // → inversa: e = n = 2/3, u = 4/3, t = 1/3
+        assertEquals(Math.sqrt(4.0 / 3), dop.getHdop(), 1e-5);
+        assertEquals(Math.sqrt(4.0 / 3), dop.getVdop(), 1e-5);
+        assertEquals(Math.sqrt(8.0 / 3), dop.getPdop(), 1e-5);
+        assertEquals(Math.sqrt(1.0 / 3), dop.getTdop(), 1e-5);
+        assertEquals(Math.sqrt(3.0), dop.getGdop(), 1e-5);
+        assertEquals(4, dop.getUsedCount(GnssConstellation.GPS));
+    }
+
+    @Test
+    public void randomSkies_matchGaussJordanInverse() {
+        Random random = new Random(7);
+        DopCalculator dop = new DopCalculator();
+        for (int round = 0; round < 50; round++) {
+            SatelliteSnapshot s = SyntheticSky.generate(4 + random.nextInt(40), round);
+            dop.compute(s);
+
+            double[] q = referenceDiagonal(s);
+            if (q == null) {
+                assertTrue(Float.isNaN(dop.getPdop()));
+                continue;
+            }
+            assertEquals(Math.sqrt(q[0] + q[1]), dop.getHdop(), 1e-3);
+            assertEquals(Math.sqrt(q[2]), dop.getVdop(), 1e-3);
+            assertEquals(Math.sqrt(q[0] + q[1] + q[2] + q[3]), dop.getGdop(), 1e-3);
+        }
+    }
+
+    @Test
+    public void perConstellation_needsFourUsedSatellites() {
+        SatelliteSnapshot s = new SatelliteSnapshot();
+        add(s, GnssConstellation.GPS, 0f, 80f);
+        add(s, GnssConstellation.GPS, 90f, 20f);
+        add(s, GnssConstellation.GPS, 200f, 30f);
+        add(s, GnssConstellation.GPS, 300f, 15f);
+        add(s, GnssConstellation.GALILEO, 45f, 40f);
+        add(s, GnssConstellation.GALILEO, 135f, 25f);
+        s.add(GnssConstellation.GALILEO, 3, 225f, 50f, 40f, 0f, false); // não usado no fix
+
+        DopCalculator dop = new DopCalculator();
+        dop.compute(s);
+
+        assertTrue(dop.isSolvable(GnssConstellation.GPS));
+        assertFalse(dop.isSolvable(GnssConstellation.GALILEO));
+        assertEquals(2, dop.getUsedCount(GnssConstellation.GALILEO));
+        assertEquals(6, dop.getUsedCount());
+        // Mais satélites no conjunto total nunca pioram a geometria
+        assertTrue(dop.getPdop() <= dop.getPdop(GnssConstellation.GPS));
+    }
+
+    @Test
+    public void dualFrequency_countsEachSatelliteOnce() {
+        SatelliteSnapshot single = new SatelliteSnapshot();
+        add(single, GnssConstellation.GPS, 0f, 80f);
+        add(single, GnssConstellation.GPS, 90f, 20f);
+        add(single, GnssConstellation.GPS, 200f, 30f);
+        add(single, GnssConstellation.GPS, 300f, 15f);
+        add(single, GnssConstellation.GALILEO, 45f, 40f);
+
+        // Mesmo céu com L5/E5a de cada satélite; no Galileo só o E5a é usado no fix
+        SatelliteSnapshot dual = new SatelliteSnapshot();
+        for (int i = 0; i < single.size(); i++) {
+            int c = single.getConstellation(i), sv = single.getSvid(i);
+            float az = single.getAzimuth(i), el = single.getElevation(i);
+            boolean galileo = c == GnssConstellation.GALILEO;
+            dual.add(c, sv, az, el, 40f, GnssConstellation.L1_HZ, !galileo);
+            dual.add(c, sv, az, el, 37f, GnssConstellation.L5_HZ, true);
+        }
+
+        DopCalculator a = new DopCalculator();
+        DopCalculator b = new DopCalculator();
+        a.compute(single);
+        b.compute(dual);
+        assertEquals(5, b.getUsedCount());
+        assertEquals(1, b.getUsedCount(GnssConstellation.GALILEO));
+        assertEquals(a.getPdop(), b.getPdop(), 1e-6f);
+        assertEquals(a.getHdop(), b.getHdop(), 1e-6f);
+        assertEquals(a.getGdop(), b.getGdop(), 1e-6f);
+    }
+
+    @Test
+    public void degenerateGeometry_isNaN() {
+        SatelliteSnapshot s = new SatelliteSnapshot();
+        for (int i = 0; i < 5; i++) add(s, GnssConstellation.GPS, 30f, 45f); // todos no mesmo ponto
+        DopCalculator dop = new DopCalculator();
+        dop.compute(s);
+        assertTrue(Float.isNaN(dop.getPdop()));
+        assertTrue(Float.isNaN(dop.getGdop()));
+    }
+
+    @Test
+    public void benchmark_allocationFree() {
+        SatelliteSnapshot s = SyntheticSky.generate(64, 1);
+        DopCalculator dop = new DopCalculator();
+
+        double ops = Benchmarks.opsPerSecond("DopCalculator.compute (64 sinais)", 200_000, () -> dop.compute(s));
+        assertTrue(ops > 50_000);
+
+        long bytes = Benchmarks.allocatedBytes(() -> {
+            for (int i = 0; i < 10_000; i++) dop.compute(s);
+        });
+        if (bytes >= 0) assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+    }
+
+    // ---------- AUXILIARES ----------
+
+    private static void add(SatelliteSnapshot s, int constellation, float azimuth, float elevation) {
+        s.add(constellation, s.size() + 1, azimuth, elevation, 40f, 0f, true);
+    }
+
+    // Diagonal de (HᵀH)⁻¹ montando H explicitamente (Gauss-Jordan com pivotamento), ou null se singular
+    private static double[] referenceDiagonal(SatelliteSnapshot s) {
+        double[][] a = new double[4][8];
+        int used = 0;
+        for (int i = 0; i < s.size(); i++) {
+            if (!s.isUsedInFix(i)) continue;
+            used++;
+            double el = Math.toRadians(s.getElevation(i));
+            double az = Math.toRadians(s.getAzimuth(i));
+            double[] h = {-Math.cos(el) * Math.sin(az), -Math.cos(el) * Math.cos(az), -Math.sin(el), 1};
+            for (int r = 0; r < 4; r++) for (int c = 0; c < 4; c++) a[r][c] += h[r] * h[c];
+        }
+        if (used < 4) return null;
+        for (int r = 0; r < 4; r++) a[r][4 + r] = 1;
+
+        for (int col = 0; col < 4; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < 4; r++) if (Math.abs(a[r][col]) > Math.abs(a[pivot][col])) pivot = r;
+            if (Math.abs(a[pivot][col]) < 1e-9) return null;
+            double[] t = a[col]; a[col] = a[pivot]; a[pivot] = t;
+            double p = a[col][col];
+            for (int c = 0; c < 8; c++) a[col][c] /= p;
+            for (int r = 0; r < 4; r++) {
+                if (r == col) continue;
+                double f = a[r][col];
+                for (int c = 0; c < 8; c++) a[r][c] -= f * a[col][c];
+            }
+        }
+        return new double[]{a[0][4], a[1][5], a[2][6], a[3][7]};
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameStatsTest {
+
+    private static final long VSYNC = FrameStats.DEFAULT_VSYNC_NANOS;
+
+    @Test
+    public void steadyVsync_hasNoJank() {
+        FrameStats stats = new FrameStats();
+        for (int i = 0; i <= 61; i++) stats.onFrame(i * VSYNC, 2_000_000L);
+        assertEquals(60f, stats.getFps(), 1f);
+        assertEquals(0f, stats.getJankPercent(), 0f);
+        assertFalse(stats.getSummary().isEmpty());
+    }
+
+    @Test
+    public void skippedVsyncs_countAsJank() {
+        FrameStats stats = new FrameStats();
+        long t = 0;
+        for (int i = 0; i < 60; i++) {
+            stats.onFrame(t, 1_000_000L);
+            t += (i % 4 == 3) ? 3 * VSYNC : VSYNC; // a cada 4 frames, perde dois vsyncs
+        }
+        assertTrue(stats.getJankPercent() > 20f);
+        assertTrue(stats.getFps() < 50f);
+    }
+}
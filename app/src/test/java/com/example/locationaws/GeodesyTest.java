@@ -0,0 +1,170 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GeodesyTest {
+
+    private static final int POINTS = 100_000;
+
+    private static double dms(int d, int m, double s) {
+        return Math.signum(d) * (Math.abs(d) + m / 60.0 + s / 3600.0);
+    }
+
+    @Test
+    public void ecefRoundTrip() {
+        Random random = new Random(1);
+        int n = 10_000;
+        double[] lat = new double[n], lon = new double[n], alt = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = random.nextDouble() * 179.8 - 89.9;
+            lon[i] = random.nextDouble() * 360 - 180;
+            alt[i] = random.nextDouble() * 10_000 - 100;
+        }
+        double[] x = new double[n], y = new double[n], z = new double[n];
+        double[] lat2 = new double[n], lon2 = new double[n], alt2 = new double[n];
+        Geodesy.geodeticToEcef(lat, lon, alt, x, y, z, n);
+        Geodesy.ecefToGeodetic(x, y, z, lat2, lon2, alt2, n);
+        for (int i = 0; i < n; i++) {
+            assertEquals(lat[i], lat2[i], 1e-9);
+            assertEquals(lon[i], lon2[i], 1e-9);
+            assertEquals(alt[i], alt2[i], 1e-3);
+        }
+
+        Geodesy.geodeticToEcef(new double[]{0}, new double[]{0}, new double[]{0}, x, y, z, 1);
+        assertEquals(Geodesy.WGS84_A, x[0], 1e-6);
+        Geodesy.geodeticToEcef(new double[]{90}, new double[]{0}, new double[]{0}, x, y, z, 1);
+        assertEquals(Geodesy.WGS84_B, z[0], 1e-6);
+    }
+
+    @Test
+    public void enuAroundOrigin() {
+        double lat0 = -23.55, lon0 = -46.63, alt0 = 760;
+        // 100 m acima, e ~111 m ao norte
+        double[] lat = {lat0, lat0 + 0.001}, lon = {lon0, lon0}, alt = {alt0 + 100, alt0};
+        double[] x = new double[2], y = new double[2], z = new double[2];
+        double[] e = new double[2], n = new double[2], u = new double[2];
+        Geodesy.geodeticToEcef(lat, lon, alt, x, y, z, 2);
+        Geodesy.ecefToEnu(lat0, lon0, alt0, x, y, z, e, n, u, 2);
+        assertEquals(0, e[0], 1e-6);
+        assertEquals(0, n[0], 1e-6);
+        assertEquals(100, u[0], 1e-6);
+        assertEquals(0, e[1], 1e-6);
+        assertEquals(110.8, n[1], 0.2);
+        assertEquals(0, u[1], 0.01);
+    }
+
+    @Test
+    public void utmAndMgrs() {
+        double[] lat = {48.858222, -33.8568, 0}, lon = {2.2945, 151.2153, 3};
+        int[] zone = new int[3];
+        double[] e = new double[3], n = new double[3];
+        Geodesy.toUtm(lat, lon, zone, e, n, 3, false);
+        assertEquals(31, zone[0]);
+        // Referência: série de Snyder (USGS PP 1395), independente da de Krüger
+        assertEquals(448251.818, e[0], 0.01);
+        assertEquals(5411935.124, n[0], 0.01);
+        assertEquals(56, zone[1]);
+        assertEquals(334900.570, e[1], 0.01);
+        assertEquals(6252288.753, n[1], 0.01);
+        assertEquals(500_000, e[2], 1e-6);
+        assertEquals(0, n[2], 1e-6);
+
+        assertEquals("31UDQ482119", Geodesy.mgrs(48.858222, 2.2945, 3));
+        assertEquals("56HLH349522", Geodesy.mgrs(-33.8568, 151.2153, 3));
+        assertEquals("31UDQ", Geodesy.mgrs(48.858222, 2.2945, 0));
+        assertNull(Geodesy.mgrs(85, 0, 5));
+
+        // Exceções: sudoeste da Noruega e Svalbard
+        assertEquals(32, Geodesy.utmZone(60.39, 5.32));
+        assertEquals(33, Geodesy.utmZone(78.22, 15.65));
+    }
+
+    @Test
+    public void utmRoundTrip() {
+        Random random = new Random(2);
+        int count = 10_000;
+        double[] lat = new double[count], lon = new double[count];
+        for (int i = 0; i < count; i++) {
+            lat[i] = random.nextDouble() * 160 - 80;
+            lon[i] = random.nextDouble() * 360 - 180;
+        }
+        int[] zone = new int[count];
+        boolean[] south = new boolean[count];
+        double[] e = new double[count], n = new double[count], lat2 = new double[count], lon2 = new double[count];
+        Geodesy.toUtm(lat, lon, zone, e, n, count, false);
+        for (int i = 0; i < count; i++) south[i] = lat[i] < 0;
+        Geodesy.fromUtm(zone, south, e, n, lat2, lon2, count);
+        for (int i = 0; i < count; i++) {
+            // 1e-8° ≈ 1 mm
+            assertEquals(lat[i], lat2[i], 1e-8);
+            assertEquals(lon[i], lon2[i], 1e-8);
+        }
+    }
+
+    @Test
+    public void vincentyAndHaversine() {
+        // Flinders Peak → Buninyong (exemplo clássico do artigo de Vincenty)
+        double[] lat1 = {dms(-37, 57, 3.72030)}, lon1 = {dms(144, 25, 29.52440)};
+        double[] lat2 = {dms(-37, 39, 10.15610)}, lon2 = {dms(143, 55, 35.38390)};
+        double[] distance = new double[1], bearing = new double[1], sphere = new double[1];
+        Geodesy.vincenty(lat1, lon1, lat2, lon2, distance, bearing, 1);
+        assertEquals(54_972.271, distance[0], 1e-3);
+        assertEquals(dms(306, 52, 5.37), bearing[0], 1e-5);
+
+        Geodesy.haversine(lat1, lon1, lat2, lon2, sphere, 1);
+        assertEquals(distance[0], sphere[0], distance[0] * 0.005);
+        double[] track = new double[1];
+        Geodesy.segmentLengths(new double[]{lat1[0], lat2[0]}, new double[]{lon1[0], lon2[0]}, track, 2);
+        assertEquals(sphere[0], track[0], 1e-6);
+        Geodesy.bearing(lat1, lon1, lat2, lon2, sphere, 1);
+        assertEquals(bearing[0], sphere[0], 0.3);
+
+        // Mesmo ponto e pontos antípodas
+        Geodesy.vincenty(lat1, lon1, lat1, lon1, distance, bearing, 1);
+        assertEquals(0, distance[0], 0);
+        Geodesy.vincenty(new double[]{0}, new double[]{0}, new double[]{0.5}, new double[]{179.7}, distance, null, 1);
+        assertTrue(Double.isNaN(distance[0]));
+    }
+
+    @Test
+    public void batchThroughput() {
+        Random random = new Random(3);
+        double[] lat = new double[POINTS], lon = new double[POINTS], alt = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            lat[i] = -23.5 + random.nextDouble() * 0.1;
+            lon[i] = -46.6 + random.nextDouble() * 0.1;
+            alt[i] = 760 + random.nextDouble() * 50;
+        }
+        double[] x = new double[POINTS], y = new double[POINTS], z = new double[POINTS];
+        double[] e = new double[POINTS], n = new double[POINTS], u = new double[POINTS];
+        int[] zone = new int[POINTS];
+
+        Runnable ecef = () -> Geodesy.geodeticToEcef(lat, lon, alt, x, y, z, POINTS);
+        Runnable enu = () -> Geodesy.ecefToEnu(-23.5, -46.6, 760, x, y, z, e, n, u, POINTS);
+        Runnable utm = () -> Geodesy.toUtm(lat, lon, zone, e, n, POINTS, false);
+        Runnable distances = () -> Geodesy.segmentLengths(lat, lon, e, POINTS);
+
+        double ecefPoints = Benchmarks.opsPerSecond("Geodesy.geodeticToEcef (100k pontos)", 30, ecef) * POINTS;
+        double enuPoints = Benchmarks.opsPerSecond("Geodesy.ecefToEnu (100k pontos)", 200, enu) * POINTS;
+        double utmPoints = Benchmarks.opsPerSecond("Geodesy.toUtm (100k pontos)", 20, utm) * POINTS;
+        double segPoints = Benchmarks.opsPerSecond("Geodesy.segmentLengths (100k pontos)", 30, distances) * POINTS;
+        System.out.printf("[benchmark] pontos/s: ECEF %.1fM, ENU %.1fM, UTM %.1fM, haversine %.1fM%n",
+                ecefPoints / 1e6, enuPoints / 1e6, utmPoints / 1e6, segPoints / 1e6);
+        // Limites folgados: a CI pode ser lenta
+        assertTrue(ecefPoints > 1e6);
+        assertTrue(enuPoints > 1e7);
+        assertTrue(segPoints > 1e6);
+
+        long bytes = Benchmarks.allocatedBytes(() -> {
+            ecef.run();
+            enu.run();
+            utm.run();
+            distances.run();
+        });
+        if (bytes >= 0) assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+    }
+}
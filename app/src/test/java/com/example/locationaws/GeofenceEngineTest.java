@@ -0,0 +1,166 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GeofenceEngineTest {
+
+    private static final double LAT = -23.55, LON = -46.63;
+    private static final double METER = 1 / 111_195.0; // graus de latitude por metro
+
+    private static GnssFix fix(double lat, double lon, long millis, float accuracy) {
+        GnssFix f = new GnssFix();
+        f.latitude = lat;
+        f.longitude = lon;
+        f.elapsedRealtimeNanos = millis * 1_000_000L;
+        f.accuracy = accuracy;
+        return f;
+    }
+
+    @Test
+    public void index_pointInPolygonMatchesBruteForce() {
+        Random random = new Random(11);
+        List<Geofence> fences = randomFences(random, 2_000, 0.05);
+        GeofenceIndex index = new GeofenceIndex(fences);
+        assertEquals(2_000, index.size());
+
+        for (int q = 0; q < 5_000; q++) {
+            double lat = LAT + (random.nextDouble() - 0.5) * 0.05;
+            double lon = LON + (random.nextDouble() - 0.5) * 0.05;
+            boolean[] viaIndex = new boolean[fences.size()];
+            int cell = index.cellOf(lat, lon);
+            if (cell >= 0) {
+                for (int k = index.cellStart[cell]; k < index.cellStart[cell + 1]; k++) {
+                    int f = index.cellFences[k];
+                    if (index.contains(f, lat, lon)) viaIndex[f] = true;
+                }
+            }
+            for (int f = 0; f < fences.size(); f++) {
+                assertEquals("cerca " + f, rayCast(fences.get(f), lat, lon), viaIndex[f]);
+            }
+        }
+    }
+
+    // Referência independente do índice: raio para leste cruzando cada aresta do polígono
+    private static boolean rayCast(Geofence fence, double lat, double lon) {
+        boolean inside = false;
+        for (int i = 0, j = fence.getVertexCount() - 1; i < fence.getVertexCount(); j = i++) {
+            double yi = fence.getLatitude(i), yj = fence.getLatitude(j);
+            double xi = fence.getLongitude(i), xj = fence.getLongitude(j);
+            if ((yi > lat) != (yj > lat) && lon < xi + (lat - yi) * (xj - xi) / (yj - yi)) inside = !inside;
+        }
+        return inside;
+    }
+
+    @Test
+    public void enterDwellExit_withHysteresis() {
+        // Quadrado de 100 m x 100 m
+        double h = 50 * METER, w = h / Math.cos(Math.toRadians(LAT));
+        GeofenceEngine engine = new GeofenceEngine(10, 60_000);
+        List<Geofence> fences = new ArrayList<>();
+        fences.add(new Geofence("obra-1", new double[]{LAT - h, LAT - h, LAT + h, LAT + h},
+                new double[]{LON - w, LON + w, LON + w, LON - w}));
+        engine.setFences(fences);
+
+        List<String> events = new ArrayList<>();
+        engine.addListener((event, id, f) -> events.add(event + ":" + id));
+
+        engine.onFix(fix(LAT + 80 * METER, LON, 0, 5));             // fora
+        engine.onFix(fix(LAT, LON, 1_000, 5));                      // entra
+        engine.onFix(fix(LAT + 55 * METER, LON, 2_000, 5));         // 5 m fora: dentro da histerese
+        engine.onFix(fix(LAT, LON, 61_000, 5));                     // 60 s dentro: permanência
+        engine.onFix(fix(LAT, LON, 62_000, 5));
+        engine.onFix(fix(LAT + 70 * METER, LON, 63_000, 30));       // 20 m fora, mas precisão 30 m
+        assertEquals(1, engine.getInsideCount());
+        engine.onFix(fix(LAT + 70 * METER, LON, 64_000, 5));        // 20 m fora: sai
+        engine.onFix(fix(LAT + 10 * METER, LON, 65_000, 5));        // entra de novo
+
+        assertEquals("[1:obra-1, 3:obra-1, 2:obra-1, 1:obra-1]", events.toString());
+        assertArrayEquals(new String[]{"obra-1"}, engine.getInsideIds());
+    }
+
+    @Test
+    public void readAll_parsesWkt() throws IOException {
+        String text = "# cercas de teste\n" +
+                "a;POLYGON((-46.0 -23.0, -45.0 -23.0, -45.0 -22.0, -46.0 -22.0, -46.0 -23.0))\n" +
+                "\n" +
+                "b ; polygon ((0 0, 1 0, 0 1))\n";
+        List<Geofence> fences = Geofence.readAll(new StringReader(text));
+        assertEquals(2, fences.size());
+        assertEquals("a", fences.get(0).getId());
+        assertEquals(4, fences.get(0).getVertexCount()); // vértice de fechamento descartado
+        assertEquals(-23.0, fences.get(0).getLatitude(0), 0);
+        assertEquals(-46.0, fences.get(0).getLongitude(0), 0);
+
+        GeofenceIndex index = new GeofenceIndex(fences);
+        assertTrue(index.contains(0, -22.5, -45.5));
+        assertFalse(index.contains(1, 0.9, 0.9));
+        assertTrue(index.contains(1, 0.2, 0.2));
+
+        try {
+            Geofence.readAll(new StringReader("x;POLYGON((0 0, 1 1))"));
+            fail();
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().startsWith("Linha 1"));
+        }
+    }
+
+    @Test
+    public void benchmark_100kFences() {
+        Random random = new Random(7);
+        // 100 mil canteiros de ~50-150 m espalhados numa região de ~55 km
+        List<Geofence> fences = randomFences(random, 100_000, 0.5);
+        long t0 = System.nanoTime();
+        GeofenceEngine engine = new GeofenceEngine(15, 120_000);
+        engine.setFences(fences);
+        System.out.printf("[benchmark] índice de %d cercas: %.0f ms, %d células%n", fences.size(),
+                (System.nanoTime() - t0) / 1e6, engine.getIndex().getCellCount());
+
+        // Trajeto aleatório a 10 Hz (um fix a cada 100 ms, ~15 m/s)
+        int n = 20_000;
+        GnssFix[] track = new GnssFix[n];
+        double lat = LAT, lon = LON;
+        for (int i = 0; i < n; i++) {
+            lat += (random.nextDouble() - 0.5) * 3 * METER;
+            lon += (random.nextDouble() - 0.5) * 3 * METER;
+            track[i] = fix(lat, lon, i * 100L, 8);
+        }
+        int[] events = new int[1];
+        engine.addListener((event, id, f) -> events[0]++);
+        int[] next = new int[1];
+        double ops = Benchmarks.opsPerSecond("GeofenceEngine.onFix (100k cercas)", n,
+                () -> engine.onFix(track[next[0]++ % n]));
+
+        // 10 Hz num núcleo exige 10 ops/s; a margem aqui é de várias ordens de grandeza
+        assertTrue("onFix lento: " + ops + " ops/s", ops > 10_000);
+        long allocated = Benchmarks.allocatedBytes(() -> engine.onFix(track[0]));
+        if (allocated >= 0) assertTrue("onFix alocou " + allocated + " bytes", allocated < 1024);
+    }
+
+    // Polígonos irregulares (6-12 vértices, raio 50-150 m) espalhados em volta de LAT/LON
+    private static List<Geofence> randomFences(Random random, int count, double spreadDegrees) {
+        List<Geofence> fences = new ArrayList<>(count);
+        double cos = Math.cos(Math.toRadians(LAT));
+        for (int i = 0; i < count; i++) {
+            double cLat = LAT + (random.nextDouble() - 0.5) * spreadDegrees;
+            double cLon = LON + (random.nextDouble() - 0.5) * spreadDegrees;
+            int v = 6 + random.nextInt(7);
+            double[] lat = new double[v], lon = new double[v];
+            for (int k = 0; k < v; k++) {
+                double a = 2 * Math.PI * k / v;
+                double r = (50 + 100 * random.nextDouble()) * METER;
+                lat[k] = cLat + r * Math.sin(a);
+                lon[k] = cLon + r * Math.cos(a) / cos;
+            }
+            fences.add(new Geofence("f" + i, lat, lon));
+        }
+        return fences;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.locationaws;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Servidor real numa porta local livre, com clientes de socket comuns.
+ */
+public class GnssStreamServerTest {
+
+    private final GnssStream<SatelliteSnapshot> status = new GnssStream<>();
+    private final GnssStream<GnssFix> fixes = new GnssStream<>();
+    private final GnssStreamServer server = new GnssStreamServer();
+
+    @Before
+    public void setUp() throws IOException {
+        server.start(0, status, fixes);
+        assertTrue(server.getPort() > 0);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+        assertFalse(server.isRunning());
+    }
+
+    private static SatelliteSnapshot sky(int n, long t) {
+        SatelliteSnapshot s = new SatelliteSnapshot(n);
+        for (int i = 0; i < n; i++) {
+            s.add(1 + i % 6, i + 1, i * 9f, 10 + i % 80, 25 + i % 20, GnssConstellation.L1_HZ, i % 3 != 0);
+        }
+        s.elapsedRealtimeNanos = t;
+        return s;
+    }
+
+    private static GnssFix fix(double lat, double lon) {
+        GnssFix f = new GnssFix();
+        f.source = GnssFix.SOURCE_GPS;
+        f.latitude = lat;
+        f.longitude = lon;
+        f.altitude = 760;
+        f.accuracy = 4;
+        f.hdop = Float.NaN;
+        f.elapsedRealtimeNanos = 42;
+        return f;
+    }
+
+    // Resposta HTTP inteira (o servidor fecha a conexão ao terminar)
+    private String get(String path) throws IOException {
+        return get(path, "");
+    }
+
+    private String get(String path, String headers) throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nHost: x\r\n" + headers + "\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            InputStream in = socket.getInputStream();
+            byte[] buf = new byte[4096];
+            int n;
+            while ((n = in.read(buf)) > 0) out.write(buf, 0, n);
+            return out.toString("UTF-8");
+        }
+    }
+
+    private String getEventually(String path, String expected) throws Exception {
+        String response = "";
+        for (int i = 0; i < 200 && !response.contains(expected); i++) {
+            response = get(path);
+            if (!response.contains(expected)) Thread.sleep(10);
+        }
+        return response;
+    }
+
+    // Cliente WebSocket mínimo: handshake e leitura de quadros do servidor (sem máscara)
+    private static final class Client implements AutoCloseable {
+        final Socket socket;
+        final DataInputStream in;
+
+        Client(int port, String path) throws IOException {
+            socket = new Socket("127.0.0.1", port);
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nHost: x\r\nUpgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                    + "Sec-WebSocket-Version: 13\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            in = new DataInputStream(socket.getInputStream());
+            StringBuilder head = new StringBuilder();
+            while (!head.toString().endsWith("\r\n\r\n")) head.append((char) in.readUnsignedByte());
+            assertTrue(head.toString(), head.toString().startsWith("HTTP/1.1 101"));
+            // Exemplo da RFC 6455, seção 1.3
+            assertTrue(head.toString(), head.toString().contains("s3pPLMBiTxaQ9kYGzzhZRbK+xOo="));
+        }
+
+        int opcode;
+
+        byte[] frame() throws IOException {
+            int b0 = in.readUnsignedByte(), b1 = in.readUnsignedByte();
+            opcode = b0 & 0x0F;
+            long length = b1 & 0x7F;
+            if (length == 126) length = in.readUnsignedShort();
+            else if (length == 127) length = in.readLong();
+            byte[] payload = new byte[(int) length];
+            in.readFully(payload);
+            return payload;
+        }
+
+        void sendMasked(int opcode, byte[] payload) throws IOException {
+            byte[] mask = {1, 2, 3, 4};
+            OutputStream out = socket.getOutputStream();
+            out.write(0x80 | opcode);
+            out.write(0x80 | payload.length);
+            out.write(mask);
+            for (int i = 0; i < payload.length; i++) out.write(payload[i] ^ mask[i & 3]);
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void httpServesLatestJsonAndBinary() throws Exception {
+        assertTrue(get("/fix.json").startsWith("HTTP/1.1 204"));
+        assertTrue(get("/nada").startsWith("HTTP/1.1 404"));
+        assertTrue(get("/ws").startsWith("HTTP/1.1 426"));
+
+        fixes.publish(fix(-23.55, -46.63));
+        status.publish(sky(12, 7));
+        String response = getEventually("/fix.json", "\"lat\"");
+        assertTrue(response, response.contains("\"lat\":-23.55,\"lon\":-46.63"));
+        assertTrue(response, response.contains("\"hdop\":null"));
+        response = getEventually("/status.json", "\"svid\"");
+        assertTrue(response, response.contains("\"t\":7,\"sats\":[{\"c\":1,\"svid\":1,"));
+        assertTrue(response.contains("Content-Type: application/json"));
+        assertTrue(get("/").contains("/ws"));
+    }
+
+    @Test
+    public void otherOriginsCannotReadThePosition() throws Exception {
+        fixes.publish(fix(-23.55, -46.63));
+        String response = getEventually("/fix.json", "\"lat\"");
+        assertFalse(response, response.contains("Access-Control-Allow-Origin"));
+
+        // Página do próprio servidor (Host: x) continua lendo
+        assertTrue(get("/fix.json", "Origin: http://x\r\n").contains("\"lat\""));
+        assertTrue(get("/fix.json", "Origin: http://outro.site\r\n").startsWith("HTTP/1.1 403"));
+        // O navegador não aplica CORS ao WebSocket: o servidor recusa o handshake
+        assertTrue(get("/ws", "Origin: http://outro.site\r\nUpgrade: websocket\r\n"
+                + "Connection: Upgrade\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n")
+                .startsWith("HTTP/1.1 403"));
+    }
+
+    @Test
+    public void webSocketPushesEveryUpdate() throws Exception {
+        fixes.publish(fix(-23.55, -46.63));
+        getEventually("/fix.json", "\"lat\"");
+        try (Client json = new Client(server.getPort(), "/ws");
+             Client binary = new Client(server.getPort(), "/ws?format=bin")) {
+            // Estado atual logo ao conectar
+            String first = new String(json.frame(), StandardCharsets.US_ASCII);
+            assertEquals(0x1, json.opcode);
+            assertTrue(first, first.startsWith("{\"type\":\"fix\""));
+            binary.frame();
+
+            fixes.publish(fix(-22.9, -43.2));
+            assertTrue(new String(json.frame(), StandardCharsets.US_ASCII).contains("\"lat\":-22.9"));
+            byte[] record = binary.frame();
+            assertEquals(0x2, binary.opcode);
+            GnssFix decoded = new GnssFix();
+            assertEquals(SessionFormat.TYPE_FIX,
+                    SessionFormat.readRecord(ByteBuffer.wrap(record), new SatelliteSnapshot(1), decoded));
+            assertEquals(-22.9, decoded.getLatitude(), 0);
+
+            // Ping → pong com o mesmo conteúdo; close → close
+            json.sendMasked(0x9, "oi".getBytes(StandardCharsets.US_ASCII));
+            assertEquals("oi", new String(json.frame(), StandardCharsets.US_ASCII));
+            assertEquals(0xA, json.opcode);
+            json.sendMasked(0x8, new byte[0]);
+            json.frame();
+            assertEquals(0x8, json.opcode);
+            assertEquals(-1, json.in.read());
+        }
+    }
+
+    @Test
+    public void malformedFramesCloseOnlyThatConnection() throws Exception {
+        try (Client huge = new Client(server.getPort(), "/ws");
+             Client unmasked = new Client(server.getPort(), "/ws")) {
+            // Tamanho de 64 bits com o bit alto ligado (negativo como long)
+            OutputStream out = huge.socket.getOutputStream();
+            out.write(new byte[]{(byte) 0x82, (byte) (0x80 | 127), (byte) 0x80, 0, 0, 0, 0, 0, 0, 0, 1, 2, 3, 4});
+            assertEquals(-1, huge.in.read());
+            // Quadro sem máscara
+            unmasked.socket.getOutputStream().write(new byte[]{(byte) 0x89, 2, 'o', 'i'});
+            assertEquals(-1, unmasked.in.read());
+        }
+        assertTrue(server.isRunning());
+        fixes.publish(fix(-23.55, -46.63));
+        String response = getEventually("/fix.json", "\"lat\"");
+        assertTrue(response, response.contains("\"lat\":-23.55"));
+    }
+
+    @Test
+    public void hundredSubscribers_encodeOncePerUpdate() throws Exception {
+        int clients = 100, updates = 300;
+        long lastT = updates;
+        List<Client> list = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+        AtomicLong received = new AtomicLong(), bytes = new AtomicLong(), finished = new AtomicLong();
+        try {
+            for (int k = 0; k < clients; k++) list.add(new Client(server.getPort(), "/ws"));
+            for (Client c : list) {
+                Thread t = new Thread(() -> {
+                    try {
+                        while (true) {
+                            byte[] frame = c.frame();
+                            received.incrementAndGet();
+                            bytes.addAndGet(frame.length);
+                            if (new String(frame, 0, 40, StandardCharsets.US_ASCII).contains("\"t\":" + lastT + ",")) {
+                                finished.incrementAndGet();
+                                return;
+                            }
+                        }
+                    } catch (IOException ignored) {
+                    }
+                });
+                t.start();
+                readers.add(t);
+            }
+            while (server.getConnectionCount() < clients) Thread.sleep(5);
+
+            SatelliteSnapshot[] skies = new SatelliteSnapshot[updates];
+            for (int i = 0; i < updates; i++) skies[i] = sky(40, i + 1);
+            long encodedBefore = server.getEncodedFrames();
+            long start = System.nanoTime();
+            for (int i = 0; i < updates; i++) {
+                status.publish(skies[i]);
+                Thread.sleep(1); // ~1 kHz, bem acima dos 10 Hz do receptor
+            }
+            for (Thread t : readers) t.join(20_000);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            assertEquals(clients, finished.get());
+            long encoded = server.getEncodedFrames() - encodedBefore;
+            assertTrue("codificou " + encoded, encoded <= updates);
+            System.out.printf("[benchmark] GnssStreamServer: %d clientes, %d atualizações codificadas, "
+                            + "%.0f quadros/s, %.1f MB/s, %d descartados%n",
+                    clients, encoded, received.get() / seconds, bytes.get() / seconds / 1e6, server.getDroppedFrames());
+            assertTrue(received.get() >= clients * encoded / 2);
+        } finally {
+            for (Client c : list) c.close();
+        }
+    }
+}
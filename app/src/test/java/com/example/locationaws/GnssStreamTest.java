@@ -0,0 +1,218 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do GnssStream, incluindo 100 Hz com inscritos deliberadamente lentos. Relógio, timer e
+ * executores são controlados pelo teste: "lento" = executor que só roda de tempos em tempos,
+ * sem depender da velocidade da máquina.
+ */
+public class GnssStreamTest {
+
+    @Test
+    public void slowSubscribersDoNotStallPublisherOrEachOther() {
+        AtomicLong now = new AtomicLong();
+        ManualTimer timer = new ManualTimer(now);
+        GnssStream<Integer> stream = new GnssStream<>(null, now::get, timer);
+        int events = 100;
+        AtomicInteger calls = new AtomicInteger();
+
+        // "Tela": latest, atende um evento a cada 5 publicações (5x mais lenta)
+        ManualExecutor uiThread = new ManualExecutor();
+        List<Integer> ui = new ArrayList<>();
+        GnssStream<Integer>.Subscription uiSub = stream.subscribe(e -> {
+            calls.incrementAndGet();
+            ui.add(e);
+        }, GnssStream.Policy.latest(), uiThread);
+
+        // "Gravador": fila grande, roda a cada 3 publicações (atrasa, mas não pode perder nada)
+        ManualExecutor recorderThread = new ManualExecutor();
+        List<Integer> recorder = new ArrayList<>();
+        GnssStream<Integer>.Subscription recorderSub = stream.subscribe(e -> {
+            calls.incrementAndGet();
+            recorder.add(e);
+        }, GnssStream.Policy.buffered(256), recorderThread);
+
+        // Fila pequena e consumidor muito lento (a cada 10): descartes devem ser contados
+        ManualExecutor tinyThread = new ManualExecutor();
+        GnssStream<Integer>.Subscription tinySub = stream.subscribe(e -> calls.incrementAndGet(),
+                GnssStream.Policy.buffered(4), tinyThread);
+
+        // Amostragem a cada 100 ms (~10 Hz), consumidor rápido
+        ManualExecutor sampledThread = new ManualExecutor();
+        GnssStream<Integer>.Subscription sampledSub = stream.subscribe(e -> calls.incrementAndGet(),
+                GnssStream.Policy.sampled(100), sampledThread);
+
+        for (int i = 0; i < events; i++) {
+            // O publicador nunca executa (nem espera) código dos inscritos
+            int before = calls.get();
+            stream.publish(i);
+            assertEquals("publish chamou um inscrito", before, calls.get());
+
+            now.addAndGet(10_000_000L); // 100 Hz
+            timer.runDue();
+            if (i % 5 == 4) uiThread.runAll();
+            if (i % 3 == 2) recorderThread.runAll();
+            if (i % 10 == 9) tinyThread.runAll();
+            sampledThread.runAll();
+        }
+        uiThread.runAll();
+        recorderThread.runAll();
+        tinyThread.runAll();
+
+        // Gravador: todos os eventos, em ordem
+        assertEquals(events, recorder.size());
+        for (int i = 0; i < events; i++) assertEquals(Integer.valueOf(i), recorder.get(i));
+        assertEquals(0, recorderSub.getDropped());
+
+        // Tela: um evento a cada 5, e o último entregue é o último publicado
+        assertEquals(events / 5, ui.size());
+        assertEquals(Integer.valueOf(events - 1), ui.get(ui.size() - 1));
+        assertEquals(events - events / 5, uiSub.getDropped());
+
+        // Fila pequena: 4 de cada 10 entregues, os outros contados como perdidos
+        assertEquals(40, tinySub.getDelivered());
+        assertEquals(60, tinySub.getDropped());
+
+        // Amostragem: 1 s de publicação, o primeiro na hora e depois o último de cada 100 ms
+        assertEquals(11, sampledSub.getDelivered());
+        assertEquals(89, sampledSub.getDropped());
+    }
+
+    @Test
+    public void sampled_deliversAtMostOnePerPeriod() {
+        AtomicLong now = new AtomicLong();
+        ManualTimer timer = new ManualTimer(now);
+        GnssStream<Integer> stream = new GnssStream<>(null, now::get, timer);
+        List<Integer> received = new ArrayList<>();
+        GnssStream<Integer>.Subscription sub = stream.subscribe(received::add,
+                GnssStream.Policy.sampled(100), GnssStream.DIRECT);
+
+        for (int i = 0; i < 100; i++) {
+            stream.publish(i);
+            now.addAndGet(10_000_000L); // 100 Hz
+            timer.runDue();
+        }
+        // 0 na hora; depois 9, 19, ... 99, cada um no fim da sua janela
+        assertEquals(11, received.size());
+        assertEquals(Integer.valueOf(0), received.get(0));
+        for (int k = 1; k < 11; k++) assertEquals(Integer.valueOf(10 * k - 1), received.get(k));
+        assertEquals(89, sub.getDropped());
+    }
+
+    @Test
+    public void sampled_deliversTheLastEventWhenTheWindowCloses() {
+        AtomicLong now = new AtomicLong();
+        ManualTimer timer = new ManualTimer(now);
+        GnssStream<Integer> stream = new GnssStream<>(null, now::get, timer);
+        List<Integer> received = new ArrayList<>();
+        GnssStream<Integer>.Subscription sub = stream.subscribe(received::add,
+                GnssStream.Policy.sampled(100), GnssStream.DIRECT);
+
+        stream.publish(1);
+        now.set(30_000_000L);
+        stream.publish(2);
+        now.set(60_000_000L);
+        stream.publish(3);
+        // O publicador parou: o 3 não pode ficar preso até a próxima publicação
+        now.set(99_000_000L);
+        timer.runDue();
+        assertEquals(Collections.singletonList(1), received);
+        now.set(100_000_000L);
+        timer.runDue();
+        assertEquals(Arrays.asList(1, 3), received);
+        assertEquals(1, sub.getDropped());
+
+        // A entrega do 3 abriu outra janela (100..200 ms)
+        now.set(150_000_000L);
+        stream.publish(4);
+        now.set(300_000_000L);
+        timer.runDue();
+        assertEquals(Arrays.asList(1, 3, 4), received);
+
+        // Depois de uma pausa o primeiro sai na hora
+        now.set(500_000_000L);
+        stream.publish(5);
+        assertEquals(Arrays.asList(1, 3, 4, 5), received);
+
+        // Cancelar descarta o que estava guardado para o fim da janela
+        now.set(550_000_000L);
+        stream.publish(6);
+        sub.cancel();
+        now.set(600_000_000L);
+        timer.runDue();
+        assertEquals(4, received.size());
+    }
+
+    @Test
+    public void subscribe_replaysLastEventAndCountsSubscribers() {
+        AtomicInteger changes = new AtomicInteger();
+        GnssStream<String> stream = new GnssStream<>(changes::incrementAndGet);
+        stream.publish("a");
+        stream.publish("b");
+
+        List<String> got = new ArrayList<>();
+        GnssStream<String>.Subscription sub = stream.subscribe(got::add, GnssStream.Policy.latest(), GnssStream.DIRECT);
+        assertEquals(Collections.singletonList("b"), got);
+        assertEquals(1, stream.getSubscriberCount());
+
+        sub.cancel();
+        stream.publish("c");
+        assertEquals(1, got.size());
+        assertEquals(0, stream.getSubscriberCount());
+        assertEquals(2, changes.get());
+    }
+
+    // ---------- AUXILIARES ----------
+
+    // Timer no relógio do teste: as tarefas só rodam em runDue(), quando já venceram
+    private static final class ManualTimer implements GnssStream.Timer {
+        private final AtomicLong now;
+        private final List<Long> due = new ArrayList<>();
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        ManualTimer(AtomicLong now) {
+            this.now = now;
+        }
+
+        @Override
+        public void schedule(Runnable task, long delayNanos) {
+            due.add(now.get() + delayNanos);
+            tasks.add(task);
+        }
+
+        void runDue() {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (due.get(i) > now.get()) continue;
+                due.remove(i);
+                tasks.remove(i--).run(); // pode agendar de novo
+            }
+        }
+    }
+
+    // "Thread" do inscrito: guarda as tarefas até o teste mandar rodar
+    private static final class ManualExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) task.run();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.locationaws;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import static org.junit.Assert.*;
+
+/**
+ * Teste de carga da GNSSView (Robolectric, gráficos nativos): a SyntheticGnssSource entrega
+ * 500 satélites a 100 Hz e a view filtra e desenha cada atualização, como no aparelho com
+ * a fonte sintética ligada. Verifica o tempo de frame (updateSatellites + draw) e que o
+ * heap não cresce ao longo da sessão.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@Config(sdk = 35)
+public class GnssViewSoakTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 3000; // 30 s a 100 Hz
+
+    // Limites folgados (CI lenta); no aparelho o alvo é um vsync
+    private static final double MAX_P99_FRAME_MS = 100;
+    private static final long MAX_HEAP_GROWTH = 16L * 1024 * 1024;
+
+    @Test
+    public void fiveHundredSatellitesAtHundredHertz() {
+        Context context = RuntimeEnvironment.getApplication();
+        GNSSView view = new GNSSView(context);
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+        Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+
+        SyntheticGnssSource source = new SyntheticGnssSource(SyntheticGnssSource.Config.DEFAULT
+                .withSatellites(SyntheticGnssSource.MAX_SATELLITES)
+                .withRateHz(SyntheticGnssSource.MAX_RATE_HZ)
+                .withCn0Noise(2f)
+                .withDropoutProbability(0.001f)
+                .withTimeScale(60), 42);
+        long period = 1_000_000_000L / SyntheticGnssSource.MAX_RATE_HZ;
+        long t = 0;
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            view.updateSatellites(source.next(t += period));
+            view.draw(canvas);
+        }
+        long heapBefore = Benchmarks.usedHeapAfterGc();
+
+        QuantileSketch frameMs = new QuantileSketch(0.01, 10_000);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            SatelliteSnapshot s = source.next(t += period);
+            long start = System.nanoTime();
+            view.updateSatellites(s);
+            view.draw(canvas);
+            frameMs.add(Math.max(0.01, (System.nanoTime() - start) / 1e6));
+        }
+        long heapGrowth = Benchmarks.usedHeapAfterGc() - heapBefore;
+
+        double p50 = frameMs.quantile(0.5), p99 = frameMs.quantile(0.99);
+        System.out.printf("[soak] gnssview, 500 satélites a 100 Hz, %d frames: p50 %.2f ms, p99 %.2f ms, máx %.2f ms, heap %+d KB%n",
+                MEASURED_FRAMES, p50, p99, frameMs.getMax(), heapGrowth / 1024);
+        assertTrue("p99 " + p99 + " ms", p99 < MAX_P99_FRAME_MS);
+        assertTrue("heap cresceu " + heapGrowth + " bytes", heapGrowth < MAX_HEAP_GROWTH);
+    }
+}
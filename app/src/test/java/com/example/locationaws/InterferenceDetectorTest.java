@@ -0,0 +1,185 @@
+package com.example.locationaws;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Céu real (época u-blox do corpus NMEA) com ruído, seguido de interferência ou spoofing sintéticos.
+ */
+public class InterferenceDetectorTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private InterferenceDetector detector;
+    private final List<String> events = new ArrayList<>();
+    private final Random random = new Random(3);
+    private SatelliteSnapshot sky;
+    private long now;
+
+    @Before
+    public void setUp() throws IOException {
+        detector = new InterferenceDetector();
+        detector.addListener((alert, active, detail) ->
+                events.add((active ? "+" : "-") + InterferenceDetector.alertName(alert)));
+
+        NmeaParser parser = new NmeaParser();
+        InputStream in = getClass().getResourceAsStream("/nmea/ublox_m8_epoch.nmea");
+        assertNotNull(in);
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = r.readLine()) != null) if (!line.startsWith("#")) parser.parse(line);
+        }
+        sky = parser.getSatellites().copy();
+        assertTrue(sky.size() >= 10);
+    }
+
+    // Uma época do céu gravado, com ruído de ±1 dB e o C/N0 deslocado de offsetDb
+    private void epoch(float offsetDb) {
+        SatelliteSnapshot s = sky.copy();
+        for (int i = 0; i < s.count; i++) {
+            if (s.cn0[i] > 0) s.cn0[i] = Math.max(1, s.cn0[i] + offsetDb + (float) random.nextGaussian());
+        }
+        now += SECOND;
+        s.elapsedRealtimeNanos = now;
+        detector.onStatus(s);
+    }
+
+    private void fix(double lat, double lon) {
+        GnssFix f = new GnssFix();
+        f.source = GnssFix.SOURCE_GPS;
+        f.latitude = lat;
+        f.longitude = lon;
+        f.accuracy = 5;
+        f.elapsedRealtimeNanos = now;
+        detector.onFix(f);
+    }
+
+    @Test
+    public void cleanSky_noAlert() {
+        for (int i = 0; i < 300; i++) {
+            epoch(0);
+            fix(48.1173, 11.5167);
+        }
+        assertEquals(InterferenceDetector.ALERT_NONE, detector.getAlert());
+        assertTrue(events.isEmpty());
+        assertTrue(detector.getComparedSignals() >= 10);
+        assertTrue(detector.getCn0Spread() > 3); // céu real: satélites altos e baixos
+    }
+
+    @Test
+    public void acrossTheBoardDrop_raisesAndClearsJamming() {
+        for (int i = 0; i < 40; i++) epoch(0);
+        epoch(-15);
+        assertEquals(InterferenceDetector.ALERT_NONE, detector.getAlert()); // uma época só não basta
+        epoch(-15);
+        assertEquals(InterferenceDetector.ALERT_JAMMING, detector.getAlert());
+        assertTrue(detector.getDetail(), detector.getDetail().contains("GPS"));
+        assertTrue(detector.getConstellationDropDb(GnssConstellation.GPS) > 10);
+
+        // Interferência longa: a referência continua a de antes
+        for (int i = 0; i < 60; i++) epoch(-15);
+        assertEquals(InterferenceDetector.ALERT_JAMMING, detector.getAlert());
+        assertTrue(detector.getMeanDropDb() > 12);
+
+        for (int i = 0; i < 4; i++) epoch(0);
+        assertEquals(InterferenceDetector.ALERT_JAMMING, detector.getAlert());
+        epoch(0);
+        assertEquals(InterferenceDetector.ALERT_NONE, detector.getAlert());
+        assertEquals("[+Interferência (jamming), -Interferência (jamming)]", events.toString());
+    }
+
+    @Test
+    public void permanentStepDown_isLearnedAfterTheFreezeLimit() {
+        for (int i = 0; i < 40; i++) epoch(0);
+        // Degrau de −10 dB que não volta (ex.: antena passou para dentro do carro)
+        int limit = InterferenceDetector.MAX_FREEZE_EPOCHS + InterferenceDetector.WINDOW;
+        int epochs = 0;
+        do {
+            epoch(-10);
+            epochs++;
+        } while (epochs < 2 * limit && (epochs < 3 || detector.getAlert() != InterferenceDetector.ALERT_NONE));
+        assertTrue("desligou em " + epochs + " épocas", epochs <= limit);
+        assertEquals("[+Interferência (jamming), -Interferência (jamming)]", events.toString());
+
+        // O novo normal não liga o alerta de novo
+        for (int i = 0; i < 200; i++) epoch(-10);
+        assertEquals(InterferenceDetector.ALERT_NONE, detector.getAlert());
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    public void signalsVanishing_isJamming() {
+        for (int i = 0; i < 40; i++) epoch(0);
+        SatelliteSnapshot few = sky.copy();
+        few.count = 2;
+        for (int i = 0; i < 3; i++) {
+            now += SECOND;
+            few.elapsedRealtimeNanos = now;
+            detector.onStatus(few);
+        }
+        assertEquals(InterferenceDetector.ALERT_JAMMING, detector.getAlert());
+    }
+
+    @Test
+    public void uniformHighCn0WithJump_isSpoofing() {
+        for (int i = 0; i < 40; i++) {
+            epoch(0);
+            fix(48.1173, 11.5167);
+        }
+        // Um salto de posição com o céu real não é spoofing
+        fix(48.1373, 11.5167);
+        for (int i = 0; i < 5; i++) epoch(0);
+        assertEquals(InterferenceDetector.ALERT_NONE, detector.getAlert());
+
+        // Transmissor em terra: todos os sinais com ~50 dB-Hz, posição salta 2 km
+        SatelliteSnapshot fake = sky.copy();
+        for (int e = 0; e < 5; e++) {
+            for (int i = 0; i < fake.count; i++) fake.cn0[i] = 50 + 0.3f * (float) random.nextGaussian();
+            now += SECOND;
+            fake.elapsedRealtimeNanos = now;
+            detector.onStatus(fake);
+            fix(e == 0 ? 48.1573 : 48.1574, 11.5167);
+        }
+        assertEquals(InterferenceDetector.ALERT_SPOOFING, detector.getAlert());
+        assertTrue(detector.getDetail(), detector.getDetail().contains("salto"));
+        assertTrue(events.contains("+Possível spoofing"));
+    }
+
+    @Test
+    public void constantWorkPerSignal() {
+        // 200 sinais por época (várias constelações e bandas): sem alocação
+        SatelliteSnapshot big = new SatelliteSnapshot(200);
+        float[] carriers = {GnssConstellation.L1_HZ, GnssConstellation.L5_HZ};
+        for (int i = 0; i < 200; i++) {
+            big.add(1 + i % 7, i / 14 + 1, 0, 30, 30 + i % 15, carriers[i % 2], true);
+        }
+        Runnable run = () -> {
+            for (int k = 0; k < 1_000; k++) {
+                now += SECOND;
+                big.elapsedRealtimeNanos = now;
+                detector.onStatus(big);
+            }
+        };
+        run.run();
+        assertEquals(200, detector.getTrackedSignals());
+        double ops = Benchmarks.opsPerSecond("InterferenceDetector.onStatus (200 sinais)", 20_000, () -> {
+            now += SECOND;
+            big.elapsedRealtimeNanos = now;
+            detector.onStatus(big);
+        });
+        assertTrue(ops > 10_000);
+        long bytes = Benchmarks.allocatedBytes(run);
+        if (bytes >= 0) assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LabelPlacerTest {
+
+    private static final int W = 1080;
+    private static final int H = 1920;
+    private static final float LABEL_H = 55f;
+    private static final float DOT_R = 12f;
+
+    /**
+     * Céu sintético: n sinais com muitos amontoados perto do zênite, como acontece
+     * com 4 constelações em dupla frequência
+     */
+    private static class Sky {
+        final int n;
+        final float[] x, y, cn0, width;
+        final boolean[] used;
+
+        Sky(int n, long seed) {
+            this.n = n;
+            x = new float[n];
+            y = new float[n];
+            cn0 = new float[n];
+            width = new float[n];
+            used = new boolean[n];
+            Random r = new Random(seed);
+            float cx = W / 2f, cy = H / 2f, R = 0.9f * cx;
+            for (int i = 0; i < n; i++) {
+                double el = i % 3 == 0 ? 60 + 30 * r.nextDouble() : 90 * r.nextDouble();
+                double az = Math.toRadians(360 * r.nextDouble());
+                double rp = R * Math.cos(Math.toRadians(el));
+                x[i] = (float) (cx + rp * Math.sin(az));
+                y[i] = (float) (cy - rp * Math.cos(az));
+                cn0[i] = 15 + 35 * r.nextFloat();
+                used[i] = r.nextInt(3) == 0;
+                width[i] = 55 + 4 + 17 * (1 + r.nextInt(3)); // bandeira + 1 a 3 dígitos
+            }
+        }
+
+        void place(LabelPlacer placer) {
+            placer.place(n, x, y, used, cn0, width, LABEL_H, DOT_R, W, H);
+        }
+    }
+
+    @Test
+    public void isolatedSatellite_keepsPreferredPosition() {
+        LabelPlacer placer = new LabelPlacer(LABEL_H, 6f);
+        placer.place(1, new float[]{500}, new float[]{900}, new boolean[]{true}, new float[]{40},
+                new float[]{80}, LABEL_H, DOT_R, W, H);
+        assertTrue(placer.isPlaced(0));
+        assertEquals(500 + DOT_R + 6f, placer.getLabelX(0), 1e-3);
+        assertEquals(900 - LABEL_H / 2f, placer.getLabelY(0), 1e-3);
+    }
+
+    @Test
+    public void placedLabels_neverOverlapOrLeaveScreenOrCoverDots() {
+        Sky sky = new Sky(300, 7);
+        LabelPlacer placer = new LabelPlacer(LABEL_H, 6f);
+        sky.place(placer);
+
+        int collapsed = 0;
+        for (int i = 0; i < sky.n; i++) {
+            collapsed += placer.getCollapsedCount(i);
+            if (!placer.isPlaced(i)) continue;
+            float l = placer.getLabelX(i), t = placer.getLabelY(i);
+            float r = l + sky.width[i], b = t + LABEL_H;
+            assertTrue(l >= 0 && t >= 0 && r <= W && b <= H);
+            for (int j = 0; j < sky.n; j++) {
+                if (j == i) continue;
+                // não cobre o ponto de outro satélite
+                assertFalse(l < sky.x[j] + DOT_R && sky.x[j] - DOT_R < r
+                        && t < sky.y[j] + DOT_R && sky.y[j] - DOT_R < b);
+                if (!placer.isPlaced(j)) continue;
+                float l2 = placer.getLabelX(j), t2 = placer.getLabelY(j);
+                assertFalse("rótulos " + i + " e " + j + " sobrepostos",
+                        l < l2 + sky.width[j] && l2 < r && t < t2 + LABEL_H && t2 < b);
+            }
+        }
+        assertTrue(placer.getPlacedCount() > 0);
+        assertTrue(placer.getPlacedCount() + collapsed <= sky.n);
+    }
+
+    @Test
+    public void collision_keepsUsedInFixOverStrongerUnused() {
+        // Dois satélites no mesmo ponto: o usado no Fix escolhe a posição primeiro
+        LabelPlacer placer = new LabelPlacer(LABEL_H, 6f);
+        float[] x = {540, 540};
+        float[] y = {960, 960};
+        boolean[] used = {false, true};
+        float[] cn0 = {50, 20};
+        float[] width = {300, 300};
+
+        placer.place(2, x, y, used, cn0, width, LABEL_H, DOT_R, W, H);
+        assertTrue(placer.isPlaced(1));
+        assertTrue(placer.isPlaced(0)); // vai para o outro lado
+        assertTrue(placer.getLabelX(1) > x[1]); // o usado fica com a posição preferida (direita)
+    }
+
+    @Test
+    public void crowdedCluster_collapsesIntoHigherPriorityLabel() {
+        int n = 40;
+        float[] x = new float[n], y = new float[n], cn0 = new float[n], width = new float[n];
+        boolean[] used = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = 540 + (i % 5);
+            y[i] = 960 + (i / 5);
+            cn0[i] = i;
+            width[i] = 90;
+        }
+        LabelPlacer placer = new LabelPlacer(LABEL_H, 6f);
+        placer.place(n, x, y, used, cn0, width, LABEL_H, 0f, W, H);
+
+        int collapsed = 0;
+        for (int i = 0; i < n; i++) collapsed += placer.getCollapsedCount(i);
+        assertEquals(n, placer.getPlacedCount() + collapsed);
+        assertTrue(placer.isPlaced(n - 1)); // maior C/N0 sempre aparece
+        assertTrue(placer.getPlacedCount() < n);
+    }
+
+    @Test
+    public void steadyState_doesNotAllocate() {
+        Sky sky = new Sky(300, 11);
+        LabelPlacer placer = new LabelPlacer(LABEL_H, 6f);
+        sky.place(placer); // aquecimento: arrays crescem até o tamanho final
+
+        long bytes = Benchmarks.allocatedBytes(() -> {
+            for (int k = 0; k < 1000; k++) sky.place(placer);
+        });
+        if (bytes >= 0) assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+    }
+
+    @Test
+    public void benchmark_upTo300Signals() {
+        for (int n : new int[]{50, 100, 200, 300}) {
+            Sky sky = new Sky(n, n);
+            LabelPlacer placer = new LabelPlacer(LABEL_H, 6f);
+            double ops = Benchmarks.opsPerSecond("LabelPlacer (" + n + " sinais)", 2000, () -> sky.place(placer));
+            // Uma atualização GNSS por segundo: mesmo 300 sinais devem caber folgado em 1 ms
+            assertTrue(ops > 1000);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LatencyTracerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private long now = 1_000 * MS;
+    private final List<String> sections = new ArrayList<>();
+
+    private final LatencyTracer tracer = new LatencyTracer(() -> now, new LatencyTracer.TraceSink() {
+        @Override
+        public void beginSection(String name) {
+            sections.add("+" + name);
+        }
+
+        @Override
+        public void endSection() {
+            sections.add("-");
+        }
+    });
+
+    @Test
+    public void stagesAreCumulativeSinceArrival() {
+        // 100 snapshots: 2 ms até a entrega, 5 ms até o filtro, 16 ms até o frame
+        for (int i = 0; i < 100; i++) {
+            long arrival = now;
+            now += 2 * MS;
+            tracer.mark(LatencyTracer.STATUS_DELIVERED, arrival);
+            now += 3 * MS;
+            tracer.mark(LatencyTracer.STATUS_FILTERED, arrival);
+            now += 11 * MS;
+            tracer.mark(LatencyTracer.STATUS_DRAWN, arrival);
+            now += 100 * MS;
+        }
+        assertEquals(100, tracer.getQuantiles(LatencyTracer.STATUS_DELIVERED).count);
+        assertEquals(2, tracer.getQuantiles(LatencyTracer.STATUS_DELIVERED).p50, 0.05);
+        assertEquals(5, tracer.getQuantiles(LatencyTracer.STATUS_FILTERED).p90, 0.1);
+        assertEquals(16, tracer.getQuantiles(LatencyTracer.STATUS_DRAWN).p99, 0.3);
+        assertEquals(0, tracer.getQuantiles(LatencyTracer.FIX_DRAWN).count);
+
+        tracer.reset();
+        assertEquals(0, tracer.getQuantiles(LatencyTracer.STATUS_DRAWN).count);
+    }
+
+    @Test
+    public void unknownArrivalIsIgnored() {
+        tracer.mark(LatencyTracer.FIX_DELIVERED, 0);
+        tracer.mark(LatencyTracer.FIX_DELIVERED, now + MS); // relógio de outra origem
+        assertEquals(0, tracer.getQuantiles(LatencyTracer.FIX_DELIVERED).count);
+    }
+
+    @Test
+    public void reportListsEveryStage() throws IOException {
+        long arrival = now;
+        now += 40 * MS;
+        tracer.mark(LatencyTracer.FIX_DRAWN, arrival);
+        StringWriter out = new StringWriter();
+        tracer.writeReport(out);
+        String report = out.toString();
+        for (int i = 0; i < LatencyTracer.STAGE_COUNT; i++) {
+            assertTrue(report, report.contains(LatencyTracer.stageName(i)));
+        }
+        assertTrue(report, report.contains("40.0"));
+    }
+
+    @Test
+    public void sectionsGoToSink() {
+        tracer.beginSection("gnss.draw");
+        tracer.endSection();
+        assertEquals("[+gnss.draw, -]", sections.toString());
+
+        LatencyTracer silent = new LatencyTracer(() -> now, LatencyTracer.NO_TRACE);
+        silent.beginSection("gnss.draw");
+        silent.endSection();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.locationaws;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Caster NTRIP 1.0 de mentira para os testes: numa porta local, atende um cliente por vez,
+ * confere ponto de montagem e senha e envia o fluxo gravado em pedaços, depois fecha.
+ */
+final class LocalCaster implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final Thread thread;
+
+    LocalCaster(String mountpoint, String user, String password, byte[] stream, int chunk) throws IOException {
+        server = new ServerSocket(0);
+        String expectedAuth = "Basic " + Base64.getEncoder()
+                .encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        thread = new Thread(() -> {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    String request = readRequest(socket.getInputStream());
+                    OutputStream out = socket.getOutputStream();
+                    if (!request.startsWith("GET /" + mountpoint + " ")) {
+                        out.write("SOURCETABLE 200 OK\r\n\r\nENDSOURCETABLE\r\n".getBytes(StandardCharsets.US_ASCII));
+                    } else if (!request.contains("Authorization: " + expectedAuth)) {
+                        out.write("HTTP/1.0 401 Unauthorized\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                    } else {
+                        out.write("ICY 200 OK\r\n".getBytes(StandardCharsets.US_ASCII));
+                        for (int i = 0; i < stream.length; i += chunk) {
+                            out.write(stream, i, Math.min(chunk, stream.length - i));
+                        }
+                    }
+                    out.flush();
+                } catch (IOException ignored) {
+                    // porta fechada ou cliente saiu
+                }
+            }
+        }, "local-caster");
+        thread.start();
+    }
+
+    int getPort() {
+        return server.getLocalPort();
+    }
+
+    private static String readRequest(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0) {
+            sb.append((char) b);
+            if (sb.length() >= 4 && sb.substring(sb.length() - 4).equals("\r\n\r\n")) break;
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
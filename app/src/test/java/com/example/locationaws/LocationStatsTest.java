@@ -0,0 +1,35 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LocationStatsTest {
+
+    @Test
+    public void tracksIntervalsAndPublishesSummary() {
+        LocationStats stats = new LocationStats();
+        LocationStats.Summary empty = stats.getSummary();
+        assertEquals(0, empty.fixes);
+        assertEquals("--", empty.accuracy.format(1));
+
+        GnssFix fix = new GnssFix();
+        for (int i = 0; i < 100; i++) {
+            long gap = i >= 60 ? 30_000_000_000L : 0; // uma falha de 30 s antes do fix 60
+            fix.elapsedRealtimeNanos = i * 1_000_000_000L + gap;
+            fix.accuracy = 3f + (i % 10);
+            fix.speed = 1.5f;
+            stats.onFix(fix, 8 + i % 3);
+        }
+
+        LocationStats.Summary s = stats.getSummary();
+        assertNotSame(empty, s);
+        assertEquals(100, s.fixes);
+        assertEquals(99, s.interval.count);
+        assertEquals(1.0, s.interval.p50, 0.02);
+        assertEquals(31.0, s.interval.max, 1e-9);
+        assertEquals(7.0, s.accuracy.p50, 0.1);
+        assertEquals(9.0, s.satellites.p50, 0.1);
+        assertEquals(1.5, s.speed.p90, 0.02);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.locationaws;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Testes do NmeaParser com um corpus de sentenças reais (src/test/resources/nmea).
+ */
+public class NmeaParserTest {
+
+    private NmeaParser parser;
+
+    @Before
+    public void setUp() {
+        parser = new NmeaParser();
+    }
+
+    @Test
+    public void ubloxEpoch_fillsFixAndSatellites() throws IOException {
+        for (String s : corpus("ublox_m8_epoch.nmea")) {
+            assertTrue(s, parser.parse(s) > 0);
+        }
+
+        GnssFix fix = parser.getFix();
+        assertEquals(GnssFix.SOURCE_NMEA, fix.getSource());
+        assertEquals(48.1173, fix.getLatitude(), 1e-9);
+        assertEquals(11.516666, fix.getLongitude(), 1e-6);
+        assertEquals(545.4, fix.getAltitude(), 1e-9);
+        assertEquals(GnssFix.QUALITY_GPS, fix.getFixQuality());
+        assertEquals(8, fix.getSatellitesUsed());
+        assertEquals(0.94f, fix.getHdop(), 1e-6f);
+        assertEquals(1.65f, fix.getPdop(), 1e-6f);
+        assertEquals(1.36f, fix.getVdop(), 1e-6f);
+        assertEquals(1.36f, fix.getAccuracy(), 0.01f); // GST: hypot(1.1, 0.8)
+        assertEquals(764426119000L, fix.getTimeMillis()); // 1994-03-23 12:35:19 UTC
+
+        SatelliteSnapshot sats = parser.getSatellites();
+        assertEquals(15, sats.size());
+
+        int gps15 = sats.indexOfSatellite(GnssConstellation.GPS, 15);
+        assertTrue(gps15 >= 0);
+        assertEquals(43f, sats.getCn0(gps15), 0f);
+        assertEquals(50f, sats.getElevation(gps15), 0f);
+        assertEquals(110f, sats.getAzimuth(gps15), 0f);
+        assertEquals(GnssConstellation.L1_HZ, sats.getCarrierHz(gps15), 0f);
+        assertTrue(sats.isUsedInFix(gps15));
+        assertFalse(sats.isUsedInFix(sats.indexOfSatellite(GnssConstellation.GPS, 24)));
+
+        // PRN NMEA 46 → SBAS svid 133; PRN 77 → GLONASS slot 13
+        assertTrue(sats.indexOfSatellite(GnssConstellation.SBAS, 133) >= 0);
+        assertTrue(sats.isUsedInFix(sats.indexOfSatellite(GnssConstellation.GLONASS, 13)));
+        assertFalse(sats.isUsedInFix(sats.indexOfSatellite(GnssConstellation.GLONASS, 24)));
+
+        int gal3 = sats.indexOfSatellite(GnssConstellation.GALILEO, 3);
+        assertTrue(sats.isUsedInFix(gal3));
+        assertEquals(GnssConstellation.L1_HZ, sats.getCarrierHz(gal3), 0f);
+        assertEquals(8, sats.usedCount()); // 5 GPS + 2 GLONASS + 1 Galileo
+    }
+
+    @Test
+    public void classicNmea2_parsesAndSkipsUnsupported() throws IOException {
+        List<String> lines = corpus("classic_nmea2.nmea");
+        for (int i = 0; i < 6; i++) parser.parse(lines.get(i));
+
+        GnssFix fix = parser.getFix();
+        assertEquals(53.36133667, fix.getLatitude(), 1e-7);
+        assertEquals(-6.50562, fix.getLongitude(), 1e-7);
+        assertEquals(0.02f * 0.514444f, fix.getSpeed(), 1e-5f);
+        assertEquals(31.66f, fix.getBearing(), 1e-4f);
+        assertEquals(1306574870000L, fix.getTimeMillis()); // 2011-05-28 09:27:50 UTC
+
+        SatelliteSnapshot sats = parser.getSatellites();
+        assertEquals(11, sats.size());
+        assertEquals(8, sats.usedCount());
+        assertTrue(sats.indexOfSatellite(GnssConstellation.SBAS, 123) >= 0); // PRN 36, sem az/el
+
+        for (int i = 6; i < lines.size(); i++) parser.parse(lines.get(i));
+        assertEquals(GnssFix.QUALITY_INVALID, fix.getFixQuality());
+        assertEquals(NmeaParser.RESULT_UNSUPPORTED, parser.parse(lines.get(lines.size() - 1)));
+        assertEquals(0, parser.getChecksumErrors());
+    }
+
+    @Test
+    public void invalidSentences_areRejected() throws IOException {
+        for (String s : corpus("invalid.nmea")) {
+            assertEquals(s, NmeaParser.RESULT_INVALID, parser.parse(s));
+        }
+        assertEquals(1, parser.getChecksumErrors());
+        assertEquals(3, parser.getFormatErrors());
+        assertFalse(parser.getFix().hasPosition());
+    }
+
+    @Test
+    public void gsvSequence_replacesPreviousSatellitesOfSameGroup() {
+        parser.parse("$GAGSV,1,1,02,03,42,080,39,30,17,316,,7*77");
+        parser.parse("$GPGSV,1,1,01,05,19,059,28*" + checksum("GPGSV,1,1,01,05,19,059,28"));
+        assertEquals(3, parser.getSatellites().size());
+
+        // Nova sequência Galileo com outro satélite: os antigos do grupo saem, o GPS fica
+        String body = "GAGSV,1,1,01,11,60,200,44,7";
+        parser.parse("$" + body + "*" + checksum(body));
+        SatelliteSnapshot sats = parser.getSatellites();
+        assertEquals(2, sats.size());
+        assertEquals(-1, sats.indexOfSatellite(GnssConstellation.GALILEO, 3));
+        assertTrue(sats.indexOfSatellite(GnssConstellation.GALILEO, 11) >= 0);
+        assertTrue(sats.indexOfSatellite(GnssConstellation.GPS, 5) >= 0);
+    }
+
+    @Test
+    public void gnGsvSequence_replacesPreviousMixedSatellites() {
+        String galileo = "GAGSV,1,1,01,03,42,080,39";
+        parser.parse("$" + galileo + "*" + checksum(galileo));
+        // GN: GPS e GLONASS na mesma sequência, separados pela faixa de PRN
+        String first = "GNGSV,1,1,02,05,19,059,28,70,40,120,35";
+        parser.parse("$" + first + "*" + checksum(first));
+        SatelliteSnapshot sats = parser.getSatellites();
+        assertEquals(3, sats.size());
+        assertTrue(sats.indexOfSatellite(GnssConstellation.GLONASS, 6) >= 0);
+
+        String next = "GNGSV,1,1,01,12,30,100,40";
+        parser.parse("$" + next + "*" + checksum(next));
+        assertEquals(2, sats.size());
+        assertEquals(-1, sats.indexOfSatellite(GnssConstellation.GPS, 5));
+        assertEquals(-1, sats.indexOfSatellite(GnssConstellation.GLONASS, 6));
+        assertTrue(sats.indexOfSatellite(GnssConstellation.GPS, 12) >= 0);
+        assertTrue(sats.indexOfSatellite(GnssConstellation.GALILEO, 3) >= 0);
+    }
+
+    @Test
+    public void byteAndCharBuffers_giveSameResultAsString() throws IOException {
+        String s = corpus("classic_nmea2.nmea").get(0);
+        byte[] bytes = (s + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        assertEquals(NmeaParser.RESULT_GGA, parser.parse(bytes, 0, bytes.length));
+        double lat = parser.getFix().getLatitude();
+
+        NmeaParser other = new NmeaParser();
+        char[] chars = ("xx" + s).toCharArray();
+        assertEquals(NmeaParser.RESULT_GGA, other.parse(chars, 2, s.length()));
+        assertEquals(lat, other.getFix().getLatitude(), 0);
+    }
+
+    @Test
+    public void steadyStateParsing_doesNotAllocate() throws IOException {
+        String[] epoch = corpus("ublox_m8_epoch.nmea").toArray(new String[0]);
+        Runnable parseEpoch = () -> {
+            for (String s : epoch) parser.parse(s);
+        };
+        for (int i = 0; i < 10_000; i++) parseEpoch.run(); // aquecimento
+
+        long bytes = Benchmarks.allocatedBytes(() -> {
+            for (int i = 0; i < 10_000; i++) parseEpoch.run();
+        });
+        assumeTrue(bytes >= 0);
+        assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+    }
+
+    @Test
+    public void benchmark_sentencesPerSecond() throws IOException {
+        List<String> all = new ArrayList<>(corpus("ublox_m8_epoch.nmea"));
+        all.addAll(corpus("classic_nmea2.nmea"));
+        String[] sentences = all.toArray(new String[0]);
+        // Aquecimento longo o bastante para o JIT otimizar o laço inteiro (~2 M sentenças)
+        int rounds = 100_000;
+
+        double epochs = Benchmarks.opsPerSecond("NmeaParser (" + sentences.length + " sentenças)", rounds, () -> {
+            for (String s : sentences) parser.parse(s);
+        });
+        double perSecond = epochs * sentences.length;
+        // Um receptor a 10 Hz manda ~50 sentenças/s; o alvo é de milhões por segundo num núcleo.
+        // Só informado: a vazão depende da máquina (a alocação zero é verificada acima)
+        System.out.printf("[benchmark] NmeaParser: %.2f milhões de sentenças/s%n", perSecond / 1e6);
+    }
+
+    // ---------- AUXILIARES ----------
+
+    private List<String> corpus(String name) throws IOException {
+        List<String> lines = new ArrayList<>();
+        InputStream in = getClass().getResourceAsStream("/nmea/" + name);
+        assertNotNull("corpus ausente: " + name, in);
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith("#")) lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static String checksum(String body) {
+        int c = 0;
+        for (int i = 0; i < body.length(); i++) c ^= body.charAt(i);
+        return String.format("%02X", c);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class QuantileSketchTest {
+
+    @Test
+    public void quantiles_withinRelativeAccuracy() {
+        Random random = new Random(3);
+        QuantileSketch sketch = new QuantileSketch(0.01, 100_000);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(1 + 1.5 * random.nextGaussian()); // lognormal, como precisão em metros
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            double exact = values[(int) Math.floor(q * (values.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertEquals("q=" + q, exact, estimate, exact * 0.01 + 1e-9);
+        }
+        assertEquals(values[0], sketch.getMin(), 0);
+        assertEquals(values[values.length - 1], sketch.getMax(), 0);
+    }
+
+    @Test
+    public void merge_equalsSingleSketch() {
+        Random random = new Random(5);
+        QuantileSketch all = new QuantileSketch(0.001, 1000);
+        QuantileSketch a = new QuantileSketch(0.001, 1000);
+        QuantileSketch b = new QuantileSketch(0.001, 1000);
+        for (int i = 0; i < 10_000; i++) {
+            double v = 5 * random.nextDouble();
+            all.add(v);
+            (i % 3 == 0 ? a : b).add(v);
+        }
+        a.merge(b);
+        assertEquals(all.getCount(), a.getCount());
+        for (double q = 0; q <= 1; q += 0.05) assertEquals(all.quantile(q), a.quantile(q), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void merge_rejectsDifferentConfiguration() {
+        new QuantileSketch(0.01, 100).merge(new QuantileSketch(0.01, 1000));
+    }
+
+    @Test
+    public void memory_isFixed_andOutOfRangeIsClamped() {
+        QuantileSketch sketch = new QuantileSketch(1, 512);
+        int buckets = sketch.getBucketCount();
+        for (int i = 0; i < 1_000_000; i++) sketch.add(i % 1000);
+        assertEquals(buckets, sketch.getBucketCount());
+
+        assertEquals(0, sketch.quantile(0), 0);      // zeros no balde zero
+        assertEquals(999, sketch.quantile(1), 0);    // máximo exato, mesmo acima da faixa
+        assertEquals(512, sketch.quantile(0.99), 512 * 0.02); // acima da faixa: último balde
+        assertTrue(Double.isNaN(new QuantileSketch(1, 10).quantile(0.5)));
+    }
+
+    @Test
+    public void benchmark_add() {
+        QuantileSketch sketch = new QuantileSketch(0.01, 100_000);
+        double[] v = new double[1024];
+        Random random = new Random(1);
+        for (int i = 0; i < v.length; i++) v[i] = 100 * random.nextDouble();
+        int[] i = {0};
+
+        // Só informativo: a vazão depende da máquina; o que se garante é não alocar
+        Benchmarks.opsPerSecond("QuantileSketch.add", 2_000_000, () -> sketch.add(v[i[0]++ & 1023]));
+
+        long bytes = Benchmarks.allocatedBytes(() -> {
+            for (int k = 0; k < 100_000; k++) sketch.add(v[k & 1023]);
+        });
+        if (bytes >= 0) assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+        System.out.println("[sketch] " + sketch.getBucketCount() + " baldes (" + sketch.getBucketCount() * 8 + " bytes)");
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Quadros gerados pelo Rtcm3Writer (codificador independente, bit a bit) e um fluxo
+ * "gravado" sintético de várias constelações, servido pelo LocalCaster.
+ */
+public class Rtcm3DecoderTest {
+
+    private static final long EPOCH_MS = 345_600_000L; // quarta-feira 00:00 na semana GPS
+
+    private static final int[] GPS_SATS = {2, 5, 7, 9, 13, 15, 18, 20, 24, 30};
+    private static final int[] GPS_SIGNALS = {2, 15};          // L1 C/A, L2C (L)
+    private static final int[] GAL_SATS = {1, 4, 9, 11, 19, 26, 31, 36};
+    private static final int[] GAL_SIGNALS = {2, 22};          // E1 C, E5a I
+    private static final int[] BDS_SATS = {6, 14, 21, 27, 33, 42};
+    private static final int[] BDS_SIGNALS = {2, 14};          // B1I, B2I
+    private static final int[] GLO_SATS = {3, 11, 17};
+    private static final int[] GLO_SIGNALS = {2};              // L1 C/A
+
+    // ---------- GERAÇÃO ----------
+
+    // Distância determinística por satélite, sinal e época (≈ 20 000–26 000 km)
+    private static double range(int sat, int signal, int epoch) {
+        return 20_000_000 + sat * 157_313.37 + epoch * 612.25 + signal * 1.75;
+    }
+
+    private static byte[] msm(Rtcm3Writer w, int type, int epoch, boolean multiple, int[] sats, int[] signals) {
+        int n = sats.length, g = signals.length;
+        double[][] pr = new double[n][g], cp = new double[n][g], cn0 = new double[n][g], rate = new double[n][g];
+        for (int s = 0; s < n; s++) {
+            for (int k = 0; k < g; k++) {
+                pr[s][k] = range(sats[s], signals[k], epoch);
+                cp[s][k] = pr[s][k] + 3.5 - k;
+                cn0[s][k] = 30 + (sats[s] + 3 * k) % 20 + 0.5;
+                rate[s][k] = -700 + sats[s] * 11.3 + k * 0.01;
+            }
+        }
+        return w.msm(type, messageTime(type, EPOCH_MS + epoch * 1000L), multiple, sats, signals, pr, cp, cn0, rate);
+    }
+
+    // Campo de época da MSM na escala de tempo da constelação, para uma hora GPS da semana
+    private static long messageTime(int type, long gpsMs) {
+        if (type / 10 == 112) return gpsMs - 14_000; // BDT = GPST − 14 s
+        if (type / 10 != 108) return gpsMs;
+        long moscow = gpsMs - 18_000 + 3 * 3_600_000L; // UTC + 3 h
+        return (moscow / 86_400_000L % 7) << 27 | moscow % 86_400_000L;
+    }
+
+    private static Rtcm3Decoder.Ephemeris ephemeris(int svid) {
+        Rtcm3Decoder.Ephemeris e = new Rtcm3Decoder.Ephemeris();
+        e.svid = svid;
+        e.week = 2345 % 1024;
+        e.accuracy = 2;
+        e.health = 0;
+        e.iode = 77;
+        e.iodc = 77;
+        e.toc = 352_800;
+        e.toe = 352_800;
+        e.af0 = 1.2345e-4;
+        e.af1 = -2.5e-12;
+        e.af2 = 0;
+        e.crs = 45.25;
+        e.crc = 210.5;
+        e.cuc = 2.1e-6;
+        e.cus = 8.4e-6;
+        e.cic = -1.1e-7;
+        e.cis = 5.6e-8;
+        e.deltaN = 4.5e-9;
+        e.idot = 3.2e-10;
+        e.omegaDot = -8.1e-9;
+        e.m0 = 1.234 - svid * 0.1;
+        e.omega0 = -2.1 + svid * 0.2;
+        e.i0 = 0.96;
+        e.omega = 0.75;
+        e.eccentricity = 0.0123;
+        e.sqrtA = 5153.65;
+        e.tgd = -1.1e-8;
+        e.fitInterval = false;
+        return e;
+    }
+
+    /**
+     * Fluxo típico de uma estação: por segundo GPS MSM7 + Galileo MSM7 + BeiDou MSM4 numa
+     * época só, a cada 10 s a 1005, efemérides e uma mensagem não tratada (1230)
+     */
+    static byte[] recording(int seconds) {
+        Rtcm3Writer w = new Rtcm3Writer();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int t = 0; t < seconds; t++) {
+            if (t % 10 == 0) {
+                out.writeBytes(w.station(2003, 4_114_104.5999, -850_729.7108, 4_775_521.4643));
+                out.writeBytes(w.gpsEphemeris(ephemeris(GPS_SATS[t / 10 % GPS_SATS.length])));
+                w.begin(1230);
+                w.put(2003, 12);
+                w.put(0, 12);
+                out.writeBytes(w.end());
+            }
+            out.writeBytes(msm(w, 1077, t, true, GPS_SATS, GPS_SIGNALS));
+            out.writeBytes(msm(w, 1097, t, true, GAL_SATS, GAL_SIGNALS));
+            out.writeBytes(msm(w, 1124, t, false, BDS_SATS, BDS_SIGNALS));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] hex(String s) {
+        String[] parts = s.trim().split("\\s+");
+        byte[] b = new byte[parts.length];
+        for (int i = 0; i < b.length; i++) b[i] = (byte) Integer.parseInt(parts[i], 16);
+        return b;
+    }
+
+    // Pseudodistância reconstruída como um GnssMeasurement (fullBias = bias = 0)
+    private static double pseudorange(MeasurementSnapshot m, int i) {
+        long nanos = m.clockTimeNanos - m.receivedSvTimeNanos[i];
+        return (nanos + m.timeOffsetNanos[i]) * 1e-9 * Rtcm3Decoder.SPEED_OF_LIGHT;
+    }
+
+    private static int indexOf(MeasurementSnapshot m, int constellation, int svid, float carrier) {
+        for (int i = 0; i < m.count; i++) {
+            if (m.constellation[i] == constellation && m.svid[i] == svid && m.carrierHz[i] == carrier) return i;
+        }
+        return -1;
+    }
+
+    // ---------- QUADROS ----------
+
+    @Test
+    public void crcMatchesBitwiseReference() {
+        byte[] frame = new Rtcm3Writer().station(1, 1, 2, 3);
+        int n = frame.length - 3;
+        int crc = (frame[n] & 0xFF) << 16 | (frame[n + 1] & 0xFF) << 8 | frame[n + 2] & 0xFF;
+        assertEquals(crc, Rtcm3Decoder.crc24q(frame, 0, n));
+        // Um quadro válido tem resto zero com o CRC incluído
+        assertEquals(0, Rtcm3Decoder.crc24q(frame, 0, frame.length));
+    }
+
+    @Test
+    public void decodesSpecificationExample1005() {
+        // Exemplo da norma RTCM 10403 (estação 2003)
+        byte[] frame = hex("D3 00 13 3E D7 D3 02 02 98 0E DE EF 34 B4 BD 62 AC 09 41 98 6F 33 36 0B 98");
+        Rtcm3Decoder d = new Rtcm3Decoder();
+        assertEquals(1005, d.next(ByteBuffer.wrap(frame)));
+        assertEquals(0, d.getCrcErrors());
+        assertEquals(2003, d.getStationId());
+        assertEquals(1114104.5999, d.getStationX(), 1e-6);
+        assertEquals(-4850729.7108, d.getStationY(), 1e-6);
+        assertEquals(3975521.4643, d.getStationZ(), 1e-6);
+    }
+
+    @Test
+    public void decodesMsm7AndMsm4IntoOneEpoch() {
+        Rtcm3Writer w = new Rtcm3Writer();
+        Rtcm3Decoder d = new Rtcm3Decoder();
+        d.setArrivalTime(123_456_789L);
+        ByteBuffer in = ByteBuffer.wrap(recording(3));
+        int msm = 0;
+        int type;
+        while ((type = d.next(in)) != Rtcm3Decoder.NEED_MORE) {
+            if (type == 1124) msm++;
+            if (msm == 3) break; // terceira época completa
+        }
+        assertTrue(d.isEpochComplete());
+        MeasurementSnapshot m = d.getMeasurements();
+        assertEquals(GPS_SATS.length * 2 + GAL_SATS.length * 2 + BDS_SATS.length * 2, m.count);
+        assertEquals((EPOCH_MS + 2000) * 1_000_000L, m.clockTimeNanos);
+        assertEquals(123_456_789L, m.elapsedRealtimeNanos);
+
+        // MSM7: resolução de 2^-29 ms (≈ 0,6 mm) na pseudodistância
+        int i = indexOf(m, GnssConstellation.GPS, 13, GnssConstellation.L2_HZ);
+        assertTrue(i >= 0);
+        assertEquals(range(13, 15, 2), pseudorange(m, i), 1e-3);
+        assertEquals(range(13, 15, 2) + 2.5, m.accumulatedDeltaRangeM[i], 1e-3);
+        assertEquals(30 + (13 + 3) % 20 + 0.5, m.cn0[i], 1e-6);
+        assertEquals(-700 + 13 * 11.3 + 0.01, m.pseudorangeRateMps[i], 1e-4);
+        assertEquals(1 | 8, m.state[i]);
+
+        i = indexOf(m, GnssConstellation.GALILEO, 36, GnssConstellation.L5_HZ);
+        assertTrue(i >= 0);
+        assertEquals(range(36, 22, 2), pseudorange(m, i), 1e-3);
+
+        // MSM4: 2^-24 ms (≈ 2 cm), C/N0 inteiro e sem Doppler
+        i = indexOf(m, GnssConstellation.BEIDOU, 42, GnssConstellation.B1I_HZ);
+        assertTrue(i >= 0);
+        assertEquals(range(42, 2, 2), pseudorange(m, i), 0.02);
+        assertEquals(range(42, 2, 2) + 3.5, m.accumulatedDeltaRangeM[i], 0.01);
+        assertEquals(Math.round(30 + 42 % 20 + 0.5), m.cn0[i], 1e-6);
+        assertTrue(Double.isNaN(m.pseudorangeRateMps[i]));
+        assertEquals(GnssConstellation.E5B_HZ, m.carrierHz[indexOf(m, GnssConstellation.BEIDOU, 42, GnssConstellation.E5B_HZ)], 0f);
+
+        // A mensagem seguinte de outra época começa do zero
+        d.next(ByteBuffer.wrap(msm(w, 1077, 3, false, new int[]{7}, GPS_SIGNALS)));
+        assertEquals(2, m.count);
+        assertEquals((EPOCH_MS + 3000) * 1_000_000L, m.clockTimeNanos);
+    }
+
+    @Test
+    public void glonassAndBeidouEpochsAreConvertedToGpsTime() {
+        Rtcm3Writer w = new Rtcm3Writer();
+        Rtcm3Decoder d = new Rtcm3Decoder();
+        d.next(ByteBuffer.wrap(msm(w, 1077, 5, true, GPS_SATS, GPS_SIGNALS)));
+        d.next(ByteBuffer.wrap(msm(w, 1087, 5, true, GLO_SATS, GLO_SIGNALS)));
+        d.next(ByteBuffer.wrap(msm(w, 1124, 5, false, BDS_SATS, BDS_SIGNALS)));
+        assertTrue(d.isEpochComplete());
+        MeasurementSnapshot m = d.getMeasurements();
+        assertEquals(GPS_SATS.length * 2 + GLO_SATS.length + BDS_SATS.length * 2, m.count);
+        assertEquals((EPOCH_MS + 5000) * 1_000_000L, m.clockTimeNanos);
+        int i = indexOf(m, GnssConstellation.BEIDOU, 42, GnssConstellation.B1I_HZ);
+        assertEquals(range(42, 2, 5), pseudorange(m, i), 0.02);
+
+        // GLONASS sem dia da semana (7): o dia da época anterior
+        long gps = EPOCH_MS + 5000;
+        long moscow = messageTime(1087, gps) & 0x7FFFFFF;
+        assertEquals(gps, d.gpsTimeOfWeekMs(GnssConstellation.GLONASS, 7L << 27 | moscow));
+        // Virada da semana GPS: sábado 23:59:59 GPST é domingo 02:59:41 em Moscou
+        long last = 7 * 86_400_000L - 1000;
+        assertEquals(last, d.gpsTimeOfWeekMs(GnssConstellation.GLONASS, messageTime(1087, last)));
+        assertEquals(13_000, d.gpsTimeOfWeekMs(GnssConstellation.BEIDOU, 7 * 86_400_000L - 1000));
+    }
+
+    @Test
+    public void decodesGpsEphemerisIntoAlmanac() {
+        Rtcm3Decoder.Ephemeris sent = ephemeris(24);
+        Almanac almanac = new Almanac();
+        Rtcm3Decoder d = new Rtcm3Decoder();
+        d.setAlmanac(almanac);
+        assertEquals(1019, d.next(ByteBuffer.wrap(new Rtcm3Writer().gpsEphemeris(sent))));
+
+        Rtcm3Decoder.Ephemeris e = d.getEphemeris();
+        assertEquals(24, e.getSvid());
+        assertEquals(2345 % 1024, e.getWeek());
+        assertEquals(77, e.iode);
+        assertEquals(352_800, e.getToe(), 0);
+        assertEquals(sent.sqrtA, e.getSqrtA(), 0x1p-19);
+        assertEquals(sent.eccentricity, e.getEccentricity(), 0x1p-33);
+        assertEquals(sent.i0, e.getInclination(), 0x1p-31 * Math.PI);
+        assertEquals(sent.m0, e.m0, 0x1p-31 * Math.PI);
+        assertEquals(sent.omegaDot, e.omegaDot, 0x1p-43 * Math.PI);
+        assertEquals(sent.af0, e.getClockBias(), 0x1p-31);
+        assertEquals(sent.af1, e.af1, 0x1p-43);
+        assertEquals(sent.crs, e.crs, 0x1p-5);
+        assertEquals(sent.tgd, e.tgd, 0x1p-31);
+        assertEquals(1, almanac.count);
+    }
+
+    // ---------- ENQUADRAMENTO ----------
+
+    @Test
+    public void resynchronizesAfterGarbageAndCorruption() {
+        Rtcm3Writer w = new Rtcm3Writer();
+        byte[] good = w.station(7, 1, 2, 3);
+        byte[] bad = good.clone();
+        bad[10] ^= 0x40;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[]{0x00, (byte) 0xD3, 0x7F, 0x12}); // preâmbulo falso (bits reservados)
+        out.writeBytes(bad);
+        out.writeBytes(new byte[]{(byte) 0xD3, 0x00}); // quadro cortado
+        out.writeBytes(good);
+        out.writeBytes(new byte[256]); // o quadro cortado "engole" o seguinte até o CRC falhar
+
+        Rtcm3Decoder d = new Rtcm3Decoder();
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+        assertEquals(1005, d.next(in));
+        assertEquals(7, d.getStationId());
+        assertEquals(Rtcm3Decoder.NEED_MORE, d.next(in));
+        assertFalse(in.hasRemaining());
+        assertEquals(1, d.getMessageCount());
+        assertTrue(d.getCrcErrors() >= 1);
+        assertTrue(d.getDiscardedBytes() >= 4 + bad.length);
+    }
+
+    @Test
+    public void splitsAcrossReadsAtEveryByte() {
+        byte[] stream = recording(2);
+        Rtcm3Decoder whole = new Rtcm3Decoder();
+        List<Integer> expected = new ArrayList<>();
+        ByteBuffer in = ByteBuffer.wrap(stream);
+        int type;
+        while ((type = whole.next(in)) != Rtcm3Decoder.NEED_MORE) expected.add(type);
+        assertEquals(3 + 6, expected.size());
+
+        // Um byte por vez, via buffer direto (sem array)
+        Rtcm3Decoder d = new Rtcm3Decoder();
+        List<Integer> got = new ArrayList<>();
+        ByteBuffer one = ByteBuffer.allocateDirect(1);
+        for (byte b : stream) {
+            one.clear();
+            one.put(b).flip();
+            while ((type = d.next(one)) != Rtcm3Decoder.NEED_MORE) got.add(type);
+        }
+        assertEquals(expected, got);
+        assertEquals(0, d.getCrcErrors());
+        assertEquals(0, d.getDiscardedBytes());
+        assertEquals(1, d.getUnsupportedCount()); // 1230
+    }
+
+    // ---------- NTRIP ----------
+
+    @Test
+    public void streamsFromLocalCaster() throws Exception {
+        int seconds = 60;
+        byte[] stream = recording(seconds);
+        try (LocalCaster caster = new LocalCaster("BASE00BRA0", "rover", "s3cret", stream, 1460)) {
+            AtomicInteger epochs = new AtomicInteger();
+            AtomicInteger messages = new AtomicInteger();
+            AtomicReference<IOException> error = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            NtripClient client = new NtripClient(new Rtcm3Decoder(), new NtripClient.Listener() {
+                @Override
+                public void onRtcmMessage(int messageType, Rtcm3Decoder decoder) {
+                    messages.incrementAndGet();
+                    if (Rtcm3Decoder.msmConstellation(messageType) != GnssConstellation.UNKNOWN
+                            && decoder.isEpochComplete()
+                            && decoder.getMeasurements().count == (GPS_SATS.length + GAL_SATS.length + BDS_SATS.length) * 2) {
+                        epochs.incrementAndGet();
+                    }
+                }
+
+                @Override
+                public void onNtripError(IOException e) {
+                    error.set(e);
+                    done.countDown();
+                }
+            });
+            client.start("127.0.0.1", caster.getPort(), "BASE00BRA0", "rover", "s3cret");
+            assertTrue(done.await(10, TimeUnit.SECONDS)); // o caster fecha no fim do fluxo
+            client.stop();
+
+            assertEquals(seconds, epochs.get());
+            assertEquals(seconds * 3 + seconds / 10 * 3, messages.get());
+            assertEquals(stream.length, client.getBytesReceived());
+            assertTrue(error.get().getMessage().contains("encerrou"));
+        }
+    }
+
+    @Test
+    public void reportsRefusedMountpoint() throws Exception {
+        try (LocalCaster caster = new LocalCaster("BASE00BRA0", "rover", "s3cret", new byte[0], 1)) {
+            AtomicReference<IOException> error = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            NtripClient client = new NtripClient(new Rtcm3Decoder(), new NtripClient.Listener() {
+                @Override
+                public void onRtcmMessage(int messageType, Rtcm3Decoder decoder) {
+                    fail("nenhuma mensagem esperada");
+                }
+
+                @Override
+                public void onNtripError(IOException e) {
+                    error.set(e);
+                    done.countDown();
+                }
+            });
+            client.start("127.0.0.1", caster.getPort(), "OUTRO", "rover", "s3cret");
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            client.stop();
+            assertTrue(error.get().getMessage(), error.get().getMessage().contains("SOURCETABLE"));
+        }
+    }
+
+    // ---------- DESEMPENHO ----------
+
+    @Test
+    public void decodesWithoutAllocation() {
+        byte[] stream = recording(600);
+        Rtcm3Decoder d = new Rtcm3Decoder();
+        ByteBuffer in = ByteBuffer.wrap(stream);
+        Runnable pass = () -> {
+            in.clear();
+            while (d.next(in) != Rtcm3Decoder.NEED_MORE) {
+                // só decodifica
+            }
+        };
+        pass.run(); // aquece e dimensiona o MeasurementSnapshot
+        int perPass = 600 * 3 + 60 * 3;
+        double passes = Benchmarks.opsPerSecond("RTCM3 fluxo de 10 min", 200, pass);
+        double mbPerSecond = passes * stream.length / 1e6;
+        System.out.printf("RTCM3: %.0f mensagens/s, %.1f MB/s%n", passes * perPass, mbPerSecond);
+        assertTrue(passes * perPass > 100_000);
+
+        long bytes = Benchmarks.allocatedBytes(pass);
+        assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+    }
+}
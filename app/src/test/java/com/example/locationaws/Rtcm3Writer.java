@@ -0,0 +1,156 @@
+package com.example.locationaws;
+
+import java.util.Arrays;
+
+/**
+ * Codificador RTCM 3 para os testes: escreve bit a bit e calcula o CRC-24Q bit a bit,
+ * de forma independente do Rtcm3Decoder (que lê por bytes e usa tabela).
+ */
+final class Rtcm3Writer {
+
+    static final double RANGE_MS = Rtcm3Decoder.SPEED_OF_LIGHT / 1000;
+
+    private final byte[] buf = new byte[3 + 1023 + 3];
+    private int bit;
+
+    void begin(int type) {
+        Arrays.fill(buf, (byte) 0);
+        bit = 24;
+        put(type, 12);
+    }
+
+    void put(long value, int len) {
+        for (int k = len - 1; k >= 0; k--) {
+            if (((value >>> k) & 1) != 0) buf[bit >>> 3] |= (byte) (0x80 >>> (bit & 7));
+            bit++;
+        }
+    }
+
+    byte[] end() {
+        int length = (bit + 7) / 8 - 3;
+        buf[0] = (byte) 0xD3;
+        buf[1] = (byte) (length >>> 8);
+        buf[2] = (byte) length;
+        int crc = 0;
+        for (int i = 0; i < 3 + length; i++) {
+            crc ^= (buf[i] & 0xFF) << 16;
+            for (int k = 0; k < 8; k++) {
+                crc <<= 1;
+                if ((crc & 0x1000000) != 0) crc ^= 0x1864CFB;
+            }
+        }
+        buf[3 + length] = (byte) (crc >>> 16);
+        buf[4 + length] = (byte) (crc >>> 8);
+        buf[5 + length] = (byte) crc;
+        return Arrays.copyOf(buf, 6 + length);
+    }
+
+    byte[] station(int id, double x, double y, double z) {
+        begin(1005);
+        put(id, 12);
+        put(0, 6);
+        put(0b1110, 4);
+        put(Math.round(x * 1e4), 38);
+        put(0, 2);
+        put(Math.round(y * 1e4), 38);
+        put(0, 2);
+        put(Math.round(z * 1e4), 38);
+        return end();
+    }
+
+    /**
+     * MSM4 ou MSM7 com todas as células presentes. Distâncias em m, C/N0 em dB-Hz, Doppler em m/s.
+     */
+    byte[] msm(int type, long epochMs, boolean multiple, int[] sats, int[] signals,
+               double[][] pseudorange, double[][] phase, double[][] cn0, double[][] rate) {
+        boolean full = type % 10 == 7;
+        begin(type);
+        put(1234, 12);
+        put(epochMs, 30);
+        put(multiple ? 1 : 0, 1);
+        put(0, 3 + 7 + 2 + 2 + 1 + 3);
+        long satMask = 0, sigMask = 0;
+        for (int s : sats) satMask |= Long.MIN_VALUE >>> (s - 1);
+        for (int g : signals) sigMask |= 1L << (32 - g);
+        put(satMask >>> 32, 32);
+        put(satMask, 32);
+        put(sigMask, 32);
+        int cells = sats.length * signals.length;
+        for (int c = 0; c < cells; c++) put(1, 1);
+
+        // Parte grossa por satélite: a do primeiro sinal, arredondada a 1/1024 ms
+        double[] roughMs = new double[sats.length];
+        long[] roughRate = new long[sats.length];
+        for (int s = 0; s < sats.length; s++) {
+            roughMs[s] = Math.floor(pseudorange[s][0] / RANGE_MS * 1024) / 1024;
+            roughRate[s] = Math.round(rate[s][0]);
+        }
+        for (int s = 0; s < sats.length; s++) put((long) Math.floor(roughMs[s]), 8);
+        if (full) for (int s = 0; s < sats.length; s++) put(0, 4);
+        for (int s = 0; s < sats.length; s++) put(Math.round((roughMs[s] - Math.floor(roughMs[s])) * 1024), 10);
+        if (full) for (int s = 0; s < sats.length; s++) put(roughRate[s], 14);
+
+        double prLsb = full ? 0x1p-29 : 0x1p-24, cpLsb = full ? 0x1p-31 : 0x1p-29;
+        for (int s = 0; s < sats.length; s++) {
+            for (int g = 0; g < signals.length; g++) {
+                put(Math.round((pseudorange[s][g] / RANGE_MS - roughMs[s]) / prLsb), full ? 20 : 15);
+            }
+        }
+        for (int s = 0; s < sats.length; s++) {
+            for (int g = 0; g < signals.length; g++) {
+                put(Math.round((phase[s][g] / RANGE_MS - roughMs[s]) / cpLsb), full ? 24 : 22);
+            }
+        }
+        put(0, cells * ((full ? 10 : 4) + 1));
+        for (int s = 0; s < sats.length; s++) {
+            for (int g = 0; g < signals.length; g++) {
+                put(Math.round(full ? cn0[s][g] * 16 : cn0[s][g]), full ? 10 : 6);
+            }
+        }
+        if (full) {
+            for (int s = 0; s < sats.length; s++) {
+                for (int g = 0; g < signals.length; g++) put(Math.round((rate[s][g] - roughRate[s]) * 1e4), 15);
+            }
+        }
+        return end();
+    }
+
+    /**
+     * 1019 com os valores do Ephemeris (ângulos em rad)
+     */
+    byte[] gpsEphemeris(Rtcm3Decoder.Ephemeris e) {
+        double sc = Math.PI;
+        begin(1019);
+        put(e.svid, 6);
+        put(e.week, 10);
+        put(e.accuracy, 4);
+        put(0, 2);
+        put(Math.round(e.idot / sc / 0x1p-43), 14);
+        put(e.iode, 8);
+        put(Math.round(e.toc / 16), 16);
+        put(Math.round(e.af2 / 0x1p-55), 8);
+        put(Math.round(e.af1 / 0x1p-43), 16);
+        put(Math.round(e.af0 / 0x1p-31), 22);
+        put(e.iodc, 10);
+        put(Math.round(e.crs / 0x1p-5), 16);
+        put(Math.round(e.deltaN / sc / 0x1p-43), 16);
+        put(Math.round(e.m0 / sc / 0x1p-31), 32);
+        put(Math.round(e.cuc / 0x1p-29), 16);
+        put(Math.round(e.eccentricity / 0x1p-33), 32);
+        put(Math.round(e.cus / 0x1p-29), 16);
+        put(Math.round(e.sqrtA / 0x1p-19), 32);
+        put(Math.round(e.toe / 16), 16);
+        put(Math.round(e.cic / 0x1p-29), 16);
+        put(Math.round(e.omega0 / sc / 0x1p-31), 32);
+        put(Math.round(e.cis / 0x1p-29), 16);
+        put(Math.round(e.i0 / sc / 0x1p-31), 32);
+        put(Math.round(e.crc / 0x1p-5), 16);
+        put(Math.round(e.omega / sc / 0x1p-31), 32);
+        put(Math.round(e.omegaDot / sc / 0x1p-43), 24);
+        put(Math.round(e.tgd / 0x1p-31), 8);
+        put(e.health, 6);
+        put(0, 1);
+        put(e.fitInterval ? 1 : 0, 1);
+        return end();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class SatelliteFilterTest {
+
+    @Test
+    public void default_matchesOriginalGnssViewSelection() {
+        SatelliteFilter f = SatelliteFilter.DEFAULT;
+        assertTrue(f.accepts(GnssConstellation.GPS, 10, 30, GnssConstellation.L1_HZ, false));
+        assertTrue(f.accepts(GnssConstellation.BEIDOU, 10, 30, 0f, false));
+        assertFalse(f.accepts(GnssConstellation.QZSS, 10, 30, GnssConstellation.L1_HZ, true));
+        assertFalse(f.accepts(GnssConstellation.SBAS, 10, 30, GnssConstellation.L1_HZ, true));
+    }
+
+    @Test
+    public void thresholdsAndUsedOnly() {
+        SatelliteFilter f = SatelliteFilter.DEFAULT.withMinElevation(15).withMinCn0(25).withUsedOnly(true);
+        assertTrue(f.accepts(GnssConstellation.GPS, 15, 25, GnssConstellation.L1_HZ, true));
+        assertFalse(f.accepts(GnssConstellation.GPS, 14.9f, 40, GnssConstellation.L1_HZ, true));
+        assertFalse(f.accepts(GnssConstellation.GPS, 40, 24.9f, GnssConstellation.L1_HZ, true));
+        assertFalse(f.accepts(GnssConstellation.GPS, 40, 40, GnssConstellation.L1_HZ, false));
+    }
+
+    @Test
+    public void bands_classifyCarriers() {
+        assertEquals(GnssConstellation.BAND_L1, GnssConstellation.band(GnssConstellation.G1_HZ + 7 * 0.5625e6f));
+        assertEquals(GnssConstellation.BAND_L1, GnssConstellation.band(GnssConstellation.B1I_HZ));
+        assertEquals(GnssConstellation.BAND_L2, GnssConstellation.band(GnssConstellation.G2_HZ));
+        assertEquals(GnssConstellation.BAND_L5, GnssConstellation.band(GnssConstellation.E5B_HZ));
+        assertEquals(GnssConstellation.BAND_E6, GnssConstellation.band(GnssConstellation.B3I_HZ));
+        assertEquals(GnssConstellation.BAND_UNKNOWN, GnssConstellation.band(0f));
+
+        SatelliteFilter l5Only = SatelliteFilter.DEFAULT.withBand(GnssConstellation.ALL_BANDS, false)
+                .withBand(GnssConstellation.BAND_L5, true);
+        assertTrue(l5Only.accepts(GnssConstellation.GALILEO, 30, 30, GnssConstellation.L5_HZ, true));
+        assertFalse(l5Only.accepts(GnssConstellation.GALILEO, 30, 30, GnssConstellation.L1_HZ, true));
+        assertFalse(l5Only.accepts(GnssConstellation.GALILEO, 30, 30, 0f, true));
+    }
+
+    @Test
+    public void legacyPreferences_areMigrated() {
+        SatelliteFilter f = SatelliteFilter.fromLegacy(new HashSet<>(Arrays.asList("1", "6", "x")), false);
+        assertEquals(SatelliteFilter.bit(GnssConstellation.GPS) | SatelliteFilter.bit(GnssConstellation.GALILEO),
+                f.getConstellationMask());
+        assertTrue(f.isUsedOnly());
+        assertEquals(SatelliteFilter.DEFAULT, SatelliteFilter.fromLegacy(null, true));
+    }
+
+    @Test
+    public void apply_copiesOnlyAcceptedSignals() {
+        SatelliteSnapshot in = SyntheticSky.generate(300, 3);
+        SatelliteSnapshot out = new SatelliteSnapshot();
+        SatelliteFilter f = SatelliteFilter.DEFAULT.withMinCn0(30).withConstellation(GnssConstellation.GLONASS, false);
+
+        int n = f.apply(in, out);
+        assertEquals(n, out.size());
+        int expected = 0;
+        for (int i = 0; i < in.size(); i++) {
+            if (in.getConstellation(i) != GnssConstellation.GLONASS && in.getCn0(i) >= 30) expected++;
+        }
+        assertEquals(expected, n);
+        for (int i = 0; i < n; i++) {
+            assertNotEquals(GnssConstellation.GLONASS, out.getConstellation(i));
+            assertTrue(out.getCn0(i) >= 30);
+        }
+    }
+
+    @Test
+    public void benchmark_300Signals() {
+        SatelliteSnapshot in = SyntheticSky.generate(300, 5);
+        SatelliteSnapshot out = new SatelliteSnapshot(300);
+        SatelliteFilter f = SatelliteFilter.DEFAULT.withMinElevation(10).withMinCn0(20);
+
+        double ops = Benchmarks.opsPerSecond("SatelliteFilter.apply (300 sinais)", 200_000, () -> f.apply(in, out));
+        // Limite folgado para CI; em máquina comum fica bem abaixo de 1 µs por chamada
+        assertTrue(ops > 200_000);
+
+        long bytes = Benchmarks.allocatedBytes(() -> {
+            for (int i = 0; i < 10_000; i++) f.apply(in, out);
+        });
+        if (bytes >= 0) assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SignalAggregatorTest {
+
+    private static final int L1 = GnssConstellation.BAND_L1;
+    private static final int L5 = GnssConstellation.BAND_L5;
+
+    /**
+     * Céu de dupla frequência: n satélites, cada um com L1/E1 e, na maioria, L5/E5a
+     * (o L5 chega ~3 dB abaixo, às vezes sem ser usado)
+     */
+    private static SatelliteSnapshot dualBandSky(int n, long seed) {
+        int[] constellations = {GnssConstellation.GPS, GnssConstellation.GALILEO,
+                GnssConstellation.BEIDOU, GnssConstellation.GLONASS};
+        Random r = new Random(seed);
+        SatelliteSnapshot s = new SatelliteSnapshot(2 * n);
+        for (int i = 0; i < n; i++) {
+            int c = constellations[i % constellations.length];
+            int svid = 1 + i / constellations.length;
+            float az = 360f * r.nextFloat(), el = 90f * r.nextFloat(), cn0 = 20f + 30f * r.nextFloat();
+            s.add(c, svid, az, el, cn0, GnssConstellation.L1_HZ, cn0 > 30f);
+            if (c != GnssConstellation.GLONASS) {
+                s.add(c, svid, az, el, cn0 - 3f, GnssConstellation.L5_HZ, cn0 > 35f);
+            }
+        }
+        return s;
+    }
+
+    @Test
+    public void groupsBandsOfTheSameSatellite() {
+        SatelliteSnapshot s = new SatelliteSnapshot(8);
+        s.add(GnssConstellation.GPS, 5, 100, 40, 40, GnssConstellation.L1_HZ, true);
+        s.add(GnssConstellation.GALILEO, 5, 200, 20, 30, GnssConstellation.L1_HZ, false);
+        s.add(GnssConstellation.GPS, 5, 101, 41, 35, GnssConstellation.L5_HZ, false);
+        s.add(GnssConstellation.GALILEO, 5, 201, 21, 38, GnssConstellation.L5_HZ, true);
+        s.add(GnssConstellation.GLONASS, 5, 300, 60, 25, 0f, false);
+        s.elapsedRealtimeNanos = 123;
+
+        SignalAggregator a = new SignalAggregator(2);
+        a.aggregate(s);
+
+        assertEquals(3, a.size());
+        assertEquals(5, a.getSignalCount());
+        assertEquals(123, a.getElapsedRealtimeNanos());
+        // Ordem do primeiro sinal; mesmo svid em constelações diferentes não se junta
+        assertEquals(GnssConstellation.GPS, a.getConstellation(0));
+        assertEquals(GnssConstellation.GALILEO, a.getConstellation(1));
+        assertEquals(GnssConstellation.GLONASS, a.getConstellation(2));
+
+        // GPS: posição e C/N0 do L1 (mais forte), usado só em L1
+        assertEquals(40f, a.getCn0(0), 0f);
+        assertEquals(100f, a.getAzimuth(0), 0f);
+        assertEquals(L1 | L5, a.getBandMask(0));
+        assertEquals(L1, a.getUsedBandMask(0));
+        assertEquals(35f, a.getBandCn0(0, L5), 0f);
+        assertEquals(0f, a.getBandCn0(0, GnssConstellation.BAND_L2), 0f);
+
+        // Galileo: o E5a é o mais forte e o único usado
+        assertEquals(38f, a.getCn0(1), 0f);
+        assertEquals(201f, a.getAzimuth(1), 0f);
+        assertTrue(a.isUsedInFix(1));
+        assertEquals(L5, a.getUsedBandMask(1));
+
+        assertEquals(GnssConstellation.BAND_UNKNOWN, a.getBandMask(2));
+        assertFalse(a.isUsedInFix(2));
+        assertEquals(2, a.usedCount());
+        assertEquals(1, a.indexOf(GnssConstellation.GALILEO, 5));
+        assertEquals(-1, a.indexOf(GnssConstellation.BEIDOU, 5));
+    }
+
+    @Test
+    public void nextUpdateForgetsThePreviousOne() {
+        SignalAggregator a = new SignalAggregator();
+        a.aggregate(dualBandSky(300, 1)); // tabela cresce
+        assertEquals(300, a.size());
+
+        SatelliteSnapshot s = new SatelliteSnapshot(2);
+        s.add(GnssConstellation.GPS, 1, 0, 10, 20, GnssConstellation.L5_HZ, false);
+        s.add(GnssConstellation.GPS, 2, 0, 10, 22, GnssConstellation.L1_HZ, true);
+        a.aggregate(s);
+        assertEquals(2, a.size());
+        assertEquals(L5, a.getBandMask(0));
+        assertEquals(0f, a.getBandCn0(0, L1), 0f); // nada da atualização anterior
+        assertEquals(1, a.usedCount());
+
+        SignalAggregator copy = new SignalAggregator(1);
+        copy.copyFrom(a);
+        assertEquals(2, copy.size());
+        assertEquals(22f, copy.getBandCn0(1, L1), 0f);
+        assertEquals(L1, copy.getUsedBandMask(1));
+    }
+
+    @Test
+    public void matchesNaiveGrouping() {
+        SatelliteSnapshot s = dualBandSky(200, 7);
+        SignalAggregator a = new SignalAggregator();
+        a.aggregate(s);
+        assertEquals(200, a.size());
+        for (int i = 0; i < s.size(); i++) {
+            int g = a.indexOf(s.getConstellation(i), s.getSvid(i));
+            assertTrue(g >= 0);
+            int band = GnssConstellation.band(s.getCarrierHz(i));
+            assertEquals(s.getCn0(i), a.getBandCn0(g, band), 0f);
+            assertTrue(a.getCn0(g) >= s.getCn0(i));
+            assertEquals((a.getUsedBandMask(g) & band) != 0, s.isUsedInFix(i));
+        }
+    }
+
+    /**
+     * 300 sinais de 4 constelações em dupla frequência: agrupar não aloca, e o layout do
+     * radar (SkyProjection + LabelPlacer, como no SkyPlotRenderer) trabalha com 171
+     * marcadores em vez de 300. Os tempos são só informados.
+     */
+    @Test
+    public void groupingIsFreeAndShrinksTheLayout() {
+        SatelliteSnapshot s = dualBandSky(171, 3);
+        assertEquals(300, s.size());
+        SignalAggregator a = new SignalAggregator();
+        a.aggregate(s);
+        assertEquals(171, a.size());
+
+        double ops = Benchmarks.opsPerSecond("agregação: 300 sinais", 20_000, () -> a.aggregate(s));
+        assertTrue(ops > 10_000);
+        long bytes = Benchmarks.allocatedBytes(() -> {
+            for (int i = 0; i < 1000; i++) a.aggregate(s);
+        });
+        if (bytes >= 0) assertEquals(0, bytes);
+
+        int w = 1080, h = 1920, radius = SkyProjection.radius(w, h);
+        float[] x = new float[a.size()], y = new float[a.size()], cn0 = new float[a.size()];
+        float[] width = new float[a.size()];
+        boolean[] used = new boolean[a.size()];
+        Arrays.fill(width, 55f + 4f + 34f);
+        LabelPlacer placer = new LabelPlacer(55f, 6f);
+        Benchmarks.opsPerSecond("layout: agregação + 171 satélites", 2000, () -> {
+            a.aggregate(s);
+            SkyProjection.project(a, w / 2, h / 2, radius, x, y);
+            for (int i = 0; i < a.size(); i++) {
+                cn0[i] = a.getCn0(i);
+                used[i] = a.isUsedInFix(i);
+            }
+            placer.place(a.size(), x, y, used, cn0, width, 55f, 12f, w, h);
+        });
+        assertEquals(171, placer.size());
+        assertTrue(placer.getPlacedCount() > 0);
+    }
+
+    @Test
+    public void projection_northUpEastRightZenithInTheCenter() {
+        SatelliteSnapshot s = new SatelliteSnapshot(4);
+        s.add(GnssConstellation.GPS, 1, 0, 0, 40, GnssConstellation.L1_HZ, true);    // norte, horizonte
+        s.add(GnssConstellation.GPS, 2, 90, 0, 40, GnssConstellation.L1_HZ, true);   // leste, horizonte
+        s.add(GnssConstellation.GPS, 3, 123, 90, 40, GnssConstellation.L1_HZ, true); // zênite
+        s.add(GnssConstellation.GPS, 4, 180, 60, 40, GnssConstellation.L1_HZ, true); // sul, 60°
+        SignalAggregator a = new SignalAggregator();
+        a.aggregate(s);
+
+        assertEquals(486, SkyProjection.radius(1080, 1920));
+        float[] x = new float[4], y = new float[4];
+        SkyProjection.project(a, 540, 960, 486, x, y);
+        assertEquals(540, x[0], 1e-3);
+        assertEquals(960 - 486, y[0], 1e-3);
+        assertEquals(540 + 486, x[1], 1e-3);
+        assertEquals(960, y[1], 1e-3);
+        assertEquals(540, x[2], 1e-3);
+        assertEquals(960, y[2], 1e-3);
+        assertEquals(540, x[3], 1e-3);
+        assertEquals(960 + 243, y[3], 1e-3);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SkyHeatMapTest {
+
+    /**
+     * Local com um prédio a leste/sudeste (az 90–180°, até 40° de elevação): ali o sinal chega
+     * refletido, fraco e oscilando. 12 satélites que percorrem o céu, 10 Hz por 3 horas.
+     */
+    private static SkyHeatMap site(int hours) {
+        SkyHeatMap map = new SkyHeatMap();
+        SatelliteSnapshot s = new SatelliteSnapshot(12);
+        Random random = new Random(5);
+        for (int k = 0; k < 12; k++) s.add(GnssConstellation.GPS, k + 1, 0, 0, 0, 0, true);
+        int updates = hours * 3600 * 10;
+        for (int t = 0; t < updates; t++) {
+            for (int k = 0; k < 12; k++) {
+                // Cada satélite desenha uma volta no céu a cada ~2 h, em alturas diferentes
+                double phase = t / 72_000.0 * 2 * Math.PI + k;
+                float az = (float) ((Math.toDegrees(phase) * 1.3 + k * 30) % 360);
+                float el = (float) (45 + 44 * Math.sin(phase * 0.7 + k));
+                boolean blocked = az >= 90 && az < 180 && el < 40;
+                s.azimuth[k] = az;
+                s.elevation[k] = el;
+                s.cn0[k] = blocked ? 20 + 4 * (float) random.nextGaussian() : 44 + 0.5f * (float) random.nextGaussian();
+                s.usedInFix[k] = !blocked;
+            }
+            map.add(s);
+        }
+        return map;
+    }
+
+    @Test
+    public void accumulatesObstructionAndMultipath() {
+        SkyHeatMap map = site(3);
+        int blockedBins = 0, openBins = 0;
+        for (int b = 0; b < SkyHeatMap.BINS; b++) {
+            if (map.getSamples(b) < 100) continue;
+            float az = (b % SkyHeatMap.AZ_BINS + 0.5f) * SkyHeatMap.BIN_DEGREES;
+            float el = (b / SkyHeatMap.AZ_BINS + 0.5f) * SkyHeatMap.BIN_DEGREES;
+            if (az >= 90 && az < 180 && el < 40) {
+                blockedBins++;
+                assertEquals(20, map.getCn0Mean(b), 2);
+                assertEquals(0, map.getUsedSamples(b));
+                assertTrue(map.getFluctuation(b) > 3);
+            } else {
+                openBins++;
+                assertEquals(44, map.getCn0Mean(b), 1);
+                assertTrue(map.getFluctuation(b) < 1);
+            }
+        }
+        assertTrue(blockedBins > 10);
+        assertTrue(openBins > 100);
+    }
+
+    @Test
+    public void dualFrequency_comparesEachBandWithItself() {
+        // Sinais estáveis, com o L5 sempre 3 dB abaixo do L1: não é oscilação
+        SkyHeatMap map = new SkyHeatMap();
+        SatelliteSnapshot s = new SatelliteSnapshot(2);
+        s.add(GnssConstellation.GPS, 7, 200, 30, 42, GnssConstellation.L1_HZ, true);
+        s.add(GnssConstellation.GPS, 7, 200, 30, 39, GnssConstellation.L5_HZ, true);
+        for (int i = 0; i < 100; i++) map.add(s);
+        int bin = SkyHeatMap.binOf(200, 30);
+        assertEquals(200, map.getSamples(bin));
+        assertEquals(0, map.getFluctuation(bin), 1e-6);
+    }
+
+    @Test
+    public void fixedMemoryAtTenHertz() {
+        SkyHeatMap map = new SkyHeatMap();
+        SatelliteSnapshot s = new SatelliteSnapshot(40);
+        for (int k = 0; k < 40; k++) s.add(1 + k % 6, k, k * 9f, k * 2f, 30 + k % 15, 0, true);
+        Runnable hour = () -> {
+            for (int t = 0; t < 36_000; t++) map.add(s);
+        };
+        hour.run();
+        long bytes = Benchmarks.allocatedBytes(hour);
+        if (bytes >= 0) assertTrue("alocou " + bytes + " bytes", bytes < 1024);
+        assertTrue(map.getSamples(SkyHeatMap.binOf(0, 0)) >= 72_000);
+        assertEquals(30, map.getCn0Mean(SkyHeatMap.binOf(0, 0)), 1e-3);
+    }
+
+    @Test
+    public void saveAndMergeWeightsByCount() throws IOException {
+        SkyHeatMap a = new SkyHeatMap();
+        SkyHeatMap b = new SkyHeatMap();
+        SatelliteSnapshot s = new SatelliteSnapshot(1);
+        s.add(GnssConstellation.GPS, 1, 10, 50, 40, 0, true);
+        for (int i = 0; i < 300; i++) a.add(s);
+        s.cn0[0] = 20;
+        for (int i = 0; i < 100; i++) b.add(s);
+
+        File file = File.createTempFile("sky", ".bin");
+        try {
+            a.save(file);
+            b.mergeFrom(file);
+        } finally {
+            assertTrue(file.delete());
+        }
+        int bin = SkyHeatMap.binOf(10, 50);
+        assertEquals(400, b.getSamples(bin));
+        assertEquals(400, b.getUsedSamples(bin));
+        assertEquals(35, b.getCn0Mean(bin), 1e-3);
+        assertEquals("-23.55_-46.63", SkyHeatMap.siteKey(-23.5512, -46.6297));
+
+        // Soma de mapa em memória: mesmo resultado que pelo arquivo
+        SkyHeatMap c = new SkyHeatMap();
+        c.mergeFrom(a);
+        c.mergeFrom(b);
+        assertEquals(700, c.getSamples(bin));
+        assertEquals((40 * 300 + 35 * 400) / 700f, c.getCn0Mean(bin), 1e-3);
+    }
+
+    @Test
+    public void raster_repaintsOnlyChangedBins() {
+        SkyHeatMap map = site(1);
+        SkyHeatMapRaster raster = new SkyHeatMapRaster(256);
+        raster.setSource(map);
+        int first = raster.update();
+        assertEquals(SkyHeatMap.BINS, first); // origem nova: imagem inteira
+        assertEquals(0, raster.update());
+
+        // Elevação 12,5° nas bordas leste (obstruída: vermelho) e oeste (aberta: verde)
+        int[] px = raster.getPixels();
+        int east = px[128 * 256 + 252], west = px[128 * 256 + 3];
+        if (map.getSamples(SkyHeatMap.binOf(90, 12.5f)) > 0) assertEquals(0, (east >> 8) & 0xFF, 60);
+        if (map.getSamples(SkyHeatMap.binOf(270, 12.5f)) > 0) assertEquals(255, (west >> 8) & 0xFF);
+        assertEquals(0, px[0]); // fora do círculo
+
+        // Uma amostra nova: só a célula dela (e um retângulo pequeno) é repintada
+        SatelliteSnapshot s = new SatelliteSnapshot(1);
+        s.add(GnssConstellation.GALILEO, 3, 45, 60, 30, 0, true);
+        map.add(s);
+        assertEquals(1, raster.update());
+        assertTrue(raster.getDirtyWidth() > 0 && raster.getDirtyWidth() < 32);
+        assertTrue(raster.getDirtyHeight() > 0 && raster.getDirtyHeight() < 32);
+
+        double ops = Benchmarks.opsPerSecond("SkyHeatMapRaster.update (1 célula alterada)", 20_000, () -> {
+            map.add(s);
+            raster.update();
+        });
+        assertTrue(ops > 10_000);
+
+        // Trocar o modo repinta tudo
+        raster.setMode(SkyHeatMapRaster.MODE_MULTIPATH);
+        assertEquals(SkyHeatMap.BINS, raster.update());
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.locationaws;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Harness de renderização headless (Robolectric, gráficos nativos).
+ *
+ * Desenha GNSSView e CelestialSphereView num canvas fora da tela, com 0 a 300
+ * satélites sintéticos, e imprime ns e bytes alocados por frame e se o frame cabe em
+ * 60 fps (o Robolectric desenha em software: o limite verificado é MAX_NS_PER_FRAME,
+ * folgado para CI lenta). A TrackView é medida com um trajeto de 1 milhão de pontos,
+ * inteiro e com zoom. O primeiro frame de cada caso é comparado com uma imagem de
+ * referência em src/test/resources/golden, para provar que otimizações não mudam o
+ * resultado; sem referência gravada o teste mede tudo e termina ignorado (Assume).
+ *
+ * Para (re)gravar as referências: ./gradlew test -Pgolden.record=true
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@Config(sdk = 35)
+public class SkyPlotRenderBenchmarkTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int[] SATELLITES = {0, 10, 50, 100, 200, 300};
+
+    private static final int TRACK_POINTS = 1_000_000;
+
+    // Um frame a 60 fps (só informado) e o limite verificado
+    private static final long FRAME_BUDGET_NS = 1_000_000_000L / 60;
+    private static final long MAX_NS_PER_FRAME = 40 * FRAME_BUDGET_NS;
+
+    private static final int WARMUP_FRAMES = 20;
+    private static final int MEASURED_FRAMES = 100;
+
+    // Diferença tolerada: canal até 2 níveis, até 0,1% dos pixels
+    private static final int CHANNEL_TOLERANCE = 2;
+    private static final double PIXEL_TOLERANCE = 0.001;
+
+    private static final File GOLDEN_DIR = new File("src/test/resources/golden");
+    private static final File DIFF_DIR = new File("build/golden-diff");
+
+    // Casos sem imagem de referência neste teste
+    private final List<String> missingGoldens = new ArrayList<>();
+
+    @Test
+    public void gnssView() throws IOException {
+        run("gnssview", GNSSView::new, GNSSView::updateSatellites);
+    }
+
+    @Test
+    public void celestialSphereView() throws IOException {
+        run("celestial", CelestialSphereView::new, CelestialSphereView::updateSatellites);
+    }
+
+    @Test
+    public void trackView() throws IOException {
+        Context context = RuntimeEnvironment.getApplication();
+        TrackStore store = new TrackStore();
+        Random random = new Random(42);
+        GnssFix fix = new GnssFix();
+        double x = 0, y = 0, heading = 0;
+        for (int i = 0; i < TRACK_POINTS; i++) {
+            heading += random.nextGaussian() * 0.1;
+            x += Math.cos(heading);
+            y += Math.sin(heading);
+            fix.latitude = -23.55 + y / 111_195.0;
+            fix.longitude = -46.63 + x / 101_960.0;
+            store.add(fix);
+        }
+
+        TrackView view = new TrackView(context);
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+        view.setTrackStore(store);
+
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        long start = System.nanoTime();
+        view.draw(canvas); // primeiro frame monta a pirâmide
+        System.out.printf("[render] trackview, primeiro frame (pirâmide de %d pontos): %d ms%n",
+                TRACK_POINTS, (System.nanoTime() - start) / 1_000_000);
+        checkGolden("trackview_full", bitmap);
+
+        TrackLod lod = view.getLod();
+        float cx = lod.getLastX(), cy = lod.getLastY();
+        float fullMpp = Math.max(lod.getMaxX() - lod.getMinX(), lod.getMaxY() - lod.getMinY()) / (WIDTH - 96f);
+        float[] zooms = {1, 10, 100, 1000};
+        for (float zoom : zooms) {
+            view.setViewport(zoom == 1 ? (lod.getMinX() + lod.getMaxX()) / 2 : cx,
+                    zoom == 1 ? (lod.getMinY() + lod.getMaxY()) / 2 : cy, fullMpp / zoom);
+            for (int i = 0; i < WARMUP_FRAMES; i++) view.draw(canvas);
+
+            start = System.nanoTime();
+            for (int i = 0; i < MEASURED_FRAMES; i++) view.draw(canvas);
+            long nsPerFrame = (System.nanoTime() - start) / MEASURED_FRAMES;
+
+            long bytes = Benchmarks.allocatedBytes(() -> {
+                for (int i = 0; i < MEASURED_FRAMES; i++) view.draw(canvas);
+            });
+            String allocated = bytes < 0 ? "n/d" : (bytes / MEASURED_FRAMES) + " B/frame";
+            System.out.printf("[render] trackview, %d pontos, zoom %.0fx: %d ns/frame%s, %s%n",
+                    TRACK_POINTS, zoom, nsPerFrame, nsPerFrame <= FRAME_BUDGET_NS ? "" : " (acima de 60 fps)", allocated);
+            // Com a pirâmide pronta, o custo não depende do zoom nem do tamanho do trajeto
+            assertTrue("trackview, zoom " + zoom + "x: " + nsPerFrame + " ns/frame", nsPerFrame <= MAX_NS_PER_FRAME);
+        }
+        assumeGoldensRecorded();
+    }
+
+    // ---------- HARNESS ----------
+
+    private <V extends View> void run(String name, Function<Context, V> factory,
+                                      BiConsumer<V, SatelliteSnapshot> update) throws IOException {
+        Context context = RuntimeEnvironment.getApplication();
+        for (int n : SATELLITES) {
+            V view = factory.apply(context);
+            view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            view.layout(0, 0, WIDTH, HEIGHT);
+            update.accept(view, SyntheticSky.generate(n, 42));
+
+            Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+            Canvas canvas = new Canvas(bitmap);
+
+            // Primeiro frame de uma view nova: determinístico, comparado com a referência
+            bitmap.eraseColor(Color.BLACK);
+            view.draw(canvas);
+            checkGolden(name + "_" + n, bitmap);
+
+            for (int i = 0; i < WARMUP_FRAMES; i++) view.draw(canvas);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_FRAMES; i++) view.draw(canvas);
+            long nsPerFrame = (System.nanoTime() - start) / MEASURED_FRAMES;
+
+            long bytes = Benchmarks.allocatedBytes(() -> {
+                for (int i = 0; i < MEASURED_FRAMES; i++) view.draw(canvas);
+            });
+            String allocated = bytes < 0 ? "n/d" : (bytes / MEASURED_FRAMES) + " B/frame";
+
+            System.out.printf("[render] %s, %d satélites: %d ns/frame%s, %s%n", name, n, nsPerFrame,
+                    nsPerFrame <= FRAME_BUDGET_NS ? "" : " (acima de 60 fps)", allocated);
+            assertTrue(name + ", " + n + " satélites: " + nsPerFrame + " ns/frame", nsPerFrame <= MAX_NS_PER_FRAME);
+        }
+        assumeGoldensRecorded();
+    }
+
+    // ---------- IMAGENS DE REFERÊNCIA ----------
+
+    private void checkGolden(String name, Bitmap actual) throws IOException {
+        File golden = new File(GOLDEN_DIR, name + ".png");
+        if (Boolean.getBoolean("golden.record")) {
+            writePng(actual, golden);
+            System.out.println("[golden] gravada: " + golden);
+            return;
+        }
+        if (!golden.exists()) {
+            // Não é falha (a referência ainda não foi gravada), mas o teste não passa: ver assumeGoldensRecorded()
+            writePng(actual, new File(DIFF_DIR, name + ".png"));
+            missingGoldens.add(name);
+            return;
+        }
+
+        Bitmap expected = BitmapFactory.decodeFile(golden.getPath());
+        assertNotNull("não foi possível ler " + golden, expected);
+        assertEquals(name + ": largura", expected.getWidth(), actual.getWidth());
+        assertEquals(name + ": altura", expected.getHeight(), actual.getHeight());
+
+        int[] a = new int[WIDTH * HEIGHT];
+        int[] e = new int[WIDTH * HEIGHT];
+        actual.getPixels(a, 0, WIDTH, 0, 0, WIDTH, HEIGHT);
+        expected.getPixels(e, 0, WIDTH, 0, 0, WIDTH, HEIGHT);
+
+        int different = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (channelDiff(a[i], e[i]) > CHANNEL_TOLERANCE) different++;
+        }
+        if (different > a.length * PIXEL_TOLERANCE) {
+            File diff = new File(DIFF_DIR, name + ".png");
+            writePng(actual, diff);
+            fail(name + ": " + different + " pixels diferentes da referência (imagem atual em " + diff + ")");
+        }
+    }
+
+    /**
+     * Ao fim do teste (depois de medir): ignorado se algum caso ficou sem referência
+     */
+    private void assumeGoldensRecorded() {
+        assumeTrue("referências ausentes em " + GOLDEN_DIR + ": " + missingGoldens
+                + " (imagens atuais em " + DIFF_DIR + "; grave com -Pgolden.record=true)", missingGoldens.isEmpty());
+    }
+
+    private static int channelDiff(int p, int q) {
+        int d = 0;
+        for (int shift = 0; shift <= 24; shift += 8) {
+            d = Math.max(d, Math.abs(((p >>> shift) & 0xFF) - ((q >>> shift) & 0xFF)));
+        }
+        return d;
+    }
+
+    private static void writePng(Bitmap bitmap, File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) throw new IOException("não foi possível criar " + dir);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class SyntheticGnssSourceTest {
+
+    private static final long HZ_100 = 10_000_000L;
+
+    private static SyntheticGnssSource.Config config(int satellites) {
+        return SyntheticGnssSource.Config.DEFAULT.withSatellites(satellites).withRateHz(100)
+                .withCn0Noise(0).withDropoutProbability(0);
+    }
+
+    // Sinais da banda L1/E1/B1/G1: um por satélite (os de dupla frequência têm também o L5)
+    private static boolean isL1(SatelliteSnapshot s, int i) {
+        return s.carrierHz[i] != GnssConstellation.L5_HZ;
+    }
+
+    private static int satellites(SatelliteSnapshot s) {
+        int n = 0;
+        for (int i = 0; i < s.count; i++) if (isL1(s, i)) n++;
+        return n;
+    }
+
+    @Test
+    public void sameSeedGivesSameSky() {
+        SyntheticGnssSource a = new SyntheticGnssSource(config(100).withCn0Noise(2), 7);
+        SyntheticGnssSource b = new SyntheticGnssSource(config(100).withCn0Noise(2), 7);
+        for (int k = 0; k < 50; k++) {
+            SatelliteSnapshot sa = a.next(k * HZ_100), sb = b.next(k * HZ_100);
+            assertEquals(sa.count, sb.count);
+            for (int i = 0; i < sa.count; i++) {
+                assertEquals(sa.svid[i], sb.svid[i]);
+                assertEquals(sa.azimuth[i], sb.azimuth[i], 0f);
+                assertEquals(sa.cn0[i], sb.cn0[i], 0f);
+            }
+        }
+    }
+
+    @Test
+    public void configIsClamped() {
+        SyntheticGnssSource.Config c = SyntheticGnssSource.Config.DEFAULT.withSatellites(10_000).withRateHz(0);
+        assertEquals(SyntheticGnssSource.MAX_SATELLITES, c.getSatellites());
+        assertEquals(1, c.getRateHz());
+        assertEquals(SyntheticGnssSource.MAX_RATE_HZ, c.withRateHz(1000).getRateHz());
+    }
+
+    @Test
+    public void satellitesMoveSmoothlyAboveTheHorizon() {
+        // Céu 1000× mais rápido: várias passagens terminam e recomeçam em 60 s
+        SyntheticGnssSource source = new SyntheticGnssSource(config(500).withTimeScale(1000), 1);
+        SatelliteSnapshot previous = source.next(0);
+        int respawns = 0;
+        for (int k = 1; k <= 6000; k++) {
+            SatelliteSnapshot s = source.next(k * HZ_100);
+            assertEquals(500, satellites(s)); // sem quedas: todos sempre visíveis
+            for (int i = 0; i < s.count; i++) {
+                assertTrue(s.elevation[i] >= 0f && s.elevation[i] <= 90f);
+                assertTrue(s.azimuth[i] >= 0f && s.azimuth[i] < 360f);
+                if (s.svid[i] != previous.svid[i]) {
+                    respawns++;
+                    assertTrue("nasce no horizonte", s.elevation[i] < 1f);
+                } else {
+                    // Passagem mais curta (4 h) a 1000×: no máximo ~0,13° por atualização
+                    assertEquals(previous.elevation[i], s.elevation[i], 0.2f);
+                }
+            }
+            previous = s;
+        }
+        assertTrue("respawns=" + respawns, respawns > 100);
+    }
+
+    @Test
+    public void cn0NoiseAndDropouts() {
+        // Ruído: a diferença entre atualizações vizinhas tem desvio ≈ √2·σ
+        SyntheticGnssSource noisy = new SyntheticGnssSource(config(500).withCn0Noise(2), 3);
+        SatelliteSnapshot a = noisy.next(0), b = noisy.next(HZ_100);
+        double sum = 0;
+        int n = 0;
+        for (int i = 0; i < a.count; i++) {
+            if (!isL1(a, i)) continue;
+            if (a.cn0[i] <= 0 || b.cn0[i] <= 0 || a.cn0[i] >= 60 || b.cn0[i] >= 60) continue;
+            double d = b.cn0[i] - a.cn0[i];
+            sum += d * d;
+            n++;
+        }
+        assertEquals(2 * Math.sqrt(2), Math.sqrt(sum / n), 0.4);
+
+        // Quedas: p = 0,001 por atualização, 1,75 s em média a 100 Hz → ~15% fora do status
+        SyntheticGnssSource dropping = new SyntheticGnssSource(config(500).withDropoutProbability(0.001f), 3);
+        long visible = 0;
+        for (int k = 0; k < 3000; k++) {
+            SatelliteSnapshot s = dropping.next(k * HZ_100);
+            if (k >= 1000) visible += satellites(s);
+        }
+        double mean = visible / 2000.0;
+        assertTrue("média " + mean, mean > 380 && mean < 470);
+    }
+
+    /**
+     * 500 satélites com o céu 1000× mais rápido (passagens terminando e recomeçando):
+     * SVIDs nunca repetidos dentro de uma constelação e parte dos satélites com L1 + L5,
+     * então o SignalAggregator encontra exatamente 500 satélites
+     */
+    @Test
+    public void uniqueSvidsAndDualBandPairs() {
+        SyntheticGnssSource source = new SyntheticGnssSource(config(500).withTimeScale(1000), 9);
+        SignalAggregator aggregator = new SignalAggregator();
+        for (int k = 0; k <= 6000; k += 100) {
+            SatelliteSnapshot s = source.next(k * HZ_100);
+            aggregator.aggregate(s);
+            assertEquals(500, aggregator.size());
+            int dual = 0;
+            for (int g = 0; g < aggregator.size(); g++) {
+                int bands = aggregator.getBandMask(g);
+                if ((bands & GnssConstellation.BAND_L5) != 0) {
+                    dual++;
+                    assertNotEquals(GnssConstellation.BAND_L5, bands); // L5 sempre com o L1
+                }
+                assertTrue(aggregator.getSvid(g) > 0 && aggregator.getSvid(g) < 256);
+            }
+            assertEquals(s.count - 500, dual);
+            assertTrue("dupla frequência: " + dual, dual > 50);
+        }
+    }
+
+    @Test
+    public void publishesInRealTime() throws InterruptedException {
+        SyntheticGnssSource source = new SyntheticGnssSource(config(50), 5);
+        AtomicInteger status = new AtomicInteger();
+        CountDownLatch fix = new CountDownLatch(1);
+        source.start(s -> status.incrementAndGet(), f -> {
+            assertEquals(GnssFix.SOURCE_SYNTHETIC, f.getSource());
+            assertTrue(f.hasPosition());
+            fix.countDown();
+        }, System::nanoTime);
+        Thread.sleep(500);
+        source.stop();
+        assertFalse(source.isRunning());
+        assertTrue(fix.await(1, TimeUnit.SECONDS));
+        assertEquals(status.get(), source.getPublishedCount());
+        assertTrue("status=" + status.get(), status.get() >= 30 && status.get() <= 60);
+    }
+
+    /**
+     * Carga contínua pelo caminho das telas sem Android: GnssStream (latest) → filtro → DOP
+     * numa thread consumidora, 500 satélites a 100 Hz por 60 s simulados.
+     * Verifica o tempo por atualização e que o heap não cresce.
+     */
+    @Test
+    public void soakThroughStreamFilterAndDop() throws InterruptedException {
+        SyntheticGnssSource source = new SyntheticGnssSource(
+                SyntheticGnssSource.Config.DEFAULT.withSatellites(500).withRateHz(100).withTimeScale(60), 11);
+        GnssStream<SatelliteSnapshot> stream = new GnssStream<>();
+        SatelliteFilter filter = SatelliteFilter.DEFAULT.withMinElevation(5);
+        SatelliteSnapshot filtered = new SatelliteSnapshot(SyntheticGnssSource.MAX_SATELLITES);
+        DopCalculator dop = new DopCalculator();
+        QuantileSketch workMs = new QuantileSketch(0.001, 1000);
+        AtomicLong delivered = new AtomicLong();
+
+        ExecutorService consumer = Executors.newSingleThreadExecutor();
+        GnssStream<SatelliteSnapshot>.Subscription sub = stream.subscribe(s -> {
+            long start = System.nanoTime();
+            filter.apply(s, filtered);
+            dop.compute(filtered);
+            workMs.add(Math.max(0.001, (System.nanoTime() - start) / 1e6));
+            delivered.incrementAndGet();
+        }, GnssStream.Policy.latest(), consumer);
+
+        long t = 0;
+        for (int k = 0; k < 1000; k++) stream.publish(source.next(t += HZ_100)); // aquecimento
+        long heapBefore = Benchmarks.usedHeapAfterGc();
+        for (int k = 0; k < 6000; k++) {
+            stream.publish(source.next(t += HZ_100));
+            if (k % 100 == 0) Thread.sleep(1); // deixa o consumidor respirar, como entre frames
+        }
+        sub.cancel();
+        consumer.shutdown();
+        assertTrue(consumer.awaitTermination(5, TimeUnit.SECONDS));
+        long heapGrowth = Benchmarks.usedHeapAfterGc() - heapBefore;
+
+        double p99 = workMs.quantile(0.99); // consumidor já terminou
+        System.out.printf("[soak] 500 sat @ 100 Hz: %d entregues, %d descartados, p99 %.3f ms, heap %+d KB%n",
+                delivered.get(), sub.getDropped(), p99, heapGrowth / 1024);
+        assertTrue(delivered.get() > 0);
+        assertTrue("p99 " + p99 + " ms", p99 < 5);
+        assertTrue("heap cresceu " + heapGrowth + " bytes", heapGrowth < 8L * 1024 * 1024);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.locationaws;
+
+import java.util.Random;
+
+/**
+ * Céu sintético e determinístico para testes: n sinais distribuídos entre
+ * GPS, GLONASS, Galileo e BeiDou, com azimute/elevação/C/N0 pseudoaleatórios.
+ * A mesma semente gera sempre o mesmo snapshot (necessário para imagens de referência).
+ */
+final class SyntheticSky {
+
+    private static final int[] CONSTELLATIONS = {
+            GnssConstellation.GPS, GnssConstellation.GLONASS,
+            GnssConstellation.GALILEO, GnssConstellation.BEIDOU
+    };
+
+    private SyntheticSky() {
+    }
+
+    static SatelliteSnapshot generate(int n, long seed) {
+        Random r = new Random(seed);
+        SatelliteSnapshot s = new SatelliteSnapshot(Math.max(1, n));
+        for (int i = 0; i < n; i++) {
+            int constellation = CONSTELLATIONS[i % CONSTELLATIONS.length];
+            int svid = 1 + (i / CONSTELLATIONS.length) % 63;
+            float az = 360f * r.nextFloat();
+            float el = 90f * r.nextFloat();
+            float cn0 = 15f + 35f * r.nextFloat();
+            s.add(constellation, svid, az, el, cn0, GnssConstellation.L1_HZ, cn0 > 30f);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeSeriesRollupTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+
+    @Test
+    public void aggregatesEveryTierExactly() {
+        TimeSeriesRollup r = new TimeSeriesRollup();
+        // 10 Hz por 2 min: valor = segundo, então cada intervalo tem mín/máx/média conhecidos
+        for (long t = 0; t < 120_000; t += 100) r.add(TimeSeriesRollup.METRIC_CN0, t, t / 1000);
+
+        TimeSeriesRollup.Series s = new TimeSeriesRollup.Series(200);
+        assertEquals(120, r.query(TimeSeriesRollup.METRIC_CN0, 0, 120_000, s));
+        assertEquals(0, s.getTier());
+        assertEquals(1000, s.getStepMillis());
+        assertEquals(37_000, s.getTime(37));
+        assertEquals(37f, s.getMean(37), 1e-4f);
+        assertEquals(10, s.getCount(37));
+
+        // 2 min em 10 pontos: 10 s daria 12, então 1 min (2 pontos)
+        TimeSeriesRollup.Series ten = new TimeSeriesRollup.Series(10);
+        assertEquals(2, r.query(TimeSeriesRollup.METRIC_CN0, 0, 120_000, ten));
+        assertEquals(2, ten.getTier());
+        assertEquals(0f, ten.getMin(0), 0f);
+        assertEquals(59f, ten.getMax(0), 0f);
+        assertEquals(600, ten.getCount(1));
+        assertEquals(89.5f, ten.getMean(1), 1e-4f);
+
+        // Métrica sem amostras: nenhum ponto
+        assertEquals(0, r.query(TimeSeriesRollup.METRIC_ACCURACY, 0, 120_000, s));
+    }
+
+    @Test
+    public void feedsFromStatusAndFix() {
+        TimeSeriesRollup r = new TimeSeriesRollup();
+        SatelliteSnapshot s = new SatelliteSnapshot(3);
+        s.add(GnssConstellation.GPS, 1, 0, 45, 40, GnssConstellation.L1_HZ, true);
+        s.add(GnssConstellation.GPS, 2, 90, 30, 30, GnssConstellation.L1_HZ, true);
+        s.add(GnssConstellation.GALILEO, 3, 180, 10, 20, GnssConstellation.L1_HZ, false);
+        s.elapsedRealtimeNanos = 5_500_000_000L;
+        r.onStatus(s);
+        GnssFix f = new GnssFix();
+        f.elapsedRealtimeNanos = 5_700_000_000L;
+        f.accuracy = 4.5f;
+        r.onFix(f);
+        f.accuracy = Float.NaN;
+        r.onFix(f);
+
+        TimeSeriesRollup.Series out = new TimeSeriesRollup.Series(10);
+        r.query(TimeSeriesRollup.METRIC_VISIBLE, 0, 10_000, out);
+        assertEquals(1, out.size());
+        assertEquals(5000, out.getTime(0));
+        assertEquals(3f, out.getMean(0), 0f);
+        r.query(TimeSeriesRollup.METRIC_USED, 0, 10_000, out);
+        assertEquals(2f, out.getMean(0), 0f);
+        r.query(TimeSeriesRollup.METRIC_CN0, 0, 10_000, out);
+        assertEquals(30f, out.getMean(0), 1e-4f);
+        r.query(TimeSeriesRollup.METRIC_ACCURACY, 0, 10_000, out);
+        assertEquals(1, out.getCount(0));
+        assertEquals(4.5f, out.getMax(0), 0f);
+    }
+
+    @Test
+    public void zoomPicksFinestTierThatStillHasTheData() {
+        TimeSeriesRollup r = new TimeSeriesRollup();
+        long end = 2 * DAY;
+        for (long t = 0; t < end; t += 1000) r.add(TimeSeriesRollup.METRIC_VISIBLE, t, 30 + (t / HOUR) % 10);
+        TimeSeriesRollup.Series s = new TimeSeriesRollup.Series(1000);
+
+        // Últimos 10 min: 1 s
+        assertEquals(600, r.query(TimeSeriesRollup.METRIC_VISIBLE, end - 600_000, end, s));
+        assertEquals(0, s.getTier());
+        // Últimas 2 h: o nível de 1 s só guarda 1 h → 10 s
+        assertEquals(720, r.query(TimeSeriesRollup.METRIC_VISIBLE, end - 2 * HOUR, end, s));
+        assertEquals(1, s.getTier());
+        // Sessão toda (2 dias): 1 min seriam 2880 pontos → 10 min
+        assertEquals(288, r.query(TimeSeriesRollup.METRIC_VISIBLE, 0, end, s));
+        assertEquals(3, s.getTier());
+        assertEquals(600, s.getCount(0));
+        // Um trecho antigo, fora do anel de 1 s e de 10 s, sai do nível de 1 min
+        assertEquals(60, r.query(TimeSeriesRollup.METRIC_VISIBLE, 3 * HOUR, 4 * HOUR, s));
+        assertEquals(2, s.getTier());
+        assertEquals(33f, s.getMean(0), 0f);
+    }
+
+    @Test
+    public void memoryIsBoundedWhateverTheSessionLength() {
+        // ~1,5 MB fixos, alocados no construtor
+        long bytes = TimeSeriesRollup.memoryBytes();
+        assertTrue(bytes > 1_000_000 && bytes < 2_000_000);
+
+        // 60 dias a 1 Hz: mais que o nível mais grosso guarda (30 dias)
+        TimeSeriesRollup r = new TimeSeriesRollup();
+        long end = 60 * DAY;
+        long before = Benchmarks.usedHeapAfterGc();
+        for (long t = 0; t < end; t += 1000) r.add(TimeSeriesRollup.METRIC_USED, t, 12);
+        long growth = Benchmarks.usedHeapAfterGc() - before;
+        assertTrue("heap cresceu " + growth, growth < 256 * 1024);
+
+        TimeSeriesRollup.Series s = new TimeSeriesRollup.Series(5000);
+        int n = r.query(TimeSeriesRollup.METRIC_USED, 0, end, s);
+        assertEquals(3, s.getTier());
+        assertEquals(4320, n); // só os últimos 30 dias
+        assertEquals(end - 30 * DAY, s.getTime(0));
+
+        // Mais intervalos que pontos pedidos: junta vizinhos
+        TimeSeriesRollup.Series small = new TimeSeriesRollup.Series(100);
+        n = r.query(TimeSeriesRollup.METRIC_USED, 0, end, small);
+        assertTrue(n <= 100 && n >= 98);
+        assertEquals(12f, small.getMean(n / 2), 0f);
+        assertEquals(44 * 600_000, small.getStepMillis());
+    }
+
+    @Test
+    public void ignoresSamplesOlderThanTheRingAndSkipsGaps() {
+        TimeSeriesRollup r = new TimeSeriesRollup();
+        r.add(TimeSeriesRollup.METRIC_CN0, 10 * HOUR, 40);
+        r.add(TimeSeriesRollup.METRIC_CN0, 10 * HOUR + 5000, 42);
+        r.add(TimeSeriesRollup.METRIC_CN0, 5 * HOUR, 99); // fora do anel de 1 s, ainda no de 10 s
+
+        TimeSeriesRollup.Series s = new TimeSeriesRollup.Series(100);
+        assertEquals(2, r.query(TimeSeriesRollup.METRIC_CN0, 10 * HOUR, 10 * HOUR + 60_000, s));
+        assertEquals(0, s.getTier());
+        assertEquals(10 * HOUR + 5000, s.getTime(1));
+
+        r.clear();
+        assertEquals(Long.MIN_VALUE, r.getNewestMillis());
+        assertEquals(0, r.query(TimeSeriesRollup.METRIC_CN0, 0, 11 * HOUR, s));
+    }
+
+    @Test
+    public void writesAndReadsWithoutAllocation() {
+        TimeSeriesRollup r = new TimeSeriesRollup();
+        TimeSeriesRollup.Series s = new TimeSeriesRollup.Series(1000);
+        long[] t = {0};
+        Runnable write = () -> {
+            for (int i = 0; i < 1000; i++) {
+                t[0] += 100;
+                r.add(TimeSeriesRollup.METRIC_CN0, t[0], 35);
+            }
+        };
+        double writes = Benchmarks.opsPerSecond("rollup: 1000 amostras", 2000, write) * 1000;
+        Runnable read = () -> r.query(TimeSeriesRollup.METRIC_CN0, t[0] - 900_000, t[0], s);
+        Benchmarks.opsPerSecond("rollup: leitura de 900 pontos", 2000, read);
+        assertTrue(writes > 1_000_000);
+
+        long writeBytes = Benchmarks.allocatedBytes(write);
+        long readBytes = Benchmarks.allocatedBytes(read);
+        if (writeBytes >= 0) assertEquals(0, writeBytes);
+        if (readBytes >= 0) assertEquals(0, readBytes);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TrackLodTest {
+
+    private static final double LAT = -23.55, LON = -46.63;
+    private static final double M_LAT = 1 / 111_195.08;
+
+    // Passeio aleatório com rumo suave: ~1 m entre pontos, como um trajeto a 1 Hz
+    static TrackLod randomTrack(int points, long seed) {
+        Random random = new Random(seed);
+        TrackLod lod = new TrackLod();
+        double x = 0, y = 0, heading = 0;
+        double mLon = M_LAT / Math.cos(Math.toRadians(LAT));
+        for (int i = 0; i < points; i++) {
+            heading += random.nextGaussian() * 0.1;
+            x += Math.cos(heading);
+            y += Math.sin(heading);
+            lod.append(LAT + y * M_LAT, LON + x * mLon);
+        }
+        return lod;
+    }
+
+    @Test
+    public void levelsShrinkAndChooseLevelFollowsScale() {
+        TrackLod lod = randomTrack(200_000, 1);
+        assertEquals(200_000, lod.size());
+        assertEquals(200_000, lod.getPointCount(0));
+        for (int k = 1; k < TrackLod.LEVELS; k++) {
+            assertTrue("nível " + k, lod.getPointCount(k) <= lod.getPointCount(k - 1));
+        }
+        assertTrue(lod.getPointCount(8) < lod.getPointCount(0) / 50);
+
+        assertEquals(0, lod.chooseLevel(0.1f));
+        assertEquals(1, lod.chooseLevel(0.5f));
+        assertEquals(3, lod.chooseLevel(2.5f));
+        assertEquals(TrackLod.LEVELS - 1, lod.chooseLevel(1e9f));
+    }
+
+    @Test
+    public void render_culledAndBatchedConsistently() {
+        TrackLod lod = randomTrack(50_000, 2);
+        float cx = (lod.getMinX() + lod.getMaxX()) / 2, cy = (lod.getMinY() + lod.getMaxY()) / 2;
+        float half = 200;
+
+        // Lotes pequenos e grandes geram exatamente os mesmos segmentos
+        float[] small = new float[40];
+        float[] large = new float[1 << 16];
+        long[] checksum = new long[2];
+        int a = lod.render(0, cx - half, cy - half, cx + half, cy + half, 1, 0, 0, small,
+                (buf, n) -> { for (int i = 0; i < n; i++) checksum[0] += Float.floatToIntBits(buf[i]); });
+        int b = lod.render(0, cx - half, cy - half, cx + half, cy + half, 1, 0, 0, large,
+                (buf, n) -> { for (int i = 0; i < n; i++) checksum[1] += Float.floatToIntBits(buf[i]); });
+        assertEquals(a, b);
+        assertEquals(checksum[0], checksum[1]);
+
+        // Todo segmento com uma ponta dentro da janela é desenhado; o resto é cortado por blocos
+        TrackLod.Level l0 = lod.levels[0];
+        int inside = 0;
+        for (int i = 1; i < l0.count; i++) {
+            float x = l0.xy[2 * i], y = l0.xy[2 * i + 1];
+            if (Math.abs(x - cx) <= half && Math.abs(y - cy) <= half) inside++;
+        }
+        assertTrue(a >= inside);
+        assertTrue("sem corte: " + a, a < l0.count / 2);
+
+        // Janela inteira: todos os segmentos
+        int all = lod.render(0, lod.getMinX(), lod.getMinY(), lod.getMaxX(), lod.getMaxY(), 1, 0, 0, large, (buf, n) -> { });
+        assertEquals(l0.count - 1, all);
+    }
+
+    @Test
+    public void coarseLevelStaysCloseToTrack() {
+        TrackLod lod = randomTrack(20_000, 3);
+        TrackLod.Level l0 = lod.levels[0];
+        for (int k = 1; k < 10; k++) {
+            TrackLod.Level lk = lod.levels[k];
+            float limit = 2 * lk.cell * 1.5f;
+            // Cada ponto do nível 0 fica perto de algum vértice do nível k
+            for (int i = 0; i < l0.count; i += 97) {
+                float best = Float.MAX_VALUE;
+                for (int j = 0; j < lk.count; j++) {
+                    best = Math.min(best, Math.max(Math.abs(l0.xy[2 * i] - lk.xy[2 * j]),
+                            Math.abs(l0.xy[2 * i + 1] - lk.xy[2 * j + 1])));
+                }
+                assertTrue("nível " + k + ", ponto " + i + ": " + best + " m", best <= limit);
+            }
+        }
+    }
+
+    @Test
+    public void benchmark_millionPointsFullView() {
+        long t0 = System.nanoTime();
+        TrackLod lod = randomTrack(1_000_000, 4);
+        System.out.printf("[benchmark] pirâmide de 1M pontos: %.0f ms%n", (System.nanoTime() - t0) / 1e6);
+
+        // Tela de 1080 px com o trajeto inteiro: nível em que a célula ≈ meio pixel
+        float span = Math.max(lod.getMaxX() - lod.getMinX(), lod.getMaxY() - lod.getMinY());
+        float mpp = span / 1000f;
+        int level = lod.chooseLevel(mpp * 0.5f);
+        float[] buffer = new float[2048 * 4];
+        int[] segments = new int[1];
+        double ops = Benchmarks.opsPerSecond("TrackLod.render (1M pontos, trajeto inteiro)", 200, () ->
+                segments[0] = lod.render(level, lod.getMinX(), lod.getMinY(), lod.getMaxX(), lod.getMaxY(),
+                        1 / mpp, 0, 0, buffer, (buf, n) -> { }));
+        System.out.printf("[benchmark] nível %d: %d segmentos de %d pontos%n", level, segments[0], lod.size());
+        // Passeio aleatório denso (rabisca a tela toda): ainda assim uma ordem de grandeza a menos
+        assertTrue(segments[0] < lod.size() / 10);
+        assertTrue("render lento: " + ops, ops > 60);
+    }
+}
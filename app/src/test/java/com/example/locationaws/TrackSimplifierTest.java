@@ -0,0 +1,143 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TrackSimplifierTest {
+
+    private static final double LAT = -23.55, LON = -46.63;
+    private static final double M_LAT = 1 / 111_195.08;
+    private static final double M_LON = M_LAT / Math.cos(Math.toRadians(LAT));
+
+    // Caminhada típica a 1 Hz: retas, uma curva, 10 min parado, ruído de ~1.5 m
+    private static List<GnssFix> walk(Random random) {
+        List<GnssFix> track = new ArrayList<>();
+        double x = 0, y = 0;
+        for (int i = 0; i < 3_600; i++) {
+            if (i < 1_200) x += 1.4;                   // leste
+            else if (i < 1_800) { /* parado */ }
+            else if (i < 3_000) y += 1.4;              // norte
+            else { x += 1.0; y += 1.0; }               // diagonal
+            GnssFix f = new GnssFix();
+            f.latitude = LAT + (y + random.nextGaussian() * 1.5) * M_LAT;
+            f.longitude = LON + (x + random.nextGaussian() * 1.5) * M_LON;
+            f.elapsedRealtimeNanos = i * 1_000_000_000L;
+            f.timeMillis = 1_700_000_000_000L + i * 1000L;
+            track.add(f);
+        }
+        return track;
+    }
+
+    private static double distanceToSegment(GnssFix p, double[] a, double[] b) {
+        double px = (p.getLongitude() - a[1]) / M_LON, py = (p.getLatitude() - a[0]) / M_LAT;
+        double dx = (b[1] - a[1]) / M_LON, dy = (b[0] - a[0]) / M_LAT;
+        double len2 = dx * dx + dy * dy;
+        double t = len2 > 0 ? Math.max(0, Math.min(1, (px * dx + py * dy) / len2)) : 0;
+        return Math.hypot(px - t * dx, py - t * dy);
+    }
+
+    @Test
+    public void typicalWalk_compressesByAnOrderOfMagnitudeWithinTolerance() {
+        List<GnssFix> track = walk(new Random(1));
+        List<double[]> kept = new ArrayList<>();
+        List<Integer> keptIndex = new ArrayList<>();
+        TrackSimplifier simplifier = new TrackSimplifier(5, 256, f -> {
+            kept.add(new double[]{f.getLatitude(), f.getLongitude()});
+            keptIndex.add((int) (f.getElapsedRealtimeNanos() / 1_000_000_000L));
+        });
+        for (GnssFix f : track) simplifier.add(f);
+        simplifier.flush();
+
+        System.out.printf("[track] %d fixes -> %d pontos (%.1f:1)%n", simplifier.getInputCount(),
+                simplifier.getOutputCount(), simplifier.getCompressionRatio());
+        assertEquals(track.size(), simplifier.getInputCount());
+        assertEquals(kept.size(), simplifier.getOutputCount());
+        assertTrue("compressão " + simplifier.getCompressionRatio(), simplifier.getCompressionRatio() >= 10);
+        assertEquals(0, (int) keptIndex.get(0));
+        assertEquals(track.size() - 1, (int) keptIndex.get(keptIndex.size() - 1));
+
+        // Todo fix descartado fica a até 5 m do segmento que o substituiu
+        for (int k = 0; k + 1 < kept.size(); k++) {
+            for (int i = keptIndex.get(k) + 1; i < keptIndex.get(k + 1); i++) {
+                double d = distanceToSegment(track.get(i), kept.get(k), kept.get(k + 1));
+                assertTrue("fix " + i + " a " + d + " m", d <= 5.01);
+            }
+        }
+    }
+
+    @Test
+    public void windowBoundsWorkingMemory() {
+        List<GnssFix> track = walk(new Random(2));
+        TrackSimplifier simplifier = new TrackSimplifier(1_000, 8, f -> { });
+        for (GnssFix f : track) simplifier.add(f);
+        // Com tolerância enorme, só a janela cheia força a emissão: 1 ponto a cada 8 fixes
+        assertEquals(1 + (track.size() - 1) / 8, simplifier.getOutputCount());
+
+        simplifier.reset();
+        assertEquals(0, simplifier.getInputCount());
+        simplifier.add(new GnssFix()); // sem posição: ignorado
+        assertEquals(0, simplifier.getInputCount());
+        assertEquals(1, simplifier.getCompressionRatio(), 0);
+    }
+
+    @Test
+    public void pendingTail_isTheCurrentPositionAndEndsTheExport() throws Exception {
+        TrackStore store = new TrackStore();
+        TrackSimplifier simplifier = new TrackSimplifier(5, 256, store::add);
+        GnssFix pending = new GnssFix();
+        GnssFix f = new GnssFix();
+        f.latitude = LAT;
+        f.longitude = LON;
+        simplifier.add(f);
+        assertFalse(simplifier.copyPending(pending)); // o primeiro fix já saiu
+
+        // Reta de 100 fixes: só a âncora foi emitida, a posição atual está na janela
+        for (int i = 1; i <= 100; i++) {
+            f.longitude = LON + 10 * i * M_LON;
+            f.timeMillis = 1_700_000_000_000L + i * 1000L;
+            simplifier.add(f);
+        }
+        assertEquals(1, store.size());
+        assertTrue(simplifier.copyPending(pending));
+        assertEquals(f.getLongitude(), pending.getLongitude(), 0);
+
+        StringWriter gpx = new StringWriter();
+        store.writeGpx(gpx, "reta", pending);
+        String text = gpx.toString();
+        assertEquals(2, text.split("<trkpt ", -1).length - 1);
+        assertTrue(text.contains(String.format(Locale.US, "lon=\"%.7f\"", f.getLongitude())));
+
+        simplifier.flush();
+        assertFalse(simplifier.copyPending(pending));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void trackStore_growsAndExportsGpx() throws Exception {
+        TrackStore store = new TrackStore();
+        TrackSimplifier simplifier = new TrackSimplifier(5, 256, store::add);
+        for (GnssFix f : walk(new Random(3))) simplifier.add(f);
+        simplifier.flush();
+        assertEquals(simplifier.getOutputCount(), store.size());
+        assertEquals(LAT, store.getLatitude(0), 1e-4);
+
+        StringWriter gpx = new StringWriter();
+        store.writeGpx(gpx, "caminhada <teste>");
+        String text = gpx.toString();
+        assertTrue(text.contains("<name>caminhada &lt;teste&gt;</name>"));
+        assertTrue(text.contains("<time>2023-11-14T22:13:20Z</time>"));
+        assertEquals(store.size(), text.split("<trkpt ", -1).length - 1);
+
+        int version = store.getVersion();
+        store.clear();
+        assertEquals(0, store.size());
+        assertNotEquals(version, store.getVersion());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TtffTrackerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private static SatelliteSnapshot status(long nanos, int[][] sats) {
+        SatelliteSnapshot s = new SatelliteSnapshot(sats.length);
+        for (int[] sat : sats) s.add(sat[0], sat[1], 0, 30, 35, 0, sat[2] != 0);
+        s.elapsedRealtimeNanos = nanos;
+        return s;
+    }
+
+    @Test
+    public void tracksFirstSeenAndFirstUsedPerConstellation() {
+        TtffTracker tracker = new TtffTracker("teste");
+        long t0 = 1_000 * MS;
+        tracker.start(t0, 1_700_000_000_000L);
+        tracker.onStarted(t0 + 150 * MS);
+        tracker.onStatus(status(t0 + 2_000 * MS, new int[][]{{GnssConstellation.GPS, 5, 0}}));
+        tracker.onStatus(status(t0 + 4_000 * MS, new int[][]{
+                {GnssConstellation.GPS, 5, 1}, {GnssConstellation.GALILEO, 11, 0}}));
+        tracker.onFirstFix(t0 + 4_100 * MS, 4_050);
+        tracker.onStatus(status(t0 + 9_000 * MS, new int[][]{
+                {GnssConstellation.GPS, 5, 1}, {GnssConstellation.GPS, 7, 1}, {GnssConstellation.GALILEO, 11, 1}}));
+        // Segundo onFirstFix (ex.: após perda do sinal) não muda o TTFF
+        tracker.onFirstFix(t0 + 20_000 * MS, 100);
+
+        TtffSession s = tracker.finish(t0 + 30_000 * MS);
+        assertNotNull(s);
+        assertFalse(tracker.isActive());
+        assertEquals(150, s.getStartedMillis());
+        assertEquals(4_100, s.getTtffMillis());
+        assertEquals(4_050, s.getPlatformTtffMillis());
+        assertEquals(30_000, s.getDurationMillis());
+        assertEquals(-1, s.getSinceLastSessionMillis());
+        assertEquals(2_000, s.getFirstSeenMillis(GnssConstellation.GPS));
+        assertEquals(4_000, s.getFirstUsedMillis(GnssConstellation.GPS));
+        assertEquals(4_000, s.getFirstSeenMillis(GnssConstellation.GALILEO));
+        assertEquals(9_000, s.getFirstUsedMillis(GnssConstellation.GALILEO));
+        assertEquals(-1, s.getFirstUsedMillis(GnssConstellation.BEIDOU));
+        assertEquals(3, s.getSatellitesSeen());
+        assertEquals(3, s.getSatellitesUsed());
+        assertEquals(9_000, tracker.getFirstUsedMillis(GnssConstellation.GPS, 7));
+        assertEquals("TTFF 4.1 s | GPS 4.0 s  GAL 9.0 s", s.format());
+
+        // Nova sessão: zera tudo e registra a distância da anterior
+        assertNull(tracker.finish(t0 + 31_000 * MS));
+        tracker.start(t0 + 90_000 * MS, 0);
+        TtffSession next = tracker.current(t0 + 91_000 * MS);
+        assertEquals(60_000, next.getSinceLastSessionMillis());
+        assertEquals(-1, next.getTtffMillis());
+        assertEquals(-1, next.getFirstUsedMillis(GnssConstellation.GPS));
+    }
+
+    @Test
+    public void log_roundTripAndAggregate() throws IOException {
+        File file = File.createTempFile("ttff", ".log");
+        assertTrue(file.delete());
+        try {
+            TtffLog log = new TtffLog(file, Runnable::run);
+            assertEquals(0, log.getAggregate().sessions);
+
+            for (int i = 1; i <= 10; i++) {
+                TtffTracker tracker = new TtffTracker("Pixel 7");
+                tracker.start(0, i);
+                tracker.onStatus(status(i * 1_000 * MS, new int[][]{{GnssConstellation.GPS, i, 1}}));
+                tracker.onFirstFix(i * 1_000 * MS, i * 1_000);
+                log.append(tracker.finish(60_000 * MS));
+            }
+
+            List<TtffSession> read = TtffLog.readAll(file);
+            assertEquals(10, read.size());
+            TtffSession third = read.get(2);
+            assertEquals("Pixel 7", third.getLabel());
+            assertEquals(3, third.getStartWallMillis());
+            assertEquals(3_000, third.getTtffMillis());
+            assertEquals(3_000, third.getFirstUsedMillis(GnssConstellation.GPS));
+            assertEquals(-1, third.getFirstUsedMillis(GnssConstellation.GLONASS));
+
+            TtffLog.Aggregate a = log.getAggregate();
+            assertEquals(10, a.sessions);
+            assertEquals(5.0, a.ttffSeconds.p50, 0.1);
+            assertEquals(9.0, a.ttffSeconds.p90, 0.1);
+            assertEquals(10, a.acquisitionSeconds[GnssConstellation.GPS].count);
+            assertEquals(0, a.acquisitionSeconds[GnssConstellation.GALILEO].count);
+
+            // Ao reabrir, o agregado é reconstruído a partir do arquivo
+            TtffLog reopened = new TtffLog(file, Runnable::run);
+            assertEquals(10, reopened.getAggregate().sessions);
+            assertEquals(a.ttffSeconds.p50, reopened.getAggregate().ttffSeconds.p50, 0);
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.locationaws;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class VisibilityPlannerTest {
+
+    // 18/10/2026 00:00 UTC
+    private static final long START = 1_792_281_600_000L;
+    private static final int DAY = 86_400;
+    private static final double SIDEREAL_DAY = 86_164.0905;
+
+    // São Paulo
+    private static final double LAT = -23.55;
+    private static final double LON = -46.63;
+
+    @Test
+    public void yumaAndSem_describeTheSameOrbits() throws IOException {
+        Almanac yuma = Almanac.parseYuma(new StringReader(yuma(24)), GnssConstellation.GPS);
+        Almanac sem = Almanac.parseSem(new StringReader(sem(24)), GnssConstellation.GPS);
+
+        assertEquals(24, yuma.size());
+        assertEquals(24, sem.size());
+        for (int i = 0; i < 24; i++) {
+            assertEquals(yuma.getSvid(i), sem.getSvid(i));
+            assertEquals(yuma.inclination[i], sem.inclination[i], 1e-9);
+            assertEquals(yuma.omega0[i], sem.omega0[i], 1e-9);
+            assertEquals(yuma.meanAnomaly[i], sem.meanAnomaly[i], 1e-9);
+            assertEquals(yuma.sqrtA[i], sem.sqrtA[i], 1e-6);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedYuma_isRejected() throws IOException {
+        String text = yuma(2);
+        Almanac.parseYuma(new StringReader(text.substring(0, text.lastIndexOf("Mean Anom"))), GnssConstellation.GPS);
+    }
+
+    @Test
+    public void almanacWeek_isResolvedNearPlanDate() {
+        double near = VisibilityPlanner.toGpsSeconds(START);
+        int fullWeek = (int) (near / 604_800);
+        double epoch = VisibilityPlanner.referenceEpoch(GnssConstellation.GPS, fullWeek % 1024, 0, near);
+        assertEquals(fullWeek * 604_800.0, epoch, 0);
+    }
+
+    @Test
+    public void groundTrack_repeatsAfterSiderealDay() throws IOException {
+        Almanac almanac = Almanac.parseYuma(new StringReader(yuma(24)), GnssConstellation.GPS);
+        long later = START + Math.round(SIDEREAL_DAY * 1000);
+
+        VisibilityPlanner planner = new VisibilityPlanner();
+        VisibilityPlan a = planner.plan(almanac, LAT, LON, 760, START, 0, 60, 10f);
+        VisibilityPlan b = planner.plan(almanac, LAT, LON, 760, later, 0, 60, 10f);
+
+        for (int s = 0; s < almanac.size(); s++) {
+            // Órbita de meio dia sideral: mesma geometria um dia sideral depois
+            assertEquals(a.getElevation(0, s), b.getElevation(0, s), 0.5f);
+        }
+    }
+
+    @Test
+    public void fullDay_hasUsableGeometry() throws IOException {
+        Almanac almanac = Almanac.parseYuma(new StringReader(yuma(24)), GnssConstellation.GPS);
+        VisibilityPlan plan = new VisibilityPlanner().plan(almanac, LAT, LON, 760, START, DAY, 300, 10f);
+
+        assertEquals(DAY / 300 + 1, plan.getSliceCount());
+        for (int k = 0; k < plan.getSliceCount(); k++) {
+            int visible = plan.getVisibleCount(k);
+            assertTrue("instante " + k + ": " + visible + " visíveis", visible >= 4 && visible <= 16);
+            assertTrue(plan.getPdop(k) >= plan.getHdop(k));
+        }
+
+        SatelliteSnapshot sky = new SatelliteSnapshot();
+        plan.fillSnapshot(0, sky);
+        assertEquals(plan.getVisibleCount(0), sky.usedCount());
+    }
+
+    @Test
+    public void parallelAndSequential_giveSameResult() throws IOException {
+        Almanac almanac = multiConstellation();
+        VisibilityPlan parallel = new VisibilityPlanner(new ForkJoinPool(4))
+                .plan(almanac, LAT, LON, 760, START, DAY, 60, 10f);
+        VisibilityPlan sequential = new VisibilityPlanner(new ForkJoinPool(1))
+                .plan(almanac, LAT, LON, 760, START, DAY, 60, 10f);
+
+        assertArrayEquals(sequential.elevation, parallel.elevation, 0f);
+        assertArrayEquals(sequential.azimuth, parallel.azimuth, 0f);
+        assertArrayEquals(sequential.pdop, parallel.pdop, 0f);
+    }
+
+    @Test
+    public void benchmark_fullDayPredictions() throws IOException {
+        Almanac almanac = multiConstellation();
+        VisibilityPlanner parallel = new VisibilityPlanner();
+        VisibilityPlanner sequential = new VisibilityPlanner(new ForkJoinPool(1));
+
+        double p = Benchmarks.opsPerSecond("VisibilityPlanner 24 h/60 s, " + almanac.size() + " satélites ("
+                        + "pool comum: " + ForkJoinPool.commonPool().getParallelism() + ")", 20,
+                () -> parallel.plan(almanac, LAT, LON, 760, START, DAY, 60, 10f));
+        double s = Benchmarks.opsPerSecond("VisibilityPlanner 24 h/60 s, " + almanac.size() + " satélites (1 thread)", 20,
+                () -> sequential.plan(almanac, LAT, LON, 760, START, DAY, 60, 10f));
+        assertTrue(p > 1 && s > 1);
+    }
+
+    // ---------- ALMANAQUES SINTÉTICOS ----------
+
+    // Constelação tipo GPS: 6 planos, inclinação 55°, período de meio dia sideral
+    private static final double SQRT_A = 5153.6;
+    private static final double INCLINATION = Math.toRadians(55);
+
+    private static double node(int i) { return -Math.PI + (i % 6) * Math.PI / 3; }
+    private static double anomaly(int i) { return -Math.PI + (i / 6) * 2 * Math.PI / 4 + (i % 6) * 0.3; }
+
+    private static int week() {
+        return (int) (VisibilityPlanner.toGpsSeconds(START) / 604_800) % 1024;
+    }
+
+    private static String yuma(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append(String.format(Locale.US, "******** Week %d almanac for PRN-%02d ********%n", week(), i + 1));
+            sb.append(String.format(Locale.US, "ID:                         %02d%n", i + 1));
+            sb.append("Health:                     000\n");
+            sb.append("Eccentricity:               0.5000000000E-002\n");
+            sb.append("Time of Applicability(s):  61440.0000\n");
+            sb.append(String.format(Locale.US, "Orbital Inclination(rad):   %.10f%n", INCLINATION));
+            sb.append("Rate of Right Ascen(r/s):  -0.7840000000E-008\n");
+            sb.append(String.format(Locale.US, "SQRT(A)  (m 1/2):           %.6f%n", SQRT_A));
+            sb.append(String.format(Locale.US, "Right Ascen at Week(rad):   %.10f%n", node(i)));
+            sb.append("Argument of Perigee(rad):   0.5000000000\n");
+            sb.append(String.format(Locale.US, "Mean Anom(rad):             %.10f%n", anomaly(i)));
+            sb.append("Af0(s):                     0.0000000000E+000\n");
+            sb.append("Af1(s/s):                   0.0000000000E+000\n");
+            sb.append(String.format(Locale.US, "week:                        %d%n%n", week()));
+        }
+        return sb.toString();
+    }
+
+    private static String sem(int n) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(n).append(" SINTETICO.AL3\n");
+        sb.append(week()).append(" 61440\n\n");
+        for (int i = 0; i < n; i++) {
+            sb.append(i + 1).append('\n');
+            sb.append(i + 100).append('\n');
+            sb.append("0\n");
+            sb.append(String.format(Locale.US, "5.0E-03 %.12E %.12E%n",
+                    INCLINATION / Math.PI - 0.3, -0.784E-8 / Math.PI));
+            sb.append(String.format(Locale.US, "%.6f %.12E %.12E%n", SQRT_A, node(i) / Math.PI, 0.5 / Math.PI));
+            sb.append(String.format(Locale.US, "%.12E 0.0 0.0%n", anomaly(i) / Math.PI));
+            sb.append("0\n11\n\n");
+        }
+        return sb.toString();
+    }
+
+    // GPS + Galileo + BeiDou (MEO), como se fossem três arquivos
+    private static Almanac multiConstellation() throws IOException {
+        Almanac all = Almanac.parseYuma(new StringReader(yuma(31)), GnssConstellation.GPS);
+        all.addAll(Almanac.parseYuma(new StringReader(yuma(24)), GnssConstellation.GALILEO));
+        all.addAll(Almanac.parseYuma(new StringReader(yuma(27)), GnssConstellation.BEIDOU));
+        return all;
+    }
+}
@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "LocationAwS"
 include(":app")
+include(":analysis")